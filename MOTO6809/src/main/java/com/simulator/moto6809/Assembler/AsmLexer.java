@@ -0,0 +1,334 @@
+package com.simulator.moto6809.Assembler;
+
+import java.util.Set;
+
+/**
+ * Hand-written scanner shared by Assembler and AssemblerProgram (no regex, no intermediate strings).
+ *  - field splitting (label / keyword / operand)
+ *  - number literals: $hex %bin @oct decimal, optional sign
+ *  - indexed operand forms: ,R  ,R+  ,--R  A,R  n,R  n,PC  LABEL,PC  [ ... ]
+ * Whitespace is the regex \s set: space, tab, LF, VT, FF, CR.
+ */
+final class AsmLexer {
+
+    private AsmLexer() {}
+
+    private static final Set<String> SHORT_BRANCHES = Set.of(
+            "BRA", "BRN", "BSR", "BEQ", "BNE", "BMI", "BPL", "BCC", "BCS", "BHS", "BLO", "BVC", "BVS",
+            "BGE", "BLT", "BGT", "BLE", "BHI", "BLS");
+
+    private static final String[] DIRECTIVES = {"ORG", "EQU", "SET", "FCB", "FDB", "RMB", "END"};
+
+    // Fields
+
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    static int skipSpace(String s, int from, int to) {
+        while (from < to && isSpace(s.charAt(from))) from++;
+        return from;
+    }
+
+    static int trimEnd(String s, int from, int to) {
+        while (to > from && isSpace(s.charAt(to - 1))) to--;
+        return to;
+    }
+
+    /** Same as trimmed.split("\\s+", limit): the last field keeps its inner spaces. */
+    static String[] splitFields(String trimmed, int limit) {
+        String[] tmp = new String[limit];
+        int n = 0;
+        int len = trimmed.length();
+        int p = 0;
+        while (p < len) {
+            if (n == limit - 1) {
+                tmp[n++] = trimmed.substring(p);
+                break;
+            }
+            int start = p;
+            while (p < len && !isSpace(trimmed.charAt(p))) p++;
+            tmp[n++] = trimmed.substring(start, p);
+            p = skipSpace(trimmed, p, len);
+        }
+        if (n == limit) return tmp;
+        String[] out = new String[n];
+        System.arraycopy(tmp, 0, out, 0, n);
+        return out;
+    }
+
+    /** Mnemonic must already be upper-case. */
+    static boolean isBranch(String mnemonic) {
+        return SHORT_BRANCHES.contains(mnemonic) || mnemonic.startsWith("LB");
+    }
+
+    static boolean isShortBranch(String mnemonic) {
+        return SHORT_BRANCHES.contains(mnemonic);
+    }
+
+    static boolean isDirective(String word) {
+        if (word == null) return false;
+        int from = skipSpace(word, 0, word.length());
+        int to = trimEnd(word, from, word.length());
+        if (to - from == 5) return word.regionMatches(true, from, "SETDP", 0, 5);
+        if (to - from != 3) return false;
+        for (String d : DIRECTIVES) {
+            if (word.regionMatches(true, from, d, 0, 3)) return true;
+        }
+        return false;
+    }
+
+    // Numbers
+
+    /** First non-blank char starts a number literal ($ % @ digit + -). */
+    static boolean looksLikeNumber(String s) {
+        if (s == null) return false;
+        int p = skipSpace(s, 0, s.length());
+        if (p == s.length()) return false;
+        char c = s.charAt(p);
+        return c == '$' || c == '%' || c == '@' || Character.isDigit(c) || c == '+' || c == '-';
+    }
+
+    static int parseNumber(String s) {
+        return parseNumber(s, 0, s.length());
+    }
+
+    /**
+     * Supports:
+     *   $FFFF, %1010, @377, 123, -10, +10, -$10, +$10, -%1010, +@77 (blanks around the sign allowed)
+     */
+    static int parseNumber(String s, int from, int to) {
+        int p = skipSpace(s, from, to);
+        int end = trimEnd(s, p, to);
+        if (p == end) throw new IllegalStateException("Empty number");
+
+        int sign = 1;
+        char c = s.charAt(p);
+        if (c == '+' || c == '-') {
+            if (c == '-') sign = -1;
+            p = skipSpace(s, p + 1, end);
+        }
+
+        int radix = 10;
+        if (p < end) {
+            switch (s.charAt(p)) {
+                case '$' -> { radix = 16; p++; }
+                case '%' -> { radix = 2; p++; }
+                case '@' -> { radix = 8; p++; }
+                default -> { }
+            }
+        }
+        if (p == end) throw invalidNumber(s, from, to);
+
+        long v = 0;
+        for (; p < end; p++) {
+            int d = Character.digit(s.charAt(p), radix);
+            if (d < 0) throw invalidNumber(s, from, to);
+            v = v * radix + d;
+            if (v > Integer.MAX_VALUE) throw invalidNumber(s, from, to);
+        }
+        return sign * (int) v;
+    }
+
+    /** [-+]?digits, $hex (1-4 digits), %bin, @oct — the only forms allowed inside [ ] without a register. */
+    static boolean isAddressLiteral(String s, int from, int to) {
+        int p = skipSpace(s, from, to);
+        int end = trimEnd(s, p, to);
+        if (p == end) return false;
+        char c = s.charAt(p);
+        int radix;
+        int maxDigits = Integer.MAX_VALUE;
+        switch (c) {
+            case '$' -> { radix = 16; maxDigits = 4; p++; }
+            case '%' -> { radix = 2; p++; }
+            case '@' -> { radix = 8; p++; }
+            case '+', '-' -> { radix = 10; p++; }
+            default -> radix = 10;
+        }
+        int digits = end - p;
+        if (digits == 0 || digits > maxDigits) return false;
+        for (; p < end; p++) {
+            if (!isLiteralDigit(s.charAt(p), radix)) return false;
+        }
+        return true;
+    }
+
+    // Indexed operands
+
+    enum IndexedKind { ZERO_OFFSET, AUTO, ACC_OFFSET, CONST_OFFSET, LABEL_PC }
+
+    /** Classified indexed operand; reg/acc are upper-case constants ("X", "PC", "A"...). */
+    record IndexedSyntax(IndexedKind kind, String reg, String acc, int delta, int value) {}
+
+    /** Bounds of the text inside [ ], trimmed; or null when s is not a bracketed operand. */
+    static int[] bracketInner(String s) {
+        int len = s.length();
+        if (len < 3 || s.charAt(0) != '[' || s.charAt(len - 1) != ']') return null;
+        for (int i = 1; i < len - 1; i++) {
+            if (s.charAt(i) == ']') return null;
+        }
+        int from = skipSpace(s, 1, len - 1);
+        return new int[]{from, trimEnd(s, from, len - 1)};
+    }
+
+    static boolean containsComma(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == ',') return true;
+        }
+        return false;
+    }
+
+    /** Classifies s[from, to) (already trimmed, contains a comma). Returns null if no form matches. */
+    static IndexedSyntax classifyIndexed(String s, int from, int to) {
+        if (from >= to) return null;
+
+        // ,R  ,R+  ,R++  ,-R  ,--R
+        if (s.charAt(from) == ',') {
+            int p = skipSpace(s, from + 1, to);
+
+            int q = p;
+            int pre = 0;
+            if (q < to && (s.charAt(q) == '+' || s.charAt(q) == '-')) {
+                char c = s.charAt(q);
+                int n = (q + 1 < to && s.charAt(q + 1) == c) ? 2 : 1;
+                pre = (c == '+') ? n : -n;
+                q += n;
+            }
+            q = skipSpace(s, q, to);
+            String reg = indexRegister(s, q, to);
+            if (reg != null && skipSpace(s, q + 1, to) == to) {
+                return new IndexedSyntax(pre == 0 ? IndexedKind.ZERO_OFFSET : IndexedKind.AUTO, reg, null, pre, 0);
+            }
+
+            reg = indexRegister(s, p, to);
+            if (reg != null) {
+                q = skipSpace(s, p + 1, to);
+                if (q < to && (s.charAt(q) == '+' || s.charAt(q) == '-')) {
+                    char c = s.charAt(q);
+                    int n = (q + 1 < to && s.charAt(q + 1) == c) ? 2 : 1;
+                    if (skipSpace(s, q + n, to) == to) {
+                        return new IndexedSyntax(IndexedKind.AUTO, reg, null, (c == '+') ? n : -n, 0);
+                    }
+                }
+            }
+            return null;
+        }
+
+        // A,R  B,R  D,R
+        String acc = accumulator(s, from, to);
+        if (acc != null) {
+            int p = skipSpace(s, from + 1, to);
+            if (p < to && s.charAt(p) == ',') {
+                p = skipSpace(s, p + 1, to);
+                String reg = indexRegister(s, p, to);
+                if (reg != null && skipSpace(s, p + 1, to) == to) {
+                    return new IndexedSyntax(IndexedKind.ACC_OFFSET, reg, acc, 0, 0);
+                }
+            }
+        }
+
+        // n,R  #n,R  n,PC
+        IndexedSyntax constant = constantOffset(s, from, to);
+        if (constant != null) return constant;
+
+        // LABEL,PC
+        if (isIdentStart(s.charAt(from))) {
+            int p = from + 1;
+            while (p < to && isIdentPart(s.charAt(p))) p++;
+            p = skipSpace(s, p, to);
+            if (p < to && s.charAt(p) == ',') {
+                p = skipSpace(s, p + 1, to);
+                if (p + 2 == to && isPc(s, p)) {
+                    return new IndexedSyntax(IndexedKind.LABEL_PC, "PC", null, 0, 0);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static IndexedSyntax constantOffset(String s, int from, int to) {
+        int p = from;
+        if (s.charAt(p) == '#') p++;
+        p = skipSpace(s, p, to);
+        int numStart = p;
+        if (p < to && (s.charAt(p) == '+' || s.charAt(p) == '-')) p = skipSpace(s, p + 1, to);
+        if (p >= to) return null;
+
+        int radix = 10;
+        switch (s.charAt(p)) {
+            case '$' -> { radix = 16; p++; }
+            case '%' -> { radix = 2; p++; }
+            case '@' -> { radix = 8; p++; }
+            default -> { }
+        }
+        int digitsStart = p;
+        while (p < to && isLiteralDigit(s.charAt(p), radix)) p++;
+        if (p == digitsStart) return null;
+        int numEnd = p;
+
+        p = skipSpace(s, p, to);
+        if (p >= to || s.charAt(p) != ',') return null;
+        p = skipSpace(s, p + 1, to);
+
+        String reg;
+        int regLen;
+        if (p + 1 < to && isPc(s, p)) {
+            reg = "PC";
+            regLen = 2;
+        } else {
+            reg = indexRegister(s, p, to);
+            regLen = 1;
+        }
+        if (reg == null || skipSpace(s, p + regLen, to) != to) return null;
+
+        return new IndexedSyntax(IndexedKind.CONST_OFFSET, reg, null, 0, parseNumber(s, numStart, numEnd));
+    }
+
+    private static boolean isLiteralDigit(char c, int radix) {
+        return switch (radix) {
+            case 16 -> (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F') || (c >= 'a' && c <= 'f');
+            case 2 -> c == '0' || c == '1';
+            case 8 -> c >= '0' && c <= '7';
+            default -> c >= '0' && c <= '9';
+        };
+    }
+
+    private static String indexRegister(String s, int p, int to) {
+        if (p >= to) return null;
+        return switch (s.charAt(p)) {
+            case 'X', 'x' -> "X";
+            case 'Y', 'y' -> "Y";
+            case 'U', 'u' -> "U";
+            case 'S', 's' -> "S";
+            default -> null;
+        };
+    }
+
+    private static String accumulator(String s, int p, int to) {
+        if (p >= to) return null;
+        return switch (s.charAt(p)) {
+            case 'A', 'a' -> "A";
+            case 'B', 'b' -> "B";
+            case 'D', 'd' -> "D";
+            default -> null;
+        };
+    }
+
+    private static boolean isPc(String s, int p) {
+        char a = s.charAt(p);
+        char b = s.charAt(p + 1);
+        return (a == 'P' || a == 'p') && (b == 'C' || b == 'c');
+    }
+
+    private static boolean isIdentStart(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_';
+    }
+
+    private static boolean isIdentPart(char c) {
+        return isIdentStart(c) || (c >= '0' && c <= '9');
+    }
+
+    private static NumberFormatException invalidNumber(String s, int from, int to) {
+        return new NumberFormatException("Invalid number: " + s.substring(from, to).trim());
+    }
+}
@@ -1,82 +1,55 @@
 package com.simulator.moto6809.Assembler;
 
 import com.simulator.moto6809.Decoder.AddressingMode;
-import com.simulator.moto6809.Decoder.InstructionDefinition;
-import com.simulator.moto6809.Decoder.InstructionSet;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.simulator.moto6809.Resource.InstructionTables;
 
 public class Assembler {
 
     private final OpcodeSelector opcodeSelector;
-    private final InstructionSet instructionSet;
 
-    public Assembler(OpcodeSelector opcodeSelector, InstructionSet instructionSet) {
+    public Assembler(OpcodeSelector opcodeSelector) {
+        if (opcodeSelector == null) throw new IllegalArgumentException("opcodeSelector is null");
         this.opcodeSelector = opcodeSelector;
-        this.instructionSet = instructionSet;
     }
 
-    // LABEL,PC or [LABEL,PC]
-    private static final Pattern LABEL_PC =
-            Pattern.compile("^([A-Za-z_][A-Za-z0-9_]*)\\s*,\\s*PC$",
-                    Pattern.CASE_INSENSITIVE);
-
-    private static final Pattern WS = Pattern.compile("\\s+");
-    private static final Pattern EXT_INDIRECT = Pattern.compile("^\\[(\\s*[^\\]]+)\\]$"); // [ ... ]
-    private static final Pattern ONLY_BRACKET_ADDR =
-            Pattern.compile("^\\s*(\\$[0-9A-Fa-f]{1,4}|%[01]+|@[0-7]+|[-+]?\\d+)\\s*$");
-
-    // NOTE: PC is NOT valid for ",R" auto forms. Keep only X/Y/U/S here.
-    private static final Pattern ZERO_OR_AUTO =
-            Pattern.compile("^,\\s*(?:(\\+\\+|\\+|--|-)?\\s*(X|Y|U|S)|(X|Y|U|S)\\s*(\\+\\+|\\+|--|-))\\s*$",
-                    Pattern.CASE_INSENSITIVE);
-
-    // A,R  B,R  D,R (PC not allowed)
-    private static final Pattern ACC_OFFSET =
-            Pattern.compile("^(A|B|D)\\s*,\\s*(X|Y|U|S)\\s*$", Pattern.CASE_INSENSITIVE);
-
-    // n,R or #n,R (PC allowed here: n,PC)
-    private static final Pattern CONST_OFFSET =
-            Pattern.compile("^(#?\\s*[-+]?\\s*(?:\\$[0-9A-Fa-f]+|%[01]+|@[0-7]+|\\d+))\\s*,\\s*(X|Y|U|S|PC)\\s*$",
-                    Pattern.CASE_INSENSITIVE);
-
-    public List<Integer> assembleLine(String line) {
+    /** Encodes one instruction line (labels become zero placeholders of the final size). */
+    public byte[] assembleLine(String line) {
 
         String trimmed = line.trim();
-        if (trimmed.isEmpty()) return List.of();
+        if (trimmed.isEmpty()) return ByteSink.EMPTY;
 
         String mnemonic;
         String operandText = "";
-        String[] parts = WS.split(trimmed, 2);
+        String[] parts = AsmLexer.splitFields(trimmed, 2);
         mnemonic = parts[0].toUpperCase();
         if (parts.length > 1) operandText = parts[1].trim();
 
+        // Interned once: every lookup below is a matrix access
+        int id = opcodeSelector.idOf(mnemonic);
+
 
         // BRANCH (RELATIVE)
 
-        if (isShortBranch(mnemonic) || isLongBranch(mnemonic)) {
+        if (AsmLexer.isBranch(mnemonic)) {
 
-            int opcode = opcodeSelector.select(mnemonic, AddressingMode.RELATIVE);
-            int operandBytes = requiredOperandBytes(mnemonic, AddressingMode.RELATIVE, opcode);
+            int opcode = select(id, mnemonic, AddressingMode.RELATIVE);
+            int operandBytes = requiredOperandBytes(id, AddressingMode.RELATIVE, opcode);
 
-            List<Integer> bytes = new ArrayList<>();
+            ByteSink bytes = new ByteSink();
             emitOpcode(bytes, opcode);
 
             for (int i = 0; i < operandBytes; i++) bytes.add(0x00); // placeholder
-            return bytes;
+            return bytes.toArray();
         }
 
 
         // INHERENT
 
         if (operandText.isEmpty()) {
-            int opcode = opcodeSelector.select(mnemonic, AddressingMode.INHERENT);
-            List<Integer> bytes = new ArrayList<>();
+            int opcode = select(id, mnemonic, AddressingMode.INHERENT);
+            ByteSink bytes = new ByteSink();
             emitOpcode(bytes, opcode);
-            return bytes;
+            return bytes.toArray();
         }
 
 
@@ -84,12 +57,12 @@ public class Assembler {
 
         if (operandText.startsWith("#") && !operandText.contains(",")) {
 
-            int opcode = opcodeSelector.select(mnemonic, AddressingMode.IMMEDIATE);
-            int operandBytes = requiredOperandBytes(mnemonic, AddressingMode.IMMEDIATE, opcode);
+            int opcode = select(id, mnemonic, AddressingMode.IMMEDIATE);
+            int operandBytes = requiredOperandBytes(id, AddressingMode.IMMEDIATE, opcode);
 
             String imm = operandText.substring(1).trim();
 
-            List<Integer> bytes = new ArrayList<>();
+            ByteSink bytes = new ByteSink();
             emitOpcode(bytes, opcode);
 
             if (looksLikeNumber(imm)) {
@@ -99,107 +72,60 @@ public class Assembler {
                 // label placeholder
                 for (int i = 0; i < operandBytes; i++) bytes.add(0x00);
             }
-            return bytes;
+            return bytes.toArray();
         }
 
 
         // INDEXED (direct/indirect)
 
-        boolean indirect = false;
         String op = operandText;
-
-        Matcher mIndirect = EXT_INDIRECT.matcher(op);
-        if (mIndirect.matches()) {
-            indirect = true;
-            op = mIndirect.group(1).trim(); // strip [ ]
+        int from = 0;
+        int to = op.length();
+
+        int[] inner = AsmLexer.bracketInner(op);
+        boolean indirect = inner != null;
+        if (indirect) {
+            from = inner[0]; // strip [ ]
+            to = inner[1];
         }
 
         // Special: [$nnnn] => postbyte 0x9F + 16-bit
-        if (indirect && !op.contains(",")) {
-            if (!ONLY_BRACKET_ADDR.matcher(op).matches()) {
+        if (indirect && !AsmLexer.containsComma(op, from, to)) {
+            if (!AsmLexer.isAddressLiteral(op, from, to)) {
                 throw new IllegalStateException("Invalid indexed indirect syntax: " + line);
             }
-            int addr = parseNumber(op);
+            int addr = AsmLexer.parseNumber(op, from, to);
             IndexedOperand io = IndexedEncoder.encodeExtendedIndirect(addr);
 
-            int opcode = opcodeSelector.select(mnemonic, AddressingMode.INDEXED);
+            int opcode = select(id, mnemonic, AddressingMode.INDEXED);
 
-            List<Integer> bytes = new ArrayList<>();
+            ByteSink bytes = new ByteSink();
             emitOpcode(bytes, opcode);
             bytes.add(io.postbyte);
             bytes.add((io.extra >> 8) & 0xFF);
             bytes.add(io.extra & 0xFF);
-            return bytes;
+            return bytes.toArray();
         }
 
-        if (op.contains(",")) {
-
-            IndexedOperand io;
+        if (AsmLexer.containsComma(op, from, to)) {
 
-            Matcher m0 = ZERO_OR_AUTO.matcher(op);
-            if (m0.matches()) {
+            AsmLexer.IndexedSyntax form = AsmLexer.classifyIndexed(op, from, to);
+            if (form == null) throw new IllegalStateException("Invalid indexed syntax: " + line);
 
-                String reg = null;
-                String suf = null;
+            IndexedOperand io = switch (form.kind()) {
+                case ZERO_OFFSET -> IndexedEncoder.encodeZeroOffset(form.reg(), indirect);
+                case AUTO -> IndexedEncoder.encodeAuto(form.reg(), form.delta(), indirect);
+                case ACC_OFFSET -> IndexedEncoder.encodeRegisterOffset(form.acc(), form.reg(), indirect);
+                case CONST_OFFSET -> form.reg().equals("PC")
+                        ? IndexedEncoder.encodePcRelative(form.value(), indirect)
+                        : IndexedEncoder.encodeConstantOffset(form.value(), form.reg(), indirect);
+                // IMPORTANT: for forward labels, always use 16-bit placeholder to avoid "too far" later
+                case LABEL_PC -> IndexedEncoder.encodePcRelative16(indirect);
+            };
 
-                if (m0.group(2) != null) {
-                    suf = m0.group(1);
-                    reg = m0.group(2);
-                } else if (m0.group(3) != null) {
-                    reg = m0.group(3);
-                    suf = m0.group(4);
-                }
+            int opcode = select(id, mnemonic, AddressingMode.INDEXED);
 
-                if (reg == null) throw new IllegalStateException("Invalid auto index syntax: " + line);
-                reg = reg.toUpperCase();
-
-                if (suf == null) {
-                    io = IndexedEncoder.encodeZeroOffset(reg, indirect);
-                } else {
-                    int delta = switch (suf) {
-                        case "+"  -> +1;
-                        case "++" -> +2;
-                        case "-"  -> -1;
-                        case "--" -> -2;
-                        default   -> throw new IllegalStateException("Invalid auto suffix: " + suf);
-                    };
-                    io = IndexedEncoder.encodeAuto(reg, delta, indirect);
-                }
-            } else {
-                Matcher mAcc = ACC_OFFSET.matcher(op);
-                if (mAcc.matches()) {
-                    io = IndexedEncoder.encodeRegisterOffset(
-                            mAcc.group(1).toUpperCase(),
-                            mAcc.group(2).toUpperCase(),
-                            indirect
-                    );
-                } else {
-                    Matcher mConst = CONST_OFFSET.matcher(op);
-                    Matcher mLabelPc = LABEL_PC.matcher(op);
-
-                    if (mConst.matches()) {
-                        String nStr = mConst.group(1).replace(" ", "");
-                        String idxReg = mConst.group(2).toUpperCase();
-                        if (nStr.startsWith("#")) nStr = nStr.substring(1);
-                        int n = parseNumber(nStr);
-
-                        if (idxReg.equals("PC")) {
-                            io = IndexedEncoder.encodePcRelative(n, indirect);
-                        } else {
-                            io = IndexedEncoder.encodeConstantOffset(n, idxReg, indirect);
-                        }
-                    } else if (mLabelPc.matches()) {
-                        // IMPORTANT: for forward labels, always use 16-bit placeholder to avoid "too far" later
-                        io = IndexedEncoder.encodePcRelative16(indirect);
-                    } else {
-                        throw new IllegalStateException("Invalid indexed syntax: " + line);
-                    }
-                }
-            }
-
-            int opcode = opcodeSelector.select(mnemonic, AddressingMode.INDEXED);
-
-            List<Integer> bytes = new ArrayList<>();
+            ByteSink bytes = new ByteSink();
             emitOpcode(bytes, opcode);
             bytes.add(io.postbyte);
 
@@ -212,7 +138,7 @@ public class Assembler {
                 }
             }
 
-            return bytes;
+            return bytes.toArray();
         }
 
 
@@ -221,49 +147,46 @@ public class Assembler {
 
         if (!looksLikeNumber(op)) {
             // choose EXTENDED if possible, else DIRECT
-            AddressingMode mode = AddressingMode.EXTENDED;
-            int opcode;
-            try {
-                opcode = opcodeSelector.select(mnemonic, mode);
-            } catch (Exception ex) {
-                mode = AddressingMode.DIRECT;
-                opcode = opcodeSelector.select(mnemonic, mode);
-            }
+            AddressingMode mode = opcodeSelector.supports(id, AddressingMode.EXTENDED)
+                    ? AddressingMode.EXTENDED : AddressingMode.DIRECT;
+            int opcode = select(id, mnemonic, mode);
 
-            int operandBytes = requiredOperandBytes(mnemonic, mode, opcode);
+            int operandBytes = requiredOperandBytes(id, mode, opcode);
 
-            List<Integer> bytes = new ArrayList<>();
+            ByteSink bytes = new ByteSink();
             emitOpcode(bytes, opcode);
             for (int i = 0; i < operandBytes; i++) bytes.add(0x00);
-            return bytes;
+            return bytes.toArray();
         }
 
         int operand = parseNumber(op);
         AddressingMode mode = (operand <= 0xFF) ? AddressingMode.DIRECT : AddressingMode.EXTENDED;
-        int opcode = opcodeSelector.select(mnemonic, mode);
+        int opcode = select(id, mnemonic, mode);
 
-        int operandBytes = requiredOperandBytes(mnemonic, mode, opcode);
+        int operandBytes = requiredOperandBytes(id, mode, opcode);
 
-        List<Integer> bytes = new ArrayList<>();
+        ByteSink bytes = new ByteSink();
         emitOpcode(bytes, opcode);
         emitBigEndian(bytes, operand, operandBytes);
-        return bytes;
+        return bytes.toArray();
     }
 
 
     // Helpers
 
 
-    private int requiredOperandBytes(String mnemonic, AddressingMode mode, int opcode) {
-        InstructionDefinition def = instructionSet.getByMnemonic(mnemonic);
-        if (def == null) throw new IllegalStateException("Unknown mnemonic: " + mnemonic);
-        if (!def.supports(mode)) throw new IllegalStateException("Mode " + mode + " not supported by " + mnemonic);
+    private int select(int id, String mnemonic, AddressingMode mode) {
+        if (id == InstructionTables.NONE) throw new IllegalStateException("Unknown mnemonic: " + mnemonic);
+        return opcodeSelector.select(id, mode);
+    }
 
-        int totalSize = def.getSize(mode);
+    // Only called after select(id, mode) succeeded: id and mode are valid
+    private int requiredOperandBytes(int id, AddressingMode mode, int opcode) {
+        int totalSize = opcodeSelector.size(id, mode);
         int opBytes = opcodeByteCount(opcode);
 
         if (totalSize < opBytes) {
-            throw new IllegalStateException("Bad size table for " + mnemonic + " " + mode +
+            throw new IllegalStateException("Bad size table for " + opcodeSelector.tables().mnemonic(id) + " " + mode +
                     ": totalSize=" + totalSize + " opcodeBytes=" + opBytes);
         }
         return totalSize - opBytes;
@@ -273,53 +196,24 @@ public class Assembler {
         return ((opcode & 0xFF00) == 0x1000 || (opcode & 0xFF00) == 0x1100) ? 2 : 1;
     }
 
-    private static void emitOpcode(List<Integer> out, int opcode) {
+    private static void emitOpcode(ByteSink out, int opcode) {
         if (((opcode & 0xFF00) == 0x1000) || ((opcode & 0xFF00) == 0x1100)) {
             out.add((opcode >> 8) & 0xFF); // 0x10 or 0x11
         }
         out.add(opcode & 0xFF);
     }
 
-    private static void emitBigEndian(List<Integer> out, int value, int bytes) {
+    private static void emitBigEndian(ByteSink out, int value, int bytes) {
         for (int i = bytes - 1; i >= 0; i--) {
             out.add((value >> (8 * i)) & 0xFF);
         }
     }
 
-    private int parseNumber(String s) {
-        s = s.trim().toUpperCase();
-        if (s.isEmpty()) throw new IllegalStateException("Empty number");
-
-        int sign = 1;
-        if (s.startsWith("+")) {
-            s = s.substring(1).trim();
-        } else if (s.startsWith("-")) {
-            sign = -1;
-            s = s.substring(1).trim();
-        }
-
-        int v;
-        if (s.startsWith("$")) v = Integer.parseInt(s.substring(1), 16);
-        else if (s.startsWith("%")) v = Integer.parseInt(s.substring(1), 2);
-        else if (s.startsWith("@")) v = Integer.parseInt(s.substring(1), 8);
-        else v = Integer.parseInt(s);
-
-        return sign * v;
-    }
-
-
-    private boolean isShortBranch(String m) {
-        return List.of("BRA","BEQ","BNE","BMI","BPL","BCC","BCS","BVC","BVS","BGE","BLT","BGT","BLE").contains(m);
-    }
-
-    private boolean isLongBranch(String m) {
-        return m.startsWith("LB");
+    private static int parseNumber(String s) {
+        return AsmLexer.parseNumber(s);
     }
 
-    private boolean looksLikeNumber(String s) {
-        if (s == null || s.isEmpty()) return false;
-        char c = s.charAt(0);
-        return c == '$' || c == '%' || c == '@' ||
-                Character.isDigit(c) || c == '+' || c == '-';
+    private static boolean looksLikeNumber(String s) {
+        return s != null && !s.isEmpty() && AsmLexer.looksLikeNumber(s);
     }
-}
\ No newline at end of file
+}
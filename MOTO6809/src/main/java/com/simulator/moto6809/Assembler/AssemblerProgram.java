@@ -1,25 +1,30 @@
 package com.simulator.moto6809.Assembler;
 
 import com.simulator.moto6809.Decoder.AddressingMode;
-import com.simulator.moto6809.Decoder.InstructionDefinition;
+import com.simulator.moto6809.Decoder.IndexedPostbyte;
 import com.simulator.moto6809.Decoder.InstructionSet;
 import com.simulator.moto6809.Memory.Memory;
+import com.simulator.moto6809.Profiling.AssemblyPassEvent;
+import com.simulator.moto6809.Resource.InstructionTables;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 
 
 /**
  * Two-pass assembler driver:
  *  - PASS 1: compute addresses + define symbols + produce byte_shape placeholders (correct sizes)
  *  - PASS 2: patch placeholders using resolved symbols (branches, immediates, absolute labels, PC-relative...)
+ *
+ * Optimizing mode (assembleProgram with OptimizeOptions) repeats PASS 1 until the layout is stable,
+ * choosing short branches / 8-bit PC-relative offsets / SETDP direct page where the targets fit.
  */
 public class AssemblerProgram {
 
     private final Assembler assembler;
-    private final SymbolTable symbols = new SymbolTable();
+    private volatile SymbolTable lastSymbols = new SymbolTable(); // each assembly builds its own table
     private final InstructionSet instructionSet; // required for correct sizing + prefixed opcodes
 
     public AssemblerProgram(Assembler assembler) {
@@ -35,7 +40,7 @@ public class AssemblerProgram {
 
     // Internal line bookkeeping
 
-    private enum LineKind {
+    enum LineKind {
         EMPTY,
         INSTRUCTION,
         ORG,
@@ -44,10 +49,11 @@ public class AssemblerProgram {
         DATA_FDB,
         EQU,
         SET,
+        SETDP,
         END
     }
 
-    private static final class LineEntry {
+    static final class LineEntry {
         final String rawLine;     // original line from input (trimmed, without comments)
         final LineKind kind;
 
@@ -56,7 +62,7 @@ public class AssemblerProgram {
         final String operandText; // raw operand text (may be "")
 
         final AddressingMode mode;    // only for INSTRUCTION otherwise null
-        final List<Integer> bytes;    // placeholders from pass1 patched in pass2
+        final byte[] bytes;           // placeholders from pass1 patched in pass2
         final List<String> dataItems; // for FCB/FDB items to resolve in pass2
 
         final int pcBefore;
@@ -68,7 +74,7 @@ public class AssemblerProgram {
                   String keyword,
                   String operandText,
                   AddressingMode mode,
-                  List<Integer> bytes,
+                  byte[] bytes,
                   List<String> dataItems,
                   int pcBefore,
                   int pcAfter) {
@@ -83,24 +89,65 @@ public class AssemblerProgram {
             this.pcBefore = pcBefore;
             this.pcAfter = pcAfter;
         }
+
+        /** PASS 1 output depends only on the text and the PC (no symbol lookups): safe to reuse. */
+        boolean isPositionIndependent() {
+            return kind == LineKind.INSTRUCTION || kind == LineKind.DATA_FCB || kind == LineKind.DATA_FDB
+                    || kind == LineKind.EMPTY || kind == LineKind.END;
+        }
+
+        /** Same line moved to another address (size unchanged). */
+        LineEntry rebase(int pc) {
+            if (pc == pcBefore) return this;
+            int size = (pcAfter - pcBefore) & 0xFFFF;
+            return new LineEntry(rawLine, kind, label, keyword, operandText, mode, bytes, dataItems,
+                    pc & 0xFFFF, (pc + size) & 0xFFFF);
+        }
+
+        /** Replays the label definition PASS 1 made for this line (position-independent kinds only). */
+        void defineLabel(SymbolTable symbols) {
+            if (label != null && !label.isEmpty()) symbols.define(label, pcBefore);
+        }
     }
 
 
     // Public API
 
 
+    /** Assembles once; the result holds image, listing, symbols, entry point and source maps. */
+    public AssemblyResult assembleProgram(List<String> lines, int origin) {
+        if (lines == null) throw new IllegalArgumentException("lines is null");
+        return assembleInternal(lines, origin);
+    }
+
+    /**
+     * Optimizing assembly (null options = classic). PASS 1 is repeated with the short form of every
+     * relaxable line, and a line whose target did not fit keeps its long form in the next pass.
+     * Lines only ever grow, so the layout reaches a fixed point. The result carries an OptimizationReport.
+     */
+    public AssemblyResult assembleProgram(List<String> lines, int origin, OptimizeOptions options) {
+        if (lines == null) throw new IllegalArgumentException("lines is null");
+        if (options == null) return assembleInternal(lines, origin);
+        if (instructionSet == null) throw new IllegalStateException("Optimizing mode requires an InstructionSet.");
+        return assembleOptimized(lines, origin, options);
+    }
+
     /** Returns linear bytes (concatenated) in source order (ORG/RMB create gaps that are NOT represented here).*/
     public List<Integer> assemble(List<String> lines, int origin) {
-        return assembleInternal(lines, origin).linearBytes;
+        byte[] linear = assembleInternal(lines, origin).linearBytes();
+        List<Integer> out = new ArrayList<>(linear.length);
+        for (byte b : linear) out.add(b & 0xFF);
+        return out;
     }
 
     /** Returns an address->byte map (ORG/RMB are respected by address). */
     public Map<Integer, Integer> assembleToMemory(List<String> lines, int origin) {
-        return assembleInternal(lines, origin).memoryImage;
+        return assembleInternal(lines, origin).toSparseMap();
     }
 
+    /** Symbols of the most recent assembly (prefer AssemblyResult.symbols()). */
     public SymbolTable getSymbolTable() {
-        return symbols;
+        return lastSymbols;
     }
 
     // Listing (for UI "Programme" window)
@@ -119,13 +166,15 @@ public class AssemblerProgram {
         /** Adresse PC après traitement de la ligne (utile pour ORG/RMB) */
         public final int pcAfter;
 
-        /** Bytes générés par la ligne (bytes finals après PASS2). Vide si la ligne n'émet rien (ORG/RMB/EQU/SET/EMPTY/END).*/
-        public final List<Integer> bytes;
+        /** Bytes générés par la ligne (bytes finals après PASS2). Vide si la ligne n'émet rien (ORG/RMB/EQU/SET/EMPTY/END).
+         *  Partagés entre résultats (cache, assemblage incrémental) : jamais exposés tels quels hors du package. */
+        final byte[] bytes;
 
         /** Ligne source (sans commentaires, comme ton stripComment) */
         public final String source;
 
-        public ListingRow(int lineIndex, String kind, int pcBefore, int pcAfter, List<Integer> bytes, String source) {
+        /** Takes ownership of bytes (never modified afterwards). */
+        ListingRow(int lineIndex, String kind, int pcBefore, int pcAfter, byte[] bytes, String source) {
             this.lineIndex = lineIndex;
             this.kind = kind;
             this.pcBefore = pcBefore & 0xFFFF;
@@ -133,35 +182,34 @@ public class AssemblerProgram {
             this.bytes = bytes;
             this.source = source;
         }
-    }
-
-    /** Assemble et retourne un listing complet (pour la fenêtre Programme). */
-    public List<ListingRow> assembleListing(List<String> lines, int origin) {
-        return assembleInternal(lines, origin).listing;
-    }
-
-    // Internal result container
 
+        /** Copy of the emitted bytes. */
+        public byte[] bytes() {
+            return bytes.clone();
+        }
 
-    private static final class AssemblyResult {
-        final List<Integer> linearBytes;
-        final Map<Integer, Integer> memoryImage;
-        final List<ListingRow> listing;
+        public int byteCount() {
+            return bytes.length;
+        }
 
-        AssemblyResult(List<Integer> linearBytes, Map<Integer, Integer> memoryImage, List<ListingRow> listing) {
-            this.linearBytes = linearBytes;
-            this.memoryImage = memoryImage;
-            this.listing = listing;
+        public int byteAt(int i) {
+            return bytes[i] & 0xFF;
         }
     }
 
+    /** Assemble et retourne un listing complet (pour la fenêtre Programme). */
+    public List<ListingRow> assembleListing(List<String> lines, int origin) {
+        return assembleInternal(lines, origin).listing();
+    }
+
 
     // Core assembly
 
 
     private AssemblyResult assembleInternal(List<String> lines, int origin)
     {
-        symbols.clear();
+        SymbolTable symbols = new SymbolTable();
+        publishSymbols(symbols);
 
         List<LineEntry> entries = new ArrayList<>();
         int pc = origin & 0xFFFF;
@@ -169,277 +217,510 @@ public class AssemblerProgram {
 
         // PASS 1 — collect labels + compute PC + produce correct-sized placeholders
 
+        AssemblyPassEvent pass1 = new AssemblyPassEvent();
+        pass1.begin();
         for (String raw : lines) {
+            LineEntry e = pass1Line(raw, pc, symbols);
+            entries.add(e);
+            pc = e.pcAfter;
+            if (e.kind == LineKind.END) break;
+        }
+        commitPass(pass1, 1, 1, entries.size(), false);
 
-            String rawLine = stripComment(raw);
-            if (rawLine.isEmpty()) {
-                entries.add(new LineEntry(rawLine, LineKind.EMPTY,
-                        null, "", "",
-                        null,
-                        List.of(), List.of(),
-                        pc, pc));
-                continue;
-            }
-
-            int pcBefore = pc;
 
+        // PASS 2 — patch placeholders
 
-            // Parse label with ":" form
+        AssemblyPassEvent pass2 = new AssemblyPassEvent();
+        pass2.begin();
+        List<byte[]> lineBytes = new ArrayList<>(entries.size());
+        for (LineEntry e : entries) {
+            lineBytes.add(pass2Line(e, symbols));
+        }
+        commitPass(pass2, 2, 1, entries.size(), false);
 
-            String line = rawLine;
-            String label = null;
+        return buildResult(origin, entries, lineBytes, symbols);
+    }
 
-            int colon = line.indexOf(':');
-            if (colon >= 0) {
-                label = line.substring(0, colon).trim().replace(":", "").trim();
-                if (!label.isEmpty()) {
-                    symbols.define(label, pc);
-                }
-                line = line.substring(colon + 1).trim();
+    private AssemblyResult assembleOptimized(List<String> lines, int origin, OptimizeOptions options) {
+        Relaxation relax = new Relaxation(options);
+        SymbolTable symbols;
+        List<LineEntry> entries;
+        int passes = 0;
+
+        // PASS 1 until no short form has to grow
+        do {
+            passes++;
+            AssemblyPassEvent pass1 = new AssemblyPassEvent();
+            pass1.begin();
+            relax.beginPass();
+            symbols = new SymbolTable();
+            entries = new ArrayList<>();
+            int pc = origin & 0xFFFF;
+            for (String raw : lines) {
+                relax.line = entries.size();
+                LineEntry e = pass1Line(raw, pc, symbols, relax);
+                entries.add(e);
+                pc = e.pcAfter;
+                if (e.kind == LineKind.END) break;
             }
+            commitPass(pass1, 1, passes, entries.size(), true);
+        } while (growShortFormsThatDoNotFit(entries, symbols, relax));
+        publishSymbols(symbols);
+
+        // PASS 2 — unchanged: offsets and operands are patched from the bytes' final shape
+        AssemblyPassEvent pass2 = new AssemblyPassEvent();
+        pass2.begin();
+        List<byte[]> lineBytes = new ArrayList<>(entries.size());
+        for (LineEntry e : entries) {
+            lineBytes.add(pass2Line(e, symbols));
+        }
+        commitPass(pass2, 2, 1, entries.size(), true);
 
-            if (line.isEmpty()) {
-                entries.add(new LineEntry(rawLine, LineKind.EMPTY,
-                        label, "", "",
-                        null,
-                        List.of(), List.of(),
-                        pcBefore, pc));
-                continue;
-            }
+        List<ListingRow> listing = buildListing(entries, lineBytes);
+        return AssemblyResult.fromListing(origin, listing, symbols.snapshot(),
+                report(entries, lineBytes, relax, passes));
+    }
 
+    private static void commitPass(AssemblyPassEvent event, int pass, int iteration, int lines, boolean optimizing) {
+        if (!event.shouldCommit()) return;
+        event.pass = pass;
+        event.iteration = iteration;
+        event.lines = lines;
+        event.optimizing = optimizing;
+        event.commit();
+    }
 
-            // Tokenize: keyword + operandText
-            // Support:
-            //   LABEL EQU 10
-            //   LABEL RMB 20
-            //   LABEL LDA #1  no colon if InstructionSet is provided
+    void publishSymbols(SymbolTable symbols) {
+        lastSymbols = symbols;
+    }
 
-            String keyword;
-            String operandText = "";
+    /** PASS 1 for one source line: defines its labels and returns the entry with correct-sized placeholders. */
+    LineEntry pass1Line(String raw, int pc, SymbolTable symbols) {
+        return pass1Line(raw, pc, symbols, null);
+    }
 
-            String[] parts = line.split("\\s+", 3);
+    private LineEntry pass1Line(String raw, int pc, SymbolTable symbols, Relaxation relax) {
 
-            // Label before directive (no colon)
-            if (label == null && parts.length >= 2 && isDirective(parts[1])) {
-                label = parts[0].trim();
-                keyword = parts[1].trim().toUpperCase();
-                operandText = (parts.length == 3) ? parts[2].trim() : "";
+        String rawLine = stripComment(raw);
+        if (rawLine.isEmpty()) {
+            return new LineEntry(rawLine, LineKind.EMPTY,
+                    null, "", "",
+                    null,
+                    ByteSink.EMPTY, List.of(),
+                    pc, pc);
+        }
 
-                if (!keyword.equals("EQU") && !keyword.equals("SET")) {
-                    if (!label.isEmpty()) symbols.define(label, pc);
-                }
-            }
-            // Label before instruction (no colon) – only if InstructionSet present
-            else if (label == null && parts.length >= 2 && isProbablyMnemonic(parts[1])) {
-                label = parts[0].trim();
-                if (!label.isEmpty()) symbols.define(label, pc);
+        int pcBefore = pc;
 
-                keyword = parts[1].trim().toUpperCase();
-                operandText = (parts.length == 3) ? parts[2].trim() : "";
-            }
-            // Normal form: KEYWORD [operand...]
-            else {
-                keyword = parts[0].trim().toUpperCase();
-                operandText = (line.length() > parts[0].length())
-                        ? line.substring(parts[0].length()).trim()
-                        : "";
-            }
 
+        // Parse label with ":" form
 
-            // END
+        String line = rawLine;
+        String label = null;
 
-            if (keyword.equals("END")) {
-                entries.add(new LineEntry(rawLine, LineKind.END,
-                        label, keyword, operandText,
-                        null,
-                        List.of(), List.of(),
-                        pcBefore, pc));
-                break;
+        int colon = line.indexOf(':');
+        if (colon >= 0) {
+            label = line.substring(0, colon).trim().replace(":", "").trim();
+            if (!label.isEmpty()) {
+                symbols.define(label, pc);
             }
+            line = line.substring(colon + 1).trim();
+        }
+
+        if (line.isEmpty()) {
+            return new LineEntry(rawLine, LineKind.EMPTY,
+                    label, "", "",
+                    null,
+                    ByteSink.EMPTY, List.of(),
+                    pcBefore, pc);
+        }
 
 
-            // ORG
+        // Tokenize: keyword + operandText
+        // Support:
+        //   LABEL EQU 10
+        //   LABEL RMB 20
+        //   LABEL LDA #1  no colon if InstructionSet is provided
 
-            if (keyword.equals("ORG")) {
-                if (operandText.isEmpty()) throw new IllegalStateException("ORG requires an operand: " + rawLine);
+        String keyword;
+        String operandText = "";
 
-                int newPc = resolveValueOrNumber(operandText);
-                if (newPc < 0 || newPc > 0xFFFF) throw new IllegalStateException("ORG out of range: " + operandText);
+        String[] parts = AsmLexer.splitFields(line, 3);
 
-                pc = newPc & 0xFFFF;
+        // Label before directive (no colon)
+        if (label == null && parts.length >= 2 && isDirective(parts[1])) {
+            label = parts[0].trim();
+            keyword = parts[1].trim().toUpperCase();
+            operandText = (parts.length == 3) ? parts[2].trim() : "";
 
-                entries.add(new LineEntry(rawLine, LineKind.ORG,
-                        label, keyword, operandText,
-                        null,
-                        List.of(), List.of(),
-                        pcBefore, pc));
-                continue;
+            if (!keyword.equals("EQU") && !keyword.equals("SET")) {
+                if (!label.isEmpty()) symbols.define(label, pc);
             }
+        }
+        // Label before instruction (no colon) – only if InstructionSet present
+        else if (label == null && parts.length >= 2 && isProbablyMnemonic(parts[1])) {
+            label = parts[0].trim();
+            if (!label.isEmpty()) symbols.define(label, pc);
 
+            keyword = parts[1].trim().toUpperCase();
+            operandText = (parts.length == 3) ? parts[2].trim() : "";
+        }
+        // Normal form: KEYWORD [operand...]
+        else {
+            keyword = parts[0].trim().toUpperCase();
+            operandText = (line.length() > parts[0].length())
+                    ? line.substring(parts[0].length()).trim()
+                    : "";
+        }
 
-            // EQU / SET
 
-            if (keyword.equals("EQU") || keyword.equals("SET")) {
-                if (label == null || label.isEmpty())
-                    throw new IllegalStateException(keyword + " requires a label: " + rawLine);
-                if (operandText.isEmpty())
-                    throw new IllegalStateException(keyword + " requires a value: " + rawLine);
+        // END
 
-                if (keyword.equals("EQU") && symbols.contains(label)) {
-                    throw new IllegalStateException("EQU symbol redefined: " + label);
-                }
+        if (keyword.equals("END")) {
+            return new LineEntry(rawLine, LineKind.END,
+                    label, keyword, operandText,
+                    null,
+                    ByteSink.EMPTY, List.of(),
+                    pcBefore, pc);
+        }
 
-                int value = resolveValueOrNumber(operandText);
-                symbols.define(label, value);
 
-                entries.add(new LineEntry(rawLine, keyword.equals("EQU") ? LineKind.EQU : LineKind.SET,
-                        label, keyword, operandText,
-                        null,
-                        List.of(), List.of(),
-                        pcBefore, pc));
-                continue;
-            }
+        // ORG
+
+        if (keyword.equals("ORG")) {
+            if (operandText.isEmpty()) throw new IllegalStateException("ORG requires an operand: " + rawLine);
+
+            int newPc = resolveValueOrNumber(symbols, operandText);
+            if (newPc < 0 || newPc > 0xFFFF) throw new IllegalStateException("ORG out of range: " + operandText);
 
+            pc = newPc & 0xFFFF;
 
-            // FCB / FDB (data)
+            return new LineEntry(rawLine, LineKind.ORG,
+                    label, keyword, operandText,
+                    null,
+                    ByteSink.EMPTY, List.of(),
+                    pcBefore, pc);
+        }
 
-            if (keyword.equals("FCB") || keyword.equals("FDB")) {
-                if (operandText.isEmpty()) throw new IllegalStateException(keyword + " requires values: " + rawLine);
 
-                List<String> items = splitCommaList(operandText);
-                List<Integer> bytes = new ArrayList<>();
+        // EQU / SET
 
-                for (String ignored : items) {
-                    if (keyword.equals("FCB")) {
-                        bytes.add(0x00);
-                        pc = (pc + 1) & 0xFFFF;
-                    } else {
-                        bytes.add(0x00);
-                        bytes.add(0x00);
-                        pc = (pc + 2) & 0xFFFF;
-                    }
-                }
+        if (keyword.equals("EQU") || keyword.equals("SET")) {
+            if (label == null || label.isEmpty())
+                throw new IllegalStateException(keyword + " requires a label: " + rawLine);
+            if (operandText.isEmpty())
+                throw new IllegalStateException(keyword + " requires a value: " + rawLine);
 
-                entries.add(new LineEntry(rawLine, keyword.equals("FCB") ? LineKind.DATA_FCB : LineKind.DATA_FDB,
-                        label, keyword, operandText,
-                        null,
-                        bytes, items,
-                        pcBefore, pc));
-                continue;
+            if (keyword.equals("EQU") && symbols.contains(label)) {
+                throw new IllegalStateException("EQU symbol redefined: " + label);
             }
 
+            int value = resolveValueOrNumber(symbols, operandText);
+            symbols.define(label, value);
 
-            // RMB
+            return new LineEntry(rawLine, keyword.equals("EQU") ? LineKind.EQU : LineKind.SET,
+                    label, keyword, operandText,
+                    null,
+                    ByteSink.EMPTY, List.of(),
+                    pcBefore, pc);
+        }
 
-            if (keyword.equals("RMB")) {
-                if (operandText.isEmpty()) throw new IllegalStateException("RMB requires a size: " + rawLine);
 
-                int size = resolveValueOrNumber(operandText);
-                if (size < 0) throw new IllegalStateException("RMB size must be >= 0: " + rawLine);
+        // SETDP (page the DP register is assumed to hold; only the optimizing mode uses it)
 
-                pc = (pc + size) & 0xFFFF;
+        if (keyword.equals("SETDP")) {
+            if (operandText.isEmpty()) throw new IllegalStateException("SETDP requires a page: " + rawLine);
 
-                entries.add(new LineEntry(rawLine, LineKind.RMB,
-                        label, keyword, operandText,
-                        null,
-                        List.of(), List.of(),
-                        pcBefore, pc));
-                continue;
-            }
+            int page = resolveValueOrNumber(symbols, operandText);
+            if (page < 0 || page > 0xFF) throw new IllegalStateException("SETDP page out of range: " + operandText);
+            if (relax != null) relax.dpPage = page;
+
+            return new LineEntry(rawLine, LineKind.SETDP,
+                    label, keyword, operandText,
+                    null,
+                    ByteSink.EMPTY, List.of(),
+                    pcBefore, pc);
+        }
 
 
-            // INSTRUCTION
+        // FCB / FDB (data)
 
-            AddressingMode mode = decideMode(keyword, operandText);
-            List<Integer> placeholder = buildPlaceholdersPass1(keyword, operandText, mode);
+        if (keyword.equals("FCB") || keyword.equals("FDB")) {
+            if (operandText.isEmpty()) throw new IllegalStateException(keyword + " requires values: " + rawLine);
 
-            pc = (pc + placeholder.size()) & 0xFFFF;
+            List<String> items = splitCommaList(operandText);
+            byte[] bytes = new byte[items.size() * (keyword.equals("FCB") ? 1 : 2)];
+            pc = (pc + bytes.length) & 0xFFFF;
 
-            entries.add(new LineEntry(rawLine, LineKind.INSTRUCTION,
+            return new LineEntry(rawLine, keyword.equals("FCB") ? LineKind.DATA_FCB : LineKind.DATA_FDB,
                     label, keyword, operandText,
-                    mode,
-                    placeholder, List.of(),
-                    pcBefore, pc));
+                    null,
+                    bytes, items,
+                    pcBefore, pc);
         }
 
 
-        // PASS 2 — patch placeholders + build outputs + build listing
+        // RMB
 
-        List<Integer> linear = new ArrayList<>();
-        Map<Integer, Integer> mem = new HashMap<>();
-        List<ListingRow> listing = new ArrayList<>(entries.size());
+        if (keyword.equals("RMB")) {
+            if (operandText.isEmpty()) throw new IllegalStateException("RMB requires a size: " + rawLine);
 
-        int lineIndex = 0;
+            int size = resolveValueOrNumber(symbols, operandText);
+            if (size < 0) throw new IllegalStateException("RMB size must be >= 0: " + rawLine);
 
-        for (LineEntry e : entries) {
+            pc = (pc + size) & 0xFFFF;
 
-            // Bytes finals pour la ligne (souvent vide)
-            List<Integer> lineBytes = List.of();
+            return new LineEntry(rawLine, LineKind.RMB,
+                    label, keyword, operandText,
+                    null,
+                    ByteSink.EMPTY, List.of(),
+                    pcBefore, pc);
+        }
 
-            // ---- FCB/FDB ----
-            if (e.kind == LineKind.DATA_FCB || e.kind == LineKind.DATA_FDB) {
-                ArrayList<Integer> block = new ArrayList<>();
-                int addr = e.pcBefore & 0xFFFF;
 
-                if (e.kind == LineKind.DATA_FCB) {
-                    for (String item : e.dataItems) {
-                        int v = resolveValueOrNumber(item.trim()) & 0xFF;
-                        block.add(v);
+        // INSTRUCTION
 
-                        linear.add(v);
-                        mem.put(addr, v);
-                        addr = (addr + 1) & 0xFFFF;
-                    }
-                } else {
-                    for (String item : e.dataItems) {
-                        int v = resolveValueOrNumber(item.trim()) & 0xFFFF;
-                        int hi = (v >> 8) & 0xFF;
-                        int lo = v & 0xFF;
+        AddressingMode mode = decideMode(keyword, operandText);
+        byte[] placeholder;
+        if (relax != null) {
+            Encoded enc = relaxedPass1(keyword, operandText, mode, relax);
+            mode = enc.mode();
+            placeholder = enc.bytes();
+        } else {
+            placeholder = buildPlaceholdersPass1(keyword, operandText, mode);
+        }
 
-                        block.add(hi);
-                        block.add(lo);
+        pc = (pc + placeholder.length) & 0xFFFF;
 
-                        linear.add(hi);
-                        linear.add(lo);
+        return new LineEntry(rawLine, LineKind.INSTRUCTION,
+                label, keyword, operandText,
+                mode,
+                placeholder, List.of(),
+                pcBefore, pc);
+    }
 
-                        mem.put(addr, hi);
-                        mem.put((addr + 1) & 0xFFFF, lo);
+    /** PASS 2 for one line: final bytes (empty for lines that emit nothing). */
+    byte[] pass2Line(LineEntry e, SymbolTable symbols) {
 
-                        addr = (addr + 2) & 0xFFFF;
-                    }
+        // ---- FCB/FDB ----
+        if (e.kind == LineKind.DATA_FCB || e.kind == LineKind.DATA_FDB) {
+            byte[] out = new byte[e.bytes.length];
+            int i = 0;
+
+            if (e.kind == LineKind.DATA_FCB) {
+                for (String item : e.dataItems) {
+                    out[i++] = (byte) resolveValueOrNumber(symbols, item.trim());
+                }
+            } else {
+                for (String item : e.dataItems) {
+                    int v = resolveValueOrNumber(symbols, item.trim()) & 0xFFFF;
+                    out[i++] = (byte) (v >> 8);
+                    out[i++] = (byte) v;
                 }
+            }
+            return out;
+        }
+
+        // ---- INSTRUCTION ----
+        if (e.kind == LineKind.INSTRUCTION) {
+            byte[] out = e.bytes.clone();
+            patchIfNeeded(symbols, e, out);
+            return out;
+        }
+
+        // ---- ORG / RMB / EQU / SET / END / EMPTY ----
+        return ByteSink.EMPTY;
+    }
+
+    /** Builds the listing (and from it the image, linear stream and spans) from per-line PASS 2 output. */
+    AssemblyResult buildResult(int origin, List<LineEntry> entries, List<byte[]> lineBytes, SymbolTable symbols) {
+        return AssemblyResult.fromListing(origin, buildListing(entries, lineBytes), symbols.snapshot());
+    }
+
+    private static List<ListingRow> buildListing(List<LineEntry> entries, List<byte[]> lineBytes) {
+        List<ListingRow> listing = new ArrayList<>(entries.size());
+        for (int lineIndex = 0; lineIndex < entries.size(); lineIndex++) {
+            LineEntry e = entries.get(lineIndex);
+            // Rien n'est émis pour ORG/RMB/EQU/SET/END/EMPTY, mais on veut quand même les afficher dans le listing UI
+            listing.add(new ListingRow(lineIndex, e.kind.name(), e.pcBefore, e.pcAfter, lineBytes.get(lineIndex), e.rawLine));
+        }
+        return listing;
+    }
+
+
+    // Optimizing mode
 
-                lineBytes = List.copyOf(block);
-                listing.add(new ListingRow(lineIndex++, e.kind.name(), e.pcBefore, e.pcAfter, lineBytes, e.rawLine));
-                continue;
+
+    /** PASS 1 state of the optimizing mode (null in classic mode). */
+    private static final class Relaxation {
+        final OptimizeOptions options;
+        final BitSet forcedLong = new BitSet(); // short form did not fit: long from now on (only grows)
+        final BitSet shortForm = new BitSet();  // lines that took a short form in the current pass
+        final BitSet touched = new BitSet();    // lines whose encoding the optimizer chose
+        int[] pageAt = new int[64];             // SETDP page of lines that took DIRECT
+        int dpPage;                             // current SETDP page, -1 = none declared
+        int line;                               // index of the line in PASS 1
+
+        Relaxation(OptimizeOptions options) {
+            this.options = options;
+        }
+
+        void beginPass() {
+            shortForm.clear();
+            dpPage = -1;
+        }
+
+        void takeDirect(int page) {
+            if (line >= pageAt.length) pageAt = Arrays.copyOf(pageAt, Math.max(line + 1, pageAt.length * 2));
+            pageAt[line] = page;
+            shortForm.set(line);
+        }
+    }
+
+    private record Encoded(AddressingMode mode, byte[] bytes) {}
+
+    private Encoded relaxedPass1(String keyword, String operandText, AddressingMode mode, Relaxation r) {
+        OptimizeOptions o = r.options;
+        String m = keyword.toUpperCase();
+        String op = operandText == null ? "" : operandText.trim();
+        boolean keepLong = r.forcedLong.get(r.line);
+
+        // Bxx / LBxx: short form unless it did not fit
+        if (mode == AddressingMode.RELATIVE && o.relaxBranches()) {
+            String shortM = m.startsWith("LB") ? m.substring(1) : m;
+            String longM = "L" + shortM;
+            if (hasRelative(shortM) && hasRelative(longM)) {
+                r.touched.set(r.line);
+                if (!keepLong) r.shortForm.set(r.line);
+                return new Encoded(mode, buildPlaceholdersPass1(keepLong ? longM : shortM, op, mode));
             }
+        }
 
-            // ---- INSTRUCTION ----
-            if (e.kind == LineKind.INSTRUCTION) {
-                ArrayList<Integer> block = new ArrayList<>(e.bytes);
-                patchIfNeeded(e, block);
-
-                // emit to linear + memory map
-                int addr = e.pcBefore & 0xFFFF;
-                for (int b : block) {
-                    int v = b & 0xFF;
-                    linear.add(v);
-                    mem.put(addr, v);
-                    addr = (addr + 1) & 0xFFFF;
+        // Peephole: JMP/JSR to an absolute target (classic = EXTENDED) -> BRA/BSR
+        if (o.peephole() && (m.equals("JMP") || m.equals("JSR")) && isExtendedTarget(op, mode)) {
+            r.touched.set(r.line);
+            if (!keepLong) {
+                r.shortForm.set(r.line);
+                String branch = m.equals("JMP") ? "BRA" : "BSR";
+                return new Encoded(AddressingMode.RELATIVE, buildPlaceholdersPass1(branch, op, AddressingMode.RELATIVE));
+            }
+            return new Encoded(mode, buildPlaceholdersPass1(m, op, mode));
+        }
+
+        // LABEL,PC / [LABEL,PC]: 8-bit offset unless it did not fit
+        if (mode == AddressingMode.INDEXED && o.relaxBranches() && isPcRelativeLabel(op)) {
+            r.touched.set(r.line);
+            if (!keepLong) r.shortForm.set(r.line);
+            return new Encoded(mode, buildPlaceholdersPass1(m, op, mode, !keepLong));
+        }
+
+        // SETDP: DIRECT for operands inside the declared page
+        if (o.directPage() && r.dpPage >= 0
+                && (mode == AddressingMode.DIRECT || mode == AddressingMode.EXTENDED)) {
+            int id = requiredId(m);
+            if (supports(id, AddressingMode.DIRECT) && supports(id, AddressingMode.EXTENDED)) {
+                r.touched.set(r.line);
+                if (looksLikeNumber(op)) {
+                    int value = parseNumber(op) & 0xFFFF;
+                    AddressingMode chosen = ((value >> 8) == r.dpPage) ? AddressingMode.DIRECT : AddressingMode.EXTENDED;
+                    return new Encoded(chosen, encodeFixedBytes(id, chosen, value));
                 }
+                if (keepLong) return new Encoded(AddressingMode.EXTENDED, encodeFixedBytes(id, AddressingMode.EXTENDED, 0));
+                r.takeDirect(r.dpPage);
+                return new Encoded(AddressingMode.DIRECT, encodeFixedBytes(id, AddressingMode.DIRECT, 0));
+            }
+        }
 
-                lineBytes = List.copyOf(block);
-                listing.add(new ListingRow(lineIndex++, e.kind.name(), e.pcBefore, e.pcAfter, lineBytes, e.rawLine));
-                continue;
+        return new Encoded(mode, buildPlaceholdersPass1(keyword, operandText, mode));
+    }
+
+    /** Checks every short form of the last PASS 1 against its final symbols. True if one had to grow. */
+    private boolean growShortFormsThatDoNotFit(List<LineEntry> entries, SymbolTable symbols, Relaxation r) {
+        boolean grew = false;
+        for (int i = r.shortForm.nextSetBit(0); i >= 0 && i < entries.size(); i = r.shortForm.nextSetBit(i + 1)) {
+            LineEntry e = entries.get(i);
+            String op = e.operandText.trim();
+            boolean fits = switch (e.mode) {
+                case RELATIVE -> fits8(resolveTarget(symbols, op) - e.pcAfter);
+                case INDEXED -> fits8(resolveTarget(symbols, pcRelativeExpr(op)) - e.pcAfter);
+                case DIRECT -> (resolveTarget(symbols, op) >> 8) == r.pageAt[i];
+                default -> true;
+            };
+            if (!fits) {
+                r.forcedLong.set(i);
+                grew = true;
             }
+        }
+        return grew;
+    }
 
-            // ---- ORG / RMB / EQU / SET / END / EMPTY ----
-            // Rien n'est émis, mais on veut quand même les afficher dans le listing UI
-            listing.add(new ListingRow(lineIndex++, e.kind.name(), e.pcBefore, e.pcAfter, lineBytes, e.rawLine));
+    private OptimizationReport report(List<LineEntry> entries, List<byte[]> lineBytes, Relaxation r, int passes) {
+        int bytesSaved = 0, cyclesSaved = 0;
+        int shortened = 0, lengthened = 0, pcRelative = 0, direct = 0, peephole = 0;
+
+        for (int i = r.touched.nextSetBit(0); i >= 0 && i < entries.size(); i = r.touched.nextSetBit(i + 1)) {
+            LineEntry e = entries.get(i);
+            byte[] classic = buildPlaceholdersPass1(e.keyword, e.operandText, decideMode(e.keyword, e.operandText));
+            byte[] optimized = lineBytes.get(i);
+            int delta = classic.length - optimized.length;
+
+            bytesSaved += delta;
+            cyclesSaved += staticCycles(classic) - staticCycles(optimized);
+
+            boolean jump = e.keyword.equals("JMP") || e.keyword.equals("JSR");
+            if (e.mode == AddressingMode.RELATIVE && jump) peephole++;
+            else if (e.mode == AddressingMode.RELATIVE && delta > 0) shortened++;
+            else if (e.mode == AddressingMode.RELATIVE && delta < 0) lengthened++;
+            else if (e.mode == AddressingMode.INDEXED && delta > 0) pcRelative++;
+            else if (e.mode == AddressingMode.DIRECT && delta > 0) direct++;
         }
+        return new OptimizationReport(passes, bytesSaved, cyclesSaved, shortened, lengthened, pcRelative, direct, peephole);
+    }
 
-        return new AssemblyResult(linear, mem, listing);
+    /** Base cycles of one encoded instruction (+ indexed postbyte penalty), 0 if not an opcode. */
+    private int staticCycles(byte[] bytes) {
+        if (bytes.length == 0) return 0;
+        InstructionTables tables = instructionSet.tables();
+        int opBytes = opcodeByteCount(bytes);
+        int opcode = (opBytes == 2) ? ((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF) : bytes[0] & 0xFF;
+        int id = tables.idForOpcode(opcode);
+        if (id == InstructionTables.NONE) return 0;
+
+        AddressingMode mode = tables.modeForOpcode(opcode);
+        int cycles = tables.cycles(id, mode.ordinal());
+        if (mode == AddressingMode.INDEXED && bytes.length > opBytes) {
+            cycles += IndexedPostbyte.of(bytes[opBytes]).cyclePenalty();
+        }
+        return cycles;
+    }
 
+    private boolean hasRelative(String mnemonic) {
+        int id = instructionSet.tables().idOf(mnemonic);
+        return id != InstructionTables.NONE && supports(id, AddressingMode.RELATIVE);
+    }
+
+    // Absolute operand that the classic encoding emits as EXTENDED (label, or number above $FF)
+    private boolean isExtendedTarget(String op, AddressingMode mode) {
+        if (mode != AddressingMode.DIRECT && mode != AddressingMode.EXTENDED) return false;
+        return !looksLikeNumber(op) || (parseNumber(op) & 0xFFFF) > 0xFF;
+    }
+
+    private boolean isPcRelativeLabel(String op) {
+        if (!op.contains(",PC")) return false;
+        String expr = pcRelativeExpr(op);
+        return !expr.isEmpty() && !looksLikeNumber(expr);
+    }
+
+    private static String pcRelativeExpr(String op) {
+        return op.replace("[", "").replace("]", "").replace(",PC", "").trim();
+    }
+
+    private int resolveTarget(SymbolTable symbols, String token) {
+        return (looksLikeNumber(token) ? parseNumber(token) : symbols.resolve(token)) & 0xFFFF;
+    }
+
+    private static boolean fits8(int offset) {
+        return offset >= -128 && offset <= 127;
     }
 
 
@@ -452,7 +733,7 @@ public class AssemblerProgram {
 
         if (op.isEmpty()) return AddressingMode.INHERENT;
 
-        if (isBranchMnemonic(m)) return AddressingMode.RELATIVE;
+        if (AsmLexer.isBranch(m)) return AddressingMode.RELATIVE;
 
         if (op.startsWith("#") && !op.contains(",")) return AddressingMode.IMMEDIATE;
 
@@ -470,7 +751,12 @@ public class AssemblerProgram {
         return (value <= 0xFF) ? AddressingMode.DIRECT : AddressingMode.EXTENDED;
     }
 
-    private List<Integer> buildPlaceholdersPass1(String mnemonic, String operandText, AddressingMode mode) {
+    private byte[] buildPlaceholdersPass1(String mnemonic, String operandText, AddressingMode mode) {
+        return buildPlaceholdersPass1(mnemonic, operandText, mode, false);
+    }
+
+    // pcRelative8: LABEL,PC gets an 8-bit offset placeholder (optimizing mode) instead of the safe 16-bit one
+    private byte[] buildPlaceholdersPass1(String mnemonic, String operandText, AddressingMode mode, boolean pcRelative8) {
 
         // InstructionSet is required to be correct with:
         // - prefixed opcodes
@@ -488,38 +774,39 @@ public class AssemblerProgram {
 
         String m = mnemonic.toUpperCase();
         String op = operandText == null ? "" : operandText.trim();
+        int id = requiredId(m); // interned once for every lookup below
 
 
         // INHERENT
 
         if (mode == AddressingMode.INHERENT) {
-            return encodeFixedBytes(m, AddressingMode.INHERENT, 0);
+            return encodeFixedBytes(id, AddressingMode.INHERENT, 0);
         }
 
         // RELATIVE (branches)
         // operand is target label/address; we patch offset in pass2
 
         if (mode == AddressingMode.RELATIVE) {
-            int size = requiredSize(m, AddressingMode.RELATIVE);
-            int opcode = requiredOpcode(m, AddressingMode.RELATIVE);
+            int size = requiredSize(id, AddressingMode.RELATIVE);
+            int opcode = requiredOpcode(id, AddressingMode.RELATIVE);
             int opBytes = opcodeByteCount(opcode);
 
-            ArrayList<Integer> out = new ArrayList<>(size);
+            ByteSink out = new ByteSink(size);
             writeOpcode(out, opcode);
             // placeholders for offset bytes
             for (int i = 0; i < (size - opBytes); i++) out.add(0x00);
-            return out;
+            return out.toArray();
         }
 
         // IMMEDIATE
 
         if (mode == AddressingMode.IMMEDIATE) {
-            int size = requiredSize(m, AddressingMode.IMMEDIATE);
-            int opcode = requiredOpcode(m, AddressingMode.IMMEDIATE);
+            int size = requiredSize(id, AddressingMode.IMMEDIATE);
+            int opcode = requiredOpcode(id, AddressingMode.IMMEDIATE);
             int opBytes = opcodeByteCount(opcode);
             int immBytes = size - opBytes;
 
-            ArrayList<Integer> out = new ArrayList<>(size);
+            ByteSink out = new ByteSink(size);
             writeOpcode(out, opcode);
 
             if (op.startsWith("#")) op = op.substring(1).trim();
@@ -539,7 +826,7 @@ public class AssemblerProgram {
                 // label -> placeholders
                 for (int i = 0; i < immBytes; i++) out.add(0x00);
             }
-            return out;
+            return out.toArray();
         }
 
 
@@ -551,13 +838,13 @@ public class AssemblerProgram {
                 String inner = stripOuterBrackets(op).trim();
                 if (!inner.contains(",") && !looksLikeNumber(inner)) {
                     // opcode + postbyte(0x9F) + 16-bit address
-                    int opcode = requiredOpcode(m, AddressingMode.INDEXED);
-                    ArrayList<Integer> out = new ArrayList<>();
+                    int opcode = requiredOpcode(id, AddressingMode.INDEXED);
+                    ByteSink out = new ByteSink();
                     writeOpcode(out, opcode);
                     out.add(0x9F);
                     out.add(0x00);
                     out.add(0x00);
-                    return out;
+                    return out.toArray();
                 }
             }
 
@@ -568,7 +855,7 @@ public class AssemblerProgram {
                 if (!looksLikeNumber(expr)) {
                     // force 16-bit form by using a numeric offset outside 8-bit range
                     // keep brackets if present
-                    String forced = "$0200,PC";
+                    String forced = pcRelative8 ? "$10,PC" : "$0200,PC";
                     if (op.trim().startsWith("[") && op.trim().endsWith("]")) {
                         opForEncoding = "[" + forced + "]";
                     } else {
@@ -578,21 +865,19 @@ public class AssemblerProgram {
             }
 
             // Ask existing assembler to encode indexed operand bytes
-            List<Integer> tmp = assembler.assembleLine(m + " " + opForEncoding);
-            if (tmp.isEmpty()) throw new IllegalStateException("Failed to encode indexed instruction: " + m + " " + op);
+            byte[] tmp = assembler.assembleLine(m + " " + opForEncoding);
+            if (tmp.length == 0) throw new IllegalStateException("Failed to encode indexed instruction: " + m + " " + op);
 
             // Replace opcode (tmp[0]) with correct opcode bytes (including prefix)
-            int opcode = requiredOpcode(m, AddressingMode.INDEXED);
-            ArrayList<Integer> out = new ArrayList<>();
+            int opcode = requiredOpcode(id, AddressingMode.INDEXED);
+            ByteSink out = new ByteSink();
 
             writeOpcode(out, opcode);
             // append postbyte+extra from tmp (skip tmp opcode low byte)
             int skip = opcodeByteCount(tmp); // 1 or 2 depending on 0x10/0x11 prefix
-            for (int i = skip; i < tmp.size(); i++) {
-                out.add(tmp.get(i) & 0xFF);
-            }
+            out.addAll(tmp, skip, tmp.length - skip);
 
-            return out;
+            return out.toArray();
         }
 
 
@@ -600,14 +885,14 @@ public class AssemblerProgram {
         // label -> choose EXTENDED if supported, else DIRECT
 
         if (!looksLikeNumber(op)) {
-            AddressingMode chosen = chooseAbsModeForLabel(m);
-            int opcode = requiredOpcode(m, chosen);
-            ArrayList<Integer> out = new ArrayList<>();
+            AddressingMode chosen = chooseAbsModeForLabel(id);
+            int opcode = requiredOpcode(id, chosen);
+            ByteSink out = new ByteSink();
             writeOpcode(out, opcode);
 
             int opBytes = (chosen == AddressingMode.DIRECT) ? 1 : 2;
             for (int i = 0; i < opBytes; i++) out.add(0x00);
-            return out;
+            return out.toArray();
         }
 
         // numeric absolute
@@ -615,12 +900,12 @@ public class AssemblerProgram {
         AddressingMode chosen = (value <= 0xFF) ? AddressingMode.DIRECT : AddressingMode.EXTENDED;
 
         // if not supported, fallback
-        if (!supports(m, chosen)) {
-            chosen = supports(m, AddressingMode.EXTENDED) ? AddressingMode.EXTENDED : AddressingMode.DIRECT;
+        if (!supports(id, chosen)) {
+            chosen = supports(id, AddressingMode.EXTENDED) ? AddressingMode.EXTENDED : AddressingMode.DIRECT;
         }
 
-        int opcode = requiredOpcode(m, chosen);
-        ArrayList<Integer> out = new ArrayList<>();
+        int opcode = requiredOpcode(id, chosen);
+        ByteSink out = new ByteSink();
         writeOpcode(out, opcode);
 
         if (chosen == AddressingMode.DIRECT) {
@@ -629,14 +914,14 @@ public class AssemblerProgram {
             out.add((value >> 8) & 0xFF);
             out.add(value & 0xFF);
         }
-        return out;
+        return out.toArray();
     }
 
 
     // PASS 2 patching
 
 
-    private void patchIfNeeded(LineEntry e, ArrayList<Integer> bytes) {
+    private void patchIfNeeded(SymbolTable symbols, LineEntry e, byte[] bytes) {
 
         String mnemonic = e.keyword.toUpperCase();
         String operand = e.operandText == null ? "" : e.operandText.trim();
@@ -660,18 +945,18 @@ public class AssemblerProgram {
             int nextPc = e.pcAfter & 0xFFFF;
             int offset = (target - nextPc);
 
-            int offBytes = bytes.size() - opBytes;
+            int offBytes = bytes.length - opBytes;
             if (offBytes == 1) {
                 if (offset < -128 || offset > 127) {
                     throw new IllegalStateException("Branch offset out of range (8-bit): " + e.rawLine);
                 }
-                bytes.set(opBytes, offset & 0xFF);
+                bytes[opBytes] = (byte) (offset & 0xFF);
             } else if (offBytes == 2) {
                 if (offset < -32768 || offset > 32767) {
                     throw new IllegalStateException("Branch offset out of range (16-bit): " + e.rawLine);
                 }
-                bytes.set(opBytes, (offset >> 8) & 0xFF);
-                bytes.set(opBytes + 1, offset & 0xFF);
+                bytes[opBytes] = (byte) ((offset >> 8) & 0xFF);
+                bytes[opBytes + 1] = (byte) (offset & 0xFF);
             }
             return;
         }
@@ -684,12 +969,12 @@ public class AssemblerProgram {
                 String imm = operand.substring(1).trim();
                 if (!imm.isEmpty() && !looksLikeNumber(imm)) {
                     int value = symbols.resolve(imm) & 0xFFFF;
-                    int immBytes = bytes.size() - opBytes;
+                    int immBytes = bytes.length - opBytes;
                     if (immBytes == 1) {
-                        bytes.set(opBytes, value & 0xFF);
+                        bytes[opBytes] = (byte) (value & 0xFF);
                     } else if (immBytes == 2) {
-                        bytes.set(opBytes, (value >> 8) & 0xFF);
-                        bytes.set(opBytes + 1, value & 0xFF);
+                        bytes[opBytes] = (byte) ((value >> 8) & 0xFF);
+                        bytes[opBytes + 1] = (byte) (value & 0xFF);
                     }
                 }
             }
@@ -711,18 +996,18 @@ public class AssemblerProgram {
                 int postIndex = opBytes;          // opcode bytes then postbyte
                 int extraStart = opBytes + 1;
 
-                int extraCount = bytes.size() - extraStart;
+                int extraCount = bytes.length - extraStart;
                 if (extraCount == 1) {
                     if (offset < -128 || offset > 127) {
                         throw new IllegalStateException("PC-relative offset out of range (8-bit): " + e.rawLine);
                     }
-                    bytes.set(extraStart, offset & 0xFF);
+                    bytes[extraStart] = (byte) (offset & 0xFF);
                 } else if (extraCount == 2) {
                     if (offset < -32768 || offset > 32767) {
                         throw new IllegalStateException("PC-relative offset out of range (16-bit): " + e.rawLine);
                     }
-                    bytes.set(extraStart, (offset >> 8) & 0xFF);
-                    bytes.set(extraStart + 1, offset & 0xFF);
+                    bytes[extraStart] = (byte) ((offset >> 8) & 0xFF);
+                    bytes[extraStart + 1] = (byte) (offset & 0xFF);
                 } else {
                     throw new IllegalStateException("Unexpected PC-relative indexed size: " + e.rawLine);
                 }
@@ -744,11 +1029,11 @@ public class AssemblerProgram {
             if (!inner.contains(",") && !inner.isEmpty() && !looksLikeNumber(inner)) {
                 int value = symbols.resolve(inner) & 0xFFFF;
                 int postIndex = opBytes; // postbyte at this index
-                if (bytes.size() < opBytes + 3 || (bytes.get(postIndex) & 0xFF) != 0x9F) {
+                if (bytes.length < opBytes + 3 || (bytes[postIndex] & 0xFF) != 0x9F) {
                     throw new IllegalStateException("Invalid [LABEL] encoding shape: " + e.rawLine);
                 }
-                bytes.set(opBytes + 1, (value >> 8) & 0xFF);
-                bytes.set(opBytes + 2, value & 0xFF);
+                bytes[opBytes + 1] = (byte) ((value >> 8) & 0xFF);
+                bytes[opBytes + 2] = (byte) (value & 0xFF);
             }
             return;
         }
@@ -760,12 +1045,12 @@ public class AssemblerProgram {
         if ((e.mode == AddressingMode.DIRECT || e.mode == AddressingMode.EXTENDED) && !operand.isEmpty()) {
             if (!looksLikeNumber(operand)) {
                 int value = symbols.resolve(operand) & 0xFFFF;
-                int operandBytes = bytes.size() - opBytes;
+                int operandBytes = bytes.length - opBytes;
                 if (operandBytes == 1) {
-                    bytes.set(opBytes, value & 0xFF);
+                    bytes[opBytes] = (byte) (value & 0xFF);
                 } else if (operandBytes == 2) {
-                    bytes.set(opBytes, (value >> 8) & 0xFF);
-                    bytes.set(opBytes + 1, value & 0xFF);
+                    bytes[opBytes] = (byte) ((value >> 8) & 0xFF);
+                    bytes[opBytes + 1] = (byte) (value & 0xFF);
                 }
             }
         }
@@ -778,41 +1063,45 @@ public class AssemblerProgram {
 
         if (memory == null) throw new IllegalArgumentException("memory is null");
         if (lines == null) throw new IllegalArgumentException("lines is null");
-        int origin = defaultOrigin & 0xFFFF;
         // 1 Build sparse image directly (ORG/RMB already respected)
-        Map<Integer, Integer> image = assembleToMemory(lines, origin);
+        return loadIntoRom(memory, assembleProgram(lines, defaultOrigin & 0xFFFF), writeResetVectorIfMissing);
+    }
+
+    /** Loads an already assembled program into ROM (no re-assembly). Returns the entry point. */
+    public static int loadIntoRom(Memory memory, AssemblyResult result, boolean writeResetVectorIfMissing) {
+        if (memory == null) throw new IllegalArgumentException("memory is null");
+        if (result == null) throw new IllegalArgumentException("result is null");
 
-        if (image.isEmpty()) {
+        if (result.isEmpty()) {
             throw new IllegalStateException("No emitted bytes (empty program?)");
         }
 
         // 2 Choose entry point (best default: first emitted address after sorting)
-        int entryPoint = image.keySet().stream()
-                .mapToInt(a -> a & 0xFFFF)
-                .min()
-                .orElseThrow();
+        int entryPoint = result.entryPoint();
 
         // 3) Enforce ROM-only writes
         int romStart = memory.getROMstart() & 0xFFFF;
         int romEnd = memory.getROMend() & 0xFFFF;
 
-        for (int addr : image.keySet()) {
-            int a = addr & 0xFFFF;
-            if (a < romStart || a > romEnd) {
+        result.forEachRun((start, data, offset, length) -> {
+            int end = start + length - 1;
+            if (start < romStart || end > romEnd) {
+                int a = (start < romStart) ? start : Math.max(start, romEnd + 1);
                 throw new IllegalStateException(String.format(
                         "Program emits byte outside ROM ($%04X). ROM range is $%04X-$%04X",
                         a, romStart, romEnd
                 ));
             }
-        }
+        });
 
-        // 4) Load sparse image into ROM (ORG gaps kept, RMB writes nothing)
-        loadSparseIntoMemoryRom(memory, image);
+        // 4) Load image into ROM, one block per contiguous run (ORG gaps kept, RMB writes nothing)
+        // allowROMWrite=true => writes into ROM region
+        result.forEachRun((start, data, offset, length) ->
+                memory.writeBlock(start, data, offset, length, true));
 
         // 5) write RESET vector if missing
         if (writeResetVectorIfMissing) {
-            boolean hasResetVec = image.containsKey(0xFFFE) || image.containsKey(0xFFFF);//&&
-            if (!hasResetVec) {
+            if (!result.definesResetVector()) {
                 int ep = entryPoint & 0xFFFF;
                 byte hi = (byte) ((ep >> 8) & 0xFF);
                 byte lo = (byte) (ep & 0xFF);
@@ -823,69 +1112,44 @@ public class AssemblerProgram {
         return entryPoint & 0xFFFF;
     }
 
-    // Helpers
-
-    private static void loadSparseIntoMemoryRom(Memory memory, Map<Integer, Integer> image) {
-        // sort addresses and group into contiguous runs
-        List<Integer> addrs = new ArrayList<>(image.keySet());
-        addrs.sort(Comparator.comparingInt(a -> a & 0xFFFF));
-
-        int i = 0;
-        while (i < addrs.size()) {
-            int start = addrs.get(i) & 0xFFFF;
-
-            List<Byte> block = new ArrayList<>();
-            int current = start;
-
-            while (i < addrs.size()) {
-                int a = addrs.get(i) & 0xFFFF;
-                if (a != current) break;
-                block.add((byte) (image.get(a) & 0xFF));
-                current = (current + 1) & 0xFFFF;
-                i++;
-            }
-
-            byte[] data = new byte[block.size()];
-            for (int k = 0; k < block.size(); k++) data[k] = block.get(k);
-
-            // allowROMWrite=true => writes into ROM region
-            memory.loadBytes(start, data, true);
-        }
-    }
-
     // InstructionSet helpers
 
     private boolean isProbablyMnemonic(String maybeMnemonic) {
         if (instructionSet == null || maybeMnemonic == null) return false;
-        return instructionSet.containsMnemonic(maybeMnemonic.trim().toUpperCase());
+        return instructionSet.containsMnemonic(maybeMnemonic); // fields from splitFields carry no blanks
     }
 
-    private boolean supports(String mnemonic, AddressingMode mode) {
-        if (instructionSet == null) return false;
-        InstructionDefinition def = instructionSet.getByMnemonic(mnemonic);
-        return def != null && def.supports(mode);
+    /** Dense mnemonic id in the shared tables (matrix row for opcode/size lookups). */
+    private int requiredId(String mnemonic) {
+        if (instructionSet == null) throw new IllegalStateException("InstructionSet is required (opcode lookup).");
+        int id = instructionSet.tables().idOf(mnemonic);
+        if (id == InstructionTables.NONE) throw new IllegalStateException("Unknown mnemonic: " + mnemonic);
+        return id;
     }
 
-    private int requiredOpcode(String mnemonic, AddressingMode mode) {
-        if (instructionSet == null) throw new IllegalStateException("InstructionSet is required (opcode lookup).");
-        InstructionDefinition def = instructionSet.getByMnemonic(mnemonic);
-        if (def == null) throw new IllegalStateException("Unknown mnemonic: " + mnemonic);
-        if (!def.supports(mode)) throw new IllegalStateException("Mode " + mode + " not supported by " + mnemonic);
-        return def.getOpcode(mode) & 0xFFFF;
+    private boolean supports(int id, AddressingMode mode) {
+        return instructionSet.tables().supports(id, mode.ordinal());
     }
 
-    private int requiredSize(String mnemonic, AddressingMode mode) {
-        if (instructionSet == null) throw new IllegalStateException("InstructionSet is required (size lookup).");
-        InstructionDefinition def = instructionSet.getByMnemonic(mnemonic);
-        if (def == null) throw new IllegalStateException("Unknown mnemonic: " + mnemonic);
-        if (!def.supports(mode)) throw new IllegalStateException("Mode " + mode + " not supported by " + mnemonic);
-        return def.getSize(mode);
+    private int requiredOpcode(int id, AddressingMode mode) {
+        int opcode = instructionSet.tables().opcode(id, mode.ordinal());
+        if (opcode == InstructionTables.NONE) {
+            throw new IllegalStateException("Mode " + mode + " not supported by " + instructionSet.tables().mnemonic(id));
+        }
+        return opcode & 0xFFFF;
     }
 
-    private AddressingMode chooseAbsModeForLabel(String mnemonic) {
+    private int requiredSize(int id, AddressingMode mode) {
+        if (!supports(id, mode)) {
+            throw new IllegalStateException("Mode " + mode + " not supported by " + instructionSet.tables().mnemonic(id));
+        }
+        return instructionSet.tables().size(id, mode.ordinal());
+    }
+
+    private AddressingMode chooseAbsModeForLabel(int id) {
         // Prefer EXTENDED for safety; fallback to DIRECT if EXTENDED not available
-        if (supports(mnemonic, AddressingMode.EXTENDED)) return AddressingMode.EXTENDED;
-        if (supports(mnemonic, AddressingMode.DIRECT)) return AddressingMode.DIRECT;
+        if (supports(id, AddressingMode.EXTENDED)) return AddressingMode.EXTENDED;
+        if (supports(id, AddressingMode.DIRECT)) return AddressingMode.DIRECT;
         // Some mnemonics might not support abs mem at all; keep EXTENDED to fail loudly later
         return AddressingMode.EXTENDED;
     }
@@ -893,17 +1157,17 @@ public class AssemblerProgram {
 
     // Byte writing helpers
 
-    private List<Integer> encodeFixedBytes(String mnemonic, AddressingMode mode, int operandValue) {
-        int opcode = requiredOpcode(mnemonic, mode);
-        int size = requiredSize(mnemonic, mode);
+    private byte[] encodeFixedBytes(int id, AddressingMode mode, int operandValue) {
+        int opcode = requiredOpcode(id, mode);
+        int size = requiredSize(id, mode);
 
-        ArrayList<Integer> out = new ArrayList<>(size);
+        ByteSink out = new ByteSink(size);
         writeOpcode(out, opcode);
 
         int opBytes = opcodeByteCount(opcode);
         int operandBytes = size - opBytes;
 
-        if (operandBytes == 0) return out;
+        if (operandBytes == 0) return out.toArray();
 
         operandValue &= 0xFFFF;
         if (operandBytes == 1) {
@@ -915,10 +1179,10 @@ public class AssemblerProgram {
             for (int i = 0; i < operandBytes; i++) out.add(0x00);
         }
 
-        return out;
+        return out.toArray();
     }
 
-    private void writeOpcode(List<Integer> out, int opcode) {
+    private void writeOpcode(ByteSink out, int opcode) {
         opcode &= 0xFFFF;
         if (opcode > 0xFF) {
             out.add((opcode >> 8) & 0xFF);
@@ -932,9 +1196,9 @@ public class AssemblerProgram {
         return ((opcode & 0xFF00) != 0) ? 2 : 1;
     }
 
-    private int opcodeByteCount(List<Integer> bytes) {
-        if (bytes == null || bytes.isEmpty()) return 1;
-        int b0 = bytes.get(0) & 0xFF;
+    private int opcodeByteCount(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) return 1;
+        int b0 = bytes[0] & 0xFF;
         return (b0 == 0x10 || b0 == 0x11) ? 2 : 1;
     }
 
@@ -949,28 +1213,8 @@ public class AssemblerProgram {
         return s;
     }
 
-    private boolean isBranchMnemonic(String mnemonic) {
-        return mnemonic.equals("BRA") ||
-                mnemonic.equals("BEQ") ||
-                mnemonic.equals("BNE") ||
-                mnemonic.equals("BMI") ||
-                mnemonic.equals("BPL") ||
-                mnemonic.equals("BCC") ||
-                mnemonic.equals("BCS") ||
-                mnemonic.equals("BVC") ||
-                mnemonic.equals("BVS") ||
-                mnemonic.equals("BGE") ||
-                mnemonic.equals("BLT") ||
-                mnemonic.equals("BGT") ||
-                mnemonic.equals("BLE") ||
-                mnemonic.startsWith("LB");
-    }
-
     private static boolean isDirective(String s) {
-        if (s == null) return false;
-        String k = s.trim().toUpperCase();
-        return k.equals("ORG") || k.equals("EQU") || k.equals("SET")
-                || k.equals("FCB") || k.equals("FDB") || k.equals("RMB") || k.equals("END");
+        return AsmLexer.isDirective(s);
     }
 
     private List<String> splitCommaList(String operandText) {
@@ -984,15 +1228,11 @@ public class AssemblerProgram {
     }
 
     private boolean looksLikeNumber(String s) {
-        if (s == null) return false;
-        s = s.trim();
-        if (s.isEmpty()) return false;
-        char c = s.charAt(0);
         // $hex  %bin  @oct  digit  +  -
-        return c == '$' || c == '%' || c == '@' || Character.isDigit(c) || c == '+' || c == '-';
+        return AsmLexer.looksLikeNumber(s);
     }
 
-    private int resolveValueOrNumber(String token) {
+    private int resolveValueOrNumber(SymbolTable symbols, String token) {
         token = token.trim();
         if (token.isEmpty()) throw new IllegalStateException("Missing value");
         if (symbols.contains(token)) return symbols.resolve(token);
@@ -1004,24 +1244,7 @@ public class AssemblerProgram {
      *   $FFFF, %1010, @377, 123, -10, +10, -$10, +$10, -%1010, +@77*/
 
     private int parseNumber(String s) {
-        s = s.trim().toUpperCase();
-        if (s.isEmpty()) throw new IllegalStateException("Empty number");
-
-        int sign = 1;
-        if (s.startsWith("+")) {
-            s = s.substring(1).trim();
-        } else if (s.startsWith("-")) {
-            sign = -1;
-            s = s.substring(1).trim();
-        }
-
-        int v;
-        if (s.startsWith("$")) v = Integer.parseInt(s.substring(1), 16);
-        else if (s.startsWith("%")) v = Integer.parseInt(s.substring(1), 2);
-        else if (s.startsWith("@")) v = Integer.parseInt(s.substring(1), 8);
-        else v = Integer.parseInt(s);
-
-        return (sign * v);
+        return AsmLexer.parseNumber(s);
     }
 
     private boolean isBracketOnly(String op) {
@@ -1039,7 +1262,7 @@ public class AssemblerProgram {
         if (op.isEmpty()) return false;
 
         // Branch always references something potentially symbolic
-        if (isBranchMnemonic(mnemonic.toUpperCase())) return true;
+        if (AsmLexer.isBranch(mnemonic.toUpperCase())) return true;
 
         // Immediate label?
         if (op.startsWith("#")) {
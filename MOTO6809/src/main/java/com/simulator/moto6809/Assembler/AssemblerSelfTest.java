@@ -4,15 +4,16 @@ import com.simulator.moto6809.Decoder.AddressingMode;
 import com.simulator.moto6809.Decoder.InstructionDefinition;
 import com.simulator.moto6809.Decoder.InstructionSet;
 import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Execution.CPU.CycleMode;
 import com.simulator.moto6809.Logger.ILogger;
 import com.simulator.moto6809.Logger.LogLevel;
-import com.simulator.moto6809.Resource.InstructionCsvLoader;
-import com.simulator.moto6809.Resource.InstructionCsvRow;
+import com.simulator.moto6809.Resource.InstructionTables;
+import com.simulator.moto6809.Timing.TimingAnalyzer;
+import com.simulator.moto6809.Timing.TimingReport;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 public class AssemblerSelfTest {
 
@@ -34,10 +35,8 @@ public class AssemblerSelfTest {
         InstructionSet instructionSet = new InstructionSet(logger);
 
         // Assembler actuel (OpcodeSelector + AssemblerProgram)
-        InstructionCsvLoader loader = new InstructionCsvLoader(logger);
-        Map<String, InstructionCsvRow> opcodeTable = loader.loadOpcodeTable();
-        OpcodeSelector selector = new OpcodeSelector(opcodeTable);
-        Assembler assembler = new Assembler(selector, instructionSet);
+        OpcodeSelector selector = new OpcodeSelector(instructionSet.tables());
+        Assembler assembler = new Assembler(selector);
         AssemblerProgram program = new AssemblerProgram(assembler, instructionSet);
 
 
@@ -50,6 +49,13 @@ public class AssemblerSelfTest {
         run("Indexed indirect + extended indirect", () -> testIndirectForms(instructionSet, program));
         run("EQU + immediate label", () -> testEquImmediateLabel(instructionSet, program));
         run("Undefined label must fail", () -> testUndefinedLabelMustFail(program));
+        run("AssemblyResult (image, symbols, source map)", () -> testAssemblyResult(program));
+        run("Incremental re-assembly byte-identical to full", () -> testIncrementalMatchesFull(program));
+        run("AssemblyCache hit returns the same result", () -> testAssemblyCacheRoundTrip(program));
+        run("Binary instruction tables match the CSVs", () -> testInstructionTablesBinary(logger));
+        run("Indexed postbyte table matches assembled sizes", () -> testIndexedPostbyteSizes(program));
+        run("Optimizing mode (relaxation, SETDP, peephole)", () -> testOptimizingMode(program));
+        run("Static timing analysis (loops, calls, bounds)", () -> testTimingAnalysis(instructionSet, program));
 
         System.out.println("\n ALL ASSEMBLER TESTS PASSED");
     }
@@ -277,6 +283,359 @@ public class AssemblerSelfTest {
         }
     }
 
+    // 8) un seul assemblage : image, symboles, point d'entrée et source map cohérents
+    private static void testAssemblyResult(AssemblerProgram prog) {
+        List<String> lines = List.of(
+                "ORG $E000",
+                "START LDA #$12",
+                "LOOP BRA LOOP",
+                "END"
+        );
+
+        AssemblyResult result = prog.assembleProgram(lines, 0x0000);
+
+        if (result.entryPoint() != 0xE000) throw new AssertionError("entry point " + Integer.toHexString(result.entryPoint()));
+        if (!Integer.valueOf(0xE002).equals(result.symbols().get("LOOP"))) throw new AssertionError("LOOP symbol");
+        if (!Integer.valueOf(2).equals(result.lineForPc(0xE002))) throw new AssertionError("pc->line");
+        if (!Integer.valueOf(0xE000).equals(result.pcForLine(1))) throw new AssertionError("line->pc");
+        if (result.emittedCount() != result.linearLength()) throw new AssertionError("image size");
+        if (result.byteAt(0xE004) != -1 || result.byteAt(0xE002) < 0) throw new AssertionError("occupancy");
+        if (result.spanOffset(2) != 2 || result.spanLength(2) != 2) throw new AssertionError("line span");
+        byte[] copy = result.listing().get(1).bytes();
+        copy[0] = 0;                                           // a caller's copy must not reach the shared row
+        if (result.listing().get(1).byteAt(0) != 0x86) throw new AssertionError("listing bytes mutable from outside");
+        assertBytesEqual("AssemblyResult image", prog.assemble(lines, 0x0000),
+                new ArrayList<>(prog.assembleToMemory(lines, 0x0000).values()));
+    }
+
+    // 9) ré-assemblage incrémental : chaque édition doit donner exactement le même résultat qu'un assemblage complet
+    private static void testIncrementalMatchesFull(AssemblerProgram prog) {
+        List<String> src = new ArrayList<>(List.of(
+                "ORG $E000",
+                "COUNT EQU $05",
+                "START LDA #COUNT",
+                "LOOP DECA",
+                "BNE LOOP",
+                "LDX #TABLE",
+                "LDB 2,X",
+                "LEAY DATA,PC",
+                "JSR SUB",
+                "BRA START",
+                "SUB: STA $0040",
+                "RTS",
+                "TABLE FCB 1,2,COUNT",
+                "DATA FDB START,SUB",
+                "END"
+        ));
+
+        IncrementalAssembler inc = new IncrementalAssembler(prog);
+        assertSameResult("initial", prog.assembleProgram(src, 0), inc.assemble(src, 0));
+
+        // same size edit in the middle: only that line is re-parsed
+        src.set(6, "LDB 3,X");
+        assertSameResult("same-size edit", prog.assembleProgram(src, 0), inc.assemble(src, 0));
+        if (inc.repatchedLines() > 2) throw new AssertionError("too many lines re-patched: " + inc.repatchedLines());
+
+        // size change: every later label moves
+        src.set(4, "LBNE LOOP");
+        assertSameResult("size change", prog.assembleProgram(src, 0), inc.assemble(src, 0));
+
+        // EQU value change: only users of COUNT are re-patched
+        src.set(1, "COUNT EQU $09");
+        assertSameResult("EQU change", prog.assembleProgram(src, 0), inc.assemble(src, 0));
+
+        // insert + delete
+        src.add(3, "NOP");
+        assertSameResult("insert", prog.assembleProgram(src, 0), inc.assemble(src, 0));
+        src.remove(9);
+        assertSameResult("delete", prog.assembleProgram(src, 0), inc.assemble(src, 0));
+
+        // broken edit must fail like a full assembly, then recover
+        src.set(5, "BRA NOWHERE");
+        try {
+            inc.assemble(src, 0);
+            throw new AssertionError("Expected failure for undefined label");
+        } catch (IllegalStateException ex) {
+            // OK
+        }
+        src.set(5, "BRA LOOP");
+        assertSameResult("recover", prog.assembleProgram(src, 0), inc.assemble(src, 0));
+    }
+
+    // 10) cache disque : le 2e appel est un hit et redonne exactement le même résultat
+    private static void testAssemblyCacheRoundTrip(AssemblerProgram prog) {
+        List<String> src = List.of(
+                "ORG $E000",
+                "START LDX #TABLE",
+                "LOOP LDA ,X+",
+                "BNE LOOP",
+                "BRA START",
+                "TABLE FCB 1,2,0",
+                "END"
+        );
+        try {
+            Path dir = java.nio.file.Files.createTempDirectory("asm-cache-test");
+            AssemblyCache cache = new AssemblyCache(dir);
+            AssemblyResult first = cache.assemble(prog, src, 0);
+            AssemblyResult second = cache.assemble(prog, src, 0);
+            if (cache.misses() != 1 || cache.hits() != 1) throw new AssertionError("expected 1 miss then 1 hit");
+            assertSameResult("cache", first, second);
+            if (!first.pcToLine().equals(second.pcToLine())) throw new AssertionError("cache: source map differs");
+
+            cache.assemble(prog, src, 0x0100); // origin is part of the key
+            if (cache.misses() != 2) throw new AssertionError("origin must change the key");
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    // 11) tables binaires (InstructionTables.bin) : relues à l'identique des CSV, rejetées si version différente
+    private static void testInstructionTablesBinary(ILogger logger) {
+        InstructionTables csv = InstructionTables.fromCsv(logger);
+        try {
+            java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+            csv.writeBinary(out);
+            byte[] bin = out.toByteArray();
+
+            InstructionTables t = InstructionTables.readBinary(new java.io.ByteArrayInputStream(bin), csv.version());
+            if (t == null || t.count() != csv.count()) throw new AssertionError("binary tables not read back");
+            for (int id = 0; id < csv.count(); id++) {
+                if (!t.mnemonic(id).equals(csv.mnemonic(id))) throw new AssertionError("mnemonic " + id + " differs");
+                for (int m = 0; m < InstructionTables.MODES; m++) {
+                    if (t.opcode(id, m) != csv.opcode(id, m) || t.cycles(id, m) != csv.cycles(id, m)
+                            || t.size(id, m) != csv.size(id, m))
+                        throw new AssertionError(csv.mnemonic(id) + " mode " + m + " differs");
+                }
+            }
+            for (int op = 0; op <= 0x11FF; op++) {
+                if (t.idForOpcode(op) != csv.idForOpcode(op) || t.modeForOpcode(op) != csv.modeForOpcode(op))
+                    throw new AssertionError(String.format("opcode $%04X differs", op));
+            }
+
+            if (InstructionTables.readBinary(new java.io.ByteArrayInputStream(bin), "other") != null)
+                throw new AssertionError("stale binary tables must be rejected");
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    // 12) table des postbytes indexés : la taille assemblée = opcode + postbyte + extraBytes de la table
+    private static void testIndexedPostbyteSizes(AssemblerProgram prog) {
+        List<String> src = List.of(
+                "ORG $2000",
+                "LDA ,X", "LDA 5,Y", "LDA -16,U", "LDA 100,S", "LDA 1000,X",
+                "LDA ,X+", "LDA ,X++", "LDA ,-Y", "LDA ,--U",
+                "LDA A,X", "LDA B,Y", "LDA D,U",
+                "LDA [,X]", "LDA [100,Y]", "LDA [1000,S]", "LDA [$1234]",
+                "LDY 10,X", "LDY [,X++]",
+                "END"
+        );
+        for (AssemblerProgram.ListingRow row : prog.assembleListing(src, 0)) {
+            if (row.bytes == null || row.bytes.length == 0 || !"INSTRUCTION".equals(row.kind)) continue;
+            int opBytes = (row.bytes[0] & 0xFF) == 0x10 || (row.bytes[0] & 0xFF) == 0x11 ? 2 : 1;
+            com.simulator.moto6809.Decoder.IndexedPostbyte pb =
+                    com.simulator.moto6809.Decoder.IndexedPostbyte.of(row.bytes[opBytes]);
+            if (pb.isIllegal()) throw new AssertionError("line " + row.lineIndex + ": illegal postbyte");
+            if (row.bytes.length != opBytes + 1 + pb.extraBytes())
+                throw new AssertionError("line " + row.lineIndex + ": size " + row.bytes.length
+                        + " but table says " + (opBytes + 1 + pb.extraBytes()));
+        }
+    }
+
+    // 13) mode optimisé : branches courtes/longues, LABEL,PC 8 bits, SETDP, JMP/JSR -> BRA/BSR
+    private static void testOptimizingMode(AssemblerProgram prog) {
+        List<String> src = List.of(
+                "ORG $E000",
+                "SETDP $00",
+                "COUNT EQU $0010",
+                "START LDA COUNT",      // DIRECT        96 10
+                "LBEQ NEAR",            // -> BEQ        27 05
+                "LEAX TABLE,PC",        // 8-bit offset  30 8C 09
+                "JSR SUB",              // -> BSR        8D 06
+                "NEAR BNE FAR",         // -> LBNE       10 26 00 CE
+                "JMP START",            // -> BRA        20 F1
+                "SUB RTS",
+                "TABLE FCB 1,2,3",
+                "RMB 200",
+                "FAR RTS",
+                "END"
+        );
+        AssemblyResult r = prog.assembleProgram(src, 0, OptimizeOptions.ALL);
+
+        List<Integer> expected = List.of(
+                0x96, 0x10,
+                0x27, 0x05,
+                0x30, 0x8C, 0x09,
+                0x8D, 0x06,
+                0x10, 0x26, 0x00, 0xCE,
+                0x20, 0xF1,
+                0x39,
+                0x01, 0x02, 0x03,
+                0x39);
+        List<Integer> actual = new ArrayList<>();
+        for (byte b : r.linearBytes()) actual.add(b & 0xFF);
+        assertBytesEqual("Optimized", expected, actual);
+
+        OptimizationReport rep = r.optimization();
+        if (rep == null) throw new AssertionError("missing optimization report");
+        // classic: LDA ext 3, LBEQ 4, LEAX 16-bit 4, JSR 3, BNE 2, JMP 3
+        if (rep.bytesSaved() != 4) throw new AssertionError("bytesSaved=" + rep.bytesSaved() + " expected 4");
+        if (rep.cyclesSaved() != 7) throw new AssertionError("cyclesSaved=" + rep.cyclesSaved() + " expected 7");
+        if (rep.branchesShortened() != 1 || rep.branchesLengthened() != 1 || rep.pcRelativeShortened() != 1
+                || rep.directPageOperands() != 1 || rep.peepholeRewrites() != 2)
+            throw new AssertionError("unexpected report: " + rep);
+
+        // Classic mode is unchanged by SETDP and has no report
+        if (prog.assembleProgram(List.of("ORG $E000", "SETDP $20", "LDA $2010", "END"), 0).optimization() != null)
+            throw new AssertionError("classic result must not carry a report");
+
+        // Bootstrap.assembleIncremental (the UI's load path) honours the optimize options like assemble()
+        com.simulator.moto6809.Bootstrap.Bootstrap boot = new com.simulator.moto6809.Bootstrap.Bootstrap(new SilentLogger());
+        boot.setOptimizeOptions(OptimizeOptions.ALL);
+        AssemblyResult inc = boot.assembleIncremental(src, 0);
+        if (inc.optimization() == null || !java.util.Arrays.equals(r.linearBytes(), inc.linearBytes()))
+            throw new AssertionError("assembleIncremental ignored the optimize options");
+        boot.setOptimizeOptions(null);
+        if (boot.assembleIncremental(List.of("ORG $E000", "SETDP $20", "LDA $2010", "END"), 0).optimization() != null)
+            throw new AssertionError("classic incremental result must not carry a report");
+    }
+
+    // 14) analyse statique des cycles : boucles imbriquées bornées par '; LOOP n', appel BSR, branche sur elle-même = arrêt,
+    //     boucle testée en tête (passage final tête -> sortie compté), pire cas fiche technique (mode EXACT)
+    private static void testTimingAnalysis(InstructionSet is, AssemblerProgram prog) {
+        List<String> src = List.of(
+                "ORG $E000",
+                "START LDS #$00FF",
+                "BSR DELAY",
+                "HALT BRA HALT",
+                "DELAY LDB #4",
+                "OUTER LDX #10",
+                "INNER LEAX -1,X",
+                "BNE INNER ; LOOP 10",
+                "DECB",
+                "BNE OUTER ; LOOP 4",
+                "RTS",
+                "ORG $FFFE",
+                "FDB START",
+                "END"
+        );
+        AssemblyResult r = prog.assembleProgram(src, 0);
+        TimingAnalyzer analyzer = new TimingAnalyzer(is, CycleMode.TABLE);
+        TimingReport rep = analyzer.analyze(r, src, java.util.Map.of());
+
+        int lds = cycles(is, "LDS", AddressingMode.IMMEDIATE), bsr = cycles(is, "BSR", AddressingMode.RELATIVE);
+        int bra = cycles(is, "BRA", AddressingMode.RELATIVE), ldb = cycles(is, "LDB", AddressingMode.IMMEDIATE);
+        int ldx = cycles(is, "LDX", AddressingMode.IMMEDIATE), leax = cycles(is, "LEAX", AddressingMode.INDEXED);
+        int bne = cycles(is, "BNE", AddressingMode.RELATIVE), decb = cycles(is, "DECB", AddressingMode.INHERENT);
+        int rts = cycles(is, "RTS", AddressingMode.INHERENT);
+
+        int inner = leax + bne;                                 // one INNER pass
+        int outer = ldx + 10 * inner + decb + bne;              // one OUTER pass
+        long delay = ldb + 4L * outer + rts;
+        long start = lds + bsr + delay + bra;
+
+        expectCycles("row LEAX -1,X", leax, rep.rowCycles(6));
+        expectCycles("DELAY", delay, rep.routineAt(r.symbols().get("DELAY")).worstCaseCycles());
+        expectCycles("RESET", start, rep.routineAt(0xE000).worstCaseCycles());
+        if (rep.loops().size() != 2) throw new AssertionError("expected 2 loops, got " + rep.loops());
+        expectCycles("INNER iteration", inner, rep.loops().get(1).iterationCycles());
+        expectCycles("OUTER total", 4L * outer, rep.loops().get(0).worstCaseCycles());
+        if (!rep.warnings().isEmpty()) throw new AssertionError("unexpected warnings: " + rep.warnings());
+
+        // Without the comments the loops are unbounded, until the caller supplies bounds
+        List<String> bare = src.stream().map(l -> l.replaceAll(" ;.*", "")).toList();
+        TimingReport unbounded = analyzer.analyze(r, bare, java.util.Map.of());
+        if (unbounded.routineAt(0xE000).isBounded() || unbounded.warnings().isEmpty())
+            throw new AssertionError("loops without a bound must make START unbounded");
+        TimingReport supplied = analyzer.analyze(r, bare, java.util.Map.of(
+                r.symbols().get("INNER"), 10, r.symbols().get("OUTER"), 4));
+        expectCycles("RESET (supplied bounds)", start, supplied.routineAt(0xE000).worstCaseCycles());
+
+        // Loop tested at the top: LOOP 3 = 3 passes through the body, the header runs a 4th time to exit
+        List<String> top = List.of(
+                "ORG $E000",
+                "START LDB #3",
+                "L1 TSTB",
+                "BEQ OUT",
+                "DECB",
+                "BRA L1 ; LOOP 3",
+                "OUT BRA OUT",
+                "ORG $FFFE",
+                "FDB START",
+                "END"
+        );
+        AssemblyResult t = prog.assembleProgram(top, 0);
+        int tstb = cycles(is, "TSTB", AddressingMode.INHERENT), beq = cycles(is, "BEQ", AddressingMode.RELATIVE);
+        long topStart = ldb + 3L * (tstb + beq + decb + bra) + (tstb + beq) + bra;
+        TimingReport topRep = analyzer.analyze(t, top, java.util.Map.of());
+        expectCycles("START (loop tested at the top)", topStart, topRep.routineAt(0xE000).worstCaseCycles());
+
+        // ... and never below what the CPU actually spends to reach OUT
+        com.simulator.moto6809.Bootstrap.Bootstrap boot = new com.simulator.moto6809.Bootstrap.Bootstrap(new SilentLogger());
+        boot.loadProgram(t, false);
+        boot.resetCpu();
+        int out = t.symbols().get("OUT");
+        for (int i = 0; i < 100 && boot.cpu().snapshot().PC != out; i++) boot.stepOnce();
+        boot.stepOnce();                                        // the final BRA OUT
+        if (boot.cpu().totalCycles() > topRep.routineAt(0xE000).worstCaseCycles())
+            throw new AssertionError("worst case " + topRep.routineAt(0xE000).worstCaseCycles()
+                    + " below the executed " + boot.cpu().totalCycles() + " cycles");
+
+        // Data-sheet worst case (default): push/pull bytes, indexed offset, taken LBcc, as the CPU in EXACT mode
+        List<String> exact = List.of(
+                "ORG $E000",
+                "START LDS #$0100",
+                "PSHS #$16",                                    // A,B,X: 4 bytes
+                "LDA 1,X",
+                "PULS #$16",
+                "CLRA",
+                "LBEQ DONE",
+                "DONE BRA DONE",
+                "ORG $FFFE",
+                "FDB START",
+                "END"
+        );
+        AssemblyResult x = prog.assembleProgram(exact, 0);
+        int pshs = cycles(is, "PSHS", AddressingMode.IMMEDIATE), puls = cycles(is, "PULS", AddressingMode.IMMEDIATE);
+        int lda = cycles(is, "LDA", AddressingMode.INDEXED), clra = cycles(is, "CLRA", AddressingMode.INHERENT);
+        int lbeq = cycles(is, "LBEQ", AddressingMode.RELATIVE);
+        long exactStart = lds + (pshs + 4) + (lda + 1) + (puls + 4) + clra + (lbeq + 1) + bra;
+        TimingReport exactRep = new TimingAnalyzer(is).analyze(x, exact, java.util.Map.of());
+        expectCycles("START (data-sheet worst case)", exactStart, exactRep.routineAt(0xE000).worstCaseCycles());
+
+        boot.cpu().setCycleMode(CycleMode.EXACT);
+        boot.loadProgram(x, false);
+        boot.resetCpu();
+        for (int i = 0; i < 7; i++) boot.stepOnce();
+        expectCycles("EXACT CPU run of the same path", exactStart, boot.cpu().totalCycles());
+    }
+
+    private static int cycles(InstructionSet is, String mnemonic, AddressingMode mode) {
+        return is.getByMnemonic(mnemonic).getCycles(mode);
+    }
+
+    private static void expectCycles(String label, long expected, long actual) {
+        if (expected != actual)
+            throw new AssertionError(label + ": " + TimingAnalyzer.format(actual) + " cycles, expected " + expected);
+    }
+
+    private static void assertSameResult(String label, AssemblyResult full, AssemblyResult inc) {
+        if (!java.util.Arrays.equals(full.linearBytes(), inc.linearBytes()))
+            throw new AssertionError(label + ": linear bytes differ");
+        if (!full.toSparseMap().equals(inc.toSparseMap()))
+            throw new AssertionError(label + ": image differs");
+        if (!full.symbols().equals(inc.symbols()))
+            throw new AssertionError(label + ": symbols differ");
+        if (full.listing().size() != inc.listing().size())
+            throw new AssertionError(label + ": listing size differs");
+        for (int i = 0; i < full.listing().size(); i++) {
+            AssemblerProgram.ListingRow a = full.listing().get(i);
+            AssemblerProgram.ListingRow b = inc.listing().get(i);
+            if (a.pcBefore != b.pcBefore || a.pcAfter != b.pcAfter || !java.util.Arrays.equals(a.bytes, b.bytes))
+                throw new AssertionError(label + ": listing row " + i + " differs");
+        }
+    }
+
 
     // Helpers
 
@@ -1,10 +1,7 @@
 package com.simulator.moto6809.Assembler;
-import com.simulator.moto6809.Decoder.InstructionSet;
-import com.simulator.moto6809.Resource.InstructionCsvLoader;
 import com.simulator.moto6809.Logger.ConsoleLogger;
-import com.simulator.moto6809.Resource.InstructionCsvRow;
+import com.simulator.moto6809.Resource.InstructionTables;
 import java.util.List;
-import java.util.Map;
 public class AssemblerTest {
 
     public static void main(String[] args) {
@@ -14,17 +11,13 @@ public class AssemblerTest {
 
         ConsoleLogger logger = new ConsoleLogger();
 
-        InstructionCsvLoader loader = new InstructionCsvLoader(logger);
-
-        Map<String, InstructionCsvRow> opcodeTable =
-                loader.loadOpcodeTable();
+        InstructionTables tables = InstructionTables.shared(logger);
 
 
         // 2) Create assembler
 
-        OpcodeSelector selector = new OpcodeSelector(opcodeTable);
-        InstructionSet m = null;
-        Assembler assembler = new Assembler(selector, m);
+        OpcodeSelector selector = new OpcodeSelector(tables);
+        Assembler assembler = new Assembler(selector);
         AssemblerProgram prog = new AssemblerProgram(assembler);
 
 
@@ -0,0 +1,214 @@
+package com.simulator.moto6809.Assembler;
+
+import com.simulator.moto6809.Resource.InstructionTables;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Content-addressed on-disk cache of assembled programs.
+ *
+ * Key = SHA-256(format version, instruction-table version, origin, source lines).
+ * Value = listing (with final bytes) + symbols in a compact binary file, memory-mapped on a hit;
+ * the image, linear stream and source maps are rebuilt from the listing.
+ *
+ * Safe to share between threads/processes: entries are written to a temp file then moved in place.
+ * The cache is best-effort: unreadable or stale entries are re-assembled and rewritten.
+ */
+public final class AssemblyCache {
+
+    private static final int MAGIC = 0x4D363841; // "M68A"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".m68a";
+
+    private final Path directory;
+    private final String tableVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+
+    public AssemblyCache(Path directory) {
+        this(directory, instructionTableVersion());
+    }
+
+    public AssemblyCache(Path directory, String tableVersion) {
+        if (directory == null) throw new IllegalArgumentException("directory is null");
+        if (tableVersion == null || tableVersion.isEmpty()) throw new IllegalArgumentException("tableVersion is empty");
+        this.directory = directory;
+        this.tableVersion = tableVersion;
+    }
+
+    public Path directory() { return directory; }
+    public long hits() { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+    public long writeFailures() { return writeFailures.sum(); }
+
+    /** Cached result for (lines, origin), assembling with {@code program} and storing it on a miss. */
+    public AssemblyResult assemble(AssemblerProgram program, List<String> lines, int origin) {
+        if (program == null) throw new IllegalArgumentException("program is null");
+        if (lines == null) throw new IllegalArgumentException("lines is null");
+        origin &= 0xFFFF;
+
+        Path file = directory.resolve(key(lines, origin) + SUFFIX);
+        AssemblyResult cached = read(file, origin);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        AssemblyResult result = program.assembleProgram(lines, origin); // errors are not cached
+        write(file, result);
+        return result;
+    }
+
+    /** Hex SHA-256 of everything that determines the assembly output. */
+    public String key(List<String> lines, int origin) {
+        MessageDigest md = sha256();
+        ByteBuffer header = ByteBuffer.allocate(12);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(origin & 0xFFFF);
+        md.update(header.array());
+        md.update(tableVersion.getBytes(StandardCharsets.UTF_8));
+
+        ByteBuffer len = ByteBuffer.allocate(4);
+        for (String line : lines) {
+            byte[] b = (line == null ? "" : line).getBytes(StandardCharsets.UTF_8);
+            md.update(len.clear().putInt(b.length).array());
+            md.update(b);
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /** SHA-256 of the bundled instruction CSV tables: any table edit invalidates every entry. */
+    public static String instructionTableVersion() {
+        return InstructionTables.csvVersion();
+    }
+
+    // File format (big-endian):
+    //   int magic, int version, int origin
+    //   int symbolCount { str name, int value }
+    //   int rowCount    { int lineIndex, str kind, u16 pcBefore, u16 pcAfter, int n, n bytes, str source }
+    //   str = int length + UTF-8 bytes
+
+    private AssemblyResult read(Path file, int origin) {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION || buf.getInt() != origin) return null;
+
+            int symbolCount = buf.getInt();
+            if (symbolCount < 0 || symbolCount > buf.remaining()) return null;
+            Map<String, Integer> symbols = new HashMap<>(Math.max(16, symbolCount * 2));
+            for (int i = 0; i < symbolCount; i++) {
+                String name = readString(buf);
+                symbols.put(name, buf.getInt());
+            }
+
+            int rowCount = buf.getInt();
+            if (rowCount < 0 || rowCount > buf.remaining()) return null;
+            List<AssemblerProgram.ListingRow> listing = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                int lineIndex = buf.getInt();
+                String kind = readString(buf);
+                int pcBefore = buf.getChar();
+                int pcAfter = buf.getChar();
+                int n = buf.getInt();
+                if (n < 0 || n > buf.remaining()) return null;
+                byte[] bytes = new byte[n];
+                buf.get(bytes);
+                String source = readString(buf);
+                listing.add(new AssemblerProgram.ListingRow(lineIndex, kind, pcBefore, pcAfter,
+                        bytes.length == 0 ? ByteSink.EMPTY : bytes, source));
+            }
+            if (buf.hasRemaining()) return null;
+
+            return AssemblyResult.fromListing(origin, listing, symbols);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            return null; // truncated or foreign file: treat as a miss
+        }
+    }
+
+    private void write(Path file, AssemblyResult result) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096 + result.linearLength());
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(result.origin());
+
+            Map<String, Integer> symbols = result.symbols();
+            out.writeInt(symbols.size());
+            for (Map.Entry<String, Integer> e : symbols.entrySet()) {
+                writeString(out, e.getKey());
+                out.writeInt(e.getValue());
+            }
+
+            List<AssemblerProgram.ListingRow> listing = result.listing();
+            out.writeInt(listing.size());
+            for (AssemblerProgram.ListingRow row : listing) {
+                out.writeInt(row.lineIndex);
+                writeString(out, row.kind);
+                out.writeChar(row.pcBefore);
+                out.writeChar(row.pcAfter);
+                out.writeInt(row.bytes.length);
+                out.write(row.bytes);
+                writeString(out, row.source);
+            }
+            out.flush();
+
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, "asm", ".tmp");
+            try {
+                Files.write(tmp, bytes.toByteArray());
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            writeFailures.increment(); // cache is optional: the result is still returned
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int n = buf.getInt();
+        if (n < 0 || n > buf.remaining()) throw new IllegalArgumentException("bad string length");
+        byte[] b = new byte[n];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.simulator.moto6809.Assembler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable output of one assembly: image, listing, symbols, entry point and source maps.
+ * Produced once by AssemblerProgram.assembleProgram and shared by every consumer (loader, UI, tools).
+ *
+ * Storage is primitive: a 64 KB image with a 1-bit-per-address occupancy bitmap, the linear
+ * byte stream, and one (offset, length) span into that stream per listing row.
+ */
+public final class AssemblyResult {
+
+    /** Contiguous run of emitted bytes: data[offset .. offset+length) lands at start. */
+    @FunctionalInterface
+    public interface RunConsumer {
+        void accept(int start, byte[] data, int offset, int length);
+    }
+
+    private final int origin;
+    private final byte[] image;          // 64 KB, meaningful only where occupied
+    private final long[] occupancy;      // bit a set => address a emitted
+    private final byte[] linear;         // emitted bytes in source order
+    private final int[] spanOffset;      // per listing row, into linear
+    private final int[] spanLength;
+    private final List<AssemblerProgram.ListingRow> listing;
+    private final Map<String, Integer> symbols;
+    private final int emittedCount;
+    private final int entryPoint;        // lowest emitted address, -1 if nothing emitted
+    private final Map<Integer, Integer> pcToLine;
+    private final Map<Integer, Integer> lineToPc;
+    private final OptimizationReport optimization; // null unless assembled in optimizing mode
+
+    private AssemblyResult(int origin,
+                           byte[] image,
+                           long[] occupancy,
+                           byte[] linear,
+                           int[] spanOffset,
+                           int[] spanLength,
+                           List<AssemblerProgram.ListingRow> listing,
+                           Map<String, Integer> symbols,
+                           OptimizationReport optimization) {
+        if (image.length != 0x10000 || occupancy.length != (0x10000 >>> 6))
+            throw new IllegalArgumentException("image must cover 64 KB");
+        this.origin = origin & 0xFFFF;
+        this.image = image;
+        this.occupancy = occupancy;
+        this.linear = linear;
+        this.spanOffset = spanOffset;
+        this.spanLength = spanLength;
+        this.listing = List.copyOf(listing);
+        this.symbols = Map.copyOf(symbols);
+        this.optimization = optimization;
+
+        int count = 0;
+        int first = -1;
+        for (int w = 0; w < occupancy.length; w++) {
+            long bits = occupancy[w];
+            if (bits == 0) continue;
+            if (first < 0) first = (w << 6) + Long.numberOfTrailingZeros(bits);
+            count += Long.bitCount(bits);
+        }
+        this.emittedCount = count;
+        this.entryPoint = first;
+
+        // Source maps: first emitting line wins for a PC, last PC wins for a line
+        Map<Integer, Integer> p2l = new HashMap<>();
+        Map<Integer, Integer> l2p = new HashMap<>();
+        for (AssemblerProgram.ListingRow row : this.listing) {
+            if (row.bytes.length == 0) continue;
+            p2l.putIfAbsent(row.pcBefore, row.lineIndex);
+            l2p.put(row.lineIndex, row.pcBefore);
+        }
+        this.pcToLine = Map.copyOf(p2l);
+        this.lineToPc = Map.copyOf(l2p);
+    }
+
+    /** Rebuilds image, linear stream and spans from a listing (each row's bytes land at its pcBefore). */
+    static AssemblyResult fromListing(int origin, List<AssemblerProgram.ListingRow> listing, Map<String, Integer> symbols) {
+        return fromListing(origin, listing, symbols, null);
+    }
+
+    static AssemblyResult fromListing(int origin, List<AssemblerProgram.ListingRow> listing, Map<String, Integer> symbols,
+                                      OptimizationReport optimization) {
+        // Output is a 64 KB image + occupancy bitmap, plus the linear stream with one (offset, length) span per row
+        byte[] image = new byte[0x10000];
+        long[] occupancy = new long[0x10000 >>> 6];
+        ByteSink linear = new ByteSink(256);
+        int[] spanOffset = new int[listing.size()];
+        int[] spanLength = new int[listing.size()];
+
+        for (int i = 0; i < listing.size(); i++) {
+            AssemblerProgram.ListingRow row = listing.get(i);
+            byte[] bytes = row.bytes;
+
+            spanOffset[i] = linear.size();
+            spanLength[i] = bytes.length;
+            if (bytes.length == 0) continue;
+
+            linear.addAll(bytes, 0, bytes.length);
+            int addr = row.pcBefore & 0xFFFF;
+            for (byte b : bytes) {
+                image[addr] = b;
+                occupancy[addr >>> 6] |= 1L << addr;
+                addr = (addr + 1) & 0xFFFF;
+            }
+        }
+        return new AssemblyResult(origin, image, occupancy, linear.toArray(), spanOffset, spanLength, listing, symbols,
+                optimization);
+    }
+
+    public int origin() { return origin; }
+
+    /** Emitted bytes concatenated in source order (ORG/RMB gaps not represented). Returns a copy. */
+    public byte[] linearBytes() { return linear.clone(); }
+
+    public int linearLength() { return linear.length; }
+
+    /** Offset of listing row {@code row} inside linearBytes(). */
+    public int spanOffset(int row) { return spanOffset[row]; }
+
+    /** Number of bytes emitted by listing row {@code row}. */
+    public int spanLength(int row) { return spanLength[row]; }
+
+    public boolean isOccupied(int address) {
+        int a = address & 0xFFFF;
+        return (occupancy[a >>> 6] & (1L << a)) != 0;
+    }
+
+    /** Byte at address, or -1 when nothing was emitted there. */
+    public int byteAt(int address) {
+        int a = address & 0xFFFF;
+        return isOccupied(a) ? (image[a] & 0xFF) : -1;
+    }
+
+    /** Number of distinct addresses written. */
+    public int emittedCount() { return emittedCount; }
+
+    /**
+     * Visits each contiguous run of emitted addresses in ascending order.
+     * The array handed to the consumer is the internal image and must not be modified.
+     */
+    public void forEachRun(RunConsumer consumer) {
+        int a = 0;
+        while (a < 0x10000) {
+            long bits = occupancy[a >>> 6] >>> (a & 63);
+            if (bits == 0) { a = (a | 63) + 1; continue; }
+            a += Long.numberOfTrailingZeros(bits);
+            int start = a;
+            while (a < 0x10000 && isOccupied(a)) a++;
+            consumer.accept(start, image, start, a - start);
+        }
+    }
+
+    /** Sparse address -> byte view (boxed; kept for legacy callers). */
+    public Map<Integer, Integer> toSparseMap() {
+        Map<Integer, Integer> out = new TreeMap<>();
+        forEachRun((start, data, offset, length) -> {
+            for (int i = 0; i < length; i++) out.put(start + i, data[offset + i] & 0xFF);
+        });
+        return out;
+    }
+
+    public List<AssemblerProgram.ListingRow> listing() { return listing; }
+
+    /** Final symbol values (upper-case names). */
+    public Map<String, Integer> symbols() { return symbols; }
+
+    public boolean isEmpty() { return emittedCount == 0; }
+
+    /** Lowest emitted address (default entry point). */
+    public int entryPoint() {
+        if (entryPoint < 0) throw new IllegalStateException("No emitted bytes (empty program?)");
+        return entryPoint;
+    }
+
+    public boolean definesResetVector() {
+        return isOccupied(0xFFFE) || isOccupied(0xFFFF);
+    }
+
+    /** What the optimizing mode changed, or null for a classic assembly. */
+    public OptimizationReport optimization() { return optimization; }
+
+    public Map<Integer, Integer> pcToLine() { return pcToLine; }
+    public Map<Integer, Integer> lineToPc() { return lineToPc; }
+
+    public Integer lineForPc(int pc) { return pcToLine.get(pc & 0xFFFF); }
+    public Integer pcForLine(int line) { return lineToPc.get(line); }
+}
@@ -0,0 +1,52 @@
+package com.simulator.moto6809.Assembler;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer used while encoding (no boxing).
+ * Values are masked to 8 bits on write.
+ */
+final class ByteSink {
+
+    static final byte[] EMPTY = new byte[0];
+
+    private byte[] data;
+    private int size;
+
+    ByteSink() {
+        this(8);
+    }
+
+    ByteSink(int initialCapacity) {
+        this.data = new byte[Math.max(1, initialCapacity)];
+    }
+
+    void add(int value) {
+        if (size == data.length) data = Arrays.copyOf(data, data.length << 1);
+        data[size++] = (byte) value;
+    }
+
+    void addAll(byte[] src, int off, int len) {
+        if (size + len > data.length) data = Arrays.copyOf(data, Math.max(data.length << 1, size + len));
+        System.arraycopy(src, off, data, size, len);
+        size += len;
+    }
+
+    int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return data[index] & 0xFF;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Backing array (valid up to size()). */
+    byte[] array() {
+        return data;
+    }
+
+    byte[] toArray() {
+        return size == 0 ? EMPTY : Arrays.copyOf(data, size);
+    }
+}
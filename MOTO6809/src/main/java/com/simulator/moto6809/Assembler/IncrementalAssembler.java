@@ -0,0 +1,209 @@
+package com.simulator.moto6809.Assembler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Re-assembles an edited source reusing the previous run (live editing).
+ *
+ *  - PASS 1: lines outside the edited region keep their entry; only the PC is rebased when an
+ *    earlier edit changed sizes. Edited lines and directives (ORG/RMB/EQU/SET, which may read
+ *    symbols) are parsed again.
+ *  - PASS 2: a line is re-patched only if it was re-parsed, moved, or one of the symbols it
+ *    referenced changed value.
+ *
+ * Output is byte-identical to AssemblerProgram.assembleProgram. Not thread-safe.
+ */
+public final class IncrementalAssembler {
+
+    private final AssemblerProgram program;
+
+    // State of the last successful assembly
+    private List<String> lines = List.of();
+    private int origin = -1;
+    private List<AssemblerProgram.LineEntry> entries = List.of();
+    private List<byte[]> lineBytes = List.of();
+    private List<Set<String>> lineRefs = List.of();
+    private Map<String, Integer> symbolValues = Map.of();
+    private AssemblyResult last;
+
+    private int reparsedLines;
+    private int repatchedLines;
+
+    public IncrementalAssembler(AssemblerProgram program) {
+        if (program == null) throw new IllegalArgumentException("program is null");
+        this.program = program;
+    }
+
+    public AssemblyResult assemble(List<String> newLines, int origin) {
+        if (newLines == null) throw new IllegalArgumentException("lines is null");
+        origin &= 0xFFFF;
+        if (last != null && origin == this.origin && newLines.equals(lines)) {
+            reparsedLines = 0;
+            repatchedLines = 0;
+            return last;
+        }
+
+        try {
+            return assembleIncremental(List.copyOf(newLines), origin);
+        } catch (RuntimeException ex) {
+            reset(); // the next call starts from scratch
+            throw ex;
+        }
+    }
+
+    /** Drops the cached state (next assemble() is a full assembly). */
+    public void reset() {
+        lines = List.of();
+        origin = -1;
+        entries = List.of();
+        lineBytes = List.of();
+        lineRefs = List.of();
+        symbolValues = Map.of();
+        last = null;
+    }
+
+    public AssemblyResult lastResult() { return last; }
+
+    /** Lines whose PASS 1 was recomputed by the last assemble() call. */
+    public int reparsedLines() { return reparsedLines; }
+
+    /** Lines whose PASS 2 was recomputed by the last assemble() call. */
+    public int repatchedLines() { return repatchedLines; }
+
+    private AssemblyResult assembleIncremental(List<String> newLines, int origin) {
+
+        // Align old and new sources: common prefix + common suffix, the middle is new text
+        int oldSize = (origin == this.origin) ? lines.size() : 0;
+        int newSize = newLines.size();
+        int prefix = 0;
+        while (prefix < oldSize && prefix < newSize && lines.get(prefix).equals(newLines.get(prefix))) prefix++;
+        int suffix = 0;
+        while (suffix < oldSize - prefix && suffix < newSize - prefix
+                && lines.get(oldSize - 1 - suffix).equals(newLines.get(newSize - 1 - suffix))) suffix++;
+
+        RecordingSymbolTable symbols = new RecordingSymbolTable();
+        List<AssemblerProgram.LineEntry> newEntries = new ArrayList<>(newSize);
+        int[] oldIndex = new int[newSize];
+        int reparsed = 0;
+        int pc = origin;
+
+
+        // PASS 1
+
+        for (int i = 0; i < newSize; i++) {
+            int j = (i < prefix) ? i : (i >= newSize - suffix ? i - newSize + oldSize : -1);
+            AssemblerProgram.LineEntry old = (j >= 0 && j < entries.size()) ? entries.get(j) : null;
+            oldIndex[i] = (old != null) ? j : -1;
+
+            AssemblerProgram.LineEntry e;
+            if (old != null && old.isPositionIndependent()) {
+                e = old.rebase(pc);
+                e.defineLabel(symbols);
+            } else {
+                e = program.pass1Line(newLines.get(i), pc, symbols);
+                reparsed++;
+            }
+            newEntries.add(e);
+            pc = e.pcAfter;
+            if (e.kind == AssemblerProgram.LineKind.END) break;
+        }
+
+
+        // PASS 2
+
+        Map<String, Integer> newValues = symbols.snapshot();
+        Set<String> changed = changedSymbols(symbolValues, newValues);
+
+        List<byte[]> newBytes = new ArrayList<>(newEntries.size());
+        List<Set<String>> newRefs = new ArrayList<>(newEntries.size());
+        int repatched = 0;
+
+        for (int i = 0; i < newEntries.size(); i++) {
+            AssemblerProgram.LineEntry e = newEntries.get(i);
+            int j = oldIndex[i];
+
+            if (e.bytes.length == 0) { // ORG/RMB/EQU/SET/END/EMPTY emit nothing
+                newBytes.add(ByteSink.EMPTY);
+                newRefs.add(Set.of());
+                continue;
+            }
+
+            if (j >= 0 && e.isPositionIndependent()
+                    && entries.get(j).pcBefore == e.pcBefore
+                    && isDisjoint(lineRefs.get(j), changed)) {
+                newBytes.add(lineBytes.get(j));
+                newRefs.add(lineRefs.get(j));
+                continue;
+            }
+
+            Set<String> refs = new HashSet<>();
+            symbols.recordInto(refs);
+            try {
+                newBytes.add(program.pass2Line(e, symbols));
+            } finally {
+                symbols.recordInto(null);
+            }
+            newRefs.add(refs.isEmpty() ? Set.of() : refs);
+            repatched++;
+        }
+
+        AssemblyResult result = program.buildResult(origin, newEntries, newBytes, symbols);
+        program.publishSymbols(symbols);
+
+        this.lines = newLines;
+        this.origin = origin;
+        this.entries = newEntries;
+        this.lineBytes = newBytes;
+        this.lineRefs = newRefs;
+        this.symbolValues = newValues;
+        this.last = result;
+        this.reparsedLines = reparsed;
+        this.repatchedLines = repatched;
+        return result;
+    }
+
+    private static Set<String> changedSymbols(Map<String, Integer> before, Map<String, Integer> after) {
+        Set<String> out = new HashSet<>();
+        for (Map.Entry<String, Integer> e : before.entrySet()) {
+            if (!Objects.equals(e.getValue(), after.get(e.getKey()))) out.add(e.getKey());
+        }
+        for (String k : after.keySet()) {
+            if (!before.containsKey(k)) out.add(k);
+        }
+        return out;
+    }
+
+    private static boolean isDisjoint(Set<String> refs, Set<String> changed) {
+        if (refs.isEmpty() || changed.isEmpty()) return true;
+        for (String r : refs) {
+            if (changed.contains(r)) return false;
+        }
+        return true;
+    }
+
+    // Symbol table that can record which names PASS 2 looked up for a line
+    private static final class RecordingSymbolTable extends SymbolTable {
+        private Set<String> sink;
+
+        void recordInto(Set<String> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public boolean contains(String label) {
+            if (sink != null && label != null) sink.add(label.trim().toUpperCase());
+            return super.contains(label);
+        }
+
+        @Override
+        public int resolve(String label) {
+            if (sink != null && label != null) sink.add(label.trim().toUpperCase());
+            return super.resolve(label);
+        }
+    }
+}
@@ -1,83 +1,65 @@
 package com.simulator.moto6809.Assembler;
 
 import com.simulator.moto6809.Decoder.AddressingMode;
-import com.simulator.moto6809.Resource.InstructionCsvRow;
-
-import java.util.HashMap;
-import java.util.Map;
+import com.simulator.moto6809.Resource.InstructionTables;
 
 /**
- * Chooses the correct opcode for a (mnemonic, addressing mode) pair using the opcode CSV table.
+ * Chooses the correct opcode for a (mnemonic, addressing mode) pair using the shared instruction tables.
  * Returns the full opcode as an int:
  *  - 0x00..0xFF for normal opcodes
  *  - 0x10xx / 0x11xx for prefixed opcodes (page 2 / page 3)
  */
 public class OpcodeSelector {
 
-    private final Map<String, InstructionCsvRow> opcodeTable;
+    private final InstructionTables tables;
 
-    public OpcodeSelector(Map<String, InstructionCsvRow> opcodeTable) {
-        if (opcodeTable == null) throw new IllegalArgumentException("opcodeTable is null");
+    public OpcodeSelector(InstructionTables tables) {
+        if (tables == null) throw new IllegalArgumentException("tables is null");
+        this.tables = tables;
+    }
 
-        // Normalize keys to uppercase once (avoid case issues)
-        Map<String, InstructionCsvRow> normalized = new HashMap<>();
-        for (Map.Entry<String, InstructionCsvRow> e : opcodeTable.entrySet()) {
-            if (e.getKey() != null && e.getValue() != null) {
-                normalized.put(e.getKey().trim().toUpperCase(), e.getValue());
-            }
-        }
-        this.opcodeTable = normalized;
+    public InstructionTables tables() {
+        return tables;
+    }
+
+    /** Dense id of a mnemonic (any case), or InstructionTables.NONE: resolve once, then use the id overloads. */
+    public int idOf(String mnemonic) {
+        if (mnemonic == null) return InstructionTables.NONE;
+        return tables.idOf(mnemonic.trim().toUpperCase());
     }
 
     public int select(String mnemonic, AddressingMode mode) {
         if (mnemonic == null || mnemonic.isBlank()) {
             throw new IllegalArgumentException("mnemonic is null/blank");
         }
-        if (mode == null) {
-            throw new IllegalArgumentException("mode is null");
-        }
 
-        String key = mnemonic.trim().toUpperCase();
-        InstructionCsvRow row = opcodeTable.get(key);
-        if (row == null) {
-            throw new IllegalStateException("Unknown mnemonic: " + key);
+        int id = idOf(mnemonic);
+        if (id == InstructionTables.NONE) {
+            throw new IllegalStateException("Unknown mnemonic: " + mnemonic.trim().toUpperCase());
         }
+        return select(id, mode);
+    }
 
-        String opcodeStr = switch (mode) {
-            case IMMEDIATE -> row.imm();
-            case DIRECT    -> row.drt();
-            case INDEXED   -> row.idx();
-            case EXTENDED  -> row.etd();
-            case INHERENT  -> row.inh();
-            case RELATIVE  -> row.rlv();
-        };
+    /** Opcode for an id from {@link #idOf}: one matrix lookup. */
+    public int select(int id, AddressingMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("mode is null");
+        }
 
-        Integer opcodeObj = parseOpcodeHex(opcodeStr);
-        if (opcodeObj == null) {
-            throw new IllegalStateException("Addressing mode " + mode + " not supported by " + key);
+        int opcode = tables.opcode(id, mode.ordinal());
+        if (opcode == InstructionTables.NONE) {
+            throw new IllegalStateException("Addressing mode " + mode + " not supported by " + tables.mnemonic(id));
         }
 
-        return opcodeObj & 0xFFFF;
+        return opcode & 0xFFFF;
     }
 
-    /**
-     * Accepts "86", "8E", "108E", "10 8E", "0x108E".
-     * Rejects "(HD6309 only)" and other non-hex junk.
-     */
-    private Integer parseOpcodeHex(String opcodeStr) {
-        if (opcodeStr == null) return null;
-
-        String s = opcodeStr.trim();
-        if (s.isEmpty()) return null;
-
-        s = s.replace("0x", "").replace("0X", "");
-        s = s.replaceAll("\\s+", "");
-
-        // Only accept pure hex opcodes: 2..4 hex digits
-        if (!s.matches("^[0-9A-Fa-f]{2,4}$")) {
-            return null;
-        }
+    public boolean supports(int id, AddressingMode mode) {
+        return id != InstructionTables.NONE && tables.supports(id, mode.ordinal());
+    }
 
-        return Integer.parseInt(s, 16);
+    /** Total instruction size (prefix included) for a supported (id, mode). */
+    public int size(int id, AddressingMode mode) {
+        return tables.size(id, mode.ordinal());
     }
-}
\ No newline at end of file
+}
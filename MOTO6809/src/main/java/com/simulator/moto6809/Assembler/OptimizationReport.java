@@ -0,0 +1,32 @@
+package com.simulator.moto6809.Assembler;
+
+/**
+ * What the optimizing mode changed, compared with the classic fixed-size encoding of the same source.
+ * Cycles are static base cycles (+ indexed penalty); a negative saving means a line had to grow
+ * (e.g. a BEQ whose target is out of 8-bit range became LBEQ).
+ *
+ * @param passes             PASS 1 iterations until the layout stopped changing
+ * @param bytesSaved         classic size - optimized size
+ * @param cyclesSaved        classic cycles - optimized cycles (one execution of every line)
+ * @param branchesShortened  LBxx written, Bxx emitted
+ * @param branchesLengthened Bxx written, LBxx emitted
+ * @param pcRelativeShortened LABEL,PC emitted with an 8-bit offset
+ * @param directPageOperands  operands emitted as DIRECT thanks to SETDP
+ * @param peepholeRewrites    JMP/JSR emitted as BRA/BSR
+ */
+public record OptimizationReport(int passes,
+                                 int bytesSaved,
+                                 int cyclesSaved,
+                                 int branchesShortened,
+                                 int branchesLengthened,
+                                 int pcRelativeShortened,
+                                 int directPageOperands,
+                                 int peepholeRewrites) {
+
+    @Override
+    public String toString() {
+        return String.format("saved %d bytes, %d cycles in %d passes (branches -%d/+%d, PC-relative %d, DP %d, peephole %d)",
+                bytesSaved, cyclesSaved, passes, branchesShortened, branchesLengthened,
+                pcRelativeShortened, directPageOperands, peepholeRewrites);
+    }
+}
@@ -0,0 +1,17 @@
+package com.simulator.moto6809.Assembler;
+
+/**
+ * Switches for AssemblerProgram's optimizing mode.
+ *
+ * @param relaxBranches iterate PASS 1 to a fixed point, using 8-bit branches (Bxx/LBxx) and
+ *                      8-bit LABEL,PC offsets wherever the target fits
+ * @param directPage    use DIRECT addressing for operands inside the page declared with SETDP
+ * @param peephole      safe rewrites: JMP/JSR to an in-range target become BRA/BSR
+ */
+public record OptimizeOptions(boolean relaxBranches, boolean directPage, boolean peephole) {
+
+    /** Relaxation + direct page, no rewriting of the instructions written in the source. */
+    public static final OptimizeOptions DEFAULT = new OptimizeOptions(true, true, false);
+
+    public static final OptimizeOptions ALL = new OptimizeOptions(true, true, true);
+}
@@ -25,7 +25,7 @@ public class SymbolTable {
 
     public boolean contains(String label) {
         if (label == null) return false;
-        String k = label.trim().toUpperCase();
+        String k = canonical(label);
         return !k.isEmpty() && symbols.containsKey(k);
     }
 
@@ -45,11 +45,26 @@ public class SymbolTable {
 
     private String normalize(String label) {
         if (label == null) throw new IllegalArgumentException("label is null");
-        String k = label.trim().toUpperCase();
+        String k = canonical(label);
         if (k.isEmpty()) throw new IllegalArgumentException("label is empty");
         return k;
     }
 
+    // trim + upper-case, without copying when the label is already canonical (the common case)
+    private static String canonical(String label) {
+        int len = label.length();
+        if (len == 0) return label;
+        if (label.charAt(0) > ' ' && label.charAt(len - 1) > ' ') {
+            boolean upper = true;
+            for (int i = 0; i < len && upper; i++) {
+                char c = label.charAt(i);
+                upper = (c < 'a' || c > 'z') && c < 0x80;
+            }
+            if (upper) return label;
+        }
+        return label.trim().toUpperCase();
+    }
+
     public void clear()
     {
         symbols.clear();
@@ -2,7 +2,11 @@ package com.simulator.moto6809.Bootstrap;
 
 import com.simulator.moto6809.Assembler.Assembler;
 import com.simulator.moto6809.Assembler.AssemblerProgram;
+import com.simulator.moto6809.Assembler.AssemblyCache;
+import com.simulator.moto6809.Assembler.AssemblyResult;
+import com.simulator.moto6809.Assembler.IncrementalAssembler;
 import com.simulator.moto6809.Assembler.OpcodeSelector;
+import com.simulator.moto6809.Assembler.OptimizeOptions;
 
 import com.simulator.moto6809.Debugger.BreakpointManager;
 import com.simulator.moto6809.Debugger.DebugController;
@@ -10,24 +14,27 @@ import com.simulator.moto6809.Debugger.DebugController;
 import com.simulator.moto6809.Decoder.InstructionSet;
 
 import com.simulator.moto6809.Execution.CPU.CPU;
+import com.simulator.moto6809.Execution.CPU.RunStopReason;
 
 import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Loader.ImageLoader;
+import com.simulator.moto6809.Loader.LoadedImage;
 import com.simulator.moto6809.Logger.ILogger;
 import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Logger.Logger;
 
 import com.simulator.moto6809.Memory.Memory;
 import com.simulator.moto6809.Memory.MemoryBus;
 
-import com.simulator.moto6809.Registers.RegisterFunctions;
+import com.simulator.moto6809.Metrics.SimulatorMetrics;
 
-import com.simulator.moto6809.Resource.InstructionCsvLoader;
-import com.simulator.moto6809.Resource.InstructionCsvRow;
+import com.simulator.moto6809.Registers.RegisterFunctions;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
-import java.util.Map;
 
 public final class Bootstrap {
 
@@ -43,16 +50,30 @@ public final class Bootstrap {
     private final DebugController debugController;
 
     private final CPU cpu;
+    private final SimulatorMetrics metrics;
 
+    private final OpcodeSelector opcodeSelector;
     private final AssemblerProgram assemblerProgram;
+    private final IncrementalAssembler incrementalAssembler;
+    private volatile AssemblyCache assemblyCache; // optional, null = always assemble
+    private volatile OptimizeOptions optimizeOptions; // optional, null = classic assembly
 
     public Bootstrap(ILogger logger) {
+        this(logger, null, null);
+    }
+
+    /**
+     * Builds a machine around already-loaded (immutable) instruction tables.
+     * Used by {@link MachineFactory} so many isolated machines can share one InstructionSet/OpcodeSelector.
+     * Null tables are built from the process-wide precompiled InstructionTables (no CSV parsing).
+     */
+    public Bootstrap(ILogger logger, InstructionSet sharedInstructionSet, OpcodeSelector sharedSelector) {
         this.logger = (logger != null) ? logger : new StdoutLogger();
 
         this.memory = new Memory(this.logger);
         this.bus = new MemoryBus(this.memory);
 
-        this.instructionSet = new InstructionSet(this.logger);
+        this.instructionSet = (sharedInstructionSet != null) ? sharedInstructionSet : new InstructionSet(this.logger);
         this.registers = new RegisterFunctions(this.logger);
 
         this.breakpointManager = new BreakpointManager();
@@ -60,8 +81,62 @@ public final class Bootstrap {
         this.debugController.stop();
 
         this.cpu = new CPU(this.bus, this.registers, this.instructionSet, this.logger, this.debugController);
+        this.metrics = newMetrics(this.cpu, this.logger);
 
-        this.assemblerProgram = buildAssemblerProgram(this.logger, this.instructionSet);
+        this.opcodeSelector = (sharedSelector != null) ? sharedSelector : new OpcodeSelector(this.instructionSet.tables());
+        this.assemblerProgram = new AssemblerProgram(new Assembler(opcodeSelector), this.instructionSet);
+        this.incrementalAssembler = new IncrementalAssembler(this.assemblerProgram);
+    }
+
+    // Fork: copy-on-write memory, copied registers/CPU/debugger state, shared instruction tables
+    private Bootstrap(Bootstrap parent, ILogger logger) {
+        this.logger = (logger != null) ? logger : parent.logger;
+
+        this.memory = parent.memory.fork(this.logger);
+        this.bus = new MemoryBus(this.memory);
+
+        this.instructionSet = parent.instructionSet;
+        this.registers = new RegisterFunctions(this.logger);
+        this.registers.copyFrom(parent.registers);
+
+        this.breakpointManager = new BreakpointManager();
+        this.breakpointManager.copyFrom(parent.breakpointManager);
+        this.debugController = new DebugController(this.breakpointManager);
+        this.debugController.copyStateFrom(parent.debugController);
+
+        this.cpu = new CPU(this.bus, this.registers, this.instructionSet, this.logger, this.debugController);
+        this.metrics = newMetrics(this.cpu, this.logger);
+        this.cpu.copyStateFrom(parent.cpu);
+
+        this.opcodeSelector = parent.opcodeSelector;
+        this.assemblerProgram = new AssemblerProgram(new Assembler(opcodeSelector), this.instructionSet);
+        this.incrementalAssembler = new IncrementalAssembler(this.assemblerProgram);
+        this.assemblyCache = parent.assemblyCache;
+        this.optimizeOptions = parent.optimizeOptions;
+    }
+
+    /**
+     * Returns an independent copy of this machine in its current state.
+     * Memory pages are shared copy-on-write, so a fork costs a few KB plus the pages it writes.
+     * The first fork permanently switches this machine's memory to paged storage as well:
+     * memory().getMemory() and bus().getRawMemory() throw from then on, and arrays obtained from them
+     * earlier no longer track the machine. Read through bus() (read/readBlock) on machines that may fork.
+     * Listeners (UI, CPU listener) are not copied. Bench3_ForkMain measures the cost.
+     */
+    public Bootstrap fork(ILogger logger) {
+        Bootstrap child = new Bootstrap(this, logger);
+        bus.syncStorageFrom(memory); // this machine may have just switched to paged storage
+        return child;
+    }
+
+    private static SimulatorMetrics newMetrics(CPU cpu, ILogger logger) {
+        SimulatorMetrics m = new SimulatorMetrics(cpu.metrics());
+        if (logger instanceof Logger fileLogger) m.setLogDropSource(fileLogger::droppedLogLines);
+        return m;
+    }
+
+    public Bootstrap fork() {
+        return fork(null);
     }
 
     public Memory memory() { return memory; }
@@ -70,12 +145,94 @@ public final class Bootstrap {
     public RegisterFunctions registers() { return registers; }
     public DebugController debug() { return debugController; }
     public CPU cpu() { return cpu; }
+    /** Counters for JMX or headless polling (fresh for each fork). */
+    public SimulatorMetrics metrics() { return metrics; }
     public AssemblerProgram assemblerProgram() { return assemblerProgram; }
 
     public int loadAsmToRom(List<String> asmLines, Integer defaultOrigin, boolean writeResetVectorIfMissing) {
+        return loadProgram(assemble(asmLines, defaultOrigin), writeResetVectorIfMissing);
+    }
+
+    /**
+     * Assembles once; the result can be loaded, listed and mapped without re-assembling.
+     * With an assembly cache set, unchanged sources are read back from disk instead.
+     * With optimize options set, the optimizing mode is used (the cache only holds classic output).
+     */
+    public AssemblyResult assemble(List<String> asmLines, Integer defaultOrigin) {
         int origin = (defaultOrigin != null) ? (defaultOrigin & 0xFFFF) : (memory.getROMstart() & 0xFFFF);
+        OptimizeOptions optimize = optimizeOptions;
+        if (optimize != null) return assemblerProgram.assembleProgram(asmLines, origin, optimize);
+        AssemblyCache cache = assemblyCache;
+        return (cache != null)
+                ? cache.assemble(assemblerProgram, asmLines, origin)
+                : assemblerProgram.assembleProgram(asmLines, origin);
+    }
+
+    public void setAssemblyCache(AssemblyCache cache) { this.assemblyCache = cache; }
+    public AssemblyCache assemblyCache() { return assemblyCache; }
+
+    public void setOptimizeOptions(OptimizeOptions options) { this.optimizeOptions = options; }
+    public OptimizeOptions optimizeOptions() { return optimizeOptions; }
+
+    /**
+     * Same result as assemble(), reusing the previous call's work for unchanged lines (editor reloads).
+     * With optimize options set it simply calls assemble(): the optimizer rewrites the whole program.
+     * The assembly cache is not consulted (it holds the same classic output the incremental pass rebuilds).
+     * Not thread-safe: call from one thread (the UI's CPU thread).
+     */
+    public AssemblyResult assembleIncremental(List<String> asmLines, Integer defaultOrigin) {
+        if (optimizeOptions != null) return assemble(asmLines, defaultOrigin);
+        int origin = (defaultOrigin != null) ? (defaultOrigin & 0xFFFF) : (memory.getROMstart() & 0xFFFF);
+        return incrementalAssembler.assemble(asmLines, origin);
+    }
+
+    /** Loads an assembled program into ROM. Returns the entry point. */
+    public int loadProgram(AssemblyResult program, boolean writeResetVectorIfMissing) {
+        bus.syncRomRangeFrom(memory);
+        return AssemblerProgram.loadIntoRom(memory, program, writeResetVectorIfMissing);
+    }
+
+    /**
+     * Headless stop rule (as the UI's "PC left loaded ROM"): run() halts on a branch to itself or
+     * when PC lands on a ROM byte the program did not load. RAM stays executable.
+     */
+    public void haltAtProgramEnd(AssemblyResult program) {
+        int romStart = memory.getROMstart();
+        int romEnd = memory.getROMend();
+        cpu.setEndOfProgramRule(pc -> pc < romStart || pc > romEnd || program.isOccupied(pc));
+    }
+
+    /**
+     * Loads an S-record / Intel HEX / raw binary image (format from the extension) without assembling.
+     * The file's entry point becomes the reset vector when the image does not load one.
+     */
+    public LoadedImage loadImageFile(Path imageFile) throws IOException {
+        LoadedImage image = ImageLoader.load(imageFile, memory);
         bus.syncRomRangeFrom(memory);
-        return assemblerProgram.assembleToRom(memory, asmLines, origin, writeResetVectorIfMissing);
+        if (image.hasEntryPoint() && !image.loadsResetVector()) {
+            int ep = image.entryPoint();
+            memory.loadBytes(0xFFFE, new byte[]{(byte) (ep >> 8), (byte) ep}, true);
+        }
+        logger.logf(LogLevel.INFO, "Image loaded: %s", image);
+        return image;
+    }
+
+    /**
+     * Backs [start, endInclusive] with a memory-mapped file (persistent RAM with READ_WRITE, a ROM image
+     * shared across processes with PRIVATE or READ_ONLY). Must be done before fork().
+     */
+    public void mapMemoryFile(int start, int endInclusive, Path file, FileChannel.MapMode mode) throws IOException {
+        memory.mapFile(start, endInclusive, file, mode);
+        bus.syncStorageFrom(memory);
+    }
+
+    /**
+     * Adds an MMU with bankCount 8 KB banks, switched by writes to registerBase..registerBase+7 (see BankedMemory).
+     * Must be done before fork(); forks then share the banks copy-on-write and keep the bank selection.
+     */
+    public void enableBanking(int bankCount, int registerBase) {
+        memory.enableBanking(bankCount, registerBase);
+        bus.syncStorageFrom(memory);
     }
 
     public void resetCpu() {
@@ -87,6 +244,11 @@ public final class Bootstrap {
         cpu.run(maxInstructions);
     }
 
+    /** Run with an instruction and/or cycle budget (0 = no limit). */
+    public RunStopReason run(int maxInstructions, long maxCycles) {
+        return cpu.run(maxInstructions, maxCycles);
+    }
+
     public int stepOnce() {
         return cpu.stepOnce();
     }
@@ -108,17 +270,9 @@ public final class Bootstrap {
         return assemblerProgram.assembleListing(asmLines, origin & 0xFFFF);
     }
 
-    private AssemblerProgram buildAssemblerProgram(ILogger logger, InstructionSet instructionSet) {
-        InstructionCsvLoader loader = new InstructionCsvLoader(logger);
-        Map<String, InstructionCsvRow> opcodeTable = loader.loadOpcodeTable();
-
-        OpcodeSelector selector = new OpcodeSelector(opcodeTable);
-        Assembler assembler = new Assembler(selector, instructionSet);
-        return new AssemblerProgram(assembler, instructionSet);
-    }
-
     private static final class StdoutLogger implements ILogger {
         @Override public void log(String message, LogLevel level) {
+            if (!isEnabled(level)) return;
             String msg = "[" + level + "] " + message;
             if (level == LogLevel.ERROR) System.err.println(msg);
             else System.out.println(msg);
@@ -0,0 +1,54 @@
+package com.simulator.moto6809.Bootstrap;
+
+import com.simulator.moto6809.Assembler.AssemblyCache;
+import com.simulator.moto6809.Assembler.OpcodeSelector;
+import com.simulator.moto6809.Assembler.OptimizeOptions;
+import com.simulator.moto6809.Decoder.InstructionSet;
+import com.simulator.moto6809.Execution.CPU.CycleMode;
+import com.simulator.moto6809.Logger.ILogger;
+
+/**
+ * Creates fully isolated machines (memory, registers, CPU, debugger, assembler state)
+ * that all share the same immutable instruction tables.
+ * The tables are the process-wide InstructionTables, loaded once; newMachine() only allocates per-machine state.
+ * Safe to call newMachine() from several threads.
+ */
+public final class MachineFactory {
+
+    private final InstructionSet instructionSet;
+    private final OpcodeSelector opcodeSelector;
+    private volatile AssemblyCache assemblyCache;
+    private volatile OptimizeOptions optimizeOptions;
+    private volatile CycleMode cycleMode = CycleMode.TABLE;
+
+    public MachineFactory(ILogger logger) {
+        this.instructionSet = new InstructionSet(logger);
+        this.opcodeSelector = new OpcodeSelector(instructionSet.tables());
+    }
+
+    public InstructionSet instructionSet() { return instructionSet; }
+    public OpcodeSelector opcodeSelector() { return opcodeSelector; }
+
+    /** Optional on-disk assembly cache given to every new machine (null = none). */
+    public void setAssemblyCache(AssemblyCache cache) { this.assemblyCache = cache; }
+    public AssemblyCache assemblyCache() { return assemblyCache; }
+
+    /** Optimizing-assembler options given to every new machine (null = classic). */
+    public void setOptimizeOptions(OptimizeOptions options) { this.optimizeOptions = options; }
+    public OptimizeOptions optimizeOptions() { return optimizeOptions; }
+
+    /** Cycle counting given to every new machine (default TABLE). */
+    public void setCycleMode(CycleMode mode) {
+        if (mode == null) throw new IllegalArgumentException("mode is null");
+        this.cycleMode = mode;
+    }
+    public CycleMode cycleMode() { return cycleMode; }
+
+    public Bootstrap newMachine(ILogger logger) {
+        Bootstrap machine = new Bootstrap(logger, instructionSet, opcodeSelector);
+        machine.setAssemblyCache(assemblyCache);
+        machine.setOptimizeOptions(optimizeOptions);
+        machine.cpu().setCycleMode(cycleMode);
+        return machine;
+    }
+}
@@ -245,6 +245,7 @@ public final class ConsoleUI {
     private static final class StdoutLogger implements ILogger {
         @Override
         public void log(String message, LogLevel level) {
+            if (!isEnabled(level)) return;
             String msg = "[" + level + "] " + message;
             if (level == LogLevel.ERROR) System.err.println(msg);
             else System.out.println(msg);
@@ -20,6 +20,15 @@ public class BreakpointManager {
         breakpoints.clear();
     }
 
+    public void copyFrom(BreakpointManager other) {
+        breakpoints.clear();
+        for (Breakpoint bp : other.breakpoints.values()) {
+            Breakpoint copy = new Breakpoint(bp.getAddress());
+            copy.setEnabled(bp.isEnabled());
+            breakpoints.put(copy.getAddress(), copy);
+        }
+    }
+
     public boolean hasEnabledAt(int address) {
         Breakpoint bp = breakpoints.get(address & 0xFFFF);
         return bp != null && bp.isEnabled();
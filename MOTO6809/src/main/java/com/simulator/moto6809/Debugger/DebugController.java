@@ -18,6 +18,12 @@ public class DebugController {
         this.breakpoints = breakpoints;
     }
 
+    /** Copies mode and pending step (breakpoints are copied through BreakpointManager). */
+    public void copyStateFrom(DebugController other) {
+        mode = other.mode;
+        stepRequested = other.stepRequested;
+    }
+
     public Mode mode() {
         return mode;
     }
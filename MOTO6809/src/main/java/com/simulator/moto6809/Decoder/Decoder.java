@@ -41,8 +41,8 @@ public class Decoder {
             throw new IllegalStateException(msg);
         }
 
-        // 4) Resolve addressing mode
-        AddressingMode mode = resolveModeFromDefinition(def, opcode);
+        // 4) Resolve addressing mode (precomputed per opcode)
+        AddressingMode mode = instructionSet.tables().modeForOpcode(opcode);
         if (mode == null) {
             String msg = String.format(
                     "Opcode $%04X found but addressing mode not resolved (PC=$%04X)",
@@ -80,7 +80,7 @@ public class Decoder {
             int postAddr = (pc + opcodeBytes) & 0xFFFF;
             int postbyte = bus.read(postAddr) & 0xFF;
 
-            int extra = indexedExtraBytes(postbyte);
+            int extra = IndexedPostbyte.of(postbyte).extraBytes();
             size += extra;
 
             // Guard: indexed must at least include opcode + postbyte
@@ -113,20 +113,6 @@ public class Decoder {
     }
 
 
-    // Mode resolution: find which mode inside the definition matches opcode
-
-    private AddressingMode resolveModeFromDefinition(InstructionDefinition def, int opcode) {
-        int op = opcode & 0xFFFF;
-
-        for (AddressingMode mode : AddressingMode.values()) {
-            if (def.supports(mode) && (def.getOpcode(mode) & 0xFFFF) == op) {
-                return mode;
-            }
-        }
-        return null;
-    }
-
-
     // Operand parsing (per mode)
 
     private int parseOperand(AddressingMode mode, byte[] bytes, int opcodeBytes) {
@@ -147,20 +133,4 @@ public class Decoder {
         }
         return operand;
     }
-
-
-    // Indexed extra bytes after postbyte (6809 rules)
-
-    private int indexedExtraBytes(int postbyte) {
-        // 5-bit constant offset form => no extra bytes after postbyte
-        if ((postbyte & 0x80) == 0) return 0;
-
-        int mode = postbyte & 0x0F;
-
-        return switch (mode) {
-            case 0x8, 0xC -> 1;       // 8-bit offset, 8-bit PC-relative
-            case 0x9, 0xD, 0xF -> 2;  // 16-bit offset, 16-bit PC-relative, [nn] extended indirect
-            default -> 0;             // auto inc/dec, ,R, A/B/D,R, etc.
-        };
-    }
-}
\ No newline at end of file
+}
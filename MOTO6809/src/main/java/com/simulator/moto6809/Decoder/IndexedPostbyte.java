@@ -0,0 +1,117 @@
+package com.simulator.moto6809.Decoder;
+
+import com.simulator.moto6809.Registers.Register;
+
+/**
+ * Decoded form of an indexed-addressing postbyte, precomputed for all 256 values.
+ * Shared by the Decoder (extra bytes), AddressingHelpers (effective address) and
+ * IndexedCycleCalculator (cycle penalty): each just does {@code IndexedPostbyte.of(post)}.
+ *
+ * @param register     index register from bits 6-5 (meaningless for PC-relative / [nn])
+ * @param kind         offset form
+ * @param extraBytes   offset bytes following the postbyte (0, 1 or 2)
+ * @param cyclePenalty extra cycles over the base indexed cost
+ * @param indirect     final EA is the 16-bit word read at the computed address
+ * @param delta        auto-increment (> 0, applied after) / auto-decrement (< 0, applied before) amount,
+ *                     or the sign-extended 5-bit offset for {@link Kind#OFFSET5}
+ */
+public record IndexedPostbyte(Register register, Kind kind, int extraBytes, int cyclePenalty,
+                              boolean indirect, int delta) {
+
+    public enum Kind {
+        OFFSET5,            // n,R (5-bit signed, bit7 = 0)
+        POST_INCREMENT,     // ,R+  ,R++
+        PRE_DECREMENT,      // ,-R  ,--R
+        NO_OFFSET,          // ,R
+        ACC_B,              // B,R
+        ACC_A,              // A,R
+        OFFSET8,            // n,R (8-bit)
+        OFFSET16,           // n,R (16-bit)
+        ACC_D,              // D,R
+        PC_OFFSET8,         // n,PC (8-bit)
+        PC_OFFSET16,        // n,PC (16-bit)
+        EXTENDED_INDIRECT,  // [nn]
+        ILLEGAL;            // modes 0x7 and 0xE
+
+        /** True if the EA starts from the X/Y/U/S register selected by bits 6-5. */
+        public boolean usesIndexRegister() {
+            return this != PC_OFFSET8 && this != PC_OFFSET16 && this != EXTENDED_INDIRECT && this != ILLEGAL;
+        }
+    }
+
+    private static final Register[] REGISTERS = { Register.X, Register.Y, Register.U, Register.S };
+
+    private static final IndexedPostbyte[] TABLE = new IndexedPostbyte[256];
+
+    static {
+        for (int post = 0; post < 256; post++) TABLE[post] = build(post);
+    }
+
+    public static IndexedPostbyte of(int postbyte) {
+        return TABLE[postbyte & 0xFF];
+    }
+
+    public boolean isIllegal() {
+        return kind == Kind.ILLEGAL;
+    }
+
+    private static IndexedPostbyte build(int post) {
+        Register reg = REGISTERS[(post >> 5) & 0b11];
+
+        // 5-bit signed offset: no extra byte, no penalty, never indirect
+        if ((post & 0x80) == 0) {
+            int off5 = post & 0x1F;
+            if ((off5 & 0x10) != 0) off5 |= 0xFFFFFFE0;
+            return new IndexedPostbyte(reg, Kind.OFFSET5, 0, 0, false, off5);
+        }
+
+        int mode = post & 0x0F;
+        boolean indirect = (post & 0x10) != 0;
+
+        Kind kind = switch (mode) {
+            case 0x0, 0x1 -> Kind.POST_INCREMENT;
+            case 0x2, 0x3 -> Kind.PRE_DECREMENT;
+            case 0x4, 0xA -> Kind.NO_OFFSET;     // 0xA is undefined; decoded as ,R
+            case 0x5 -> Kind.ACC_B;
+            case 0x6 -> Kind.ACC_A;
+            case 0x8 -> Kind.OFFSET8;
+            case 0x9 -> Kind.OFFSET16;
+            case 0xB -> Kind.ACC_D;
+            case 0xC -> Kind.PC_OFFSET8;
+            case 0xD -> Kind.PC_OFFSET16;
+            case 0xF -> Kind.EXTENDED_INDIRECT;
+            default -> Kind.ILLEGAL;             // 0x7, 0xE
+        };
+
+        int delta = switch (mode) {
+            case 0x0 -> 1;
+            case 0x1 -> 2;
+            case 0x2 -> -1;
+            case 0x3 -> -2;
+            default -> 0;
+        };
+
+        int extraBytes = switch (mode) {
+            case 0x8, 0xC -> 1;       // 8-bit offset, 8-bit PC-relative
+            case 0x9, 0xD, 0xF -> 2;  // 16-bit offset, 16-bit PC-relative, [nn] extended indirect
+            default -> 0;             // auto inc/dec, ,R, A/B/D,R, etc.
+        };
+
+        int penalty = switch (mode) {
+            case 0x0, 0x2 -> 1; // ,R+  and ,-R
+            case 0x1, 0x3 -> 2; // ,R++ and ,--R
+            case 0x8       -> 1; // 8-bit offset
+            case 0x9, 0xB  -> 4; // 16-bit offset, D,R
+            case 0xC       -> 1; // 8-bit PC-relative
+            case 0xD       -> 5; // 16-bit PC-relative
+            case 0xF       -> 6; // [nn] extended indirect
+            default        -> 0;
+        };
+
+        // [nn] is indirect by definition: its +3 is already in the 6 above
+        if (mode == 0xF) indirect = true;
+        else if (indirect) penalty += 3;
+
+        return new IndexedPostbyte(reg, kind, extraBytes, penalty, indirect, delta);
+    }
+}
@@ -8,9 +8,18 @@ import com.simulator.moto6809.Execution.Instructions.ControlInstructions;
 import com.simulator.moto6809.Logger.ILogger;
 import com.simulator.moto6809.Logger.LogLevel;
 import com.simulator.moto6809.Memory.MemoryBus;
+import com.simulator.moto6809.Profiling.BreakpointHitEvent;
+import com.simulator.moto6809.Profiling.InterruptEntryEvent;
+import com.simulator.moto6809.Profiling.RunSliceEvent;
 import com.simulator.moto6809.Registers.Register;
 import com.simulator.moto6809.Registers.RegisterFunctions;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntPredicate;
+
 import static com.simulator.moto6809.Execution.Instructions.Mnemonics.*;
 
 public class CPU {
@@ -35,12 +44,31 @@ public class CPU {
     private final InstructionExecutor executor;
     private final CycleCounter cycles = new CycleCounter();
     private final InterruptController interrupts = new InterruptController();
+    private final CpuMetrics metrics = new CpuMetrics();
 
     private final ILogger logger;
     private final DebugController debug;
 
     private CpuMode mode = CpuMode.RUNNING;
+    private CycleMode cycleMode = CycleMode.TABLE;
     private DecodedInstruction lastInstruction = null;
+    private boolean breakpointHit = false;
+    private IntPredicate programBytes = null;   // end-of-program rule for headless runs (null = off)
+
+    // Seqlock for concurrent readers (UI/debugger): odd while the CPU thread mutates state
+    private static final VarHandle SEQ;
+    static {
+        try {
+            SEQ = MethodHandles.lookup().findVarHandle(CPU.class, "seq", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    private long seq = 0;
+    private Thread mutator; // thread inside stepOnce/reset (listeners may call view() re-entrantly)
+
+    private static final int OPTIMISTIC_TRIES = 64;
+    private final AtomicReference<ViewRequest> viewRequest = new AtomicReference<>();
 
     // Construction
 
@@ -74,21 +102,44 @@ public class CPU {
 
     public InterruptController interrupts() { return interrupts; }
 
+    /** Lifetime counters, readable from any thread. */
+    public CpuMetrics metrics() { return metrics; }
+
 
     // Reset behavior (REAL 6809)
 
     public void reset() {
+        beginMutation();
+        try {
+            resetInternal();
+        } finally {
+            endMutation();
+        }
+    }
+
+    private void resetInternal() {
         mode = CpuMode.RUNNING;
         cycles.reset();
         interrupts.clearAll();
         lastInstruction = null;
+        breakpointHit = false;
 
         int pc = readVector(VEC_RESET);
         regs.setRegister(Register.PC, pc);
 
         if (logger != null)
-            logger.log(String.format("CPU RESET -> PC loaded from vector $%04X = $%04X", VEC_RESET, pc),
-                    LogLevel.INFO);
+            logger.logf(LogLevel.INFO, "CPU RESET -> PC loaded from vector $%04X = $%04X", VEC_RESET, pc);
+    }
+
+    /** Copies execution state (mode, counters, pending interrupts) from other. Registers/memory are copied by the caller. */
+    public void copyStateFrom(CPU other) {
+        mode = other.mode;
+        cycleMode = other.cycleMode;
+        programBytes = other.programBytes;
+        lastInstruction = other.lastInstruction;
+        breakpointHit = other.breakpointHit;
+        cycles.copyFrom(other.cycles);
+        interrupts.copyFrom(other.interrupts);
     }
 
     public void halt() {
@@ -102,8 +153,33 @@ public class CPU {
 
     public CpuMode mode() { return mode; }
 
+    /**
+     * Headless end-of-program rule (farm/batch runs, where nothing outside can wake the program):
+     * run() halts when an instruction branches/jumps to itself with no interrupt pending (BRA *),
+     * or leaves PC on an address for which {@code programBytes} is false (e.g. erased ROM).
+     * null disables it (interactive use, where the user may still request an interrupt).
+     */
+    public void setEndOfProgramRule(IntPredicate programBytes) {
+        this.programBytes = programBytes;
+    }
+
+    /** In SYNC or CWAI, waiting for an interrupt. */
+    public boolean isWaiting() {
+        return mode == CpuMode.WAIT_SYNC || mode == CpuMode.WAIT_CWAI;
+    }
+
+    public CycleMode cycleMode() { return cycleMode; }
+
+    /** TABLE (default) or EXACT data-sheet timing; applies from the next instruction. */
+    public void setCycleMode(CycleMode cycleMode) {
+        if (cycleMode == null) throw new IllegalArgumentException("cycleMode is null");
+        this.cycleMode = cycleMode;
+    }
+
     public long totalCycles() { return cycles.getTotalCycles(); }
 
+    public long totalInstructions() { return cycles.getTotalInstructions(); }
+
     public CpuStateSnapshot snapshot() {
         return CpuStateSnapshot.from(regs, cycles, lastInstruction);
     }
@@ -113,8 +189,16 @@ public class CPU {
 
     public int stepOnce()
     {
+        beginMutation();
+        try {
+            return stepInternal();
+        } finally {
+            endMutation();
+        }
+    }
 
-
+    private int stepInternal()
+    {
         // 0) Stop conditions
         if (mode == CpuMode.HALTED)
             return 0;
@@ -135,8 +219,15 @@ public class CPU {
         // breakpoint check BEFORE executing instruction at PC
         if (debug != null && debug.shouldBreakAt(pc)) {
             if (logger != null)
-                logger.log(String.format("Breakpoint hit at PC=$%04X", pc), LogLevel.INFO);
+                logger.logf(LogLevel.INFO, "Breakpoint hit at PC=$%04X", pc);
+            BreakpointHitEvent event = new BreakpointHitEvent();
+            if (event.shouldCommit()) {
+                event.pc = pc;
+                event.totalCycles = cycles.getTotalCycles();
+                event.commit();
+            }
             debug.pause();
+            breakpointHit = true;
             return 0;
         }
 
@@ -149,11 +240,15 @@ public class CPU {
         // 3) Decode
         DecodedInstruction instr = decoder.decodeAt(bus, pc);
 
-        // 4) Execute
+        // 4) Execute (exact timing reads branch condition / stacked CC before the instruction changes them)
+        int exact = (cycleMode == CycleMode.EXACT) ? ExactCycles.of(instr, regs, bus) : 0;
         int used = executor.execute(instr);
+        if (cycleMode == CycleMode.EXACT) used = exact;
 
         // 5) Add cycles
         cycles.add(used);
+        cycles.countInstruction();
+        metrics.instruction(used);
 
         // 6) Advance PC if instruction didn't change it
         int pcAfter = regs.getRegister(Register.PC);
@@ -195,10 +290,44 @@ public class CPU {
     // Run loop (UI Run)
 
     public void run(int maxInstructions) {
+        run(maxInstructions, 0);
+    }
+
+    /**
+     * Run until halted, paused (breakpoint/step/external) or a budget is exhausted.
+     * @param maxInstructions instruction budget for this call (0 = unlimited)
+     * @param maxCycles cycle budget for this call (0 = unlimited)
+     */
+    public RunStopReason run(int maxInstructions, long maxCycles) {
         if (mode == CpuMode.HALTED)
-            return;
+            return RunStopReason.HALTED;
+
+        RunSliceEvent event = new RunSliceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long before = cycles.getTotalInstructions();
+        long cyclesBefore = cycles.getTotalCycles();
+        RunStopReason reason = null;
+        try {
+            reason = runSlice(maxInstructions, maxCycles);
+            return reason;
+        } finally {
+            long executed = Math.max(0, cycles.getTotalInstructions() - before);
+            metrics.runSlice(executed, System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.instructions = executed;
+                event.cycles = cycles.getTotalCycles() - cyclesBefore;
+                event.stopReason = reason != null ? reason.name() : "EXCEPTION";
+                event.commit();
+            }
+        }
+    }
 
+    private RunStopReason runSlice(int maxInstructions, long maxCycles) {
         if (debug != null) debug.run();
+        breakpointHit = false;
+
+        long cycleLimit = (maxCycles > 0) ? cycles.getTotalCycles() + maxCycles : Long.MAX_VALUE;
 
         int executed = 0;
         while (mode != CpuMode.HALTED) {
@@ -206,42 +335,75 @@ public class CPU {
             if (debug != null) {
                 if (debug.mode() == DebugController.Mode.PAUSED ||
                         debug.mode() == DebugController.Mode.STOPPED) {
-                    break;
+                    return breakpointHit ? RunStopReason.BREAKPOINT : RunStopReason.STOPPED;
                 }
             }
 
-            stepOnce();
+            // a wait burns no cycles: return instead of spinning until an outside request arrives
+            if (isWaiting() && interrupts.next(regs) == null) {
+                return RunStopReason.WAITING;
+            }
+
+            int pcBefore = regs.getRegister(Register.PC);
+            int used = stepOnce();
             executed++;
 
+            if (programBytes != null && used > 0 && reachedProgramEnd(pcBefore)) {
+                mode = CpuMode.HALTED;
+                if (logger != null)
+                    logger.logf(LogLevel.INFO, "Program ended at PC=$%04X -> HALTED", regs.getRegister(Register.PC));
+                return RunStopReason.HALTED;
+            }
+
             if (debug != null && debug.stepRequested()) {
                 debug.clearStepRequest();
                 debug.pause();
-                break;
+                return RunStopReason.STEP;
             }
 
             if (maxInstructions > 0 && executed >= maxInstructions) {
                 if (logger != null)
-                    logger.log("Run stopped: maxInstructions reached (" + maxInstructions + ")", LogLevel.WARNING);
-                break;
+                    logger.logf(LogLevel.WARNING, "Run stopped: maxInstructions reached (%d)", maxInstructions);
+                return RunStopReason.MAX_INSTRUCTIONS;
+            }
+
+            if (cycles.getTotalCycles() >= cycleLimit) {
+                if (logger != null)
+                    logger.logf(LogLevel.WARNING, "Run stopped: maxCycles reached (%d)", maxCycles);
+                return RunStopReason.MAX_CYCLES;
             }
         }
+        return RunStopReason.HALTED;
+    }
+
+
+    private boolean reachedProgramEnd(int pcBefore) {
+        // waiting, or about to vector (SWI, unmasked request): PC is not where execution continues
+        if (isWaiting() || interrupts.next(regs) != null) return false;
+        int pc = regs.getRegister(Register.PC);
+        return pc == pcBefore || !programBytes.test(pc);
     }
 
 
     // Interrupt entry (REAL 6809)
 
     private int takeInterrupt(InterruptType type) {
+        InterruptEntryEvent event = new InterruptEntryEvent();
+        event.begin();
+        long latency = event.isEnabled() ? interrupts.latencyNanos(type) : 0; // before a new request can re-stamp
 
         // Acknowledge line now (latched)
         interrupts.acknowledge(type);
 
         // If we were waiting, resume execution
+        boolean afterCwai = mode == CpuMode.WAIT_CWAI;
         if (mode == CpuMode.WAIT_SYNC || mode == CpuMode.WAIT_CWAI) {
             mode = CpuMode.RUNNING;
         }
 
         // Let ControlInstructions do the correct stacking + flags timing
         int entryCycles = ControlInstructions.enterInterrupt(type, regs, bus);
+        if (cycleMode == CycleMode.EXACT) entryCycles = ExactCycles.interruptEntry(type, afterCwai);
 
         // Load PC from correct vector
         int vectorAddr = vectorAddress(type);
@@ -250,10 +412,17 @@ public class CPU {
 
         // Add cycles
         cycles.add(entryCycles);
+        metrics.interrupt(type, entryCycles);
+        if (event.shouldCommit()) {
+            event.interruptType = type.name();
+            event.entryCycles = entryCycles;
+            event.latency = latency;
+            event.commit();
+        }
 
         if (logger != null) {
-            logger.log(String.format("INTERRUPT %-4s -> vector $%04X => PC=$%04X (cycles +%d)",
-                    type, vectorAddr, newPc, entryCycles), LogLevel.INFO);
+            logger.logf(LogLevel.INFO, "INTERRUPT %-4s -> vector $%04X => PC=$%04X (cycles +%d)",
+                    type, vectorAddr, newPc, entryCycles);
         }
 
         // return cycles used by interrupt entry (useful for stepOnce)
@@ -276,5 +445,101 @@ public class CPU {
         // Vectors are big-endian 16-bit addresses in memory
         return bus.readWord(address) & 0xFFFF;
     }
-}
 
+
+    // Consistent views for other threads (seqlock + boundary fallback)
+
+    private void beginMutation() {
+        mutator = Thread.currentThread();
+        SEQ.setOpaque(this, seq + 1);  // odd: state is changing
+        VarHandle.storeStoreFence();   // ...before any state write
+    }
+
+    private void endMutation() {
+        SEQ.setRelease(this, seq + 1); // even: all writes above are visible
+        ViewRequest r = viewRequest.get();
+        if (r != null && viewRequest.compareAndSet(r, null)) {
+            r.complete(capture(r.address, r.length)); // bounded copy at this boundary
+            metrics.viewHandoff();
+        }
+    }
+
+    /**
+     * Registers + memory [address, address+length) as of one instruction boundary. Callable from any thread;
+     * never blocks the CPU thread (readers retry, then ask the CPU thread for a copy at its next boundary).
+     */
+    public MachineView view(int address, int length) {
+        if (length < 0 || length > MemoryBus.ADDRESS_SPACE) throw new IllegalArgumentException("Bad length: " + length);
+        if ((((long) SEQ.getOpaque(this)) & 1) != 0 && mutator == Thread.currentThread()) {
+            return capture(address & 0xFFFF, length); // called from inside an instruction (CPU listener)
+        }
+
+        while (true) {
+            for (int i = 0; i < OPTIMISTIC_TRIES; i++) {
+                long s1 = (long) SEQ.getAcquire(this);
+                if ((s1 & 1) != 0) { Thread.onSpinWait(); continue; }
+                CpuStateSnapshot cpu = CpuStateSnapshot.from(regs, cycles, lastInstruction);
+                byte[] bytes = new byte[length];
+                bus.readBlock(address, bytes, 0, length);
+                VarHandle.acquireFence();
+                if ((long) SEQ.getOpaque(this) == s1) return new MachineView(cpu, address & 0xFFFF, bytes, s1);
+            }
+
+            // Busy CPU: let it copy at its next boundary (if it is idle, cancel and retry optimistically)
+            ViewRequest r = new ViewRequest(address & 0xFFFF, length);
+            if (!viewRequest.compareAndSet(null, r)) { Thread.yield(); continue; }
+            MachineView v = r.await(1_000_000L);
+            if (v != null) return v;
+            if (viewRequest.compareAndSet(r, null)) continue; // not taken: CPU is idle
+            while ((v = r.await(1_000_000L)) == null) Thread.onSpinWait(); // taken: result is imminent
+            return v;
+        }
+    }
+
+    /** Memory-only variant of view(): copies [address, address+length) from one instruction boundary into dst. */
+    public void readMemoryConsistent(int address, byte[] dst, int offset, int length) {
+        for (int i = 0; i < OPTIMISTIC_TRIES; i++) {
+            long s1 = (long) SEQ.getAcquire(this);
+            if ((s1 & 1) != 0) { Thread.onSpinWait(); continue; }
+            bus.readBlock(address, dst, offset, length);
+            VarHandle.acquireFence();
+            if ((long) SEQ.getOpaque(this) == s1) return;
+        }
+        byte[] bytes = view(address, length).bytes();
+        System.arraycopy(bytes, 0, dst, offset, length);
+    }
+
+    private MachineView capture(int address, int length) {
+        byte[] bytes = new byte[length];
+        bus.readBlock(address, bytes, 0, length);
+        return new MachineView(CpuStateSnapshot.from(regs, cycles, lastInstruction), address, bytes, seq);
+    }
+
+    private static final class ViewRequest {
+        final int address;
+        final int length;
+        final Thread reader = Thread.currentThread();
+        volatile MachineView result;
+
+        ViewRequest(int address, int length) {
+            this.address = address;
+            this.length = length;
+        }
+
+        void complete(MachineView v) {
+            result = v;
+            LockSupport.unpark(reader);
+        }
+
+        MachineView await(long nanos) {
+            long deadline = System.nanoTime() + nanos;
+            MachineView v;
+            while ((v = result) == null) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) return null;
+                LockSupport.parkNanos(this, left);
+            }
+            return v;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.simulator.moto6809.Execution.CPU;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lifetime counters of one CPU (not cleared by reset).
+ *
+ * Thread-confined: only the CPU thread updates them, with opaque stores (no fence, no CAS), so the hot
+ * loop never contends; any thread may read them (values are at most a few instructions stale).
+ */
+public final class CpuMetrics {
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int INSTRUCTIONS = 0;
+    private static final int CYCLES = 1;
+    private static final int RUN_SLICES = 2;
+    private static final int RUN_NANOS = 3;
+    private static final int RUN_INSTRUCTIONS = 4;
+    private static final int VIEW_HANDOFFS = 5;
+    private static final int INTERRUPTS = 6;     // + InterruptType.ordinal()
+
+    private final long[] slots = new long[INTERRUPTS + InterruptType.values().length];
+
+    // CPU thread
+
+    void instruction(int cycles) {
+        add(INSTRUCTIONS, 1);
+        add(CYCLES, cycles);
+    }
+
+    void interrupt(InterruptType type, int entryCycles) {
+        add(INTERRUPTS + type.ordinal(), 1);
+        add(CYCLES, entryCycles);
+    }
+
+    void runSlice(long instructions, long nanos) {
+        add(RUN_SLICES, 1);
+        add(RUN_NANOS, nanos);
+        add(RUN_INSTRUCTIONS, instructions);
+    }
+
+    void viewHandoff() {
+        add(VIEW_HANDOFFS, 1);
+    }
+
+    private void add(int slot, long delta) {
+        SLOT.setOpaque(slots, slot, slots[slot] + delta);
+    }
+
+    // Any thread
+
+    public long instructions() { return get(INSTRUCTIONS); }
+
+    /** Instruction and interrupt-entry cycles. */
+    public long cycles() { return get(CYCLES); }
+
+    public long interrupts(InterruptType type) { return get(INTERRUPTS + type.ordinal()); }
+
+    /** Completed CPU.run calls. */
+    public long runSlices() { return get(RUN_SLICES); }
+
+    /** Wall time spent inside CPU.run. */
+    public long runNanos() { return get(RUN_NANOS); }
+
+    /** Instructions executed inside CPU.run (single steps excluded). */
+    public long runInstructions() { return get(RUN_INSTRUCTIONS); }
+
+    /** Views the CPU thread copied for a reader whose optimistic (seqlock) reads kept failing. */
+    public long viewHandoffs() { return get(VIEW_HANDOFFS); }
+
+    /** Emulated millions of instructions per second of run time; 0 before the first run. */
+    public double emulatedMips() {
+        long nanos = runNanos();
+        return nanos == 0 ? 0.0 : runInstructions() * 1000.0 / nanos;
+    }
+
+    private long get(int slot) {
+        return (long) SLOT.getOpaque(slots, slot);
+    }
+}
@@ -2,13 +2,21 @@ package com.simulator.moto6809.Execution.CPU;
 
 /**
  * Simple cycle counter (can be extended later for accurate penalties/interrupt timing).
+ * Also counts executed instructions (interrupt entries and wait states are not instructions).
  */
 public class CycleCounter {
 
     private long totalCycles = 0;
+    private long totalInstructions = 0;
 
     public void reset() {
         totalCycles = 0;
+        totalInstructions = 0;
+    }
+
+    public void copyFrom(CycleCounter other) {
+        totalCycles = other.totalCycles;
+        totalInstructions = other.totalInstructions;
     }
 
     public void add(int cycles) {
@@ -16,8 +24,15 @@ public class CycleCounter {
         totalCycles += cycles;
     }
 
+    public void countInstruction() {
+        totalInstructions++;
+    }
+
     public long getTotalCycles() {
         return totalCycles;
     }
-}
 
+    public long getTotalInstructions() {
+        return totalInstructions;
+    }
+}
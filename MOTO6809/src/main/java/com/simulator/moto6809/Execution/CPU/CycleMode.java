@@ -0,0 +1,9 @@
+package com.simulator.moto6809.Execution.CPU;
+
+/**
+ * How the CPU counts cycles.
+ */
+public enum CycleMode {
+    TABLE,  // base cycles from the instruction tables + IndexedPostbyte penalty (historical behaviour)
+    EXACT   // MC6809 data-sheet timing, variable parts included (see ExactCycles)
+}
@@ -0,0 +1,109 @@
+package com.simulator.moto6809.Execution.CPU;
+
+import com.simulator.moto6809.Decoder.AddressingMode;
+import com.simulator.moto6809.Decoder.DecodedInstruction;
+import com.simulator.moto6809.Decoder.IndexedPostbyte;
+import com.simulator.moto6809.Execution.Instructions.BranchInstructions;
+import com.simulator.moto6809.Memory.MemoryBus;
+import com.simulator.moto6809.Registers.Register;
+import com.simulator.moto6809.Registers.RegisterFunctions;
+
+/**
+ * MC6809 data-sheet timing ({@link CycleMode#EXACT}): table base cycles plus the variable parts
+ * the tables cannot express.
+ *  - LBcc: +1 when the branch is taken ("5(6)")
+ *  - PSHS/PULS/PSHU/PULU: +1 per byte moved ("5+")
+ *  - indexed: data-sheet postbyte cost (,R+ 2  ,R++ 3  n5/n8/A/B 1  n16/D 4  [n] 5, indirect +3)
+ *  - RTI: 15 when the stacked CC has E=1 (entire state pulled), 6 otherwise ("6/15")
+ *  - interrupt entry: NMI/IRQ 19, FIRQ 10; after CWAI the state is already stacked (counted in its 20)
+ *
+ * Validated against Resources/CycleReference.csv (see Test4_ExactCyclesMain).
+ */
+public final class ExactCycles {
+
+    private static final int[] INDEXED = new int[256];
+    private static final int CC_E = 0x80;
+
+    static {
+        for (int post = 0; post < 256; post++) INDEXED[post] = indexedPenalty(IndexedPostbyte.of(post));
+    }
+
+    private ExactCycles() {}
+
+    /**
+     * Cycles of one execution of {@code instr}; must be called BEFORE executing it
+     * (branch condition from the current registers, RTI's E flag from the CC it is about to pull at [S]).
+     */
+    public static int of(DecodedInstruction instr, RegisterFunctions regs, MemoryBus bus) {
+        int opcode = instr.opcode();
+        boolean taken = isLongConditional(opcode) && BranchInstructions.isTaken(instr, regs);
+        boolean entireState = opcode == 0x3B && (bus.read(regs.getRegister(Register.S)) & CC_E) != 0;
+        byte[] bytes = instr.bytes();
+        int at = instr.opcodeByteCount();
+        int postbyte = (bytes != null && bytes.length > at) ? bytes[at] & 0xFF : 0;
+        return of(opcode, instr.addressingMode(), instr.cycles(), postbyte, taken, entireState);
+    }
+
+    /**
+     * @param base        table cycles for (opcode, mode)
+     * @param postbyte    byte after the opcode (indexed postbyte, push/pull register mask)
+     * @param taken       LBcc condition true
+     * @param entireState RTI pulls the entire state (E=1)
+     */
+    public static int of(int opcode, AddressingMode mode, int base, int postbyte,
+                         boolean taken, boolean entireState) {
+        if (mode == AddressingMode.INDEXED) return base + INDEXED[postbyte & 0xFF];
+
+        return switch (opcode) {
+            case 0x34, 0x35, 0x36, 0x37 -> base + stackBytes(postbyte);     // PSHS, PULS, PSHU, PULU
+            case 0x3B -> entireState ? 15 : 6;                              // RTI
+            default -> isLongConditional(opcode) && taken ? base + 1 : base;
+        };
+    }
+
+    /** Upper bound over every run-time case (branch taken, entire state), for static analysis (TimingAnalyzer). */
+    public static int worstCase(int opcode, AddressingMode mode, int base, int postbyte) {
+        return of(opcode, mode, base, postbyte, true, true);
+    }
+
+    /**
+     * Cycles from the interrupt being taken to the first handler instruction.
+     * SWI/SWI2/SWI3 are counted by the instruction itself.
+     */
+    public static int interruptEntry(InterruptType type, boolean afterCwai) {
+        if (afterCwai) return 0;
+        return switch (type) {
+            case NMI, IRQ -> 19;
+            case FIRQ -> 10;
+            default -> 0;
+        };
+    }
+
+    /** Bytes moved by a push/pull register mask (PC, U/S, Y, X = 2; DP, B, A, CC = 1). */
+    public static int stackBytes(int mask) {
+        int words = Integer.bitCount(mask & 0xF0);
+        int bytes = Integer.bitCount(mask & 0x0F);
+        return 2 * words + bytes;
+    }
+
+    /** Data-sheet extra cycles for an indexed postbyte. */
+    public static int indexedPenalty(int postbyte) {
+        return INDEXED[postbyte & 0xFF];
+    }
+
+    private static boolean isLongConditional(int opcode) {
+        return opcode >= 0x1022 && opcode <= 0x102F;
+    }
+
+    private static int indexedPenalty(IndexedPostbyte pb) {
+        int penalty = switch (pb.kind()) {
+            case NO_OFFSET, ILLEGAL -> 0;
+            case OFFSET5, OFFSET8, ACC_A, ACC_B, PC_OFFSET8 -> 1;
+            case POST_INCREMENT, PRE_DECREMENT -> Math.abs(pb.delta()) + 1;
+            case OFFSET16, ACC_D -> 4;
+            case PC_OFFSET16 -> 5;
+            case EXTENDED_INDIRECT -> 5;
+        };
+        return (pb.indirect() && pb.kind() != IndexedPostbyte.Kind.EXTENDED_INDIRECT) ? penalty + 3 : penalty;
+    }
+}
@@ -1,27 +1,52 @@
 package com.simulator.moto6809.Execution.CPU;
 
+import com.simulator.moto6809.Profiling.InterruptEntryEvent;
 import com.simulator.moto6809.Registers.Flag;
 import com.simulator.moto6809.Registers.RegisterFunctions;
+import jdk.jfr.EventType;
 
 public final class InterruptController {
 
-    // latched requests (pending)
-    private boolean nmi;
-    private boolean irq;
-    private boolean firq;
+    // latched requests (pending); volatile: UI/test threads raise them while the CPU thread runs
+    private volatile boolean nmi;
+    private volatile boolean irq;
+    private volatile boolean firq;
 
     // software interrupts (latched by CPU after executing SWI/SWI2/SWI3)
-    private boolean swi;
-    private boolean swi2;
-    private boolean swi3;
+    private volatile boolean swi;
+    private volatile boolean swi2;
+    private volatile boolean swi3;
 
-    public void requestNMI()  { nmi = true; }
-    public void requestIRQ()  { irq = true; }
-    public void requestFIRQ() { firq = true; }
+    private static final EventType ENTRY_EVENT = EventType.getEventType(InterruptEntryEvent.class);
 
-    public void requestSWI()  { swi = true; }
-    public void requestSWI2() { swi2 = true; }
-    public void requestSWI3() { swi3 = true; }
+    // System.nanoTime() when each request was latched, 0 when the InterruptEntry event was off.
+    // Written before the volatile flag, so the CPU thread sees the stamp that goes with the request it reads.
+    private final long[] requestedAt = new long[InterruptType.values().length];
+
+    public void requestNMI()  { if (!nmi) stamp(InterruptType.NMI); nmi = true; }
+    public void requestIRQ()  { if (!irq) stamp(InterruptType.IRQ); irq = true; }
+    public void requestFIRQ() { if (!firq) stamp(InterruptType.FIRQ); firq = true; }
+
+    public void requestSWI()  { if (!swi) stamp(InterruptType.SWI); swi = true; }
+    public void requestSWI2() { if (!swi2) stamp(InterruptType.SWI2); swi2 = true; }
+    public void requestSWI3() { if (!swi3) stamp(InterruptType.SWI3); swi3 = true; }
+
+    public void copyFrom(InterruptController other) {
+        nmi = other.nmi; irq = other.irq; firq = other.firq;
+        swi = other.swi; swi2 = other.swi2; swi3 = other.swi3;
+        System.arraycopy(other.requestedAt, 0, requestedAt, 0, requestedAt.length);
+    }
+
+    /** Wall time since {@code t} was last latched (0 if it never was). */
+    public long latencyNanos(InterruptType t) {
+        long at = requestedAt[t.ordinal()];
+        return at == 0 ? 0 : Math.max(0, System.nanoTime() - at);
+    }
+
+    // nanoTime only when someone records the event: the request path stays free otherwise
+    private void stamp(InterruptType t) {
+        requestedAt[t.ordinal()] = ENTRY_EVENT.isEnabled() ? System.nanoTime() : 0;
+    }
 
     public void clearAll() {
         nmi = irq = firq = false;
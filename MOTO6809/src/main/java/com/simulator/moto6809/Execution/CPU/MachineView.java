@@ -0,0 +1,24 @@
+package com.simulator.moto6809.Execution.CPU;
+
+/**
+ * Coherent copy of the registers plus one memory range, taken at an instruction boundary
+ * (see CPU.view). Safe to read from any thread.
+ *
+ * @param cpu     registers/flags/cycles at that boundary
+ * @param address first address copied
+ * @param bytes   memory [address, address + bytes.length), wrapping at $FFFF
+ * @param epoch   CPU mutation counter when the copy was taken (even; grows with each instruction)
+ */
+public record MachineView(CpuStateSnapshot cpu, int address, byte[] bytes, long epoch) {
+
+    public int byteAt(int addr) {
+        int i = ((addr & 0xFFFF) - address) & 0xFFFF;
+        if (i >= bytes.length) throw new IllegalArgumentException(String.format("$%04X is outside the view", addr & 0xFFFF));
+        return bytes[i] & 0xFF;
+    }
+
+    /** Big-endian word; both bytes come from the same boundary, so it is never torn. */
+    public int wordAt(int addr) {
+        return (byteAt(addr) << 8) | byteAt(addr + 1);
+    }
+}
@@ -0,0 +1,14 @@
+package com.simulator.moto6809.Execution.CPU;
+
+/**
+ * Why CPU.run(...) returned.
+ */
+public enum RunStopReason {
+    HALTED,
+    BREAKPOINT,
+    STEP,             // single step requested by the debugger
+    STOPPED,          // debugger paused/stopped from outside
+    MAX_INSTRUCTIONS,
+    MAX_CYCLES,
+    WAITING           // SYNC/CWAI with no interrupt pending: nothing inside this call can wake it
+}
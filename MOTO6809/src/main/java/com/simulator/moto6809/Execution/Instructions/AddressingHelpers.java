@@ -2,6 +2,7 @@ package com.simulator.moto6809.Execution.Instructions;
 
 import com.simulator.moto6809.Decoder.AddressingMode;
 import com.simulator.moto6809.Decoder.DecodedInstruction;
+import com.simulator.moto6809.Decoder.IndexedPostbyte;
 import com.simulator.moto6809.Memory.MemoryBus;
 import com.simulator.moto6809.Registers.Register;
 import com.simulator.moto6809.Registers.RegisterFunctions;
@@ -49,7 +50,7 @@ public final class AddressingHelpers
     }
 
 
-    // INDEXED (FULL)
+    // INDEXED (FULL): postbyte decoded once, via the shared 256-entry table
 
     private static int indexed(DecodedInstruction instr, RegisterFunctions regs, MemoryBus bus) {
 
@@ -59,151 +60,70 @@ public final class AddressingHelpers
             throw new IllegalStateException("Indexed decode requires bytes[] including postbyte");
         }
 
-        int opcodeBytes = instr.opcodeByteCount();
-        int postIndex = opcodeBytes;
+        int postIndex = instr.opcodeByteCount();
         int post = bytes[postIndex] & 0xFF;
+        IndexedPostbyte pb = IndexedPostbyte.of(post);
 
         // X/Y/U/S from bits 6-5
-        Register indexReg = switch ((post >> 5) & 0b11) {
-            case 0b00 -> Register.X;
-            case 0b01 -> Register.Y;
-            case 0b10 -> Register.U;
-            case 0b11 -> Register.S;
-            default -> throw new IllegalStateException();
-        };
-
-        int base = regs.getRegister(indexReg) & 0xFFFF;
-
-        // Case 1: 5-bit signed offset (bit7=0)
-
-        if ((post & 0x80) == 0) {
-            int off5 = post & 0x1F;
-            if ((off5 & 0x10) != 0) off5 |= 0xFFFFFFE0; // sign extend 5-bit
-            return (base + off5) & 0xFFFF;
-        }
+        Register indexReg = pb.register();
+        int base = pb.kind().usesIndexRegister() ? regs.getRegister(indexReg) & 0xFFFF : 0;
 
+        int ea = switch (pb.kind()) {
 
-        // Case 2: "complex" indexed (bit7=1)
+            // 5-bit signed offset (bit7=0), already sign-extended
+            case OFFSET5 -> base + pb.delta();
 
-        boolean indirectFlag = (post & 0x10) != 0;
-        int mode = post & 0x0F;
-
-        int ea;
-
-        switch (mode) {
-
-            // ,R+
-            case 0x0 -> {
-                ea = base;
-                regs.setRegister(indexReg, (base + 1) & 0xFFFF);
+            // ,R+ / ,R++
+            case POST_INCREMENT -> {
+                regs.setRegister(indexReg, (base + pb.delta()) & 0xFFFF);
+                yield base;
             }
 
-            // ,R++
-            case 0x1 -> {
-                ea = base;
-                regs.setRegister(indexReg, (base + 2) & 0xFFFF);
-            }
-
-            // ,-R
-            case 0x2 -> {
-                int nb = (base - 1) & 0xFFFF;
-                regs.setRegister(indexReg, nb);
-                ea = nb;
-            }
-
-            // ,--R
-            case 0x3 -> {
-                int nb = (base - 2) & 0xFFFF;
+            // ,-R / ,--R
+            case PRE_DECREMENT -> {
+                int nb = (base + pb.delta()) & 0xFFFF;
                 regs.setRegister(indexReg, nb);
-                ea = nb;
+                yield nb;
             }
 
             // ,R (0 offset)
-            case 0x4 -> ea = base;
-
-            // B,R (signed 8-bit from B)
-            case 0x5 -> {
-                int off = (byte) (regs.getRegister(Register.B) & 0xFF);
-                ea = (base + off) & 0xFFFF;
-            }
-
-            // A,R (signed 8-bit from A)
-            case 0x6 -> {
-                int off = (byte) (regs.getRegister(Register.A) & 0xFF);
-                ea = (base + off) & 0xFFFF;
-            }
+            case NO_OFFSET -> base;
 
-            // (illegal/undefined on many tables; keep strict)
-            case 0x7 -> throw new IllegalStateException("Illegal indexed postbyte mode 0x7");
-
-            // 8-bit offset
-            case 0x8 -> {
-                int off8 = (byte) (bytes[postIndex + 1] & 0xFF);
-                ea = (base + off8) & 0xFFFF;
-            }
-
-            // 16-bit offset
-            case 0x9 -> {
-                int hi = bytes[postIndex + 1] & 0xFF;
-                int lo = bytes[postIndex + 2] & 0xFF;
-                int off16 = (short) ((hi << 8) | lo);
-                ea = (base + off16) & 0xFFFF;
-            }
-
-            // ,R (same as 0x4 on some decoders; keep explicit)
-            case 0xA -> ea = base;
+            // B,R / A,R (signed 8-bit from the accumulator)
+            case ACC_B -> base + (byte) (regs.getRegister(Register.B) & 0xFF);
+            case ACC_A -> base + (byte) (regs.getRegister(Register.A) & 0xFF);
 
             // D,R (signed 16-bit from D)
-            case 0xB -> {
-                int d = regs.getRegister(Register.D) & 0xFFFF;
-                int off = (short) d;
-                ea = (base + off) & 0xFFFF;
-            }
-
-            // 8-bit PC-relative
-            case 0xC -> {
-                int off8 = (byte) (bytes[postIndex + 1] & 0xFF);
-                ea = (instr.nextPc() + off8) & 0xFFFF;
-            }
+            case ACC_D -> base + (short) (regs.getRegister(Register.D) & 0xFFFF);
 
-            // 16-bit PC-relative
-            case 0xD -> {
-                int hi = bytes[postIndex + 1] & 0xFF;
-                int lo = bytes[postIndex + 2] & 0xFF;
-                int off16 = (short) ((hi << 8) | lo);
-                ea = (instr.nextPc() + off16) & 0xFFFF;
-            }
+            case OFFSET8 -> base + (byte) (bytes[postIndex + 1] & 0xFF);
+            case OFFSET16 -> base + word(bytes, postIndex + 1, true);
 
-            // [addr] from register? (often “illegal”; keep strict)
-            case 0xE -> throw new IllegalStateException("Illegal indexed postbyte mode 0xE");
+            case PC_OFFSET8 -> instr.nextPc() + (byte) (bytes[postIndex + 1] & 0xFF);
+            case PC_OFFSET16 -> instr.nextPc() + word(bytes, postIndex + 1, true);
 
-            // [nn] extended indirect (ea = mem[mem[PC+..]])
-            case 0xF -> {
-                // for 0xF, the addressing is already indirect by definition in  penalty table
-                int hi = bytes[postIndex + 1] & 0xFF;
-                int lo = bytes[postIndex + 2] & 0xFF;
-                int addr = ((hi << 8) | lo) & 0xFFFF;
+            // [nn]: the pointer address itself; the table marks it indirect
+            case EXTENDED_INDIRECT -> word(bytes, postIndex + 1, false);
 
-                int ptrHi = bus.read(addr) & 0xFF;
-                int ptrLo = bus.read((addr + 1) & 0xFFFF) & 0xFF;
-                ea = ((ptrHi << 8) | ptrLo) & 0xFFFF;
-
-                // IMPORTANT: do not apply indirectFlag again for 0xF.
-                indirectFlag = false;
-            }
+            // 0x7 / 0xE (undefined on the 6809; keep strict)
+            case ILLEGAL -> throw new IllegalStateException(
+                    String.format("Illegal indexed postbyte mode 0x%X", post & 0x0F));
+        };
 
-            default -> throw new IllegalStateException("Unknown indexed postbyte mode: " + mode);
-        }
+        ea &= 0xFFFF;
 
-        if (indirectFlag) {
+        if (pb.indirect()) {
             // Indirect: final EA is fetched from memory at computed EA
             int ptrHi = bus.read(ea) & 0xFF;
             int ptrLo = bus.read((ea + 1) & 0xFFFF) & 0xFF;
             ea = ((ptrHi << 8) | ptrLo) & 0xFFFF;
         }
 
-        return ea & 0xFFFF;
+        return ea;
     }
-}
-
 
+    private static int word(byte[] bytes, int at, boolean signed) {
+        int w = ((bytes[at] & 0xFF) << 8) | (bytes[at + 1] & 0xFF);
+        return signed ? (short) w : w;
+    }
+}
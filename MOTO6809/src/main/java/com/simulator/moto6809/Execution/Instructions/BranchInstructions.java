@@ -33,7 +33,18 @@ public final class BranchInstructions {
             DecodedInstruction instr,
             RegisterFunctions regs
     ) {
-        boolean takeBranch = switch (instr.mnemonic()) {
+        if (isTaken(instr, regs)) {
+            regs.setRegister(Register.PC, instr.relativeTargetAddress());
+        } else {
+            regs.setRegister(Register.PC, instr.nextPc());
+        }
+
+        return instr.cycles();
+    }
+
+    /** Branch condition on the current flags (a branch does not change them). */
+    public static boolean isTaken(DecodedInstruction instr, RegisterFunctions regs) {
+        return switch (instr.mnemonic()) {
 
             case BRA, LBRA -> true;
             case BRN, LBRN -> false;
@@ -68,14 +79,6 @@ public final class BranchInstructions {
                     "Unsupported branch instruction: " + instr.mnemonic()
             );
         };
-
-        if (takeBranch) {
-            regs.setRegister(Register.PC, instr.relativeTargetAddress());
-        } else {
-            regs.setRegister(Register.PC, instr.nextPc());
-        }
-
-        return instr.cycles();
     }
 }
 
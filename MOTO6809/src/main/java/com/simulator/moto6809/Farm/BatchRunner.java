@@ -0,0 +1,345 @@
+package com.simulator.moto6809.Farm;
+
+import com.simulator.moto6809.Assembler.AssemblyCache;
+import com.simulator.moto6809.Assembler.OptimizeOptions;
+import com.simulator.moto6809.Execution.CPU.CpuStateSnapshot;
+import com.simulator.moto6809.Execution.CPU.CycleMode;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Logger.StderrLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch mode: assembles and runs many .asm programs in parallel and writes a JSON report.
+ *
+ * Usage:
+ *   java ... BatchRunner [options] <dir | file.asm | glob>...
+ *
+ * Options:
+ *   --max-instructions N   default instruction budget (default 100000)
+ *   --max-cycles N         default cycle budget (default none)
+ *   --threads N            worker threads (default = cores)
+ *   --out report.json      write the report to a file (default stdout)
+ *   --cache DIR            reuse assembled programs from DIR (unchanged sources skip assembly)
+ *   --optimize             optimizing assembler: branch relaxation, SETDP direct page, peephole (no cache)
+ *   --exact-cycles         count cycles with the data-sheet model (ExactCycles) instead of the base tables
+ *
+ * Per-file directives (comments in the source):
+ *   ; RUN MAXINSTRUCTIONS=500 MAXCYCLES=2000 BP=$E030 ORG=$E000
+ *   ; EXPECT A=$42          (see Expectation)
+ *
+ * A program ends (STOP=HALTED) when it branches to itself (BRA *) or runs off its loaded ROM bytes.
+ *
+ * Exit code: 0 when every program passed, 1 otherwise, 2 on usage errors.
+ */
+public final class BatchRunner {
+
+    private static final int DEFAULT_MAX_INSTRUCTIONS = 100_000;
+
+    private BatchRunner() {}
+
+    public static void main(String[] args) throws IOException {
+        int maxInstructions = DEFAULT_MAX_INSTRUCTIONS;
+        long maxCycles = 0;
+        int threads = 0;
+        Path out = null;
+        Path cacheDir = null;
+        boolean optimize = false;
+        boolean exactCycles = false;
+        List<String> inputs = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                switch (a) {
+                    case "--max-instructions" -> maxInstructions = Integer.parseInt(next(args, ++i, a));
+                    case "--max-cycles" -> maxCycles = Long.parseLong(next(args, ++i, a));
+                    case "--threads" -> threads = Integer.parseInt(next(args, ++i, a));
+                    case "--out" -> out = Path.of(next(args, ++i, a));
+                    case "--cache" -> cacheDir = Path.of(next(args, ++i, a));
+                    case "--optimize" -> optimize = true;
+                    case "--exact-cycles" -> exactCycles = true;
+                    default -> {
+                        if (a.startsWith("--")) throw new IllegalArgumentException("Unknown option: " + a);
+                        inputs.add(a);
+                    }
+                }
+            }
+            if (inputs.isEmpty()) throw new IllegalArgumentException("No input given.");
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            System.err.println("Usage: java ... BatchRunner [--max-instructions N] [--max-cycles N] "
+                    + "[--threads N] [--out report.json] [--cache DIR] [--optimize] [--exact-cycles] <dir | file.asm | glob>...");
+            System.exit(2);
+            return;
+        }
+
+        List<Path> files = resolveInputs(inputs);
+        if (files.isEmpty()) {
+            System.err.println("ERROR: no .asm files matched.");
+            System.exit(2);
+            return;
+        }
+
+        List<SimulationJob> jobs = new ArrayList<>(files.size());
+        Map<String, List<Expectation>> expectations = new HashMap<>();
+        List<SimulationResult> rejected = new ArrayList<>();
+
+        for (Path f : files) {
+            String name = f.toString();
+            try {
+                List<String> lines = Files.readAllLines(f, StandardCharsets.UTF_8);
+                ParsedProgram p = ParsedProgram.parse(name, lines, maxInstructions, maxCycles);
+                jobs.add(p.job);
+                expectations.put(name, p.expectations);
+            } catch (IOException | IllegalArgumentException e) {
+                rejected.add(new SimulationResult(name, null, null, 0, 0, 0, 0,
+                        e.getMessage(), List.of(), List.of()));
+            }
+        }
+
+        FarmReport report;
+        AssemblyCache cache = (cacheDir != null) ? new AssemblyCache(cacheDir) : null;
+        // Farm-level logger for the whole run (shared tables, workers); the report itself goes to stdout
+        try (SimulationFarm farm = new SimulationFarm(threads, new StderrLogger(LogLevel.WARNING))) {
+            farm.factory().setAssemblyCache(cache);
+            farm.factory().setOptimizeOptions(optimize ? OptimizeOptions.ALL : null);
+            farm.factory().setCycleMode(exactCycles ? CycleMode.EXACT : CycleMode.TABLE);
+            report = farm.runAll(jobs, checker(expectations));
+        }
+
+        if (!rejected.isEmpty()) {
+            List<SimulationResult> all = new ArrayList<>(report.results());
+            all.addAll(rejected);
+            report = new FarmReport(List.copyOf(all), report.wallNanos(), report.parallelism());
+        }
+
+        String json = toJson(report);
+        if (out != null) {
+            Files.writeString(out, json, StandardCharsets.UTF_8);
+        } else {
+            System.out.println(json);
+        }
+
+        System.err.printf(Locale.ROOT, "%d programs, %d passed, %d failed in %.1f ms (%d threads)%n",
+                report.results().size(), report.passed(), report.failed(),
+                report.wallNanos() / 1e6, report.parallelism());
+        if (cache != null) {
+            System.err.printf(Locale.ROOT, "assembly cache %s: %d hits, %d misses%n",
+                    cache.directory(), cache.hits(), cache.misses());
+        }
+
+        System.exit(report.failed() == 0 ? 0 : 1);
+    }
+
+    /** Inspector checking each job's EXPECT directives (by job name). */
+    public static MachineInspector checker(Map<String, List<Expectation>> expectations) {
+        return (job, machine, result) -> {
+            List<String> failures = new ArrayList<>();
+            for (Expectation e : expectations.getOrDefault(job.name(), List.of())) {
+                try {
+                    String msg = e.check(machine, result);
+                    if (msg != null) failures.add(msg);
+                } catch (IllegalArgumentException ex) {
+                    failures.add(ex.getMessage());
+                }
+            }
+            return failures;
+        };
+    }
+
+    private static String next(String[] args, int i, String opt) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + opt);
+        return args[i];
+    }
+
+
+    // Input resolution
+
+
+    static List<Path> resolveInputs(List<String> inputs) throws IOException {
+        TreeSet<Path> files = new TreeSet<>();
+        for (String in : inputs) {
+            if (isGlob(in)) {
+                files.addAll(expandGlob(in));
+                continue;
+            }
+            Path p = Path.of(in);
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> s = Files.walk(p)) {
+                    s.filter(Files::isRegularFile).filter(BatchRunner::isAsm).forEach(files::add);
+                }
+            } else if (Files.isRegularFile(p)) {
+                files.add(p);
+            } else {
+                throw new IllegalArgumentException("Not found: " + in);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    private static boolean isGlob(String s) {
+        return s.indexOf('*') >= 0 || s.indexOf('?') >= 0 || s.indexOf('[') >= 0 || s.indexOf('{') >= 0;
+    }
+
+    private static boolean isAsm(Path p) {
+        return p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".asm");
+    }
+
+    private static List<Path> expandGlob(String pattern) throws IOException {
+        // Walk from the longest directory prefix without wildcards
+        String norm = pattern.replace('\\', '/');
+        int firstWild = norm.length();
+        for (char c : new char[]{'*', '?', '[', '{'}) {
+            int i = norm.indexOf(c);
+            if (i >= 0) firstWild = Math.min(firstWild, i);
+        }
+        int slash = norm.lastIndexOf('/', firstWild);
+        Path base = (slash < 0) ? Path.of(".") : Path.of(norm.substring(0, Math.max(slash, 1)));
+        String rel = (slash < 0) ? norm : norm.substring(slash + 1);
+
+        PathMatcher m = FileSystems.getDefault().getPathMatcher("glob:" + rel);
+        List<Path> out = new ArrayList<>();
+        if (!Files.isDirectory(base)) return out;
+        try (Stream<Path> s = Files.walk(base)) {
+            s.filter(Files::isRegularFile)
+             .filter(p -> m.matches(base.relativize(p)))
+             .forEach(out::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return out;
+    }
+
+
+    // Directives
+
+
+    /** A source file's job (RUN directives applied to the defaults) and its EXPECT directives. */
+    public record ParsedProgram(SimulationJob job, List<Expectation> expectations) {
+
+        public static ParsedProgram parse(String name, List<String> lines, int defMaxInstr, long defMaxCycles) {
+            int maxInstr = defMaxInstr;
+            long maxCycles = defMaxCycles;
+            Integer origin = null;
+            List<Integer> bps = new ArrayList<>();
+            List<Expectation> exps = new ArrayList<>();
+
+            for (String raw : lines) {
+                String t = raw.trim();
+                if (!t.startsWith(";")) continue;
+                String body = t.substring(1).trim();
+                String upper = body.toUpperCase(Locale.ROOT);
+
+                if (upper.startsWith("EXPECT ")) {
+                    exps.add(Expectation.parse(body.substring(7)));
+                } else if (upper.startsWith("RUN ")) {
+                    for (String kv : body.substring(4).trim().split("\\s+")) {
+                        int eq = kv.indexOf('=');
+                        if (eq <= 0) throw new IllegalArgumentException(name + ": bad RUN option " + kv);
+                        String k = kv.substring(0, eq).toUpperCase(Locale.ROOT);
+                        long v = Expectation.parseNumber(kv.substring(eq + 1));
+                        switch (k) {
+                            case "MAXINSTRUCTIONS" -> maxInstr = (int) v;
+                            case "MAXCYCLES" -> maxCycles = v;
+                            case "BP" -> bps.add((int) v & 0xFFFF);
+                            case "ORG" -> origin = (int) v & 0xFFFF;
+                            default -> throw new IllegalArgumentException(name + ": unknown RUN option " + k);
+                        }
+                    }
+                }
+            }
+            SimulationJob job = new SimulationJob(name, lines, origin, maxInstr, maxCycles, bps);
+            return new ParsedProgram(job, exps);
+        }
+    }
+
+
+    // JSON report (hand-written, no extra dependency)
+
+
+    public static String toJson(FarmReport r) {
+        StringBuilder sb = new StringBuilder(256 + r.results().size() * 256);
+        sb.append("{\n");
+        sb.append("  \"programs\": ").append(r.results().size()).append(",\n");
+        sb.append("  \"passed\": ").append(r.passed()).append(",\n");
+        sb.append("  \"failed\": ").append(r.failed()).append(",\n");
+        sb.append("  \"threads\": ").append(r.parallelism()).append(",\n");
+        sb.append("  \"wallMillis\": ").append(millis(r.wallNanos())).append(",\n");
+        sb.append("  \"totalInstructions\": ").append(r.totalInstructions()).append(",\n");
+        sb.append("  \"totalCycles\": ").append(r.totalCycles()).append(",\n");
+        sb.append("  \"results\": [");
+        for (int i = 0; i < r.results().size(); i++) {
+            SimulationResult s = r.results().get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"name\": ").append(str(s.name()));
+            sb.append(", \"ok\": ").append(s.ok());
+            sb.append(", \"stop\": ").append(s.stopReason() == null ? "null" : str(s.stopReason().name()));
+            sb.append(", \"instructions\": ").append(s.instructions());
+            sb.append(", \"cycles\": ").append(s.cycles());
+            sb.append(", \"assembleMillis\": ").append(millis(s.assembleNanos()));
+            sb.append(", \"runMillis\": ").append(millis(s.runNanos()));
+            if (s.finalState() != null) sb.append(", \"registers\": ").append(regs(s.finalState()));
+            if (s.error() != null) sb.append(", \"error\": ").append(str(s.error()));
+            sb.append(", \"failures\": ").append(strArray(s.failures()));
+            sb.append(", \"warnings\": ").append(strArray(s.warnings()));
+            sb.append('}');
+        }
+        sb.append(r.results().isEmpty() ? "]\n" : "\n  ]\n");
+        sb.append("}");
+        return sb.toString();
+    }
+
+    private static String regs(CpuStateSnapshot s) {
+        return String.format(Locale.ROOT,
+                "{\"A\": %d, \"B\": %d, \"X\": %d, \"Y\": %d, \"S\": %d, \"U\": %d, \"PC\": %d, \"DP\": %d, \"CC\": %d}",
+                s.A & 0xFF, s.B & 0xFF, s.X & 0xFFFF, s.Y & 0xFFFF, s.S & 0xFFFF, s.U & 0xFFFF,
+                s.PC & 0xFFFF, s.DP & 0xFF, s.CC & 0xFF);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String strArray(List<String> list) {
+        if (list.isEmpty()) return "[]";
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(str(list.get(i)));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String str(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
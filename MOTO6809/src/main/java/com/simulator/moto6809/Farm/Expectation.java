@@ -0,0 +1,108 @@
+package com.simulator.moto6809.Farm;
+
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Registers.Register;
+
+import java.util.Locale;
+
+/**
+ * One expected-state assertion, written in the .asm source as a comment:
+ *
+ *   ; EXPECT A=$42
+ *   ; EXPECT X=$1234
+ *   ; EXPECT [$0100]=$42        (byte)
+ *   ; EXPECT [$0100].W=$1234    (big-endian word)
+ *   ; EXPECT CYCLES<=200
+ *   ; EXPECT INSTRUCTIONS=12
+ *   ; EXPECT STOP=HALTED
+ *
+ * Operators: = != < <= > >=. Numbers: $hex, 0xhex, %bin or decimal.
+ */
+public record Expectation(String target, String op, long expected, String expectedText) {
+
+    private static final String[] OPS = { "<=", ">=", "!=", "=", "<", ">" };
+
+    public static Expectation parse(String text) {
+        String t = text.trim();
+        for (String op : OPS) {
+            int i = t.indexOf(op);
+            if (i <= 0) continue;
+            String target = t.substring(0, i).trim().toUpperCase(Locale.ROOT);
+            String value = t.substring(i + op.length()).trim();
+            if (target.equals("STOP")) {
+                if (!op.equals("=") && !op.equals("!=")) {
+                    throw new IllegalArgumentException("STOP only supports = and !=: " + text);
+                }
+                return new Expectation(target, op, 0, value.toUpperCase(Locale.ROOT));
+            }
+            return new Expectation(target, op, parseNumber(value), value);
+        }
+        throw new IllegalArgumentException("Bad EXPECT: " + text);
+    }
+
+    /** Returns null when the expectation holds, else a failure message. */
+    public String check(Bootstrap machine, SimulationResult result) {
+        if (target.equals("STOP")) {
+            String actual = String.valueOf(result.stopReason());
+            boolean eq = actual.equals(expectedText);
+            boolean pass = op.equals("=") ? eq : !eq;
+            return pass ? null : "STOP" + op + expectedText + " but was " + actual;
+        }
+        long actual = actualValue(machine, result);
+        return compare(actual) ? null
+                : target + op + expectedText + " but was " + format(actual);
+    }
+
+    private long actualValue(Bootstrap machine, SimulationResult result) {
+        switch (target) {
+            case "CYCLES": return result.cycles();
+            case "INSTRUCTIONS": return result.instructions();
+            default: break;
+        }
+        if (target.startsWith("[")) {
+            int close = target.indexOf(']');
+            if (close < 0) throw new IllegalArgumentException("Bad memory target: " + target);
+            int addr = (int) parseNumber(target.substring(1, close)) & 0xFFFF;
+            String suffix = target.substring(close + 1);
+            if (suffix.isEmpty()) return machine.bus().read(addr);
+            if (suffix.equals(".W")) return machine.bus().readWord(addr);
+            throw new IllegalArgumentException("Bad memory target: " + target);
+        }
+        Register r;
+        try {
+            r = Register.valueOf(target);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown EXPECT target: " + target);
+        }
+        return machine.registers().getRegister(r, false);
+    }
+
+    private boolean compare(long actual) {
+        return switch (op) {
+            case "="  -> actual == expected;
+            case "!=" -> actual != expected;
+            case "<"  -> actual <  expected;
+            case "<=" -> actual <= expected;
+            case ">"  -> actual >  expected;
+            case ">=" -> actual >= expected;
+            default   -> false;
+        };
+    }
+
+    private String format(long v) {
+        if (target.equals("CYCLES") || target.equals("INSTRUCTIONS")) return Long.toString(v);
+        return String.format("$%X", v);
+    }
+
+    static long parseNumber(String s) {
+        String t = s.trim();
+        try {
+            if (t.startsWith("$")) return Long.parseLong(t.substring(1), 16);
+            if (t.startsWith("0x") || t.startsWith("0X")) return Long.parseLong(t.substring(2), 16);
+            if (t.startsWith("%")) return Long.parseLong(t.substring(1), 2);
+            return Long.parseLong(t);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad number: " + s);
+        }
+    }
+}
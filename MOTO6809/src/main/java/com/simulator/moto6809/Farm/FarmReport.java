@@ -0,0 +1,30 @@
+package com.simulator.moto6809.Farm;
+
+import java.util.List;
+
+/**
+ * Aggregated results of SimulationFarm.runAll (results are in job order).
+ */
+public record FarmReport(List<SimulationResult> results, long wallNanos, int parallelism) {
+
+    public long passed() {
+        return results.stream().filter(SimulationResult::ok).count();
+    }
+
+    public long failed() {
+        return results.size() - passed();
+    }
+
+    public long totalInstructions() {
+        return results.stream().mapToLong(SimulationResult::instructions).sum();
+    }
+
+    public long totalCycles() {
+        return results.stream().mapToLong(SimulationResult::cycles).sum();
+    }
+
+    /** Emulated instructions per second of wall time, over all jobs. */
+    public double instructionsPerSecond() {
+        return wallNanos <= 0 ? 0.0 : totalInstructions() * 1e9 / wallNanos;
+    }
+}
@@ -0,0 +1,14 @@
+package com.simulator.moto6809.Farm;
+
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+
+import java.util.List;
+
+/**
+ * Called on the worker thread right after a job's run, while its machine is still alive.
+ * Returns failure messages (empty list = job passed).
+ */
+@FunctionalInterface
+public interface MachineInspector {
+    List<String> inspect(SimulationJob job, Bootstrap machine, SimulationResult result);
+}
@@ -0,0 +1,150 @@
+package com.simulator.moto6809.Farm;
+
+import com.simulator.moto6809.Assembler.AssemblyResult;
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Bootstrap.MachineFactory;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Execution.CPU.RunStopReason;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many SimulationJobs in parallel, one isolated machine per job.
+ *
+ * Instruction tables are loaded once (MachineFactory) and shared read-only by every machine;
+ * everything mutable (memory, registers, CPU, symbol table) is created per job and stays
+ * confined to the worker thread running it, so jobs never contend with each other.
+ * A program that branches to itself or runs off its loaded ROM bytes stops with HALTED
+ * (see Bootstrap.haltAtProgramEnd).
+ */
+public final class SimulationFarm implements AutoCloseable {
+
+    private static final int MAX_WARNINGS_PER_JOB = 50;
+
+    private final MachineFactory factory;
+    private final ForkJoinPool pool;
+
+    public SimulationFarm(int parallelism, ILogger logger) {
+        if (parallelism <= 0) parallelism = Runtime.getRuntime().availableProcessors();
+        this.factory = new MachineFactory(logger);
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public SimulationFarm(ILogger logger) {
+        this(0, logger);
+    }
+
+    public MachineFactory factory() { return factory; }
+
+    public int parallelism() { return pool.getParallelism(); }
+
+    public FarmReport runAll(List<SimulationJob> jobs) {
+        return runAll(jobs, null);
+    }
+
+    public FarmReport runAll(List<SimulationJob> jobs, MachineInspector inspector) {
+        if (jobs == null) throw new IllegalArgumentException("jobs is null");
+
+        List<Callable<SimulationResult>> tasks = new ArrayList<>(jobs.size());
+        for (SimulationJob job : jobs) tasks.add(() -> runOne(job, inspector));
+
+        long t0 = System.nanoTime();
+        List<Future<SimulationResult>> futures = pool.invokeAll(tasks);
+
+        List<SimulationResult> results = new ArrayList<>(jobs.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Farm interrupted", e);
+            } catch (ExecutionException e) {
+                results.add(failed(jobs.get(i).name(), 0, e.getCause(), List.of()));
+            }
+        }
+        return new FarmReport(List.copyOf(results), System.nanoTime() - t0, pool.getParallelism());
+    }
+
+    /** Runs one job synchronously on the calling thread. */
+    public SimulationResult runOne(SimulationJob job, MachineInspector inspector) {
+        JobLogger log = new JobLogger();
+        long t0 = System.nanoTime();
+        Bootstrap machine;
+        try {
+            machine = factory.newMachine(log);
+            Integer origin = job.origin();
+            AssemblyResult program = machine.assemble(job.source(), origin);
+            machine.loadProgram(program, true);
+            machine.haltAtProgramEnd(program);
+            for (int bp : job.breakpoints()) machine.addBreakpoint(bp);
+            machine.resetCpu();
+        } catch (RuntimeException ex) {
+            return failed(job.name(), System.nanoTime() - t0, ex, log.lines);
+        }
+        long assembleNanos = System.nanoTime() - t0;
+
+        long t1 = System.nanoTime();
+        RunStopReason reason;
+        try {
+            reason = machine.run(job.maxInstructions(), job.maxCycles());
+        } catch (RuntimeException ex) {
+            return new SimulationResult(job.name(), null, machine.cpu().snapshot(),
+                    machine.cpu().totalInstructions(), machine.cpu().totalCycles(),
+                    assembleNanos, System.nanoTime() - t1,
+                    describe(ex), List.of(), List.copyOf(log.lines));
+        }
+        long runNanos = System.nanoTime() - t1;
+
+        SimulationResult result = new SimulationResult(job.name(), reason, machine.cpu().snapshot(),
+                machine.cpu().totalInstructions(), machine.cpu().totalCycles(),
+                assembleNanos, runNanos, null, List.of(), List.copyOf(log.lines));
+
+        if (inspector == null) return result;
+
+        List<String> failures = inspector.inspect(job, machine, result);
+        if (failures == null || failures.isEmpty()) return result;
+        return new SimulationResult(result.name(), result.stopReason(), result.finalState(),
+                result.instructions(), result.cycles(), result.assembleNanos(), result.runNanos(),
+                null, List.copyOf(failures), result.warnings());
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private static SimulationResult failed(String name, long nanos, Throwable t, List<String> warnings) {
+        return new SimulationResult(name, null, null, 0, 0, nanos, 0,
+                describe(t), List.of(), List.copyOf(warnings));
+    }
+
+    private static String describe(Throwable t) {
+        if (t == null) return "unknown error";
+        String msg = t.getMessage();
+        if (t.getCause() != null && t.getCause().getMessage() != null) msg = msg + " (" + t.getCause().getMessage() + ")";
+        return (msg == null) ? t.getClass().getSimpleName() : msg;
+    }
+
+    // Per-job logger: thread-confined, keeps only WARNING/ERROR lines (bounded)
+    private static final class JobLogger implements ILogger {
+        final List<String> lines = new ArrayList<>();
+
+        @Override public LogLevel threshold() { return LogLevel.WARNING; }
+
+        @Override public void log(String message, LogLevel level) {
+            if (!isEnabled(level)) return;
+            if (lines.size() < MAX_WARNINGS_PER_JOB) lines.add("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() { lines.clear(); }
+        @Override public void setLogFilePath(Path logFilePath) {}
+    }
+}
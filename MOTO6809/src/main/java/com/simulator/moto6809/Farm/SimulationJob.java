@@ -0,0 +1,35 @@
+package com.simulator.moto6809.Farm;
+
+import java.util.List;
+
+/**
+ * One program to assemble and run on its own isolated machine.
+ *
+ * @param name            label used in results/reports (usually the file name)
+ * @param source          assembly source lines
+ * @param origin          default origin (null = ROM start)
+ * @param maxInstructions instruction budget (0 = unlimited)
+ * @param maxCycles       cycle budget (0 = unlimited)
+ * @param breakpoints     addresses that stop the run (may be empty)
+ */
+public record SimulationJob(String name,
+                            List<String> source,
+                            Integer origin,
+                            int maxInstructions,
+                            long maxCycles,
+                            List<Integer> breakpoints) {
+
+    public SimulationJob {
+        if (name == null) throw new IllegalArgumentException("name is null");
+        if (source == null) throw new IllegalArgumentException("source is null");
+        if (maxInstructions <= 0 && maxCycles <= 0) {
+            throw new IllegalArgumentException("Job " + name + " needs a maxInstructions or maxCycles budget");
+        }
+        source = List.copyOf(source);
+        breakpoints = (breakpoints == null) ? List.of() : List.copyOf(breakpoints);
+    }
+
+    public static SimulationJob of(String name, List<String> source, long maxCycles) {
+        return new SimulationJob(name, source, null, 0, maxCycles, List.of());
+    }
+}
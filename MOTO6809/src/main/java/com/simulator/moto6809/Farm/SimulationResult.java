@@ -0,0 +1,35 @@
+package com.simulator.moto6809.Farm;
+
+import com.simulator.moto6809.Execution.CPU.CpuStateSnapshot;
+import com.simulator.moto6809.Execution.CPU.RunStopReason;
+
+import java.util.List;
+
+/**
+ * Outcome of one SimulationJob.
+ *
+ * @param stopReason   why the CPU stopped (null if assembly/execution failed)
+ * @param finalState   CPU state when the run stopped (null if assembly failed)
+ * @param instructions instructions executed by the run
+ * @param cycles       cycles consumed by the run
+ * @param assembleNanos time spent assembling + loading
+ * @param runNanos     time spent in CPU.run
+ * @param error        exception message, or null
+ * @param failures     messages returned by the MachineInspector (empty = passed)
+ * @param warnings     WARNING/ERROR log lines produced by the machine
+ */
+public record SimulationResult(String name,
+                               RunStopReason stopReason,
+                               CpuStateSnapshot finalState,
+                               long instructions,
+                               long cycles,
+                               long assembleNanos,
+                               long runNanos,
+                               String error,
+                               List<String> failures,
+                               List<String> warnings) {
+
+    public boolean ok() {
+        return error == null && failures.isEmpty();
+    }
+}
@@ -0,0 +1,26 @@
+package com.simulator.moto6809.Loader;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Binary image formats produced by external 6809 toolchains.
+ */
+public enum ImageFormat {
+    SREC,       // Motorola S-record (.s19 / .s28 / .s37 / .srec / .mot)
+    INTEL_HEX,  // Intel HEX (.hex / .ihx)
+    BINARY;     // raw bytes, no addresses (.bin / .rom)
+
+    /** Format from the file extension; IllegalArgumentException when it is not recognised. */
+    public static ImageFormat fromFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        int dot = name.lastIndexOf('.');
+        String ext = (dot < 0) ? "" : name.substring(dot + 1);
+        return switch (ext) {
+            case "s19", "s28", "s37", "srec", "mot", "s" -> SREC;
+            case "hex", "ihx", "ihex" -> INTEL_HEX;
+            case "bin", "rom", "img" -> BINARY;
+            default -> throw new IllegalArgumentException("Unknown image format: " + file.getFileName());
+        };
+    }
+}
@@ -0,0 +1,301 @@
+package com.simulator.moto6809.Loader;
+
+import com.simulator.moto6809.Memory.Memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming loaders for S-record, Intel HEX and raw binary images.
+ *
+ * Files are memory-mapped and parsed byte by byte (no String per line); checksums are verified
+ * and contiguous records are coalesced so each run is one Memory.writeBlock (ROM included).
+ * A malformed record throws IllegalArgumentException with its line number; runs already
+ * flushed before it stay loaded.
+ */
+public final class ImageLoader {
+
+    /** Larger inputs cannot describe a 64 KB image (a full S19 dump is ~180 KB). */
+    private static final long MAX_FILE_SIZE = 16L << 20;
+
+    private static final byte[] HEX = new byte[256];
+
+    static {
+        Arrays.fill(HEX, (byte) -1);
+        for (int c = '0'; c <= '9'; c++) HEX[c] = (byte) (c - '0');
+        for (int c = 'A'; c <= 'F'; c++) HEX[c] = (byte) (c - 'A' + 10);
+        for (int c = 'a'; c <= 'f'; c++) HEX[c] = (byte) (c - 'a' + 10);
+    }
+
+    private ImageLoader() {}
+
+    /** Format from the extension; a raw binary is placed so that it ends at $FFFF (ROM image with vectors). */
+    public static LoadedImage load(Path file, Memory memory) throws IOException {
+        return load(file, ImageFormat.fromFileName(file), memory);
+    }
+
+    public static LoadedImage load(Path file, ImageFormat format, Memory memory) throws IOException {
+        return load(file, format, -1, memory);
+    }
+
+    /** Raw binary loaded at baseAddress. */
+    public static LoadedImage loadBinary(Path file, int baseAddress, Memory memory) throws IOException {
+        return load(file, ImageFormat.BINARY, baseAddress & 0xFFFF, memory);
+    }
+
+    private static LoadedImage load(Path file, ImageFormat format, int binaryBase, Memory memory) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > MAX_FILE_SIZE) throw new IllegalArgumentException("Image file too large: " + file);
+            ByteBuffer data = (size == 0) ? ByteBuffer.allocate(0) : ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            try {
+                return load(data, format, binaryBase, memory);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(file.getFileName() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Parses data (from its position to its limit) and writes it into memory.
+     * @param binaryBase load address of a BINARY image, -1 to end it at $FFFF; ignored by the other formats
+     */
+    public static LoadedImage load(ByteBuffer data, ImageFormat format, int binaryBase, Memory memory) {
+        if (data == null) throw new IllegalArgumentException("data is null");
+        if (memory == null) throw new IllegalArgumentException("memory is null");
+        if (format == null) throw new IllegalArgumentException("format is null");
+
+        RunWriter out = new RunWriter(memory);
+        int entry = switch (format) {
+            case SREC -> parseSRecord(data, out);
+            case INTEL_HEX -> parseIntelHex(data, out);
+            case BINARY -> loadRaw(data, binaryBase, out);
+        };
+        out.flush();
+        return new LoadedImage(format, out.occupancy, out.runs, entry);
+    }
+
+
+    // Motorola S-record
+
+    private static int parseSRecord(ByteBuffer buf, RunWriter out) {
+        Cursor c = new Cursor(buf);
+        int entry = -1;
+        int dataRecords = 0;
+
+        while (c.nextRecord()) {
+            if (c.peek() != 'S') throw c.error("expected 'S'");
+            c.pos++;
+            int type = c.digit();
+            c.sum = 0;
+            int count = c.hexByte();
+
+            int addressBytes = switch (type) {
+                case 0, 1, 5, 9 -> 2;
+                case 2, 6, 8 -> 3;
+                case 3, 7 -> 4;
+                default -> throw c.error("unsupported record type S" + type);
+            };
+            int dataLength = count - addressBytes - 1;
+            if (dataLength < 0) throw c.error("byte count too small");
+
+            long address = 0;
+            for (int i = 0; i < addressBytes; i++) address = (address << 8) | c.hexByte();
+
+            switch (type) {
+                case 1, 2, 3 -> {
+                    c.readData(out, checkRange(c, address, dataLength), dataLength);
+                    dataRecords++;
+                }
+                default -> c.skipData(dataLength);
+            }
+
+            int expected = ~c.sum & 0xFF;
+            if (c.hexByte() != expected) throw c.error("checksum mismatch");
+            c.endOfLine();
+
+            switch (type) {
+                case 5, 6 -> {
+                    if (address != dataRecords)
+                        throw c.error("record count " + address + " but " + dataRecords + " data records read");
+                }
+                case 7, 8, 9 -> entry = (int) checkRange(c, address, 0);
+                default -> { }
+            }
+        }
+        return entry;
+    }
+
+
+    // Intel HEX
+
+    private static int parseIntelHex(ByteBuffer buf, RunWriter out) {
+        Cursor c = new Cursor(buf);
+        int entry = -1;
+        long base = 0;
+
+        while (c.nextRecord()) {
+            if (c.peek() != ':') throw c.error("expected ':'");
+            c.pos++;
+            c.sum = 0;
+            int count = c.hexByte();
+            int offset = (c.hexByte() << 8) | c.hexByte();
+            int type = c.hexByte();
+
+            long value = 0;
+            switch (type) {
+                case 0x00 -> c.readData(out, checkRange(c, base + offset, count), count);
+                case 0x01, 0x02, 0x03, 0x04, 0x05 -> {
+                    for (int i = 0; i < count; i++) value = (value << 8) | c.hexByte();
+                }
+                default -> throw c.error(String.format("unsupported record type %02X", type));
+            }
+
+            c.hexByte(); // checksum: the two's complement makes the record sum to zero
+            if ((c.sum & 0xFF) != 0) throw c.error("checksum mismatch");
+            c.endOfLine();
+
+            switch (type) {
+                case 0x01 -> { return entry; }
+                case 0x02 -> base = value << 4;
+                case 0x03 -> entry = (int) checkRange(c, ((value >>> 16) << 4) + (value & 0xFFFF), 0);
+                case 0x04 -> base = value << 16;
+                case 0x05 -> entry = (int) checkRange(c, value, 0);
+                default -> { }
+            }
+        }
+        return entry;
+    }
+
+
+    // Raw binary
+
+    private static int loadRaw(ByteBuffer buf, int binaryBase, RunWriter out) {
+        int size = buf.remaining();
+        if (size > 0x10000) throw new IllegalArgumentException("Binary image larger than 64 KB: " + size + " bytes");
+        int base = (binaryBase < 0) ? 0x10000 - size : binaryBase;
+        if (base + size > 0x10000)
+            throw new IllegalArgumentException(String.format("Binary image of %d bytes at $%04X runs past $FFFF", size, base));
+        if (size == 0) return -1;
+
+        out.begin(base, size);
+        buf.duplicate().get(out.run, 0, size);
+        out.runLength = size;
+        return -1;
+    }
+
+    private static long checkRange(Cursor c, long address, int length) {
+        if (address < 0 || address + Math.max(length, 1) > 0x10000)
+            throw c.error(String.format("address $%X is beyond the 64 KB address space", address));
+        return address;
+    }
+
+
+    /** Coalesces consecutive records into one block write. */
+    private static final class RunWriter {
+        final Memory memory;
+        final byte[] run = new byte[0x10000];
+        final long[] occupancy = new long[0x10000 >>> 6];
+        int runStart = -1;
+        int runLength;
+        int runs;
+
+        RunWriter(Memory memory) {
+            this.memory = memory;
+        }
+
+        /** Makes room for length bytes at address, continuing the current run when contiguous. */
+        int begin(int address, int length) {
+            if (runLength == 0 || address != runStart + runLength) {
+                flush();
+                runStart = address;
+            }
+            int at = runLength;
+            runLength += length;
+            return at;
+        }
+
+        void flush() {
+            if (runLength == 0) return;
+            memory.writeBlock(runStart, run, 0, runLength, true);
+            for (int a = runStart, end = runStart + runLength; a < end; a++) occupancy[a >>> 6] |= 1L << a;
+            runs++;
+            runLength = 0;
+        }
+    }
+
+    /** Byte-level reader over the text formats; tracks the line number and the running record sum. */
+    private static final class Cursor {
+        final ByteBuffer buf;
+        final int limit;
+        int pos;
+        int line = 1;
+        int sum;
+
+        Cursor(ByteBuffer buf) {
+            this.buf = buf;
+            this.pos = buf.position();
+            this.limit = buf.limit();
+        }
+
+        /** Skips blank lines; false at end of input. */
+        boolean nextRecord() {
+            while (pos < limit) {
+                int b = buf.get(pos) & 0xFF;
+                if (b == '\n') line++;
+                else if (b != '\r' && b != ' ' && b != '\t') return true;
+                pos++;
+            }
+            return false;
+        }
+
+        int peek() {
+            return buf.get(pos) & 0xFF;
+        }
+
+        int digit() {
+            if (pos >= limit) throw error("truncated record");
+            int d = HEX[buf.get(pos++) & 0xFF];
+            if (d < 0 || d > 9) throw error("bad record type");
+            return d;
+        }
+
+        int hexByte() {
+            if (pos + 2 > limit) throw error("truncated record");
+            int hi = HEX[buf.get(pos) & 0xFF], lo = HEX[buf.get(pos + 1) & 0xFF];
+            if ((hi | lo) < 0) throw error("bad hex digit");
+            pos += 2;
+            int v = (hi << 4) | lo;
+            sum += v;
+            return v;
+        }
+
+        void readData(RunWriter out, long address, int length) {
+            int at = out.begin((int) address, length);
+            for (int i = 0; i < length; i++) out.run[at + i] = (byte) hexByte();
+        }
+
+        void skipData(int length) {
+            for (int i = 0; i < length; i++) hexByte();
+        }
+
+        /** Only trailing whitespace may follow the checksum (the newline is consumed by nextRecord). */
+        void endOfLine() {
+            while (pos < limit) {
+                int b = buf.get(pos) & 0xFF;
+                if (b == '\n') return;
+                if (b != '\r' && b != ' ' && b != '\t') throw error("unexpected data after checksum");
+                pos++;
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("line " + line + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.simulator.moto6809.Loader;
+
+import com.simulator.moto6809.Assembler.AssemblyResult;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Exports an assembled image as S-record, Intel HEX or raw binary (the formats ImageLoader reads).
+ *
+ * The entry point written to S9 / Intel HEX type 05 is the reset vector when the program defines
+ * one, its lowest emitted address otherwise.
+ */
+public final class ImageWriter {
+
+    /** Data bytes per S1 / type-00 record. */
+    public static final int RECORD_BYTES = 16;
+
+    /** Filler for ORG/RMB gaps in a raw binary (erased EPROM). */
+    public static final int BINARY_FILL = 0xFF;
+
+    private static final byte[] DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEADER = "MOTO6809".getBytes(StandardCharsets.US_ASCII);
+
+    private ImageWriter() {}
+
+    /** Format from the extension. */
+    public static void write(AssemblyResult result, Path file) throws IOException {
+        write(result, ImageFormat.fromFileName(file), file);
+    }
+
+    public static void write(AssemblyResult result, ImageFormat format, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(result, format, out);
+        }
+    }
+
+    public static void write(AssemblyResult result, ImageFormat format, OutputStream out) throws IOException {
+        if (result == null) throw new IllegalArgumentException("result is null");
+        if (result.isEmpty()) throw new IllegalStateException("No emitted bytes (empty program?)");
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+        switch (format) {
+            case SREC -> writeSRecord(result, buffered);
+            case INTEL_HEX -> writeIntelHex(result, buffered);
+            case BINARY -> writeBinary(result, buffered);
+        }
+        buffered.flush();
+    }
+
+    /** Reset vector if the program defines it, else the lowest emitted address. */
+    public static int entryPoint(AssemblyResult result) {
+        if (result.isOccupied(0xFFFE) && result.isOccupied(0xFFFF))
+            return (result.byteAt(0xFFFE) << 8) | result.byteAt(0xFFFF);
+        return result.entryPoint();
+    }
+
+    /** S0 header, S1 data, S5 record count, S9 entry point. */
+    private static void writeSRecord(AssemblyResult result, OutputStream out) throws IOException {
+        Record rec = new Record(out);
+        rec.sRecord('0', 0, HEADER, 0, HEADER.length);
+        int[] count = {0};
+        forEachRecord(result, (address, data, offset, length) -> {
+            rec.sRecord('1', address, data, offset, length);
+            count[0]++;
+        });
+        if (count[0] <= 0xFFFF) rec.sRecord('5', count[0], null, 0, 0);
+        rec.sRecord('9', entryPoint(result), null, 0, 0);
+    }
+
+    /** Type 00 data, type 05 start address, type 01 end of file. */
+    private static void writeIntelHex(AssemblyResult result, OutputStream out) throws IOException {
+        Record rec = new Record(out);
+        forEachRecord(result, (address, data, offset, length) -> rec.intelHex(0x00, address, data, offset, length));
+        int entry = entryPoint(result);
+        rec.intelHex(0x05, 0, new byte[]{0, 0, (byte) (entry >> 8), (byte) entry}, 0, 4);
+        rec.intelHex(0x01, 0, null, 0, 0);
+    }
+
+    /** Lowest to highest emitted address, gaps filled with BINARY_FILL; reload it at result lowest address. */
+    private static void writeBinary(AssemblyResult result, OutputStream out) throws IOException {
+        int[] bounds = {-1, -1};
+        result.forEachRun((start, data, offset, length) -> {
+            if (bounds[0] < 0) bounds[0] = start;
+            bounds[1] = start + length;
+        });
+        byte[] image = new byte[bounds[1] - bounds[0]];
+        Arrays.fill(image, (byte) BINARY_FILL);
+        result.forEachRun((start, data, offset, length) ->
+                System.arraycopy(data, offset, image, start - bounds[0], length));
+        out.write(image);
+    }
+
+    @FunctionalInterface
+    private interface RecordConsumer {
+        void accept(int address, byte[] data, int offset, int length) throws IOException;
+    }
+
+    /** Emitted runs cut into RECORD_BYTES chunks. */
+    private static void forEachRecord(AssemblyResult result, RecordConsumer consumer) throws IOException {
+        try {
+            result.forEachRun((start, data, offset, length) -> {
+                for (int done = 0; done < length; done += RECORD_BYTES) {
+                    try {
+                        consumer.accept(start + done, data, offset + done, Math.min(RECORD_BYTES, length - done));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Formats one record into a reused ASCII line buffer. */
+    private static final class Record {
+        private final OutputStream out;
+        private final byte[] line = new byte[1 + 2 * (4 + 255 + 1) + 2];
+        private int length;
+        private int sum;
+
+        Record(OutputStream out) {
+            this.out = out;
+        }
+
+        void sRecord(char type, int address, byte[] data, int offset, int count) throws IOException {
+            length = 0;
+            sum = 0;
+            line[length++] = 'S';
+            line[length++] = (byte) type;
+            hex(2 + count + 1);
+            hex(address >> 8);
+            hex(address);
+            for (int i = 0; i < count; i++) hex(data[offset + i]);
+            hex(~sum);
+            end();
+        }
+
+        void intelHex(int type, int address, byte[] data, int offset, int count) throws IOException {
+            length = 0;
+            sum = 0;
+            line[length++] = ':';
+            hex(count);
+            hex(address >> 8);
+            hex(address);
+            hex(type);
+            for (int i = 0; i < count; i++) hex(data[offset + i]);
+            hex(-sum);
+            end();
+        }
+
+        private void hex(int value) {
+            int v = value & 0xFF;
+            sum += v;
+            line[length++] = DIGITS[v >>> 4];
+            line[length++] = DIGITS[v & 0x0F];
+        }
+
+        private void end() throws IOException {
+            line[length++] = '\n';
+            out.write(line, 0, length);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.simulator.moto6809.Loader;
+
+/**
+ * What one image load wrote: address coverage, run count and the entry point the file declared.
+ */
+public final class LoadedImage {
+
+    private final ImageFormat format;
+    private final long[] occupancy;   // bit a set => address a loaded
+    private final int bytesLoaded;
+    private final int runs;
+    private final int lowest;         // -1 when nothing was loaded
+    private final int highest;
+    private final int entryPoint;     // -1 when the file declares none
+
+    LoadedImage(ImageFormat format, long[] occupancy, int runs, int entryPoint) {
+        this.format = format;
+        this.occupancy = occupancy;
+        this.runs = runs;
+        this.entryPoint = entryPoint;
+
+        int count = 0, first = -1, last = -1;
+        for (int w = 0; w < occupancy.length; w++) {
+            long bits = occupancy[w];
+            if (bits == 0) continue;
+            if (first < 0) first = (w << 6) + Long.numberOfTrailingZeros(bits);
+            last = (w << 6) + 63 - Long.numberOfLeadingZeros(bits);
+            count += Long.bitCount(bits);
+        }
+        this.bytesLoaded = count;
+        this.lowest = first;
+        this.highest = last;
+    }
+
+    public ImageFormat format() { return format; }
+
+    /** Distinct addresses written. */
+    public int bytesLoaded() { return bytesLoaded; }
+
+    /** Block writes issued into Memory (contiguous records are coalesced). */
+    public int runs() { return runs; }
+
+    public int lowest() { return lowest; }
+    public int highest() { return highest; }
+
+    public boolean isEmpty() { return bytesLoaded == 0; }
+
+    public boolean covers(int address) {
+        int a = address & 0xFFFF;
+        return (occupancy[a >>> 6] & (1L << a)) != 0;
+    }
+
+    public boolean hasEntryPoint() { return entryPoint >= 0; }
+
+    /** Entry point from the S7/S8/S9 or Intel HEX start record, -1 when absent. */
+    public int entryPoint() { return entryPoint; }
+
+    public boolean loadsResetVector() { return covers(0xFFFE) && covers(0xFFFF); }
+
+    @Override
+    public String toString() {
+        return isEmpty()
+                ? format + ": empty"
+                : String.format("%s: %d byte(s) in %d run(s), $%04X-$%04X%s", format, bytesLoaded, runs, lowest, highest,
+                        hasEntryPoint() ? String.format(", entry $%04X", entryPoint) : "");
+    }
+}
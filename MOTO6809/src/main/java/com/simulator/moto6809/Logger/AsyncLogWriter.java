@@ -0,0 +1,206 @@
+package com.simulator.moto6809.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends log lines to a file from a single background thread.
+ *
+ * Callers only publish into a bounded lock-free MpscRingBuffer;
+ * the writer thread drains it in batches into one FileChannel kept open between batches.
+ * When the buffer is full the configured LogOverflowPolicy applies; dropped lines are counted
+ * and reported in the file.
+ * An idle writer parks until a producer unparks it (only when it has announced it is parked),
+ * so an empty queue costs no wake-ups.
+ */
+public final class AsyncLogWriter implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_SAMPLE_RATE = 16;
+
+    private static final int MAX_BATCH = 512;
+
+    private final MpscRingBuffer<String> queue;
+
+    private final LogOverflowPolicy policy;
+    private final int sampleRate;
+    private final int highWaterMark;
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong(); // lines consumed by the writer
+
+    private volatile Path path;
+    private volatile boolean closed;
+    private volatile boolean writerParked; // set before the writer re-checks the queue and parks
+    private final Thread writer;
+
+    // Writer-thread state
+    private Path openPath;
+    private FileChannel channel;
+    private long reportedDrops;
+
+    public AsyncLogWriter(Path path) {
+        this(path, DEFAULT_CAPACITY, LogOverflowPolicy.DROP, DEFAULT_SAMPLE_RATE);
+    }
+
+    public AsyncLogWriter(Path path, int capacity, LogOverflowPolicy policy, int sampleRate) {
+        if (policy == null) throw new IllegalArgumentException("policy is null");
+        if (sampleRate < 1) throw new IllegalArgumentException("sampleRate must be >= 1");
+
+        this.queue = new MpscRingBuffer<>(capacity);
+
+        this.policy = policy;
+        this.sampleRate = sampleRate;
+        this.highWaterMark = capacity - capacity / 4;
+        this.path = path;
+
+        this.writer = new Thread(this::writerLoop, "log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void setPath(Path path) { this.path = path; }
+
+    public LogOverflowPolicy policy() { return policy; }
+
+    /** Lines lost to the overflow policy since creation. */
+    public long droppedCount() { return dropped.get(); }
+
+
+    // Producer side
+
+    /** Queues one line (without trailing newline). Never does I/O on the caller's thread. */
+    public void append(String line, LogLevel level) {
+        if (closed || line == null) return;
+
+        if (policy == LogOverflowPolicy.SAMPLE && level != LogLevel.WARNING && level != LogLevel.ERROR
+                && queue.offeredCount() - written.get() >= highWaterMark
+                && sampleCounter.getAndIncrement() % sampleRate != 0) {
+            dropped.incrementAndGet();
+            wakeWriter();
+            return;
+        }
+
+        while (!queue.offer(line)) {
+            if (policy != LogOverflowPolicy.BLOCK || closed) {
+                dropped.incrementAndGet();
+                wakeWriter();
+                return;
+            }
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+            LockSupport.parkNanos(50_000L);
+        }
+        wakeWriter();
+    }
+
+    // Both sides use volatiles (tail CAS / writerParked), so either the writer sees the new line or we see it parked
+    private void wakeWriter() {
+        if (writerParked) LockSupport.unpark(writer);
+    }
+
+    // Consumer side
+
+    private void writerLoop() {
+        StringBuilder batch = new StringBuilder(16 * 1024);
+        while (true) {
+            int n = 0;
+            String line;
+            while (n < MAX_BATCH && (line = queue.poll()) != null) {
+                batch.append(line).append('\n');
+                n++;
+            }
+
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                batch.append("WARNING: ").append(drops - reportedDrops).append(" log line(s) dropped\n");
+                reportedDrops = drops;
+            }
+
+            if (batch.length() > 0) {
+                writeBatch(batch);
+                batch.setLength(0);
+            }
+            if (n > 0) written.addAndGet(n);
+
+            if (n == 0) {
+                if (closed) break;
+                idle();
+            }
+        }
+        closeChannel();
+    }
+
+    /** Parks until a producer, flush() or close() signals; returns at once if work arrived meanwhile. */
+    private void idle() {
+        writerParked = true;
+        if (queue.offeredCount() != written.get()) {
+            Thread.onSpinWait(); // a producer claimed a slot but hasn't published it yet
+        } else if (!closed && dropped.get() == reportedDrops) {
+            LockSupport.park(this);
+        }
+        writerParked = false;
+    }
+
+    private void writeBatch(StringBuilder batch) {
+        Path p = path;
+        if (p == null) return;
+        try {
+            if (!p.equals(openPath)) {
+                closeChannel();
+                channel = FileChannel.open(p, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                openPath = p;
+            }
+            ByteBuffer buf = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+            while (buf.hasRemaining()) channel.write(buf);
+        } catch (IOException e) {
+            System.err.println("An error occurred while logging to the file: " + e.getMessage());
+            closeChannel();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+        openPath = null;
+    }
+
+
+    // Flush / close
+
+    /** Waits (up to timeoutMillis) until every line queued before this call has been written. */
+    public boolean flush(long timeoutMillis) {
+        long target = queue.offeredCount();
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        while (written.get() < target) {
+            if (!writer.isAlive() || System.nanoTime() > deadline) return false;
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000L);
+        }
+        return true;
+    }
+
+    /** Drains the queue, closes the file and stops the writer thread. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -8,6 +8,7 @@ public class ConsoleLogger implements ILogger {
 
     @Override
     public void log(String message, LogLevel level) {
+        if (!isEnabled(level)) return;
         System.out.println("[" + level + "] " + message);
     }
 
@@ -3,11 +3,13 @@ package com.simulator.moto6809.Logger;
 import com.simulator.moto6809.Errors.Response;
 
 import java.nio.file.Path;
+import java.util.function.Supplier;
 
     public interface ILogger
     {
         /**
-         * Logging the message into the output console or the log file if enabled
+         * Logging the message into the output console or the log file if enabled.
+         * Implementations drop messages whose level is below threshold(), so every overload follows one rule
          * @param message The message to log
          * @param level The log level in which the message will be logged
          */
@@ -30,5 +32,55 @@ import java.nio.file.Path;
          * @param logFilePath The new log file path
          */
         void setLogFilePath(Path logFilePath);
+
+        /**
+         * Lowest level this logger records; log() must drop anything below it (default INFO: DEBUG is off)
+         * @return The threshold level
+         */
+        default LogLevel threshold()
+        {
+            return LogLevel.INFO;
+        }
+
+        /**
+         * Whether a message at this level would be recorded; guard hot paths with it
+         * @param level The level to test
+         * @return true if messages at this level are recorded
+         */
+        default boolean isEnabled(LogLevel level)
+        {
+            return level.ordinal() >= threshold().ordinal();
+        }
+
+        /**
+         * Logging a lazily built message: the supplier is only called if the level is enabled
+         * @param level The log level
+         * @param message Builds the message
+         */
+        default void log(LogLevel level, Supplier<String> message)
+        {
+            if (isEnabled(level)) log(message.get(), level);
+        }
+
+        /**
+         * Logging a String.format template: formatting only happens if the level is enabled
+         * @param level The log level
+         * @param format The format template
+         * @param arg The template argument
+         */
+        default void logf(LogLevel level, String format, Object arg)
+        {
+            if (isEnabled(level)) log(String.format(format, arg), level);
+        }
+
+        default void logf(LogLevel level, String format, Object arg1, Object arg2)
+        {
+            if (isEnabled(level)) log(String.format(format, arg1, arg2), level);
+        }
+
+        default void logf(LogLevel level, String format, Object... args)
+        {
+            if (isEnabled(level)) log(String.format(format, args), level);
+        }
     }
 
@@ -0,0 +1,14 @@
+package com.simulator.moto6809.Logger;
+
+    /**
+     * What AsyncLogWriter does when its queue is full (or nearly full).
+     */
+    public enum LogOverflowPolicy
+    {
+        /** Drop the new line and count it (never blocks the caller). */
+        DROP,
+        /** Wait until the writer thread frees a slot (no loss, but the caller may stall on disk I/O). */
+        BLOCK,
+        /** Above the high-water mark keep 1 of every N DEBUG/INFO lines; WARNING/ERROR are kept while space remains. */
+        SAMPLE
+    }
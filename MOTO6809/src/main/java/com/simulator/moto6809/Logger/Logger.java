@@ -3,24 +3,56 @@ package com.simulator.moto6809.Logger;
 import com.simulator.moto6809.Console.IOutputStream;
 import com.simulator.moto6809.Errors.Response;
 
-import java.io.FileWriter;
-import java.io.IOException;
 import java.nio.file.Path;
 
-public class Logger implements ILogger{
-    private Path logFilePath;
-    private final Object lock = new Object();
+public class Logger implements ILogger, AutoCloseable {
     private final IOutputStream outputStream;
+    private final int capacity;
+    private final LogOverflowPolicy policy;
+    // File appends happen on its background thread; created with the first log file, so console-only loggers start no thread
+    private volatile AsyncLogWriter fileWriter;
+    private volatile boolean fileEnabled;
+    private volatile boolean closed;
+    private volatile LogLevel threshold = LogLevel.INFO;
 
     public Logger(IOutputStream outputStream, Path logFilePath)
     {
-        this.logFilePath = logFilePath;
+        this(outputStream, logFilePath, AsyncLogWriter.DEFAULT_CAPACITY, LogOverflowPolicy.DROP);
+    }
+
+    /**
+     * @param capacity queued lines before the overflow policy applies (power of two)
+     * @param policy   DROP (never blocks), BLOCK (no loss) or SAMPLE (thins DEBUG/INFO under load)
+     */
+    public Logger(IOutputStream outputStream, Path logFilePath, int capacity, LogOverflowPolicy policy)
+    {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("capacity must be a power of two >= 2");
+        if (policy == null) throw new IllegalArgumentException("policy is null");
         this.outputStream = outputStream;
+        this.capacity = capacity;
+        this.policy = policy;
+        setLogFilePath(logFilePath);
+    }
+
+    @Override
+    public LogLevel threshold()
+    {
+        return threshold;
+    }
+
+    public void setThreshold(LogLevel threshold)
+    {
+        if (threshold == null) throw new IllegalArgumentException("threshold is null");
+        this.threshold = threshold;
     }
 
     @Override
     public void log(String message, LogLevel level)
     {
+        if (!isEnabled(level))
+            return;
+
         message = level.toString() + ": " + message;
         switch (level) {
             case ERROR:
@@ -33,19 +65,9 @@ public class Logger implements ILogger{
                 outputStream.println(message);
         }
 
-        if (logFilePath == null)
-            return;
-
-        synchronized (lock) {
-            try (FileWriter fw = new FileWriter(logFilePath.toFile(), true))
-            {
-                fw.write(message + "\n");
-            }
-            catch (IOException e)
-            {
-                outputStream.print("An error occurred while logging to the file: " + e.getMessage());
-            }
-        }
+        AsyncLogWriter writer = fileWriter;
+        if (fileEnabled && writer != null)
+            writer.append(message, level);
     }
 
     @Override
@@ -61,8 +83,34 @@ public class Logger implements ILogger{
     }
 
     @Override
-    public void setLogFilePath(Path logFilePath)
+    public synchronized void setLogFilePath(Path logFilePath)
+    {
+        if (logFilePath != null && fileWriter == null && !closed)
+            fileWriter = new AsyncLogWriter(logFilePath, capacity, policy, AsyncLogWriter.DEFAULT_SAMPLE_RATE);
+        else if (fileWriter != null)
+            fileWriter.setPath(logFilePath);
+        fileEnabled = logFilePath != null && fileWriter != null;
+    }
+
+    /** Lines the file writer dropped because its queue was full. */
+    public long droppedLogLines()
+    {
+        AsyncLogWriter writer = fileWriter;
+        return writer == null ? 0 : writer.droppedCount();
+    }
+
+    /** Blocks until queued lines are on disk (or the timeout elapses). */
+    public boolean flush(long timeoutMillis)
+    {
+        AsyncLogWriter writer = fileWriter;
+        return writer == null || writer.flush(timeoutMillis);
+    }
+
+    @Override
+    public synchronized void close()
     {
-        this.logFilePath = logFilePath;
+        closed = true;
+        fileEnabled = false;
+        if (fileWriter != null) fileWriter.close();
     }
 }
@@ -0,0 +1,85 @@
+package com.simulator.moto6809.Logger;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue: any number of producer threads, exactly one consumer thread.
+ * (Vyukov array queue: a slot is free for position p when its sequence == p.)
+ *
+ * offer() never blocks; it returns false when the queue is full.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final Object[] items;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // consumer only
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two >= 2");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.items = new Object[capacity];
+        this.sequence = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequence.set(i, i);
+    }
+
+    public int capacity() { return capacity; }
+
+    /** Total number of elements ever accepted by offer(). */
+    public long offeredCount() { return tail.get(); }
+
+
+    // Producer side (any thread)
+
+    public boolean offer(E e) {
+        long pos = tail.get();
+        while (true) {
+            int idx = (int) (pos & mask);
+            long dif = sequence.getAcquire(idx) - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items[idx] = e;
+                    sequence.setRelease(idx, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (dif < 0) {
+                return false; // full
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+
+    // Consumer side (single thread)
+
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        int idx = (int) (head & mask);
+        if (sequence.getAcquire(idx) != head + 1) return null;
+        E e = (E) items[idx];
+        items[idx] = null;
+        sequence.setRelease(idx, head + capacity);
+        head++;
+        return e;
+    }
+
+    /** Moves up to max elements into out; returns how many were moved. */
+    public int drainTo(Collection<? super E> out, int max) {
+        int n = 0;
+        E e;
+        while (n < max && (e = poll()) != null) {
+            out.add(e);
+            n++;
+        }
+        return n;
+    }
+}
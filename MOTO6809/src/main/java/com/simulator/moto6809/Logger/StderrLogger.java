@@ -0,0 +1,40 @@
+package com.simulator.moto6809.Logger;
+
+import com.simulator.moto6809.Errors.Response;
+
+import java.nio.file.Path;
+
+/**
+ * Logger for command-line tools and build steps: lines at or above the threshold go to stderr,
+ * so they never mix with a report written to stdout.
+ */
+public final class StderrLogger implements ILogger {
+
+    private final LogLevel threshold;
+
+    public StderrLogger(LogLevel threshold) {
+        if (threshold == null) throw new IllegalArgumentException("threshold is null");
+        this.threshold = threshold;
+    }
+
+    @Override
+    public LogLevel threshold() {
+        return threshold;
+    }
+
+    @Override
+    public void log(String message, LogLevel level) {
+        if (isEnabled(level)) System.err.println("[" + level + "] " + message);
+    }
+
+    @Override
+    public void log(Response response, LogLevel level) {
+        log(String.valueOf(response), level);
+    }
+
+    @Override
+    public void clear() {}
+
+    @Override
+    public void setLogFilePath(Path logFilePath) {}
+}
@@ -0,0 +1,222 @@
+package com.simulator.moto6809.Memory;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Bank-switched storage larger than 64 KB: the logical space is 8 windows of 8 KB, each mapped to one
+ * 8 KB bank of the physical store by a page table ({@code window[a >>> 13]}), so an access costs one
+ * extra array load and never branches on bank numbers.
+ *
+ * MMU registers: a byte write to registerBase + w (w = 0..7) selects the bank shown in window w
+ * (bank number masked to the bank count). They are write-only; reads see the memory beneath.
+ * Only byte writes (CPU stores) reach the registers; block writes (loaders) store data.
+ *
+ * Banks are shared copy-on-write between forks, like PagedMemory pages; the bank selection is copied.
+ * Not thread-safe per instance.
+ */
+public final class BankedMemory implements PageStore {
+
+    public static final int WINDOW_BITS = 13;
+    public static final int WINDOW_SIZE = 1 << WINDOW_BITS;         // 8 KB
+    public static final int WINDOWS = 0x10000 >> WINDOW_BITS;       // 8
+    private static final int WINDOW_MASK = WINDOW_SIZE - 1;
+
+    private final byte[][] banks;
+    private final boolean[] shared;
+    private final byte[][] window = new byte[WINDOWS][];   // page table: window -> bank storage
+    private final int[] windowBank = new int[WINDOWS];
+    private final int bankMask;
+    private final int registerBase;
+    private IntConsumer switchListener;
+
+    /**
+     * Physical store of bankCount banks (a power of two, at least 8); banks 0..7 start with the flat
+     * image and are mapped 1:1, so enabling the MMU does not change what the CPU sees.
+     */
+    static BankedMemory fromFlat(byte[] flat, int bankCount, int registerBase) {
+        if (flat == null || flat.length != 0x10000) {
+            throw new IllegalArgumentException("Memory must be exactly 64KB");
+        }
+        BankedMemory m = new BankedMemory(bankCount, registerBase);
+        for (int b = 0; b < bankCount; b++) {
+            m.banks[b] = (b < WINDOWS) ? Arrays.copyOfRange(flat, b << WINDOW_BITS, (b + 1) << WINDOW_BITS)
+                                       : new byte[WINDOW_SIZE];
+        }
+        for (int w = 0; w < WINDOWS; w++) {
+            m.window[w] = m.banks[w];
+            m.windowBank[w] = w;
+        }
+        return m;
+    }
+
+    private BankedMemory(int bankCount, int registerBase) {
+        if (bankCount < WINDOWS || Integer.bitCount(bankCount) != 1) {
+            throw new IllegalArgumentException("Bank count must be a power of two >= " + WINDOWS + ": " + bankCount);
+        }
+        if (registerBase < 0 || registerBase + WINDOWS > 0x10000) {
+            throw new IllegalArgumentException(String.format("Bad MMU register base $%04X", registerBase));
+        }
+        this.banks = new byte[bankCount][];
+        this.shared = new boolean[bankCount];
+        this.bankMask = bankCount - 1;
+        this.registerBase = registerBase;
+    }
+
+    private BankedMemory(BankedMemory parent) {
+        this(parent.banks.length, parent.registerBase);
+        System.arraycopy(parent.banks, 0, banks, 0, banks.length);
+        Arrays.fill(shared, true);
+        System.arraycopy(parent.window, 0, window, 0, WINDOWS);
+        System.arraycopy(parent.windowBank, 0, windowBank, 0, WINDOWS);
+    }
+
+    /** Returns a copy-on-write fork with the same bank selection (listener not copied). */
+    public BankedMemory fork() {
+        Arrays.fill(shared, true);
+        return new BankedMemory(this);
+    }
+
+    /** Called with the window number after each bank switch (Memory turns it into a range notification). */
+    void setSwitchListener(IntConsumer listener) {
+        this.switchListener = listener;
+    }
+
+    public int bankCount() { return banks.length; }
+
+    public int registerBase() { return registerBase; }
+
+    /** Number of banks this instance owns privately (i.e. has written since the last fork). */
+    public int privateBankCount() {
+        int n = 0;
+        for (boolean s : shared) if (!s) n++;
+        return n;
+    }
+
+    /** Physical size in bytes. */
+    public int physicalSize() { return banks.length << WINDOW_BITS; }
+
+    /** Bank currently mapped in window w. */
+    public int bank(int w) { return windowBank[w & (WINDOWS - 1)]; }
+
+    /** Maps bank into window w (what a write to registerBase + w does). */
+    public void select(int w, int bank) {
+        int win = w & (WINDOWS - 1);
+        int b = bank & bankMask;
+        window[win] = banks[b];
+        windowBank[win] = b;
+        if (switchListener != null) switchListener.accept(win);
+    }
+
+    /** Logical address -> physical address with the current page table. */
+    public int physicalAddress(int address) {
+        int a = address & 0xFFFF;
+        return (windowBank[a >>> WINDOW_BITS] << WINDOW_BITS) | (a & WINDOW_MASK);
+    }
+
+    public int readPhysical(int physicalAddress) {
+        int p = checkPhysical(physicalAddress, 1);
+        return banks[p >>> WINDOW_BITS][p & WINDOW_MASK] & 0xFF;
+    }
+
+    /** Copies into the physical store whatever the bank selection (bank images larger than 64 KB). */
+    public void writePhysical(int physicalAddress, byte[] src, int offset, int length) {
+        int p = checkPhysical(physicalAddress, length);
+        while (length > 0) {
+            int in = p & WINDOW_MASK;
+            int n = Math.min(length, WINDOW_SIZE - in);
+            System.arraycopy(src, offset, writableBank(p >>> WINDOW_BITS), in, n);
+            p += n; offset += n; length -= n;
+        }
+    }
+
+    private int checkPhysical(int physicalAddress, int length) {
+        if (physicalAddress < 0 || length < 0 || (long) physicalAddress + length > physicalSize()) {
+            throw new IllegalArgumentException(String.format("Physical range $%X+%d outside the %d KB store",
+                    physicalAddress, length, physicalSize() >> 10));
+        }
+        return physicalAddress;
+    }
+
+
+    // Logical access (through the page table)
+
+    @Override
+    public int read(int address) {
+        int a = address & 0xFFFF;
+        return window[a >>> WINDOW_BITS][a & WINDOW_MASK] & 0xFF;
+    }
+
+    @Override
+    public void write(int address, int value) {
+        int a = address & 0xFFFF;
+        int reg = a - registerBase;
+        if (reg >= 0 && reg < WINDOWS) {
+            select(reg, value);
+            return;
+        }
+        writableWindow(a >>> WINDOW_BITS)[a & WINDOW_MASK] = (byte) value;
+    }
+
+    @Override
+    public void readBlock(int address, byte[] dst, int offset, int length) {
+        while (length > 0) {
+            int in = address & WINDOW_MASK;
+            int n = Math.min(length, WINDOW_SIZE - in);
+            System.arraycopy(window[address >>> WINDOW_BITS], in, dst, offset, n);
+            address += n; offset += n; length -= n;
+        }
+    }
+
+    @Override
+    public void writeBlock(int address, byte[] src, int offset, int length) {
+        while (length > 0) {
+            int in = address & WINDOW_MASK;
+            int n = Math.min(length, WINDOW_SIZE - in);
+            System.arraycopy(src, offset, writableWindow(address >>> WINDOW_BITS), in, n);
+            address += n; offset += n; length -= n;
+        }
+    }
+
+    /** Fills [from, toInclusive] (non-wrapping); banks already holding only that value stay shared. */
+    @Override
+    public void fill(int from, int toInclusive, byte value) {
+        int a = from & 0xFFFF, end = (toInclusive & 0xFFFF) + 1;
+        while (a < end) {
+            int w = a >>> WINDOW_BITS, in = a & WINDOW_MASK;
+            int n = Math.min(end - a, WINDOW_SIZE - in);
+            if (!allEqual(window[w], in, n, value)) Arrays.fill(writableWindow(w), in, in + n, value);
+            a += n;
+        }
+    }
+
+    private static boolean allEqual(byte[] bank, int from, int n, byte value) {
+        for (int i = from; i < from + n; i++) if (bank[i] != value) return false;
+        return true;
+    }
+
+    /** The 64 KB currently visible through the windows. */
+    @Override
+    public byte[] toFlat() {
+        byte[] out = new byte[0x10000];
+        readBlock(0, out, 0, out.length);
+        return out;
+    }
+
+    private byte[] writableWindow(int w) {
+        int b = windowBank[w];
+        if (shared[b]) writableBank(b);
+        return window[w];
+    }
+
+    private byte[] writableBank(int b) {
+        if (shared[b]) {
+            byte[] copy = banks[b].clone();
+            banks[b] = copy;
+            shared[b] = false;
+            // the same bank may be visible in several windows
+            for (int w = 0; w < WINDOWS; w++) if (windowBank[w] == b) window[w] = copy;
+        }
+        return banks[b];
+    }
+}
@@ -0,0 +1,52 @@
+package com.simulator.moto6809.Memory;
+
+/**
+ * Splits a block access [address, address+length) of the 64 KB space into contiguous segments:
+ * wrap-around at $FFFF is split in two, and for writes the ROM range is cut out with one range check.
+ */
+final class BlockRange {
+
+    @FunctionalInterface
+    interface Segment {
+        /** @param address start address, @param offset offset into the caller's buffer, @param length bytes */
+        void accept(int address, int offset, int length);
+    }
+
+    private BlockRange() {}
+
+    static void check(byte[] buf, int offset, int length) {
+        if (buf == null) throw new IllegalArgumentException("buffer is null");
+        if (length < 0 || length > MemoryBus.ADDRESS_SPACE) throw new IllegalArgumentException("Bad length: " + length);
+        if (offset < 0 || offset + length > buf.length) throw new IllegalArgumentException("Buffer too small");
+    }
+
+    /** Contiguous (non-wrapping) segments covering the whole block. */
+    static void forEach(int address, int length, Segment s) {
+        int a = address & 0xFFFF;
+        int first = Math.min(length, MemoryBus.ADDRESS_SPACE - a);
+        if (first > 0) s.accept(a, 0, first);
+        if (length > first) s.accept(0, first, length - first);
+    }
+
+    /**
+     * Segments that fall outside [romStart, romEnd] (romStart > romEnd means no ROM).
+     * @return number of bytes skipped because they are in ROM
+     */
+    static int forEachWritable(int address, int length, int romStart, int romEnd, Segment s) {
+        int[] skipped = {0};
+        forEach(address, length, (a, off, len) -> {
+            int end = a + len; // exclusive, <= 0x10000
+            if (romStart > romEnd || end <= romStart || a > romEnd) {
+                s.accept(a, off, len);
+                return;
+            }
+            if (a < romStart) s.accept(a, off, romStart - a);
+            if (end > romEnd + 1) {
+                int from = romEnd + 1;
+                s.accept(from, off + (from - a), end - from);
+            }
+            skipped[0] += Math.min(end, romEnd + 1) - Math.max(a, romStart);
+        });
+        return skipped[0];
+    }
+}
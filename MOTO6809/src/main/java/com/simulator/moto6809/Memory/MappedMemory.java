@@ -0,0 +1,160 @@
+package com.simulator.moto6809.Memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 64 KB address space whose 256-byte pages are slices of either a heap buffer or a memory-mapped file.
+ *
+ * Every access is one page-table load plus one buffer access, whatever backs the page, so mapped
+ * regions stay on the same path as plain RAM. Mapping modes:
+ *  - READ_WRITE: writes go to the file (battery-backed RAM; other processes see them live)
+ *  - PRIVATE:    pages come from the shared page cache, writes stay private (shared ROM image)
+ *  - READ_ONLY:  shared and immutable; writes to it are ignored, like stores to a ROM chip
+ *
+ * Not thread-safe (same rules as the flat array it replaces).
+ */
+public final class MappedMemory implements PageStore {
+
+    private static final int PAGE_BITS = PagedMemory.PAGE_BITS;
+    private static final int PAGE_SIZE = PagedMemory.PAGE_SIZE;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    /** One mapped file region. */
+    public record Region(int start, int end, Path file, FileChannel.MapMode mode) {
+        @Override
+        public String toString() {
+            return String.format("$%04X-$%04X %s (%s)", start, end, file, mode);
+        }
+    }
+
+    private final ByteBuffer[] pages = new ByteBuffer[PagedMemory.PAGE_COUNT];
+    private final List<Region> regions = new ArrayList<>();
+    private final List<MappedByteBuffer> writable = new ArrayList<>();
+
+    /** Heap pages initialised from a flat 64 KB image. */
+    static MappedMemory fromFlat(byte[] flat) {
+        if (flat == null || flat.length != 0x10000) {
+            throw new IllegalArgumentException("Memory must be exactly 64KB");
+        }
+        MappedMemory m = new MappedMemory();
+        ByteBuffer heap = ByteBuffer.wrap(flat.clone());
+        for (int p = 0; p < m.pages.length; p++) m.pages[p] = heap.slice(p << PAGE_BITS, PAGE_SIZE);
+        return m;
+    }
+
+    private MappedMemory() {}
+
+    /**
+     * Backs [start, endInclusive] (whole 256-byte pages) with file.
+     * READ_WRITE creates the file from the current contents when it is shorter than the region;
+     * otherwise the file contents win (persisted RAM is restored). PRIVATE / READ_ONLY need an existing file
+     * at least as large as the region.
+     */
+    void map(int start, int endInclusive, Path file, FileChannel.MapMode mode) throws IOException {
+        if (file == null) throw new IllegalArgumentException("file is null");
+        if (mode == null) throw new IllegalArgumentException("mode is null");
+        if (start < 0 || endInclusive > 0xFFFF || endInclusive < start
+                || (start & PAGE_MASK) != 0 || ((endInclusive + 1) & PAGE_MASK) != 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Mapped region $%04X-$%04X must cover whole %d-byte pages", start, endInclusive, PAGE_SIZE));
+        }
+        int size = endInclusive - start + 1;
+
+        boolean readWrite = mode == FileChannel.MapMode.READ_WRITE;
+        FileChannel ch = (mode == FileChannel.MapMode.READ_ONLY)
+                ? FileChannel.open(file, StandardOpenOption.READ)
+                : readWrite
+                        ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)
+                        : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try (ch) {
+            long existing = ch.size();
+            if (existing < size) {
+                if (!readWrite) {
+                    throw new IllegalArgumentException(String.format(
+                            "%s holds %d byte(s), region $%04X-$%04X needs %d", file, existing, start, endInclusive, size));
+                }
+                byte[] current = new byte[size];
+                readBlock(start, current, 0, size);
+                ch.write(ByteBuffer.wrap(current, (int) existing, size - (int) existing), existing);
+            }
+
+            MappedByteBuffer buf = ch.map(mode, 0, size);
+            for (int off = 0; off < size; off += PAGE_SIZE) {
+                pages[(start + off) >>> PAGE_BITS] = buf.slice(off, PAGE_SIZE);
+            }
+            if (readWrite) writable.add(buf);
+            regions.add(new Region(start, endInclusive, file, mode));
+        }
+    }
+
+    /** File regions currently mapped, in mapping order. */
+    public List<Region> regions() { return List.copyOf(regions); }
+
+    /** Writes READ_WRITE regions back to their files now (the OS does it lazily otherwise). */
+    public void force() {
+        for (MappedByteBuffer b : writable) b.force();
+    }
+
+
+    // Byte access
+
+    @Override
+    public int read(int address) {
+        int a = address & 0xFFFF;
+        return pages[a >>> PAGE_BITS].get(a & PAGE_MASK) & 0xFF;
+    }
+
+    @Override
+    public void write(int address, int value) {
+        int a = address & 0xFFFF;
+        ByteBuffer page = pages[a >>> PAGE_BITS];
+        if (!page.isReadOnly()) page.put(a & PAGE_MASK, (byte) value);
+    }
+
+    @Override
+    public void readBlock(int address, byte[] dst, int offset, int length) {
+        while (length > 0) {
+            int in = address & PAGE_MASK;
+            int n = Math.min(length, PAGE_SIZE - in);
+            pages[address >>> PAGE_BITS].get(in, dst, offset, n);
+            address += n; offset += n; length -= n;
+        }
+    }
+
+    @Override
+    public void writeBlock(int address, byte[] src, int offset, int length) {
+        while (length > 0) {
+            int in = address & PAGE_MASK;
+            int n = Math.min(length, PAGE_SIZE - in);
+            ByteBuffer page = pages[address >>> PAGE_BITS];
+            if (!page.isReadOnly()) page.put(in, src, offset, n);
+            address += n; offset += n; length -= n;
+        }
+    }
+
+    @Override
+    public void fill(int from, int toInclusive, byte value) {
+        int a = from & 0xFFFF, end = (toInclusive & 0xFFFF) + 1;
+        while (a < end) {
+            ByteBuffer page = pages[a >>> PAGE_BITS];
+            int in = a & PAGE_MASK;
+            int n = Math.min(end - a, PAGE_SIZE - in);
+            if (!page.isReadOnly()) for (int i = in; i < in + n; i++) page.put(i, value);
+            a += n;
+        }
+    }
+
+    @Override
+    public byte[] toFlat() {
+        byte[] out = new byte[0x10000];
+        readBlock(0, out, 0, out.length);
+        return out;
+    }
+}
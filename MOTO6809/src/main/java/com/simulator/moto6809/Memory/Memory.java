@@ -3,13 +3,20 @@ package com.simulator.moto6809.Memory;
 import com.simulator.moto6809.Logger.ILogger;
 import com.simulator.moto6809.Logger.LogLevel;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public class Memory {
 
-    private final byte[] memory = new byte[0x10000]; // 64 KB
+    private byte[] memory = new byte[0x10000]; // 64 KB (null once paged or mapped)
+    private PagedMemory paged;                   // copy-on-write pages after the first fork()
+    private MappedMemory mapped;                 // file-backed pages after the first mapFile()
+    private BankedMemory banked;                 // bank-switched store after enableBanking()
+    private PageStore store;                     // paged, mapped or banked, null while flat
 
     private int RAMstart = 0x0000, RAMend = 0xDFFF;
     private int ROMstart = 0xE000, ROMend = 0xFFFF;
@@ -30,6 +37,107 @@ public class Memory {
         initializeResetMemory();
     }
 
+    // Fork: shares pages copy-on-write with this memory (listeners are not copied)
+    private Memory(Memory parent, ILogger logger) {
+        this.logger = logger;
+        this.memory = null;
+        if (parent.banked != null) {
+            this.banked = parent.banked.fork();
+            this.banked.setSwitchListener(this::onBankSwitch);
+            this.store = this.banked;
+        } else {
+            this.paged = parent.paged.fork();
+            this.store = this.paged;
+        }
+        this.RAMstart = parent.RAMstart;
+        this.RAMend = parent.RAMend;
+        this.ROMstart = parent.ROMstart;
+        this.ROMend = parent.ROMend;
+    }
+
+    /**
+     * Returns a copy-on-write fork of this memory.
+     * The first call switches this memory to paged storage in place, for good: getMemory() throws afterwards
+     * and an array it returned earlier is detached from this memory.
+     */
+    public Memory fork(ILogger logger) {
+        if (banked == null) enablePaging();
+        return new Memory(this, logger);
+    }
+
+    public void enablePaging() {
+        if (paged != null) return;
+        if (mapped != null) throw new IllegalStateException("File-mapped memory cannot be forked");
+        if (banked != null) return; // banks are already shared copy-on-write
+        paged = PagedMemory.fromFlat(memory);
+        store = paged;
+        memory = null;
+    }
+
+    public boolean isPaged() { return paged != null; }
+
+    /** Paged storage, or null while the memory is still a flat array. */
+    public PagedMemory pagedStorage() { return paged; }
+
+    /**
+     * Backs [start, endInclusive] (whole 256-byte pages) with a memory-mapped file; see MappedMemory for the modes.
+     * Switches this memory to page storage in place (getMemory() is no longer available); must happen before fork().
+     * Call MemoryBus.syncStorageFrom afterwards.
+     */
+    public void mapFile(int start, int endInclusive, Path file, FileChannel.MapMode mode) throws IOException {
+        if (paged != null) throw new IllegalStateException("Memory is paged (forked); map files before forking");
+        if (banked != null) throw new IllegalStateException("Memory is bank-switched; file mapping is not supported");
+        if (mapped == null) {
+            mapped = MappedMemory.fromFlat(memory);
+            store = mapped;
+            memory = null;
+        }
+        mapped.map(start & 0xFFFF, endInclusive & 0xFFFF, file, mode);
+        notifyRangeWrite(start, (endInclusive & 0xFFFF) - (start & 0xFFFF) + 1);
+        if (logger != null) logger.logf(LogLevel.INFO, "Mapped %s", mapped.regions().get(mapped.regions().size() - 1));
+    }
+
+    public boolean isMapped() { return mapped != null; }
+
+    /** File-backed storage, or null when nothing is mapped. */
+    public MappedMemory mappedStorage() { return mapped; }
+
+    /** Flushes READ_WRITE mapped regions to their files (no-op when nothing is mapped). */
+    public void force() {
+        if (mapped != null) mapped.force();
+    }
+
+    /**
+     * Puts an MMU in front of a physical store of bankCount 8 KB banks (see BankedMemory); MMU registers are
+     * written at registerBase..registerBase+7 (keep them outside ROM). The current contents stay visible.
+     * Switches this memory to page storage in place; must happen before fork(). Call MemoryBus.syncStorageFrom afterwards.
+     */
+    public void enableBanking(int bankCount, int registerBase) {
+        if (banked != null) throw new IllegalStateException("Banking already enabled");
+        if (store != null) throw new IllegalStateException("Memory is paged or file-mapped; enable banking first");
+        banked = BankedMemory.fromFlat(memory, bankCount, registerBase & 0xFFFF);
+        banked.setSwitchListener(this::onBankSwitch);
+        store = banked;
+        memory = null;
+        if (logger != null) {
+            logger.logf(LogLevel.INFO, "MMU: %d KB in %d banks, registers at $%04X",
+                    banked.physicalSize() >> 10, bankCount, registerBase & 0xFFFF);
+        }
+    }
+
+    public boolean isBanked() { return banked != null; }
+
+    /** Bank-switched storage, or null when no MMU is enabled. */
+    public BankedMemory bankedStorage() { return banked; }
+
+    // A bank switch changes the whole window: views and caches re-read it
+    private void onBankSwitch(int window) {
+        notifyRangeWrite(window << BankedMemory.WINDOW_BITS, BankedMemory.WINDOW_SIZE);
+    }
+
+    /** Paged, mapped or banked storage, null while flat (what MemoryBus reads through). */
+    PageStore pageStore() { return store; }
+
     // Default configuration (RAM 0–0xDFFF, ROM 0xE000–0xFFFF)
     public final void initializeResetMemory() {
         setMemoryBoundaries(0x0000, 0xDFFF);
@@ -43,7 +151,7 @@ public class Memory {
         RAMend   = ramEndAddress   & 0xFFFF;
 
         if (logger != null) {
-            logger.log(String.format("RAM = $%04X - $%04X", RAMstart, RAMend), LogLevel.INFO);
+            logger.logf(LogLevel.INFO, "RAM = $%04X - $%04X", RAMstart, RAMend);
         }
     }
 
@@ -52,7 +160,7 @@ public class Memory {
         ROMend   = 0xFFFF;
 
         if (logger != null) {
-            logger.log(String.format("ROM = $%04X - $%04X", ROMstart, ROMend), LogLevel.INFO);
+            logger.logf(LogLevel.INFO, "ROM = $%04X - $%04X", ROMstart, ROMend);
         }
     }
 
@@ -69,6 +177,7 @@ public class Memory {
 
     public int readMem(int address) {
         int a = address & 0xFFFF;
+        if (store != null) return store.read(a);
         return memory[a] & 0xFF;
     }
 
@@ -87,12 +196,12 @@ public class Memory {
 
         if (isReadonly(a)) {
             if (logger != null) {
-                logger.log(String.format("Attempted ROM write at $%04X – ignored", a), LogLevel.WARNING);
+                logger.logf(LogLevel.WARNING, "Attempted ROM write at $%04X – ignored", a);
             }
             return;
         }
 
-        memory[a] = newValue;
+        store(a, newValue);
         notifyWrite(a, newValue & 0xFF);
     }
 
@@ -103,7 +212,7 @@ public class Memory {
 
         if (isReadonly(a) || isReadonly(a2)) {
             if (logger != null) {
-                logger.log(String.format("Attempted word write to ROM at $%04X – ignored", a), LogLevel.WARNING);
+                logger.logf(LogLevel.WARNING, "Attempted word write to ROM at $%04X – ignored", a);
             }
             return;
         }
@@ -118,19 +227,17 @@ public class Memory {
 
     /** Efface seulement la RAM (préserve la ROM). */
     public void flushRamOnly() {
-        for (int i = 0; i < memory.length; i++) {
-            if (i >= ROMstart && i <= ROMend) continue;
-            memory[i] = 0;
-        }
+        // block fill: never reaches the MMU registers of a banked memory
+        BlockRange.forEachWritable(0, 0x10000, ROMstart, ROMend, (a, off, len) -> fillRange(a, a + len - 1, (byte) 0));
         notifyReset();
-        if (logger != null) logger.log("Memory flushed (RAM only)", LogLevel.DEBUG);
+        if (logger != null) logger.log(LogLevel.DEBUG, () -> "Memory flushed (RAM only)");
     }
 
     /** Efface RAM + ROM (à utiliser rarement). */
     public void flushAll() {
-        Arrays.fill(memory, (byte) 0);
+        fillRange(0, 0xFFFF, (byte) 0);
         notifyReset();
-        if (logger != null) logger.log("Memory flushed (RAM + ROM)", LogLevel.DEBUG);
+        if (logger != null) logger.log(LogLevel.DEBUG, () -> "Memory flushed (RAM + ROM)");
     }
 
     public void resetMemory() {
@@ -144,22 +251,68 @@ public class Memory {
     // Loading byte arrays (ROM, programs, etc.)
 
     public void loadBytes(int startAddress, byte[] data, boolean allowROMWrite) {
-        int addr = startAddress & 0xFFFF;
-
-        for (byte b : data) {
-            if (!allowROMWrite && isReadonly(addr)) {
-                if (logger != null) {
-                    logger.log(String.format("Skipping ROM write @ $%04X during load", addr), LogLevel.WARNING);
-                }
-            } else {
-                memory[addr] = b;
-                notifyWrite(addr, b & 0xFF);
-            }
-            addr = (addr + 1) & 0xFFFF;
+        writeBlock(startAddress, data, 0, data.length, allowROMWrite);
+    }
+
+
+    // Block operations (wrap at $FFFF, one ROM range check, one coalesced notification)
+
+    public void readBlock(int address, byte[] dst, int offset, int length) {
+        BlockRange.check(dst, offset, length);
+        BlockRange.forEach(address, length, (a, off, len) -> {
+            if (store != null) store.readBlock(a, dst, offset + off, len);
+            else System.arraycopy(memory, a, dst, offset + off, len);
+        });
+    }
+
+    public void writeBlock(int address, byte[] src, int offset, int length, boolean allowROMWrite) {
+        BlockRange.check(src, offset, length);
+        if (length == 0) return;
+
+        int skipped = BlockRange.forEachWritable(address, length,
+                allowROMWrite ? 1 : ROMstart, allowROMWrite ? 0 : ROMend,
+                (a, off, len) -> {
+                    if (store != null) store.writeBlock(a, src, offset + off, len);
+                    else System.arraycopy(src, offset + off, memory, a, len);
+                });
+
+        if (skipped > 0 && logger != null) {
+            logger.logf(LogLevel.WARNING, "Skipping %d ROM byte(s) @ $%04X during load", skipped, address & 0xFFFF);
+        }
+        notifyRangeWrite(address, length);
+    }
+
+    public void fill(int address, int length, byte value, boolean allowROMWrite) {
+        if (length <= 0) return;
+        if (length > 0x10000) throw new IllegalArgumentException("Bad length: " + length);
+
+        BlockRange.forEachWritable(address, length,
+                allowROMWrite ? 1 : ROMstart, allowROMWrite ? 0 : ROMend,
+                (a, off, len) -> fillRange(a, a + len - 1, value));
+        notifyRangeWrite(address, length);
+    }
+
+    /** Copies length bytes from src to dst; overlapping ranges behave like memmove. */
+    public void copy(int srcAddress, int dstAddress, int length, boolean allowROMWrite) {
+        if (length <= 0) return;
+        if (length > 0x10000) throw new IllegalArgumentException("Bad length: " + length);
+        int s = srcAddress & 0xFFFF, d = dstAddress & 0xFFFF;
+
+        boolean contiguous = s + length <= 0x10000 && d + length <= 0x10000;
+        boolean touchesRom = !allowROMWrite && d <= ROMend && d + length - 1 >= ROMstart;
+        if (store == null && contiguous && !touchesRom) {
+            System.arraycopy(memory, s, memory, d, length);
+            notifyRangeWrite(d, length);
+            return;
         }
+
+        byte[] tmp = new byte[length];
+        readBlock(s, tmp, 0, length);
+        writeBlock(d, tmp, 0, length, allowROMWrite);
     }
 
     public byte[] getMemory() {
+        if (store != null) throw new IllegalStateException("Memory is paged (forked), file-mapped or bank-switched; no flat array to share");
         return memory; // IMPORTANT: returns same reference (no clone)
     }
 
@@ -183,6 +336,12 @@ public class Memory {
         }
     }
 
+    private void notifyRangeWrite(int startAddress, int length) {
+        for (MemoryListener l : listeners) {
+            l.onMemoryRangeWrite(startAddress & 0xFFFF, length);
+        }
+    }
+
     private void notifyReset() {
         for (MemoryListener l : listeners) {
             l.onMemoryReset();
@@ -194,18 +353,31 @@ public class Memory {
         int end = 0xFFFF;
 
         if (!keepVectors) {
-            java.util.Arrays.fill(memory, start, end + 1, (byte) 0);
+            fillRange(start, end, (byte) 0);
             notifyReset();
             return;
         }
 
         byte[] saved = new byte[0x10000 - 0xFFF2];
-        System.arraycopy(memory, 0xFFF2, saved, 0, saved.length);
+        for (int i = 0; i < saved.length; i++) saved[i] = (byte) readMem(0xFFF2 + i);
 
-        java.util.Arrays.fill(memory, start, end + 1, (byte) 0);
-        System.arraycopy(saved, 0xFFF2, memory, 0xFFF2, saved.length);
+        fillRange(start, end, (byte) 0);
+        for (int i = 0; i < saved.length; i++) store(0xFFF2 + i, saved[i]);
 
         notifyReset();
     }
 
+
+    // Raw storage (flat array, copy-on-write pages or mapped files)
+
+    private void store(int address, byte value) {
+        if (store != null) store.write(address, value);
+        else memory[address] = value;
+    }
+
+    private void fillRange(int from, int toInclusive, byte value) {
+        if (store != null) store.fill(from, toInclusive, value);
+        else Arrays.fill(memory, from, toInclusive + 1, value);
+    }
+
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package com.simulator.moto6809.Memory;
 
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
 public final class MemoryBus {
     public static final int ADDRESS_SPACE = 0x10000; // 64 KB
 
-    private final byte[] memory;
+    // Dirty tracking: 1 bit per 16-byte row (4096 rows => 64 longs), read by the UI each frame
+    public static final int DIRTY_ROW_SHIFT = 4;
+    private final AtomicLongArray dirtyRows = new AtomicLongArray((ADDRESS_SPACE >> DIRTY_ROW_SHIFT) / 64);
+
+    private byte[] memory;      // flat storage (null when paged)
+    private PageStore paged;    // copy-on-write pages of a forked Memory, its file-mapped pages or its MMU banks
     private int romStart; // inclusive
     private int romEnd;   // inclusive
 
@@ -19,8 +27,22 @@ public final class MemoryBus {
 
     public MemoryBus(Memory mem) {
         if (mem == null) throw new IllegalArgumentException("mem is null");
-        this.memory = mem.getMemory();
+        syncStorageFrom(mem);
         syncRomRangeFrom(mem);
+
+        // Writes done through Memory (loader, flush) must show up as dirty too
+        mem.addListener(new MemoryListener() {
+            @Override public void onMemoryWrite(int address, int value) { markDirty(address); }
+            @Override public void onMemoryRangeWrite(int startAddress, int length) { markDirtyRange(startAddress, length); }
+            @Override public void onMemoryReset() { markAllDirty(); }
+        });
+    }
+
+    /** Re-attach to mem's storage (needed after mem switched to page storage on fork, mapFile or enableBanking). */
+    public void syncStorageFrom(Memory mem) {
+        if (mem == null) return;
+        this.paged = mem.pageStore();
+        this.memory = (paged == null) ? mem.getMemory() : null;
     }
 
     /** Keep ROM protection in sync with Memory layout (important if layout changes). */
@@ -38,13 +60,16 @@ public final class MemoryBus {
 
     public int read(int address) {
         int a = address & 0xFFFF;
+        if (paged != null) return paged.read(a);
         return memory[a] & 0xFF;
     }
 
     public void write(int address, int value) {
         int a = address & 0xFFFF;
         if (a >= romStart && a <= romEnd) return; // ignore ROM writes
-        memory[a] = (byte) (value & 0xFF);
+        if (paged != null) paged.write(a, value);
+        else memory[a] = (byte) (value & 0xFF);
+        markDirty(a);
     }
 
 
@@ -52,6 +77,7 @@ public final class MemoryBus {
 
     public int readWord(int address) {
         int a = address & 0xFFFF;
+        if (paged != null) return ((paged.read(a) << 8) | paged.read(a + 1)) & 0xFFFF;
         int hi = memory[a] & 0xFF;
         int lo = memory[(a + 1) & 0xFFFF] & 0xFF;
         return ((hi << 8) | lo) & 0xFFFF;
@@ -64,20 +90,133 @@ public final class MemoryBus {
 
         if ((a >= romStart && a <= romEnd) || (a2 >= romStart && a2 <= romEnd)) return;
 
-        memory[a]  = (byte) ((v >> 8) & 0xFF);
-        memory[a2] = (byte) (v & 0xFF);
+        if (paged != null) {
+            paged.write(a, v >> 8);
+            paged.write(a2, v);
+        } else {
+            memory[a]  = (byte) ((v >> 8) & 0xFF);
+            memory[a2] = (byte) (v & 0xFF);
+        }
+        markDirty(a);
+        markDirty(a2);
+    }
+
+    // BLOCK access (wrap at $FFFF; writes skip the ROM range with one range check)
+
+    public void readBlock(int address, byte[] dst, int offset, int length) {
+        BlockRange.check(dst, offset, length);
+        BlockRange.forEach(address, length, (a, off, len) -> {
+            if (paged != null) paged.readBlock(a, dst, offset + off, len);
+            else System.arraycopy(memory, a, dst, offset + off, len);
+        });
+    }
+
+    public void writeBlock(int address, byte[] src, int offset, int length) {
+        BlockRange.check(src, offset, length);
+        BlockRange.forEachWritable(address, length, romStart, romEnd, (a, off, len) -> {
+            if (paged != null) paged.writeBlock(a, src, offset + off, len);
+            else System.arraycopy(src, offset + off, memory, a, len);
+        });
+        markDirtyRange(address, length);
+    }
+
+    public void fill(int address, int length, int value) {
+        if (length <= 0) return;
+        if (length > ADDRESS_SPACE) throw new IllegalArgumentException("Bad length: " + length);
+        byte v = (byte) value;
+        BlockRange.forEachWritable(address, length, romStart, romEnd, (a, off, len) -> {
+            if (paged != null) paged.fill(a, a + len - 1, v);
+            else java.util.Arrays.fill(memory, a, a + len, v);
+        });
+        markDirtyRange(address, length);
+    }
+
+    /** Copies length bytes from src to dst; overlapping ranges behave like memmove. */
+    public void copy(int srcAddress, int dstAddress, int length) {
+        if (length <= 0) return;
+        if (length > ADDRESS_SPACE) throw new IllegalArgumentException("Bad length: " + length);
+        int s = srcAddress & 0xFFFF, d = dstAddress & 0xFFFF;
+
+        boolean contiguous = s + length <= ADDRESS_SPACE && d + length <= ADDRESS_SPACE;
+        boolean touchesRom = romStart <= romEnd && d <= romEnd && d + length - 1 >= romStart;
+        if (paged == null && contiguous && !touchesRom) {
+            System.arraycopy(memory, s, memory, d, length);
+            markDirtyRange(d, length);
+            return;
+        }
+
+        byte[] tmp = new byte[length];
+        readBlock(s, tmp, 0, length);
+        writeBlock(d, tmp, 0, length);
     }
 
     // CLEAR RAM ONLY
 
     public void clearRamOnly() {
-        for (int i = 0; i < ADDRESS_SPACE; i++) {
-            if (i >= romStart && i <= romEnd) continue;
-            memory[i] = 0;
-        }
+        // block fill (pages already zero stay shared; never reaches MMU registers)
+        BlockRange.forEachWritable(0, ADDRESS_SPACE, romStart, romEnd, (a, off, len) -> {
+            if (paged != null) paged.fill(a, a + len - 1, (byte) 0);
+            else java.util.Arrays.fill(memory, a, a + len, (byte) 0);
+        });
+        markAllDirty();
     }
 
+    /** The flat array while unpaged; throws once the memory is paged (after the first fork), mapped or banked. */
     public byte[] getRawMemory() {
+        if (paged != null) throw new IllegalStateException("Memory is paged (forked), file-mapped or bank-switched; no flat array to share");
         return memory;
     }
+
+
+    // DIRTY ROWS (16 bytes each)
+
+    /** Marks the 16-byte row containing address as changed. Cheap when the row is already dirty. */
+    public void markDirty(int address) {
+        int row = (address & 0xFFFF) >>> DIRTY_ROW_SHIFT;
+        int word = row >>> 6;
+        long bit = 1L << (row & 63);
+        // opaque read: cannot be hoisted out of the CPU loop, so a consumer's clear is always seen
+        if ((dirtyRows.getOpaque(word) & bit) == 0) {
+            dirtyRows.getAndAccumulate(word, bit, (cur, b) -> cur | b);
+        }
+    }
+
+    public void markDirtyRange(int address, int length) {
+        if (length <= 0) return;
+        if (length >= ADDRESS_SPACE) { markAllDirty(); return; }
+        int a = address & 0xFFFF;
+        int rows = ((a & ((1 << DIRTY_ROW_SHIFT) - 1)) + length + (1 << DIRTY_ROW_SHIFT) - 1) >>> DIRTY_ROW_SHIFT;
+        for (int r = 0; r < rows; r++) markDirty(a + (r << DIRTY_ROW_SHIFT));
+    }
+
+    public void markAllDirty() {
+        for (int i = 0; i < dirtyRows.length(); i++) dirtyRows.set(i, -1L);
+    }
+
+    /**
+     * Clears the dirty rows overlapping [fromAddr, toAddr] and reports each one's base address.
+     * Rows outside the range keep their bit, so several views over disjoint ranges can drain independently.
+     */
+    public void drainDirtyRows(int fromAddr, int toAddr, IntConsumer rowBase) {
+        int first = (fromAddr & 0xFFFF) >>> DIRTY_ROW_SHIFT;
+        int last = (toAddr & 0xFFFF) >>> DIRTY_ROW_SHIFT;
+        if (last < first) return;
+
+        for (int word = first >>> 6; word <= (last >>> 6); word++) {
+            long mask = -1L;
+            int lo = word << 6;
+            if (first > lo) mask &= -1L << (first - lo);
+            if (last < lo + 63) mask &= -1L >>> (63 - (last - lo));
+
+            if ((dirtyRows.get(word) & mask) == 0) continue;
+            long m = mask;
+            long taken = dirtyRows.getAndAccumulate(word, m, (cur, k) -> cur & ~k) & mask;
+
+            while (taken != 0) {
+                int bitIndex = Long.numberOfTrailingZeros(taken);
+                taken &= taken - 1;
+                rowBase.accept((lo + bitIndex) << DIRTY_ROW_SHIFT);
+            }
+        }
+    }
 }
@@ -7,6 +7,14 @@ public interface MemoryListener {
      */
     void onMemoryWrite(int address, int value);
 
+    /**
+     * Called once after a block operation (writeBlock/fill/copy) changed [startAddress, startAddress+length),
+     * possibly wrapping at $FFFF. Default: treated like a reset (re-read everything).
+     */
+    default void onMemoryRangeWrite(int startAddress, int length) {
+        onMemoryReset();
+    }
+
     /**
      * Called when memory is reset or flushed
      */
@@ -0,0 +1,23 @@
+package com.simulator.moto6809.Memory;
+
+/**
+ * 64 KB storage split into 256-byte pages, used by Memory and MemoryBus instead of the flat array
+ * once the memory is forked (PagedMemory) or backed by files (MappedMemory).
+ * Block methods never wrap: address + length <= 0x10000.
+ */
+interface PageStore {
+
+    int read(int address);
+
+    void write(int address, int value);
+
+    void readBlock(int address, byte[] dst, int offset, int length);
+
+    void writeBlock(int address, byte[] src, int offset, int length);
+
+    /** Fills [from, toInclusive]. */
+    void fill(int from, int toInclusive, byte value);
+
+    /** Copies the whole address space into a new flat array. */
+    byte[] toFlat();
+}
@@ -0,0 +1,133 @@
+package com.simulator.moto6809.Memory;
+
+import java.util.Arrays;
+
+/**
+ * 64 KB address space stored as 256 pages of 256 bytes, shared copy-on-write between forks.
+ *
+ * A page marked shared is never mutated in place: the first write copies it privately.
+ * Forking only copies the 256 page references, so a fork costs ~2 KB plus the pages it later writes.
+ *
+ * Not thread-safe per instance; distinct forks may be used from different threads
+ * (shared pages are effectively immutable).
+ */
+public final class PagedMemory implements PageStore {
+
+    public static final int PAGE_BITS = 8;
+    public static final int PAGE_SIZE = 1 << PAGE_BITS;     // 256 bytes
+    public static final int PAGE_COUNT = 0x10000 >> PAGE_BITS; // 256 pages
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final byte[][] pages = new byte[PAGE_COUNT][];
+    private final boolean[] shared = new boolean[PAGE_COUNT];
+
+    /** All-zero memory (pages allocated lazily on first write). */
+    public PagedMemory() {
+        byte[] zero = new byte[PAGE_SIZE];
+        Arrays.fill(pages, zero);
+        Arrays.fill(shared, true);
+    }
+
+    /** Copies a flat 64 KB image into private pages. */
+    public static PagedMemory fromFlat(byte[] flat) {
+        if (flat == null || flat.length != 0x10000) {
+            throw new IllegalArgumentException("Memory must be exactly 64KB");
+        }
+        PagedMemory pm = new PagedMemory();
+        for (int p = 0; p < PAGE_COUNT; p++) {
+            pm.pages[p] = Arrays.copyOfRange(flat, p << PAGE_BITS, (p + 1) << PAGE_BITS);
+            pm.shared[p] = false;
+        }
+        return pm;
+    }
+
+    private PagedMemory(PagedMemory parent) {
+        System.arraycopy(parent.pages, 0, pages, 0, PAGE_COUNT);
+        Arrays.fill(shared, true);
+    }
+
+    /** Returns a copy-on-write fork; from now on both sides copy a page before writing it. */
+    public PagedMemory fork() {
+        Arrays.fill(shared, true);
+        return new PagedMemory(this);
+    }
+
+
+    // Byte access
+
+    @Override
+    public int read(int address) {
+        int a = address & 0xFFFF;
+        return pages[a >>> PAGE_BITS][a & PAGE_MASK] & 0xFF;
+    }
+
+    @Override
+    public void write(int address, int value) {
+        int a = address & 0xFFFF;
+        writablePage(a >>> PAGE_BITS)[a & PAGE_MASK] = (byte) value;
+    }
+
+    /** Non-wrapping block read (address + length <= 0x10000). */
+    @Override
+    public void readBlock(int address, byte[] dst, int offset, int length) {
+        while (length > 0) {
+            int p = address >>> PAGE_BITS, in = address & PAGE_MASK;
+            int n = Math.min(length, PAGE_SIZE - in);
+            System.arraycopy(pages[p], in, dst, offset, n);
+            address += n; offset += n; length -= n;
+        }
+    }
+
+    /** Non-wrapping block write (address + length <= 0x10000). */
+    @Override
+    public void writeBlock(int address, byte[] src, int offset, int length) {
+        while (length > 0) {
+            int p = address >>> PAGE_BITS, in = address & PAGE_MASK;
+            int n = Math.min(length, PAGE_SIZE - in);
+            System.arraycopy(src, offset, writablePage(p), in, n);
+            address += n; offset += n; length -= n;
+        }
+    }
+
+    /** Fills [from, toInclusive] (non-wrapping); pages already holding only that value stay shared. */
+    @Override
+    public void fill(int from, int toInclusive, byte value) {
+        int a = from & 0xFFFF, end = (toInclusive & 0xFFFF) + 1;
+        while (a < end) {
+            int p = a >>> PAGE_BITS, in = a & PAGE_MASK;
+            int n = Math.min(end - a, PAGE_SIZE - in);
+            if (!allEqual(pages[p], in, n, value)) Arrays.fill(writablePage(p), in, in + n, value);
+            a += n;
+        }
+    }
+
+    private static boolean allEqual(byte[] page, int from, int n, byte value) {
+        for (int i = from; i < from + n; i++) if (page[i] != value) return false;
+        return true;
+    }
+
+    /** Copies the whole address space into a new flat array (for export/inspection). */
+    @Override
+    public byte[] toFlat() {
+        byte[] out = new byte[0x10000];
+        for (int p = 0; p < PAGE_COUNT; p++) {
+            System.arraycopy(pages[p], 0, out, p << PAGE_BITS, PAGE_SIZE);
+        }
+        return out;
+    }
+
+    /** Number of pages this instance owns privately (i.e. has written since the last fork). */
+    public int privatePageCount() {
+        int n = 0;
+        for (boolean s : shared) if (!s) n++;
+        return n;
+    }
+
+    private byte[] writablePage(int page) {
+        if (shared[page]) {
+            pages[page] = pages[page].clone();
+            shared[page] = false;
+        }
+        return pages[page];
+    }
+}
@@ -0,0 +1,35 @@
+package com.simulator.moto6809.Metrics;
+
+import com.simulator.moto6809.Execution.CPU.InterruptType;
+
+import java.util.Map;
+
+/**
+ * Point-in-time copy of SimulatorMetrics (headless pull API).
+ */
+public record MetricsSnapshot(long instructions,
+                              long cycles,
+                              double emulatedMips,
+                              Map<InterruptType, Long> interrupts,
+                              double decodeCacheHitRate,
+                              long logLinesDropped,
+                              long uiFramesPublished,
+                              long runSlices,
+                              long runNanos) {
+
+    public long interrupts(InterruptType type) {
+        return interrupts.getOrDefault(type, 0L);
+    }
+
+    /** One line, e.g. for a periodic log of a long headless run. */
+    public String format() {
+        StringBuilder irq = new StringBuilder();
+        interrupts.forEach((t, n) -> {
+            if (n > 0) irq.append(irq.length() == 0 ? "" : " ").append(t).append('=').append(n);
+        });
+        return String.format("instr=%d cycles=%d mips=%.2f interrupts=[%s] decodeHit=%s logDropped=%d frames=%d slices=%d runTime=%.3fs",
+                instructions, cycles, emulatedMips, irq,
+                Double.isNaN(decodeCacheHitRate) ? "n/a" : String.format("%.1f%%", decodeCacheHitRate * 100),
+                logLinesDropped, uiFramesPublished, runSlices, runNanos / 1e9);
+    }
+}
@@ -0,0 +1,98 @@
+package com.simulator.moto6809.Metrics;
+
+import com.simulator.moto6809.Execution.CPU.CpuMetrics;
+import com.simulator.moto6809.Execution.CPU.InterruptType;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics of one machine, for JMX ({@link #registerMBean}) or headless polling ({@link #snapshot}).
+ *
+ * CPU counters are thread-confined to the CPU thread (CpuMetrics); events from other threads
+ * (UI frames, dropped log lines) go to striped LongAdders. Reading never blocks or slows any producer.
+ */
+public final class SimulatorMetrics implements SimulatorMetricsMXBean {
+
+    public static final String DOMAIN = "com.simulator.moto6809";
+
+    private final CpuMetrics cpu;
+    private final LongAdder logLinesDropped = new LongAdder();
+    private final LongAdder uiFramesPublished = new LongAdder();
+    private volatile LongSupplier logDropSource = () -> 0L;
+    private ObjectName registeredName;
+
+    public SimulatorMetrics(CpuMetrics cpu) {
+        if (cpu == null) throw new IllegalArgumentException("cpu is null");
+        this.cpu = cpu;
+    }
+
+    // Producers (any thread)
+
+    public void logLinesDropped(long lines) {
+        if (lines > 0) logLinesDropped.add(lines);
+    }
+
+    public void uiFramePublished() {
+        uiFramesPublished.increment();
+    }
+
+    /** Drop counter kept elsewhere (e.g. Logger::droppedLogLines), added to the log lines dropped here. */
+    public void setLogDropSource(LongSupplier source) {
+        this.logDropSource = (source != null) ? source : () -> 0L;
+    }
+
+    // Pull API
+
+    public MetricsSnapshot snapshot() {
+        Map<InterruptType, Long> interrupts = new EnumMap<>(InterruptType.class);
+        for (InterruptType t : InterruptType.values()) interrupts.put(t, cpu.interrupts(t));
+        return new MetricsSnapshot(cpu.instructions(), cpu.cycles(), cpu.emulatedMips(), Map.copyOf(interrupts),
+                getDecodeCacheHitRate(), getLogLinesDropped(), getUiFramesPublished(), cpu.runSlices(), cpu.runNanos());
+    }
+
+    // JMX
+
+    /** Registers this instance in the platform MBean server under DOMAIN:type=Simulator,name=name. */
+    public synchronized ObjectName registerMBean(String name) throws JMException {
+        unregisterMBean();
+        ObjectName on = new ObjectName(DOMAIN + ":type=Simulator,name=" + ObjectName.quote(name));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, on);
+        registeredName = on;
+        return on;
+    }
+
+    public synchronized void unregisterMBean() throws JMException {
+        if (registeredName == null) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(registeredName)) server.unregisterMBean(registeredName);
+        registeredName = null;
+    }
+
+    @Override public long getInstructions() { return cpu.instructions(); }
+    @Override public long getCycles() { return cpu.cycles(); }
+    @Override public double getEmulatedMips() { return cpu.emulatedMips(); }
+
+    @Override
+    public Map<String, Long> getInterrupts() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (InterruptType t : InterruptType.values()) out.put(t.name(), cpu.interrupts(t));
+        return out;
+    }
+
+    /** Instructions are decoded from the bus on every step (no decode cache yet). */
+    @Override public double getDecodeCacheHitRate() { return Double.NaN; }
+
+    @Override public long getLogLinesDropped() { return logLinesDropped.sum() + logDropSource.getAsLong(); }
+    @Override public long getUiFramesPublished() { return uiFramesPublished.sum(); }
+    @Override public long getRunSlices() { return cpu.runSlices(); }
+    @Override public double getRunTimeSeconds() { return cpu.runNanos() / 1e9; }
+}
@@ -0,0 +1,31 @@
+package com.simulator.moto6809.Metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of SimulatorMetrics (registered as com.simulator.moto6809:type=Simulator,name=...).
+ * Every attribute is a cheap read of counters the simulator threads publish; nothing here touches the CPU.
+ */
+public interface SimulatorMetricsMXBean {
+
+    long getInstructions();
+
+    long getCycles();
+
+    /** Emulated MIPS over the time spent in run slices. */
+    double getEmulatedMips();
+
+    /** Interrupts taken, by InterruptType name. */
+    Map<String, Long> getInterrupts();
+
+    /** Hit rate of the decode cache, NaN when the machine has none. */
+    double getDecodeCacheHitRate();
+
+    long getLogLinesDropped();
+
+    long getUiFramesPublished();
+
+    long getRunSlices();
+
+    double getRunTimeSeconds();
+}
@@ -0,0 +1,29 @@
+package com.simulator.moto6809.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One AssemblerProgram pass over the source. */
+@Name(SimulatorEvents.PREFIX + "AssemblyPass")
+@Label("Assembly Pass")
+@Category({SimulatorEvents.CATEGORY, "Assembler"})
+@Enabled(false)
+public final class AssemblyPassEvent extends jdk.jfr.Event {
+
+    @Label("Pass")
+    @Description("1 = labels and sizes, 2 = operand patching")
+    public int pass;
+
+    @Label("Iteration")
+    @Description("Relaxation round of pass 1 in optimizing mode (1 otherwise)")
+    public int iteration;
+
+    @Label("Lines")
+    public int lines;
+
+    @Label("Optimizing")
+    public boolean optimizing;
+}
@@ -0,0 +1,20 @@
+package com.simulator.moto6809.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Execution paused on a breakpoint. */
+@Name(SimulatorEvents.PREFIX + "BreakpointHit")
+@Label("Breakpoint Hit")
+@Category({SimulatorEvents.CATEGORY, "Debugger"})
+@Enabled(false)
+public final class BreakpointHitEvent extends jdk.jfr.Event {
+
+    @Label("PC")
+    public int pc;
+
+    @Label("Total Cycles")
+    public long totalCycles;
+}
@@ -0,0 +1,22 @@
+package com.simulator.moto6809.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Loading the instruction tables (binary or CSV) or building an InstructionSet from them. */
+@Name(SimulatorEvents.PREFIX + "InstructionSetLoad")
+@Label("Instruction Set Load")
+@Category({SimulatorEvents.CATEGORY, "Startup"})
+@Enabled(false)
+public final class InstructionSetLoadEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    @Description("binary, csv or tables (InstructionSet built from loaded tables)")
+    public String source;
+
+    @Label("Instructions")
+    public int instructions;
+}
@@ -0,0 +1,27 @@
+package com.simulator.moto6809.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** The CPU taking an interrupt (stacking and vector fetch). */
+@Name(SimulatorEvents.PREFIX + "InterruptEntry")
+@Label("Interrupt Entry")
+@Category({SimulatorEvents.CATEGORY, "CPU"})
+@Enabled(false)
+public final class InterruptEntryEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    public String interruptType;
+
+    @Label("Entry Cycles")
+    public int entryCycles;
+
+    @Label("Latency")
+    @Description("Wall time from the request being latched to the interrupt being taken (masking, CWAI/SYNC waits)")
+    @Timespan(Timespan.NANOSECONDS)
+    public long latency;
+}
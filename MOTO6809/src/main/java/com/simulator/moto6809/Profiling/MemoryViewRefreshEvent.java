@@ -0,0 +1,23 @@
+package com.simulator.moto6809.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A memory grid re-reading rows from the bus. */
+@Name(SimulatorEvents.PREFIX + "MemoryViewRefresh")
+@Label("Memory View Refresh")
+@Category({SimulatorEvents.CATEGORY, "UI"})
+@Enabled(false)
+public final class MemoryViewRefreshEvent extends jdk.jfr.Event {
+
+    @Label("Base Address")
+    public int baseAddress;
+
+    @Label("Rows Read")
+    public int rows;
+
+    @Label("Full Refresh")
+    public boolean full;
+}
@@ -0,0 +1,23 @@
+package com.simulator.moto6809.Profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** One CPU.run call. */
+@Name(SimulatorEvents.PREFIX + "RunSlice")
+@Label("CPU Run Slice")
+@Category({SimulatorEvents.CATEGORY, "CPU"})
+@Enabled(false)
+public final class RunSliceEvent extends jdk.jfr.Event {
+
+    @Label("Instructions")
+    public long instructions;
+
+    @Label("Cycles")
+    public long cycles;
+
+    @Label("Stop Reason")
+    public String stopReason;
+}
@@ -0,0 +1,27 @@
+package com.simulator.moto6809.Profiling;
+
+import java.util.List;
+
+/**
+ * Java Flight Recorder events for the simulator's own phases, next to GC and JIT in a recording.
+ *
+ * All are disabled by default: until a recording enables them, begin()/shouldCommit() are no-ops the
+ * JIT removes together with the event allocation. Enable them with
+ *   -XX:StartFlightRecording:filename=run.jfr,+com.simulator.moto6809.RunSlice#enabled=true,...
+ * or from code with Recording.enable(SimulatorEvents.ALL...).
+ */
+public final class SimulatorEvents {
+
+    public static final String PREFIX = "com.simulator.moto6809.";
+    public static final String CATEGORY = "MOTO6809";
+
+    public static final List<Class<? extends jdk.jfr.Event>> ALL = List.of(
+            InstructionSetLoadEvent.class,
+            AssemblyPassEvent.class,
+            RunSliceEvent.class,
+            InterruptEntryEvent.class,
+            BreakpointHitEvent.class,
+            MemoryViewRefreshEvent.class);
+
+    private SimulatorEvents() {}
+}
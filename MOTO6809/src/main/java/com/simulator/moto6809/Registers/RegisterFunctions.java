@@ -29,6 +29,12 @@ public class RegisterFunctions {
         this.logger = logger;
     }
 
+    /** Copies all register values from other (no notification, listeners untouched). Used by machine fork. */
+    public void copyFrom(RegisterFunctions other) {
+        A = other.A; B = other.B; DP = other.DP; CC = other.CC;
+        X = other.X; Y = other.Y; S = other.S; U = other.U; PC = other.PC;
+    }
+
     // LISTENERS
 
 
@@ -46,7 +52,7 @@ public class RegisterFunctions {
 
 
     public int getRegister(Register register, boolean notify) {
-        if (notify && logger != null) {
+        if (notify && logger != null && logger.isEnabled(LogLevel.DEBUG)) {
             logger.log("Register " + register + " was read", LogLevel.DEBUG);
         }
 
@@ -100,7 +106,7 @@ public class RegisterFunctions {
             case CC -> CC = regValue;
         }
 
-        if (notify && logger != null) {
+        if (notify && logger != null && logger.isEnabled(LogLevel.DEBUG)) {
             logger.log(String.format("Register %s updated to $%04X", register, regValue),
                     LogLevel.DEBUG);
         }
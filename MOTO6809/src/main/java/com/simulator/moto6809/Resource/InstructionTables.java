@@ -0,0 +1,396 @@
+package com.simulator.moto6809.Resource;
+
+import com.simulator.moto6809.Decoder.AddressingMode;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Profiling.InstructionSetLoadEvent;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable opcode / cycle / size tables in primitive arrays.
+ *  - by mnemonic x mode: opcode(id, mode), cycles(id, mode), size(id, mode)   (mode = AddressingMode.ordinal())
+ *  - by opcode: idForOpcode(op), modeForOpcode(op)   (pages 0x00xx, 0x10xx, 0x11xx)
+ *
+ * Loaded once per process by {@link #shared(ILogger)} from InstructionTables.bin
+ * (written by {@link InstructionTablesGenerator}); the CSVs are parsed only if the binary is missing
+ * or was generated from different CSVs.
+ */
+public final class InstructionTables {
+
+    public static final int MODES = AddressingMode.values().length;
+    public static final int NONE = -1;
+
+    private static final String BASE_PATH = "/com/simulator/moto6809/";
+    public static final String BINARY_RESOURCE = BASE_PATH + "InstructionTables.bin";
+
+    // Order matters: the digest is also the AssemblyCache table version
+    private static final String[] CSV_RESOURCES = {
+            BASE_PATH + "InstructionOpcode.csv",
+            BASE_PATH + "InstructionSize.csv",
+            BASE_PATH + "InstructionCycle.csv"
+    };
+
+    private static final int MAGIC = 0x4D363854; // "M68T"
+    private static final int FORMAT_VERSION = 1;  // bump when the CSV parsing rules below change
+
+    private static final AddressingMode[] MODE_VALUES = AddressingMode.values();
+
+    private static volatile InstructionTables shared;
+    private static volatile String csvVersion;
+
+    private final String version;
+    private final String[] mnemonics;
+    private final Map<String, Integer> ids;
+    private final int[][] opcodes;
+    private final int[][] cycles;
+    private final int[][] sizes;
+    private final short[] idByOpcode;   // 3 pages x 256, NONE = illegal
+    private final byte[] modeByOpcode;
+
+    private InstructionTables(String version, List<String> mnemonics,
+                              List<int[]> opcodes, List<int[]> cycles, List<int[]> sizes) {
+        int n = mnemonics.size();
+        this.version = version;
+        this.mnemonics = mnemonics.toArray(new String[0]);
+        this.opcodes = opcodes.toArray(new int[0][]);
+        this.cycles = cycles.toArray(new int[0][]);
+        this.sizes = sizes.toArray(new int[0][]);
+
+        Map<String, Integer> byName = new HashMap<>(n * 2);
+        for (int id = 0; id < n; id++) byName.put(this.mnemonics[id], id);
+        this.ids = Collections.unmodifiableMap(byName);
+
+        // Aliases (ASL/LSL, BCC/BHS...) share opcodes: the last one registered wins, as in the old HashMap
+        this.idByOpcode = new short[3 * 256];
+        this.modeByOpcode = new byte[3 * 256];
+        Arrays.fill(idByOpcode, (short) NONE);
+        for (int id = 0; id < n; id++) {
+            for (int m = 0; m < MODES; m++) {
+                int slot = slot(this.opcodes[id][m]);
+                if (slot < 0) continue;
+                idByOpcode[slot] = (short) id;
+                modeByOpcode[slot] = (byte) m;
+            }
+        }
+    }
+
+
+    // Shared instance
+
+
+    /** Process-wide tables, loaded on first use. The logger only sees the first load. */
+    public static InstructionTables shared(ILogger logger) {
+        InstructionTables t = shared;
+        if (t != null) return t;
+        synchronized (InstructionTables.class) {
+            if (shared == null) shared = load(logger != null ? logger : SilentLogger.INSTANCE);
+            return shared;
+        }
+    }
+
+    private static InstructionTables load(ILogger logger) {
+        InstructionSetLoadEvent event = new InstructionSetLoadEvent();
+        event.begin();
+        String expected = csvVersion();
+        try (InputStream is = InstructionTables.class.getResourceAsStream(BINARY_RESOURCE)) {
+            if (is != null) {
+                InstructionTables t = readBinary(is, expected);
+                if (t != null) {
+                    logger.log("Loaded " + t.count() + " instructions from " + BINARY_RESOURCE, LogLevel.INFO);
+                    return loaded(event, "binary", t);
+                }
+                logger.log(BINARY_RESOURCE + " is out of date, parsing the CSV tables", LogLevel.WARNING);
+            }
+        } catch (IOException e) {
+            logger.log("Cannot read " + BINARY_RESOURCE + ": " + e.getMessage(), LogLevel.WARNING);
+        }
+        return loaded(event, "csv", fromCsv(logger));
+    }
+
+    private static InstructionTables loaded(InstructionSetLoadEvent event, String source, InstructionTables t) {
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.instructions = t.count();
+            event.commit();
+        }
+        return t;
+    }
+
+    /** SHA-256 of the instruction CSV resources. */
+    public static String csvVersion() {
+        String v = csvVersion;
+        if (v != null) return v;
+
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (String res : CSV_RESOURCES) {
+            try (InputStream is = InstructionTables.class.getResourceAsStream(res)) {
+                if (is == null) throw new IllegalStateException("Missing CSV resource: " + res);
+                md.update(is.readAllBytes());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + res, e);
+            }
+        }
+        v = HexFormat.of().formatHex(md.digest());
+        csvVersion = v;
+        return v;
+    }
+
+
+    // Lookup API (mode = AddressingMode.ordinal())
+
+
+    public String version() { return version; }
+
+    public int count() { return mnemonics.length; }
+
+    public String mnemonic(int id) { return mnemonics[id]; }
+
+    /** Dense id of an upper-case mnemonic, or NONE. */
+    public int idOf(String mnemonic) {
+        Integer id = ids.get(mnemonic);
+        return id != null ? id : NONE;
+    }
+
+    public boolean supports(int id, int mode) { return opcodes[id][mode] != NONE; }
+
+    /** Full opcode (0x00xx / 0x10xx / 0x11xx) or NONE. */
+    public int opcode(int id, int mode) { return opcodes[id][mode]; }
+
+    public int cycles(int id, int mode) { return cycles[id][mode]; }
+
+    /** Total size in bytes, prefix included (indexed: without extra offset bytes). */
+    public int size(int id, int mode) { return sizes[id][mode]; }
+
+    /** Mnemonic id for a full opcode, or NONE if illegal. */
+    public int idForOpcode(int opcode) {
+        int slot = slot(opcode & 0xFFFF);
+        return slot < 0 ? NONE : idByOpcode[slot];
+    }
+
+    /** Addressing mode of a legal opcode, or null. */
+    public AddressingMode modeForOpcode(int opcode) {
+        int slot = slot(opcode & 0xFFFF);
+        return (slot < 0 || idByOpcode[slot] == NONE) ? null : MODE_VALUES[modeByOpcode[slot]];
+    }
+
+    private static int slot(int opcode) {
+        if (opcode < 0) return -1;
+        return switch (opcode >> 8) {
+            case 0x00 -> opcode;
+            case 0x10 -> 0x100 | (opcode & 0xFF);
+            case 0x11 -> 0x200 | (opcode & 0xFF);
+            default -> -1;
+        };
+    }
+
+
+    // Binary form
+    //   int magic, int version, UTF csvVersion, int count
+    //   count x { UTF mnemonic, MODES x { short opcode (-1 = none), byte cycles, byte size } }
+
+
+    public void writeBinary(OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(os);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(version);
+        out.writeInt(mnemonics.length);
+        for (int id = 0; id < mnemonics.length; id++) {
+            out.writeUTF(mnemonics[id]);
+            for (int m = 0; m < MODES; m++) {
+                out.writeShort(opcodes[id][m]);
+                out.writeByte(cycles[id][m]);
+                out.writeByte(sizes[id][m]);
+            }
+        }
+        out.flush();
+    }
+
+    /** Tables from their binary form, or null if it was generated from other CSVs or another format. */
+    public static InstructionTables readBinary(InputStream is, String expectedVersion) throws IOException {
+        DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return null;
+        String v = in.readUTF();
+        if (!v.equals(expectedVersion)) return null;
+
+        int n = in.readInt();
+        if (n < 0 || n > 4096) return null;
+        List<String> names = new ArrayList<>(n);
+        List<int[]> ops = new ArrayList<>(n);
+        List<int[]> cys = new ArrayList<>(n);
+        List<int[]> szs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            names.add(in.readUTF());
+            int[] op = new int[MODES];
+            int[] cy = new int[MODES];
+            int[] sz = new int[MODES];
+            for (int m = 0; m < MODES; m++) {
+                op[m] = in.readShort();
+                cy[m] = in.readUnsignedByte();
+                sz[m] = in.readUnsignedByte();
+            }
+            ops.add(op);
+            cys.add(cy);
+            szs.add(sz);
+        }
+        return new InstructionTables(v, names, ops, cys, szs);
+    }
+
+
+    // CSV form (fallback + generator input)
+
+
+    public static InstructionTables fromCsv(ILogger logger) {
+        InstructionCsvLoader loader = new InstructionCsvLoader(logger);
+
+        Map<String, InstructionCsvRow> opcodeTable = loader.loadOpcodeTable();
+        Map<String, InstructionCsvRow> cycleTable  = loader.loadCycleTable();
+        Map<String, InstructionCsvRow> sizeTable   = loader.loadSizeTable();
+
+        List<String> names = new ArrayList<>();
+        List<int[]> ops = new ArrayList<>();
+        List<int[]> cys = new ArrayList<>();
+        List<int[]> szs = new ArrayList<>();
+
+        for (String mnemonic : opcodeTable.keySet()) {
+
+            InstructionCsvRow opRow = opcodeTable.get(mnemonic);
+            InstructionCsvRow cyRow = cycleTable.get(mnemonic);
+            InstructionCsvRow szRow = sizeTable.get(mnemonic);
+
+            if (opRow == null || cyRow == null || szRow == null) {
+                logger.logf(LogLevel.WARNING, "InstructionTables: missing CSV row for mnemonic: %s", mnemonic);
+                continue;
+            }
+
+            String[] opCells = cells(opRow);
+            String[] cyCells = cells(cyRow);
+            String[] szCells = cells(szRow);
+
+            int[] op = new int[MODES];
+            int[] cy = new int[MODES];
+            int[] sz = new int[MODES];
+            boolean any = false;
+
+            for (int m = 0; m < MODES; m++) {
+                int opcode = parseOpcodeHex(opCells[m]);
+                op[m] = opcode;
+                if (opcode == NONE) continue; // empty or "(HD6309 only)"
+
+                cy[m] = parseLeadingInt(cyCells[m]);  // "5+", "6(7)" -> base value
+                sz[m] = normalizeSizeForPrefix(parseLeadingInt(szCells[m]), MODE_VALUES[m], opcode);
+                any = true;
+            }
+
+            if (!any) continue; // skip HD6309-only or invalid rows
+
+            names.add(mnemonic.toUpperCase());
+            ops.add(op);
+            cys.add(cy);
+            szs.add(sz);
+        }
+
+        return new InstructionTables(csvVersion(), names, ops, cys, szs);
+    }
+
+    // Column order = AddressingMode ordinal order
+    private static String[] cells(InstructionCsvRow row) {
+        return new String[]{row.imm(), row.drt(), row.idx(), row.etd(), row.inh(), row.rlv()};
+    }
+
+    /**
+     * Accepts "86", "8E", "108E", "10 8E", "0x108E"; anything else is NONE.
+     */
+    static int parseOpcodeHex(String s) {
+        if (s == null) return NONE;
+
+        int value = 0;
+        int digits = 0;
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c)) continue;
+            if (c == '0' && i + 1 < len && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+                i++;
+                continue;
+            }
+            int d = (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F') || (c >= 'a' && c <= 'f')
+                    ? Character.digit(c, 16) : -1;
+            if (d < 0 || digits == 4) return NONE;
+            value = (value << 4) | d;
+            digits++;
+        }
+        return digits >= 2 ? value : NONE;
+    }
+
+    /** Tolerant int parser: "2+" -> 2, "6(7)" -> 6, "" -> 0 */
+    static int parseLeadingInt(String value) {
+        if (value == null) return 0;
+        String s = value.trim();
+        int v = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') break;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    /**
+     * The size CSV counts the opcode as 1 byte even for prefixed opcodes (10xx/11xx).
+     * Example: LDY imm has "3" in CSV, but opcode is 2 bytes => correct total is 4.
+     */
+    static int normalizeSizeForPrefix(int baseSize, AddressingMode mode, int opcode) {
+        if (baseSize <= 0) return baseSize;
+
+        boolean prefixed = ((opcode & 0xFF00) == 0x1000) || ((opcode & 0xFF00) == 0x1100);
+        if (!prefixed) return baseSize;
+
+        // Minimum plausible total size (including prefix) for each mode.
+        int minTotal = switch (mode) {
+            case INHERENT  -> 2; // 10 xx
+            case DIRECT    -> 3; // 10 xx + 1
+            case EXTENDED  -> 4; // 10 xx + 2
+            case INDEXED   -> 3; // 10 xx + postbyte (minimum)
+            case RELATIVE  -> 4; // LBxx already correct in the CSV (usually 4)
+            case IMMEDIATE -> 3; // 10 xx + at least 1
+        };
+
+        // CSV uses "3" for 16-bit immediates (opcode1 + imm2): prefixed must become 4.
+        if (mode == AddressingMode.IMMEDIATE && baseSize == 3) return 4;
+
+        // Smaller than the minimum plausible prefixed size: the prefix was not counted.
+        if (baseSize < minTotal) return baseSize + 1;
+
+        return baseSize;
+    }
+
+    private static final class SilentLogger implements ILogger {
+        static final SilentLogger INSTANCE = new SilentLogger();
+        @Override public void log(String message, LogLevel level) {}
+        @Override public void log(Response response, LogLevel level) {}
+        @Override public void clear() {}
+        @Override public void setLogFilePath(Path logFilePath) {}
+    }
+}
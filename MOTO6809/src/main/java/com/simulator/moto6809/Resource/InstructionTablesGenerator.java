@@ -0,0 +1,46 @@
+package com.simulator.moto6809.Resource;
+
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Logger.StderrLogger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Build-time generator for InstructionTables.bin (run by Maven in the process-classes phase).
+ * Parses the instruction CSVs found on the classpath and writes the binary tables next to them.
+ *
+ * Usage: InstructionTablesGenerator [classesDir]   (default: target/classes)
+ */
+public final class InstructionTablesGenerator {
+
+    private InstructionTablesGenerator() {}
+
+    public static void main(String[] args) throws IOException {
+        Path classesDir = Path.of(args.length > 0 ? args[0] : "target/classes");
+        Path out = classesDir.resolve(InstructionTables.BINARY_RESOURCE.substring(1));
+
+        // Only warnings/errors: a missing or malformed CSV row must show up in the build output
+        InstructionTables tables = InstructionTables.fromCsv(new StderrLogger(LogLevel.WARNING));
+        write(tables, out);
+
+        System.out.println("InstructionTablesGenerator: " + tables.count() + " instructions -> " + out);
+    }
+
+    static void write(InstructionTables tables, Path out) throws IOException {
+        Files.createDirectories(out.getParent());
+        Path tmp = Files.createTempFile(out.getParent(), "InstructionTables", ".tmp");
+        try {
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                tables.writeBinary(os);
+            }
+            Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+
+import java.util.List;
+
+/**
+ * Emulated instruction throughput with the default INFO log level (DEBUG lines are discarded).
+ * Usage: java ... Bench1_InstructionThroughputMain [instructionsPerRound] [rounds]
+ */
+public class Bench1_InstructionThroughputMain {
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.DEBUG) return;
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    // Endless mix of loads/stores, ALU, indexed access and branches
+    private static final List<String> PROGRAM = List.of(
+            "        ORG   $E000",
+            "START:  LDS   #$0200",
+            "        LDX   #$0100",
+            "OUTER:  LDB   #$40",
+            "LOOP:   LDA   ,X",
+            "        ADDA  #$03",
+            "        STA   ,X+",
+            "        EORA  #$55",
+            "        STA   $0020",
+            "        LDA   $0020",
+            "        DECB",
+            "        BNE   LOOP",
+            "        LDX   #$0100",
+            "        BRA   OUTER",
+            "        ORG   $FFFE",
+            "        FDB   START"
+    );
+
+    public static void main(String[] args) {
+        int perRound = (args.length >= 1) ? Integer.parseInt(args[0]) : 2_000_000;
+        int rounds = (args.length >= 2) ? Integer.parseInt(args[1]) : 5;
+
+        Bootstrap boot = new Bootstrap(new QuietLogger());
+        boot.loadAsmToRom(PROGRAM, null, false);
+        boot.resetCpu();
+        boot.debug().run();
+
+        // Warm-up
+        boot.run(perRound, 0);
+
+        double best = 0;
+        for (int r = 1; r <= rounds; r++) {
+            long before = boot.cpu().totalInstructions();
+            long t0 = System.nanoTime();
+            boot.run(perRound, 0);
+            long dt = System.nanoTime() - t0;
+            long n = boot.cpu().totalInstructions() - before;
+            double mips = n * 1e3 / dt;
+            best = Math.max(best, mips);
+            System.out.printf("round %d: %d instructions in %.1f ms = %.2f M instr/s%n", r, n, dt / 1e6, mips);
+        }
+        System.out.printf("best: %.2f M instr/s%n", best);
+    }
+}
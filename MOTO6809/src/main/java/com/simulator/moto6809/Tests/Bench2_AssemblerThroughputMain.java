@@ -0,0 +1,81 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Assembler.AssemblerProgram;
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assembler throughput (source lines per second) on a large generated source.
+ * Usage: java ... Bench2_AssemblerThroughputMain [blocks] [rounds]
+ */
+public class Bench2_AssemblerThroughputMain {
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    // One block per label: every operand family the assembler classifies (20 lines, ~50 bytes; keep blocks <= 1200)
+    private static List<String> generate(int blocks) {
+        List<String> src = new ArrayList<>(blocks * 20 + 4);
+        src.add("        ORG   $1000");
+        src.add("COUNT   EQU   $10");
+        for (int i = 0; i < blocks; i++) {
+            src.add("L" + i + ":   LDA   #$12        ; immediate");
+            src.add("        LDB   #COUNT");
+            src.add("        STA   $40");
+            src.add("        STB   $1234");
+            src.add("        LDX   #T" + i);
+            src.add("        LDA   ,X+");
+            src.add("        LDB   5,X");
+            src.add("        ADDA  B,Y");
+            src.add("        LDA   [,Y]");
+            src.add("        LEAY  T" + i + ",PC");
+            src.add("        LDA   [$1234]");
+            src.add("        STA   -2,U");
+            src.add("        LDD   ,--S");
+            src.add("        ANDA  %00001111");
+            src.add("        ORA   @17");
+            src.add("        DECB");
+            src.add("        BNE   L" + i);
+            src.add("        LBEQ  L" + (i / 2));
+            src.add("        JSR   L" + i);
+            src.add("T" + i + "     FCB   1,2,COUNT");
+        }
+        src.add("        END");
+        return src;
+    }
+
+    public static void main(String[] args) {
+        int blocks = (args.length >= 1) ? Integer.parseInt(args[0]) : 1_000;
+        int rounds = (args.length >= 2) ? Integer.parseInt(args[1]) : 10;
+
+        Bootstrap boot = new Bootstrap(new QuietLogger());
+        AssemblerProgram program = boot.assemblerProgram();
+        List<String> source = generate(blocks);
+
+        // Warm-up
+        for (int i = 0; i < 3; i++) program.assembleProgram(source, 0);
+
+        double best = 0;
+        for (int r = 1; r <= rounds; r++) {
+            long t0 = System.nanoTime();
+            int bytes = program.assembleProgram(source, 0).linearLength();
+            long dt = System.nanoTime() - t0;
+            double linesPerSec = source.size() * 1e9 / dt;
+            best = Math.max(best, linesPerSec);
+            System.out.printf("round %d: %d lines (%d bytes) in %.1f ms = %.0f lines/s%n",
+                    r, source.size(), bytes, dt / 1e6, linesPerSec);
+        }
+        System.out.printf("best: %.0f lines/s%n", best);
+    }
+}
@@ -0,0 +1,64 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+
+import java.util.List;
+
+/**
+ * Cost of Bootstrap.fork() (µs per fork) and of the first write to a shared page in the child.
+ * Usage: java ... Bench3_ForkMain [forks] [rounds]
+ */
+public class Bench3_ForkMain {
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    public static void main(String[] args) {
+        int forks = (args.length >= 1) ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = (args.length >= 2) ? Integer.parseInt(args[1]) : 5;
+
+        Bootstrap parent = new Bootstrap(new QuietLogger());
+        parent.loadAsmToRom(List.of(
+                "        ORG $E000",
+                "START   LDA #$11",
+                "        STA $0100",
+                "        END"), null, true);
+        parent.resetCpu();
+        parent.fork(); // first fork switches the parent to paged storage; keep it out of the timings
+
+        // Warm-up
+        long sink = 0;
+        for (int i = 0; i < forks; i++) sink += parent.fork().bus().read(0x0100);
+
+        double bestFork = Double.MAX_VALUE, bestWrite = Double.MAX_VALUE;
+        for (int r = 1; r <= rounds; r++) {
+            long t0 = System.nanoTime();
+            for (int i = 0; i < forks; i++) sink += parent.fork().bus().read(0x0100);
+            long forkNs = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            for (int i = 0; i < forks; i++) {
+                Bootstrap child = parent.fork();
+                child.bus().write(0x0100, i);               // copies one page
+                sink += child.bus().read(0x0100);
+            }
+            long writeNs = System.nanoTime() - t0;
+
+            double usFork = forkNs / 1e3 / forks;
+            double usWrite = writeNs / 1e3 / forks;
+            bestFork = Math.min(bestFork, usFork);
+            bestWrite = Math.min(bestWrite, usWrite);
+            System.out.printf("round %d: fork %.2f us, fork + first write %.2f us%n", r, usFork, usWrite);
+        }
+        System.out.printf("best: fork %.2f us, fork + first write %.2f us (%d)%n", bestFork, bestWrite, sink & 1);
+    }
+}
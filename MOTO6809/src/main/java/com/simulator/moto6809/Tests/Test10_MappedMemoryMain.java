@@ -0,0 +1,93 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Memory.Memory;
+import com.simulator.moto6809.Memory.MemoryBus;
+
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Memory-mapped files: persistent RAM (READ_WRITE), shared ROM (PRIVATE) never written back,
+ * and READ_ONLY regions ignoring stores wherever they are mapped.
+ */
+public class Test10_MappedMemoryMain {
+
+    public static void main(String[] args) throws Exception {
+        boolean ok = true;
+
+        Path dir = Files.createTempDirectory("mapped-memory-test");
+        Path ram = dir.resolve("ram.bin"), rom = dir.resolve("rom.bin"), table = dir.resolve("table.bin");
+        byte[] romImage = new byte[0x2000];
+        romImage[0x1FFE] = (byte) 0xE0;
+        Files.write(rom, romImage);
+        byte[] tableImage = new byte[0x100];
+        tableImage[0x10] = 0x5A;
+        Files.write(table, tableImage);
+
+        // 1) READ_WRITE RAM + PRIVATE ROM
+        Memory mem = new Memory(null);
+        mem.writeToMem(0x0010, (byte) 0x42);                // before mapping: copied into the new file
+        MemoryBus bus = new MemoryBus(mem);
+        mem.mapFile(0x0000, 0x00FF, ram, MapMode.READ_WRITE);
+        mem.mapFile(0xE000, 0xFFFF, rom, MapMode.PRIVATE);
+        bus.syncStorageFrom(mem);
+
+        ok &= check("RAM contents kept when mapping", 0x42, bus.read(0x0010));
+        ok &= check("ROM file visible", 0xE000, bus.readWord(0xFFFE));
+        bus.write(0x0020, 0x99);
+        bus.writeWord(0x00FF, 0x1234);                      // straddles mapped / heap pages
+        mem.loadBytes(0xE000, new byte[]{1, 2, 3}, true);   // private: visible here, not in the file
+        mem.force();
+
+        byte[] ramFile = Files.readAllBytes(ram);
+        ok &= check("RAM file size", 0x100, ramFile.length);
+        ok &= check("RAM byte write in file", 0x99, ramFile[0x20] & 0xFF);
+        ok &= check("RAM word write in file", 0x12, ramFile[0xFF] & 0xFF);
+        ok &= check("heap page after the region", 0x34, bus.read(0x0100));
+        ok &= check("PRIVATE ROM loaded", 2, bus.read(0xE001));
+        ok &= check("PRIVATE ROM file untouched", 0, Files.readAllBytes(rom)[0]);
+
+        // 2) next run: the file contents win; mapped memory refuses to fork
+        Memory again = new Memory(null);
+        again.mapFile(0x0000, 0x00FF, ram, MapMode.READ_WRITE);
+        ok &= check("RAM persisted", 0x99, again.readMem(0x0020));
+        try {
+            again.fork(null);
+            System.out.println("FAIL mapped memory must not fork");
+            ok = false;
+        } catch (IllegalStateException expected) {
+            // fork would silently detach the files
+        }
+
+        // 3) READ_ONLY mapped inside RAM: CPU-style stores, block writes and fills are ignored
+        Memory ro = new Memory(null);
+        MemoryBus roBus = new MemoryBus(ro);
+        ro.mapFile(0x0200, 0x02FF, table, MapMode.READ_ONLY);
+        roBus.syncStorageFrom(ro);
+        try {
+            roBus.write(0x0210, 0x11);
+            roBus.writeWord(0x02FF, 0xABCD);                // last byte lands in the heap page after it
+            ro.writeToMem(0x0211, (byte) 0x22);
+            ro.loadBytes(0x0200, new byte[]{7, 7, 7}, false);
+        } catch (RuntimeException e) {
+            System.out.println("FAIL store into READ_ONLY region threw " + e);
+            ok = false;
+        }
+        ok &= check("READ_ONLY byte unchanged", 0x5A, roBus.read(0x0210));
+        ok &= check("READ_ONLY byte unchanged (memory)", 0, ro.readMem(0x0211));
+        ok &= check("heap byte after READ_ONLY region", 0xCD, roBus.read(0x0300));
+        ro.flushRamOnly();                                  // clears the heap RAM, skips the READ_ONLY pages
+        ok &= check("READ_ONLY byte after RAM clear", 0x5A, ro.readMem(0x0210));
+        ok &= check("heap byte after RAM clear", 0, ro.readMem(0x0300));
+        ok &= check("READ_ONLY file untouched", 0x5A, Files.readAllBytes(table)[0x10] & 0xFF);
+
+        System.out.println(ok ? " TEST10 PASS" : " TEST10 FAIL");
+    }
+
+    private static boolean check(String what, long expected, long actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected %d, got %d%n", what, expected, actual);
+        return false;
+    }
+}
@@ -0,0 +1,127 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Logger.AsyncLogWriter;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Logger.LogOverflowPolicy;
+import com.simulator.moto6809.Logger.Logger;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * AsyncLogWriter: the idle writer sleeps until a line arrives, and the DROP / BLOCK / SAMPLE
+ * policies account for every line (written + dropped == appended, drops reported in the file).
+ * A Logger without a log file starts no writer thread.
+ */
+public class Test11_AsyncLogWriterMain {
+
+    private static final int LINES = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        boolean ok = true;
+        Path dir = Files.createTempDirectory("async-log-test");
+
+        // 0) console-only Logger: no writer thread until a log file is set
+        Logger console = new Logger(null, null);
+        ok &= check("no writer thread without a log file", 0, writerThread() != null ? 1 : 0);
+        console.setLogFilePath(dir.resolve("late.log"));
+        Thread late = writerThread();
+        ok &= check("writer thread started by setLogFilePath", 1, late != null ? 1 : 0);
+        console.close();
+        if (late != null) late.join(1000);
+
+        // 1) idle writer: parked without a timeout, woken by the next append
+        Path idleFile = dir.resolve("idle.log");
+        try (AsyncLogWriter w = new AsyncLogWriter(idleFile)) {
+            Thread writer = writerThread();
+            ok &= check("writer thread found", 1, writer != null ? 1 : 0);
+            if (writer != null) ok &= check("idle writer parks until signalled", 1, waitForState(writer, Thread.State.WAITING) ? 1 : 0);
+
+            long t0 = System.nanoTime();
+            w.append("hello", LogLevel.INFO);
+            ok &= check("flush after wake-up", 1, w.flush(1000) ? 1 : 0);
+            long micros = (System.nanoTime() - t0) / 1000;
+            System.out.println("idle -> written: " + micros + " us");
+            ok &= check("line written", 1, Files.readAllLines(idleFile).contains("hello") ? 1 : 0);
+        }
+
+        // 2) BLOCK: tiny queue, nothing lost, order kept
+        Path blockFile = dir.resolve("block.log");
+        AsyncLogWriter block = new AsyncLogWriter(blockFile, 4, LogOverflowPolicy.BLOCK, AsyncLogWriter.DEFAULT_SAMPLE_RATE);
+        for (int i = 0; i < LINES; i++) block.append("L" + i, LogLevel.DEBUG);
+        block.close();
+        List<String> blockLines = Files.readAllLines(blockFile);
+        ok &= check("BLOCK dropped", 0, block.droppedCount());
+        ok &= check("BLOCK lines", LINES, blockLines.size());
+        boolean ordered = true;
+        for (int i = 0; i < blockLines.size() && ordered; i++) ordered = blockLines.get(i).equals("L" + i);
+        ok &= check("BLOCK keeps order", 1, ordered ? 1 : 0);
+
+        // 3) DROP: the caller never waits; the losses are counted and reported
+        ok &= checkLossy(dir.resolve("drop.log"), LogOverflowPolicy.DROP);
+
+        // 4) SAMPLE: DEBUG/INFO thinned above the high-water mark
+        ok &= checkLossy(dir.resolve("sample.log"), LogOverflowPolicy.SAMPLE);
+
+        // 5) bad arguments
+        ok &= rejects("capacity not a power of two", () -> new AsyncLogWriter(null, 6, LogOverflowPolicy.DROP, 1));
+        ok &= rejects("null policy", () -> new AsyncLogWriter(null, 8, null, 1));
+        ok &= rejects("sample rate 0", () -> new AsyncLogWriter(null, 8, LogOverflowPolicy.SAMPLE, 0));
+
+        System.out.println(ok ? " TEST11 PASS" : " TEST11 FAIL");
+    }
+
+    private static boolean checkLossy(Path file, LogOverflowPolicy policy) throws Exception {
+        boolean ok = true;
+        AsyncLogWriter w = new AsyncLogWriter(file, 4, policy, 4);
+        for (int i = 0; i < LINES; i++) {
+            if (i % 1000 == 0) w.append("W" + i, LogLevel.WARNING);
+            else w.append("L" + i, LogLevel.DEBUG);
+        }
+        w.close(); // the writer reports the last drops before it exits
+
+        long kept = 0, reported = 0;
+        for (String line : Files.readAllLines(file)) {
+            if (line.startsWith("WARNING: ")) reported += Long.parseLong(line.substring(9, line.indexOf(' ', 9)));
+            else kept++;
+        }
+        System.out.printf("%s: kept %d, dropped %d%n", policy, kept, w.droppedCount());
+        ok &= check(policy + " dropped something", 1, w.droppedCount() > 0 ? 1 : 0);
+        ok &= check(policy + " kept + dropped", LINES, kept + w.droppedCount());
+        ok &= check(policy + " drops reported in the file", w.droppedCount(), reported);
+        return ok;
+    }
+
+    private static Thread writerThread() {
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().equals("log-writer") && t.isAlive()) return t;
+        }
+        return null;
+    }
+
+    private static boolean waitForState(Thread t, Thread.State state) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            if (t.getState() == state) return true;
+            Thread.sleep(5);
+        }
+        System.out.println("writer state: " + t.getState());
+        return false;
+    }
+
+    private static boolean rejects(String what, Runnable r) {
+        try {
+            r.run();
+        } catch (IllegalArgumentException expected) {
+            return true;
+        }
+        System.out.println("FAIL " + what + " was accepted");
+        return false;
+    }
+
+    private static boolean check(String what, long expected, long actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected %d, got %d%n", what, expected, actual);
+        return false;
+    }
+}
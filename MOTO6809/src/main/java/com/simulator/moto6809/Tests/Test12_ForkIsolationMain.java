@@ -0,0 +1,109 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Registers.Register;
+
+import java.util.List;
+
+/**
+ * Bootstrap.fork(): parent and children share pages copy-on-write but never see each other's
+ * memory, register or breakpoint changes; the parent switches to paged storage for good.
+ */
+public class Test12_ForkIsolationMain {
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    public static void main(String[] args) {
+        boolean ok = true;
+
+        Bootstrap parent = new Bootstrap(new QuietLogger());
+        parent.loadAsmToRom(List.of(
+                "        ORG $E000",
+                "START   LDA #$11",
+                "        STA $0100",
+                "LOOP    INC $0100",
+                "        BRA LOOP",
+                "        END"), null, true);
+        parent.resetCpu();
+        step(parent, 2);
+        ok &= check("parent flat before fork", 0, parent.memory().isPaged() ? 1 : 0);
+        long cyclesAtFork = parent.cpu().snapshot().totalCycles;
+
+        // 1) the child starts from the parent's state
+        Bootstrap child = parent.fork();
+        ok &= check("child [$0100]", 0x11, child.bus().read(0x0100));
+        ok &= check("child A", 0x11, child.registers().getRegister(Register.A, false));
+        ok &= check("child PC", parent.registers().getRegister(Register.PC, false), child.registers().getRegister(Register.PC, false));
+        ok &= check("child cycles", cyclesAtFork, child.cpu().snapshot().totalCycles);
+
+        // 2) running either side leaves the other alone
+        step(child, 10);                                    // 5 x (INC, BRA)
+        ok &= check("child [$0100] after run", 0x16, child.bus().read(0x0100));
+        ok &= check("parent [$0100] untouched", 0x11, parent.bus().read(0x0100));
+        step(parent, 2);                                    // INC ext (7) + BRA (3)
+        ok &= check("parent [$0100] after run", 0x12, parent.bus().read(0x0100));
+        ok &= check("child [$0100] untouched", 0x16, child.bus().read(0x0100));
+        ok &= check("parent cycles unaffected by the child", cyclesAtFork + 10, parent.cpu().snapshot().totalCycles);
+
+        // 3) registers, breakpoints, ROM
+        child.registers().setRegister(Register.A, 0x77, false);
+        ok &= check("parent A", 0x11, parent.registers().getRegister(Register.A, false));
+        child.addBreakpoint(0x1234);
+        ok &= check("parent has no child breakpoint", 0, hasBreakpoint(parent, 0x1234) ? 1 : 0);
+        parent.clearRom(false);
+        ok &= check("child ROM kept after parent clear", 0x86, child.bus().read(0xE000));
+        ok &= check("parent ROM cleared", 0, parent.bus().read(0xE000) == 0x86 ? 1 : 0);
+
+        // 4) a fork of the fork sees the child, not the parent
+        Bootstrap grandchild = child.fork();
+        ok &= check("grandchild [$0100]", 0x16, grandchild.bus().read(0x0100));
+        ok &= check("grandchild A", 0x77, grandchild.registers().getRegister(Register.A, false));
+        ok &= check("grandchild breakpoint", 1, hasBreakpoint(grandchild, 0x1234) ? 1 : 0);
+        grandchild.bus().write(0x0100, 0x99);
+        ok &= check("child [$0100] after grandchild write", 0x16, child.bus().read(0x0100));
+
+        // 5) the parent is paged for good: flat-array access throws, bus access still works
+        ok &= check("parent paged after fork", 1, parent.memory().isPaged() ? 1 : 0);
+        ok &= throwsIllegalState("Memory.getMemory()", () -> parent.memory().getMemory());
+        ok &= throwsIllegalState("MemoryBus.getRawMemory()", () -> parent.bus().getRawMemory());
+        parent.bus().write(0x0200, 0x33);
+        ok &= check("parent bus write after fork", 0x33, parent.bus().read(0x0200));
+        ok &= check("child [$0200]", 0, child.bus().read(0x0200));
+
+        System.out.println(ok ? " TEST12 PASS" : " TEST12 FAIL");
+    }
+
+    private static void step(Bootstrap boot, int n) {
+        for (int i = 0; i < n; i++) boot.stepOnce();
+    }
+
+    private static boolean hasBreakpoint(Bootstrap boot, int address) {
+        return boot.debug().breakpoints().hasEnabledAt(address);
+    }
+
+    private static boolean throwsIllegalState(String what, Runnable r) {
+        try {
+            r.run();
+        } catch (IllegalStateException expected) {
+            return true;
+        }
+        System.out.println("FAIL " + what + " should throw once the memory is paged");
+        return false;
+    }
+
+    private static boolean check(String what, long expected, long actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected %d, got %d%n", what, expected, actual);
+        return false;
+    }
+}
@@ -0,0 +1,107 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Execution.CPU.CPU;
+import com.simulator.moto6809.Execution.CPU.MachineView;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CPU.view / readMemoryConsistent from other threads while the CPU runs flat out:
+ * STD writes $0100/$0101 with A == B, so a view that is not from one instruction boundary shows them apart.
+ * Full 64 KB views never fit between two instructions, which forces the hand-off to the CPU thread
+ * after the optimistic (seqlock) tries run out.
+ */
+public class Test13_ConcurrentViewMain {
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    private static final int READS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        boolean ok = true;
+
+        Bootstrap boot = new Bootstrap(new QuietLogger());
+        boot.loadAsmToRom(List.of(
+                "        ORG $E000",
+                "START   CLRA",
+                "        CLRB",
+                "LOOP    INCA",
+                "        INCB",
+                "        STD $0100",
+                "        BRA LOOP",
+                "        END"), null, true);
+        boot.resetCpu();
+        CPU cpu = boot.cpu();
+
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread runner = new Thread(() -> {
+            while (!stop.get()) boot.run(100_000, 0);
+        }, "cpu-thread");
+        runner.start();
+        while (cpu.metrics().instructions() < 10_000) Thread.onSpinWait();
+
+        AtomicLong torn = new AtomicLong(), badRegs = new AtomicLong(), reads = new AtomicLong();
+        Runnable reader = () -> {
+            byte[] pair = new byte[2];
+            for (int i = 0; i < READS; i++) {
+                cpu.readMemoryConsistent(0x0100, pair, 0, 2);
+                if (pair[0] != pair[1]) torn.incrementAndGet();
+
+                MachineView small = cpu.view(0x0100, 2);
+                if (small.byteAt(0x0100) != small.byteAt(0x0101)) torn.incrementAndGet();
+                int a = small.cpu().A & 0xFF, b = small.cpu().B & 0xFF;
+                if (a != b && a != ((b + 1) & 0xFF)) badRegs.incrementAndGet(); // between INCA and INCB
+
+                if (i % 20 == 0) {
+                    MachineView all = cpu.view(0x0000, 0x10000);  // too long for the seqlock: handed off
+                    if (all.byteAt(0x0100) != all.byteAt(0x0101)) torn.incrementAndGet();
+                    byte[] block = new byte[0x10000];
+                    cpu.readMemoryConsistent(0x0000, block, 0, block.length);
+                    if (block[0x0100] != block[0x0101]) torn.incrementAndGet();
+                }
+                reads.incrementAndGet();
+            }
+        };
+        Thread r1 = new Thread(reader, "reader-1"), r2 = new Thread(reader, "reader-2");
+        r1.start();
+        r2.start();
+        r1.join(60_000);
+        r2.join(60_000);
+        stop.set(true);
+        runner.join(5_000);
+
+        System.out.printf("reads %d, hand-offs %d, instructions %d%n",
+                reads.get(), cpu.metrics().viewHandoffs(), cpu.metrics().instructions());
+        ok &= check("readers finished", 2L * READS, reads.get());
+        ok &= check("torn memory views", 0, torn.get());
+        ok &= check("registers off a boundary", 0, badRegs.get());
+        ok &= check("fallback to the CPU thread used", 1, cpu.metrics().viewHandoffs() > 0 ? 1 : 0);
+
+        // CPU idle: the optimistic path succeeds without a hand-off
+        long handoffs = cpu.metrics().viewHandoffs();
+        MachineView idle = cpu.view(0x0000, 0x10000);
+        ok &= check("idle view consistent", idle.byteAt(0x0100), idle.byteAt(0x0101));
+        ok &= check("no hand-off while idle", handoffs, cpu.metrics().viewHandoffs());
+
+        System.out.println(ok ? " TEST13 PASS" : " TEST13 FAIL");
+    }
+
+    private static boolean check(String what, long expected, long actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected %d, got %d%n", what, expected, actual);
+        return false;
+    }
+}
@@ -0,0 +1,204 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Memory.Memory;
+import com.simulator.moto6809.Memory.MemoryBus;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Memory / MemoryBus block operations (readBlock, writeBlock, fill, copy) against a byte-per-byte model:
+ * ROM bytes are skipped, blocks wrap at $FFFF, and flat and paged storage give the same results.
+ */
+public class Test14_BlockOpsMain {
+
+    private static final int SPACE = MemoryBus.ADDRESS_SPACE;
+
+    public static void main(String[] args) {
+        boolean ok = true;
+        ok &= runAll(false);
+        ok &= runAll(true);
+        ok &= sharedPagesStayShared();
+        System.out.println(ok ? " TEST14 PASS" : " TEST14 FAIL");
+    }
+
+    private static boolean runAll(boolean paged) {
+        String tag = paged ? "paged: " : "flat: ";
+        boolean ok = true;
+
+        Memory mem = new Memory(null);
+        byte[] rom = new byte[0x2000];
+        for (int i = 0; i < rom.length; i++) rom[i] = (byte) (0xA0 + i);
+        mem.loadBytes(0xE000, rom, true);
+        if (paged) mem.enablePaging();
+        MemoryBus bus = new MemoryBus(mem);
+        ok &= check(tag + "storage", paged ? 1 : 0, mem.isPaged() ? 1 : 0);
+
+        int romStart = bus.romStart(), romEnd = bus.romEnd();
+        byte[] model = new byte[SPACE];
+        bus.readBlock(0, model, 0, SPACE);
+
+        // 1) RAM/ROM boundary: only the RAM half lands
+        byte[] data = pattern(16, 0x10);
+        bus.writeBlock(romStart - 8, data, 0, data.length);
+        modelWrite(model, romStart - 8, data, 0, data.length, romStart, romEnd);
+        ok &= same(tag + "writeBlock across RAM/ROM", model, bus);
+        ok &= check(tag + "last RAM byte", 0x17, bus.read(romStart - 1));
+        ok &= check(tag + "first ROM byte kept", 0xA0, bus.read(romStart));
+
+        // 2) wrap at $FFFF: the ROM tail is skipped, $0000.. is written
+        data = pattern(24, 0x40);
+        bus.writeBlock(0xFFF0, data, 0, data.length);
+        modelWrite(model, 0xFFF0, data, 0, data.length, romStart, romEnd);
+        ok &= same(tag + "writeBlock wrapping into $0000", model, bus);
+        ok &= check(tag + "$0000 after wrap", 0x50, bus.read(0x0000));
+
+        byte[] back = new byte[24];
+        bus.readBlock(0xFFF0, back, 0, back.length);
+        ok &= check(tag + "readBlock wraps (ROM part)", rom[0x1FF0] & 0xFF, back[0] & 0xFF);
+        ok &= check(tag + "readBlock wraps (RAM part)", 0x50, back[16] & 0xFF);
+
+        // 3) page-straddling block with a buffer offset
+        data = pattern(300, 0x01);
+        bus.writeBlock(0x00F0, data, 5, 290);
+        modelWrite(model, 0x00F0, data, 5, 290, romStart, romEnd);
+        ok &= same(tag + "writeBlock with offset across pages", model, bus);
+
+        // 4) fill: across the boundary, whole space, empty
+        bus.fill(romStart - 3, 10, 0x5A);
+        modelFill(model, romStart - 3, 10, 0x5A, romStart, romEnd);
+        ok &= same(tag + "fill across RAM/ROM", model, bus);
+        bus.fill(0x1234, 0, 0xFF);
+        ok &= same(tag + "fill of length 0", model, bus);
+        bus.fill(0x8000, SPACE, 0x33);
+        modelFill(model, 0x8000, SPACE, 0x33, romStart, romEnd);
+        ok &= same(tag + "fill of the whole space", model, bus);
+        ok &= check(tag + "ROM kept after full fill", 0xA1, bus.read(romStart + 1));
+
+        // 5) copy: overlapping both ways (memmove), and into ROM
+        data = pattern(64, 0x80);
+        bus.writeBlock(0x2000, data, 0, data.length);
+        modelWrite(model, 0x2000, data, 0, data.length, romStart, romEnd);
+        bus.copy(0x2000, 0x2010, 64);
+        modelCopy(model, 0x2000, 0x2010, 64, romStart, romEnd);
+        ok &= same(tag + "copy forward overlap", model, bus);
+        bus.copy(0x2010, 0x2008, 64);
+        modelCopy(model, 0x2010, 0x2008, 64, romStart, romEnd);
+        ok &= same(tag + "copy backward overlap", model, bus);
+        bus.copy(0x2000, romStart - 4, 32);
+        modelCopy(model, 0x2000, romStart - 4, 32, romStart, romEnd);
+        ok &= same(tag + "copy into ROM", model, bus);
+
+        // 6) Memory: ROM writes only when allowed
+        mem.writeBlock(romStart - 2, new byte[]{1, 2, 3, 4}, 0, 4, false);
+        modelWrite(model, romStart - 2, new byte[]{1, 2, 3, 4}, 0, 4, romStart, romEnd);
+        ok &= same(tag + "Memory.writeBlock without ROM", model, bus);
+        mem.fill(romStart, 4, (byte) 0xEE, true);
+        modelFill(model, romStart, 4, 0xEE, 1, 0);
+        ok &= same(tag + "Memory.fill with ROM", model, bus);
+        mem.copy(0x2000, 0xFFFE, 4, false);
+        modelCopy(model, 0x2000, 0xFFFE, 4, romStart, romEnd);
+        ok &= same(tag + "Memory.copy wrapping, ROM skipped", model, bus);
+
+        // 7) random mix against the model
+        Random rnd = new Random(6809);
+        for (int i = 0; i < 2000; i++) {
+            int a = rnd.nextInt(SPACE), len = rnd.nextInt(700);
+            switch (rnd.nextInt(3)) {
+                case 0 -> {
+                    byte[] src = new byte[len];
+                    rnd.nextBytes(src);
+                    bus.writeBlock(a, src, 0, len);
+                    modelWrite(model, a, src, 0, len, romStart, romEnd);
+                }
+                case 1 -> {
+                    int v = rnd.nextInt(256);
+                    bus.fill(a, len, v);
+                    modelFill(model, a, len, v, romStart, romEnd);
+                }
+                default -> {
+                    int d = rnd.nextInt(SPACE);
+                    bus.copy(a, d, len);
+                    modelCopy(model, a, d, len, romStart, romEnd);
+                }
+            }
+        }
+        ok &= same(tag + "random block ops", model, bus);
+        for (int a = 0; a < SPACE && ok; a++) ok &= check(tag + "byte read $" + Integer.toHexString(a), model[a] & 0xFF, bus.read(a));
+
+        // 8) bad arguments
+        ok &= rejects(tag + "buffer too small", () -> bus.readBlock(0, new byte[4], 2, 4));
+        ok &= rejects(tag + "negative length", () -> bus.writeBlock(0, new byte[4], 0, -1));
+        ok &= rejects(tag + "fill longer than 64 KB", () -> bus.fill(0, SPACE + 1, 0));
+        return ok;
+    }
+
+    // A paged fill with the bytes already there keeps the page shared with the fork
+    private static boolean sharedPagesStayShared() {
+        boolean ok = true;
+        Memory parent = new Memory(null);
+        parent.fill(0x0300, 0x100, (byte) 0x77, false);
+        Memory child = parent.fork(null);
+        MemoryBus childBus = new MemoryBus(child);
+        childBus.fill(0x0300, 0x100, 0x77);
+        ok &= check("paged: same-value fill keeps the page shared", 0, child.pagedStorage().privatePageCount());
+        childBus.fill(0x0300, 0x10, 0x11);
+        ok &= check("paged: changed fill copies one page", 1, child.pagedStorage().privatePageCount());
+        ok &= check("paged: child write", 0x11, childBus.read(0x0300));
+        ok &= check("paged: parent untouched", 0x77, parent.readMem(0x0300));
+        return ok;
+    }
+
+    // Model
+
+    private static void modelWrite(byte[] m, int address, byte[] src, int offset, int length, int romStart, int romEnd) {
+        for (int i = 0; i < length; i++) {
+            int a = (address + i) & 0xFFFF;
+            if (romStart > romEnd || a < romStart || a > romEnd) m[a] = src[offset + i];
+        }
+    }
+
+    private static void modelFill(byte[] m, int address, int length, int value, int romStart, int romEnd) {
+        byte[] src = new byte[length];
+        Arrays.fill(src, (byte) value);
+        modelWrite(m, address, src, 0, length, romStart, romEnd);
+    }
+
+    private static void modelCopy(byte[] m, int from, int to, int length, int romStart, int romEnd) {
+        byte[] tmp = new byte[length];
+        for (int i = 0; i < length; i++) tmp[i] = m[(from + i) & 0xFFFF];
+        modelWrite(m, to, tmp, 0, length, romStart, romEnd);
+    }
+
+    private static byte[] pattern(int length, int first) {
+        byte[] b = new byte[length];
+        for (int i = 0; i < length; i++) b[i] = (byte) (first + i);
+        return b;
+    }
+
+    private static boolean same(String what, byte[] model, MemoryBus bus) {
+        byte[] actual = new byte[SPACE];
+        bus.readBlock(0, actual, 0, SPACE);
+        int diff = Arrays.mismatch(model, actual);
+        if (diff < 0) return true;
+        System.out.printf("FAIL %s: first difference at $%04X, expected $%02X, got $%02X%n",
+                what, diff, model[diff] & 0xFF, actual[diff] & 0xFF);
+        return false;
+    }
+
+    private static boolean rejects(String what, Runnable r) {
+        try {
+            r.run();
+        } catch (IllegalArgumentException expected) {
+            return true;
+        }
+        System.out.println("FAIL " + what + " was accepted");
+        return false;
+    }
+
+    private static boolean check(String what, long expected, long actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected %d, got %d%n", what, expected, actual);
+        return false;
+    }
+}
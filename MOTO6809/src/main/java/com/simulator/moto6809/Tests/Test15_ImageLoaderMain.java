@@ -0,0 +1,112 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Assembler.AssemblyResult;
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Loader.ImageFormat;
+import com.simulator.moto6809.Loader.ImageLoader;
+import com.simulator.moto6809.Loader.ImageWriter;
+import com.simulator.moto6809.Loader.LoadedImage;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Memory.Memory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * S-record / Intel HEX / binary images: export then reload gives the same bytes and entry point,
+ * a corrupted checksum is rejected, and an S19 from an external toolchain loads.
+ */
+public class Test15_ImageLoaderMain {
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean ok = true;
+
+        Bootstrap boot = new Bootstrap(new QuietLogger());
+        AssemblyResult r = boot.assemblerProgram().assembleProgram(List.of(
+                "ORG $E000",
+                "START LDX #$1234",
+                "BRA START",
+                "ORG $E100",
+                "TABLE FCB 1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20",
+                "RMB 8",
+                "FCB $AA",
+                "ORG $FFFE",
+                "FDB START",
+                "END"), 0);
+
+        // 1) each format: export, reload, compare
+        for (ImageFormat format : ImageFormat.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageWriter.write(r, format, out);
+            byte[] file = out.toByteArray();
+
+            Memory mem = new Memory(null);
+            LoadedImage img = ImageLoader.load(ByteBuffer.wrap(file), format, 0xE000, mem);
+            int[] diffs = {0};
+            r.forEachRun((start, data, offset, length) -> {
+                for (int i = 0; i < length; i++) if (mem.readMem(start + i) != (data[offset + i] & 0xFF)) diffs[0]++;
+            });
+            ok &= check(format + " bytes differing", 0, diffs[0]);
+
+            if (format == ImageFormat.BINARY) {
+                ok &= check("BINARY bytes loaded", 0x2000, img.bytesLoaded());
+                ok &= check("BINARY runs", 1, img.runs());
+                ok &= check("BINARY has no entry point", 0, img.hasEntryPoint() ? 1 : 0);
+                ok &= check("BINARY gap filled", ImageWriter.BINARY_FILL, mem.readMem(0xE120));
+                continue;
+            }
+            ok &= check(format + " bytes loaded", r.emittedCount(), img.bytesLoaded());
+            ok &= check(format + " records coalesced into runs", 4, img.runs());
+            ok &= check(format + " entry point", 0xE000, img.entryPoint());
+
+            // 2) one corrupted data digit in the first data record: the checksum must catch it
+            String text = new String(file, StandardCharsets.US_ASCII);
+            int at = text.indexOf(format == ImageFormat.SREC ? "S1" : ":") + 9;
+            char[] bad = text.toCharArray();
+            bad[at] = (bad[at] == '0') ? '1' : '0';
+            try {
+                ImageLoader.load(ByteBuffer.wrap(new String(bad).getBytes(StandardCharsets.US_ASCII)), format, -1, new Memory(null));
+                System.out.println("FAIL " + format + ": bad checksum accepted");
+                ok = false;
+            } catch (IllegalArgumentException expected) {
+                ok &= check(format + " error names the checksum", 1, expected.getMessage().contains("checksum") ? 1 : 0);
+            }
+        }
+
+        // 3) S-record from an external toolchain: S0 header, three S1, S5 count, S9 entry
+        String s19 = String.join("\r\n",
+                "S00F000068656C6C6F202020202000003C",
+                "S11F00007C0802A6900100049421FFF07C6C1B787C8C23783C6000003863000026",
+                "S11F001C4BFFFFE5398000007D83637880010014382100107C0803A64E800020E9",
+                "S111003848656C6C6F20776F726C642E0A0042",
+                "S5030003F9",
+                "S9030000FC", "");
+        Memory mem = new Memory(null);
+        LoadedImage img = ImageLoader.load(ByteBuffer.wrap(s19.getBytes(StandardCharsets.US_ASCII)), ImageFormat.SREC, -1, mem);
+        ok &= check("external S19 bytes", 0x46, img.bytesLoaded());
+        ok &= check("external S19 runs", 1, img.runs());
+        ok &= check("external S19 entry", 0, img.entryPoint());
+        ok &= check("external S19 byte at $0038", 0x48, mem.readMem(0x38));
+
+        System.out.println(ok ? " TEST15 PASS" : " TEST15 FAIL");
+    }
+
+    private static boolean check(String what, long expected, long actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected %d, got %d%n", what, expected, actual);
+        return false;
+    }
+}
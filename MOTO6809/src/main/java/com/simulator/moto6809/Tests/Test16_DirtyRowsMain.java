@@ -0,0 +1,94 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Memory.Memory;
+import com.simulator.moto6809.Memory.MemoryBus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MemoryBus dirty rows (one bit per 16-byte row): each kind of write marks exactly the rows it touches,
+ * and drainDirtyRows reports and clears only the rows inside its range.
+ */
+public class Test16_DirtyRowsMain {
+
+    public static void main(String[] args) {
+        boolean ok = true;
+        MemoryBus bus = new MemoryBus(new byte[MemoryBus.ADDRESS_SPACE]); // no ROM
+
+        // 1) a new bus has nothing to report
+        ok &= rows("new bus", List.of(), drainAll(bus));
+
+        // 2) byte write: one row, cleared by the drain
+        bus.write(0x1234, 0x55);
+        ok &= rows("write $1234", List.of(0x1230), drainAll(bus));
+        ok &= rows("second drain after write", List.of(), drainAll(bus));
+
+        // 3) word write: one row inside a row, two across a 16-byte boundary
+        bus.writeWord(0x2004, 0xBEEF);
+        ok &= rows("writeWord $2004", List.of(0x2000), drainAll(bus));
+        bus.writeWord(0x200F, 0xBEEF);
+        ok &= rows("writeWord $200F", List.of(0x2000, 0x2010), drainAll(bus));
+
+        // 4) block operations mark the rows they cover
+        bus.writeBlock(0x3008, new byte[20], 0, 20);                 // $3008..$301B
+        ok &= rows("writeBlock $3008+20", List.of(0x3000, 0x3010), drainAll(bus));
+        bus.fill(0x4000, 0x40, 0x11);                               // $4000..$403F
+        ok &= rows("fill $4000+64", List.of(0x4000, 0x4010, 0x4020, 0x4030), drainAll(bus));
+        bus.copy(0x4000, 0x5005, 16);                               // $5005..$5014
+        ok &= rows("copy to $5005+16", List.of(0x5000, 0x5010), drainAll(bus));
+        bus.writeBlock(0xFFF8, new byte[16], 0, 16);                // wraps to $0000..$0007
+        ok &= rows("writeBlock wrapping at $FFFF", List.of(0x0000, 0xFFF0), drainAll(bus));
+        bus.fill(0x0000, MemoryBus.ADDRESS_SPACE, 0);
+        ok &= check("fill of the whole space", MemoryBus.ADDRESS_SPACE >> MemoryBus.DIRTY_ROW_SHIFT, drainAll(bus).size());
+
+        // 5) a ranged drain clears only the rows it reports ($0400 starts the second bitmap word)
+        bus.write(0x0100, 1);
+        bus.write(0x0500, 1);
+        bus.write(0x0900, 1);
+        ok &= rows("drain $0400-$07FF", List.of(0x0500), drain(bus, 0x0400, 0x07FF));
+        ok &= rows("rows outside the range kept", List.of(0x0100, 0x0900), drainAll(bus));
+
+        bus.write(0x1230, 1);
+        bus.write(0x1240, 1);
+        ok &= rows("drain inside one row", List.of(0x1230), drain(bus, 0x1238, 0x1238));
+        ok &= rows("neighbour row kept", List.of(0x1240), drainAll(bus));
+        ok &= rows("reversed range", List.of(), drain(bus, 0x2000, 0x1000));
+
+        // 6) writes ignored by ROM protection mark nothing
+        Memory mem = new Memory(null);
+        MemoryBus romBus = new MemoryBus(mem);
+        drainAll(romBus);
+        romBus.write(romBus.romStart(), 0x12);
+        romBus.writeWord(romBus.romStart() - 1, 0x1234);
+        ok &= rows("ROM writes", List.of(), drainAll(romBus));
+
+        System.out.println(ok ? " TEST16 PASS" : " TEST16 FAIL");
+    }
+
+    private static List<Integer> drainAll(MemoryBus bus) {
+        return drain(bus, 0x0000, 0xFFFF);
+    }
+
+    private static List<Integer> drain(MemoryBus bus, int from, int to) {
+        List<Integer> bases = new ArrayList<>();
+        bus.drainDirtyRows(from, to, bases::add);
+        return bases;
+    }
+
+    private static boolean rows(String what, List<Integer> expected, List<Integer> actual) {
+        if (expected.equals(actual)) return true;
+        System.out.printf("FAIL %s: expected rows %s, got %s%n", what, hex(expected), hex(actual));
+        return false;
+    }
+
+    private static List<String> hex(List<Integer> bases) {
+        return bases.stream().map(b -> String.format("$%04X", b)).toList();
+    }
+
+    private static boolean check(String what, long expected, long actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected %d, got %d%n", what, expected, actual);
+        return false;
+    }
+}
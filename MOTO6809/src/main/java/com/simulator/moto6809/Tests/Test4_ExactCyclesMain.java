@@ -0,0 +1,138 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Assembler.AssemblyResult;
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Decoder.Decoder;
+import com.simulator.moto6809.Decoder.DecodedInstruction;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Execution.CPU.CycleMode;
+import com.simulator.moto6809.Execution.CPU.ExactCycles;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Registers.Flag;
+import com.simulator.moto6809.Registers.Register;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Runs every row of CycleReference.csv (known 6809 timings) through the CPU in EXACT cycle mode
+ * and compares the cycles counted for that one instruction / interrupt entry.
+ * Instructions the executor does not implement yet are checked statically (ExactCycles on the
+ * decoded instruction) and reported as such.
+ */
+public class Test4_ExactCyclesMain {
+
+    private static final String REFERENCE = "/com/simulator/moto6809/CycleReference.csv";
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.WARNING || level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    /** Cycles counted by the CPU, or by ExactCycles alone when the instruction could not execute. */
+    private record Measured(long cycles, boolean executed, String reason) {}
+
+    public static void main(String[] args) throws Exception {
+        Bootstrap boot = new Bootstrap(new QuietLogger());
+        boot.cpu().setCycleMode(CycleMode.EXACT);
+        Decoder decoder = new Decoder(boot.instructionSet(), new QuietLogger());
+
+        int rows = 0, failures = 0, staticOnly = 0;
+        try (InputStream in = Test4_ExactCyclesMain.class.getResourceAsStream(REFERENCE)) {
+            if (in == null) throw new IllegalStateException("Missing resource " + REFERENCE);
+            BufferedReader r = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = r.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] f = line.split("\\|", -1);
+                String source = f[0].trim();
+                String setup = f[1].trim();
+                int expected = Integer.parseInt(f[2].trim());
+
+                Measured m = measure(boot, decoder, source, setup);
+                rows++;
+                if (!m.executed()) {
+                    staticOnly++;
+                    System.out.printf("STATIC   %-28s not executable here: %s%n", source, m.reason());
+                }
+                if (m.cycles() != expected) {
+                    failures++;
+                    System.out.printf("MISMATCH %-28s %-16s expected %2d, got %2d%n", source, setup, expected, m.cycles());
+                }
+            }
+        }
+
+        System.out.printf("%d reference timings checked (%d statically), %d mismatches%n", rows, staticOnly, failures);
+        System.out.println(failures == 0 ? " TEST4 PASS" : " TEST4 FAIL");
+    }
+
+    private static String rootMessage(Throwable t) {
+        while (t.getCause() != null) t = t.getCause();
+        return t.getMessage();
+    }
+
+    private static Measured measure(Bootstrap boot, Decoder decoder, String source, String setup) {
+        List<String> asm = List.of(
+                "        ORG $E000",
+                "        " + source,
+                "T       NOP",
+                "        ORG $FFF2",
+                "        FDB T",      // SWI3
+                "        FDB T",      // SWI2
+                "        FDB T",      // FIRQ
+                "        FDB T",      // IRQ
+                "        FDB T",      // SWI
+                "        FDB T",      // NMI
+                "        FDB $E000",  // RESET
+                "        END");
+        AssemblyResult program = boot.assemble(asm, 0xE000);
+        boot.loadProgram(program, false);
+        boot.resetCpu();
+
+        boot.registers().setRegister(Register.X, 0x0200);
+        boot.registers().setRegister(Register.Y, 0x0200);
+        boot.registers().setRegister(Register.U, 0x0200);
+        boot.registers().setRegister(Register.S, 0x0300);
+        boot.registers().setRegister(Register.A, 0);
+        boot.registers().setRegister(Register.B, 0);
+        boot.registers().setRegister(Register.DP, 0);
+        boot.registers().setRegister(Register.CC, 0x50);
+
+        for (String s : setup.split("\\s+")) {
+            if (s.isEmpty()) continue;
+            switch (s) {
+                case "IRQ" -> boot.cpu().interrupts().requestIRQ();
+                case "FIRQ" -> boot.cpu().interrupts().requestFIRQ();
+                case "NMI" -> boot.cpu().interrupts().requestNMI();
+                default -> {
+                    if (s.startsWith("[S]=")) {
+                        boot.bus().write(boot.registers().getRegister(Register.S), Integer.parseInt(s.substring(5), 16));
+                        continue;
+                    }
+                    String[] kv = s.split("=");
+                    if (kv[0].equals("CC")) boot.registers().setRegister(Register.CC, Integer.parseInt(kv[1].substring(1), 16));
+                    else boot.registers().setFlag(Flag.valueOf(kv[0]), kv[1].equals("1"));
+                }
+            }
+        }
+
+        DecodedInstruction instr = decoder.decodeAt(boot.bus(), 0xE000);
+        int model = ExactCycles.of(instr, boot.registers(), boot.bus());
+
+        long before = boot.cpu().totalCycles();
+        try {
+            boot.stepOnce();
+        } catch (RuntimeException e) {
+            return new Measured(model, false, rootMessage(e));
+        }
+        return new Measured(boot.cpu().totalCycles() - before, true, null);
+    }
+}
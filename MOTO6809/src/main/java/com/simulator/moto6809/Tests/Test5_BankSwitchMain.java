@@ -0,0 +1,82 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Memory.BankedMemory;
+import com.simulator.moto6809.Registers.Register;
+
+import java.util.List;
+
+/**
+ * Bank-switched memory: a program switches window 2 ($4000-$5FFF) through the MMU register,
+ * reads/writes the bank, switches back; then a fork keeps its own copy of the banks.
+ */
+public class Test5_BankSwitchMain {
+
+    private static final int MMU = 0xDFF0;
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.WARNING || level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    public static void main(String[] args) {
+        Bootstrap boot = new Bootstrap(new QuietLogger());
+        boot.enableBanking(32, MMU);                                  // 256 KB physical
+        BankedMemory banks = boot.memory().bankedStorage();
+        banks.writePhysical(9 << BankedMemory.WINDOW_BITS, new byte[]{(byte) 0x99}, 0, 1);
+
+        boot.loadAsmToRom(List.of(
+                "        ORG $E000",
+                "START   LDS #$0100",
+                "        LDA #9",
+                "        STA $DFF2",    // window 2 -> bank 9
+                "        LDB $4000",    // B = bank 9 marker
+                "        LDA #$55",
+                "        STA $4001",    // lands in bank 9
+                "        LDA #2",
+                "        STA $DFF2",    // window 2 -> bank 2
+                "        LDA $4001",    // A = bank 2 content
+                "DONE    BRA DONE",
+                "        ORG $FFFE",
+                "        FDB START",
+                "        END"), null, false);
+        boot.resetCpu();
+        boot.bus().drainDirtyRows(0, 0xFFFF, row -> { });
+        boot.run(9);
+
+        boolean ok = true;
+        ok &= check("B = bank 9 marker", 0x99, boot.registers().getRegister(Register.B));
+        ok &= check("A = bank 2 content", 0x00, boot.registers().getRegister(Register.A));
+        ok &= check("bank 9 physical byte", 0x55, banks.readPhysical((9 << BankedMemory.WINDOW_BITS) + 1));
+        ok &= check("window 2 bank", 2, banks.bank(2));
+        int[] dirty = {0};
+        boot.bus().drainDirtyRows(0x4000, 0x5FFF, row -> dirty[0]++);
+        ok &= check("window 2 rows dirtied by the switch", BankedMemory.WINDOW_SIZE >> 4, dirty[0]);
+
+        // Fork: same bank selection, banks copy-on-write
+        Bootstrap child = boot.fork();
+        child.bus().write(MMU + 2, 9);
+        ok &= check("fork sees bank 9", 0x55, child.bus().read(0x4001));
+        child.bus().write(0x4001, 0x11);
+        ok &= check("fork write is private", 0x55, banks.readPhysical((9 << BankedMemory.WINDOW_BITS) + 1));
+        ok &= check("parent selection unchanged", 2, banks.bank(2));
+        child.clearRam();                                             // zero banks stay shared
+        ok &= check("fork private banks after RAM clear", 1, child.memory().bankedStorage().privateBankCount());
+        ok &= check("fork RAM cleared", 0x00, child.bus().read(0x4001));
+
+        System.out.println(ok ? " TEST5 PASS" : " TEST5 FAIL");
+    }
+
+    private static boolean check(String what, int expected, int actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected $%02X, got $%02X%n", what, expected, actual);
+        return false;
+    }
+}
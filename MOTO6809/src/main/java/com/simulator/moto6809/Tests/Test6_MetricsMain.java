@@ -0,0 +1,79 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Execution.CPU.InterruptType;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Metrics.MetricsSnapshot;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Metrics: instruction/cycle/interrupt counters after a short run, read through the pull API and JMX.
+ */
+public class Test6_MetricsMain {
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    public static void main(String[] args) throws Exception {
+        Bootstrap boot = new Bootstrap(new QuietLogger());
+        boot.loadAsmToRom(List.of(
+                "        ORG $E000",
+                "START   LDS #$0100",
+                "        ANDCC #$EF",   // enable IRQ
+                "        SWI",
+                "DONE    BRA DONE",
+                "SWIH    ANDCC #$EF",   // SWI masked IRQ
+                "        BRA DONE",
+                "IRQH    RTI",
+                "        ORG $FFF8",
+                "        FDB IRQH",     // IRQ
+                "        FDB SWIH",     // SWI
+                "        FDB IRQH",     // NMI
+                "        FDB START",    // RESET
+                "        END"), null, false);
+        boot.resetCpu();
+        boot.run(5);                          // LDS, ANDCC, SWI (+ entry), ANDCC, BRA
+        boot.cpu().interrupts().requestIRQ();
+        boot.run(3);                          // IRQ entry, RTI, BRA
+
+        MetricsSnapshot m = boot.metrics().snapshot();
+        boolean ok = true;
+        ok &= check("instructions", 7, m.instructions());
+        ok &= check("cycles = CPU total", boot.cpu().totalCycles(), m.cycles());
+        ok &= check("SWI taken", 1, m.interrupts(InterruptType.SWI));
+        ok &= check("IRQ taken", 1, m.interrupts(InterruptType.IRQ));
+        ok &= check("run slices", 2, m.runSlices());
+        if (m.emulatedMips() <= 0) { System.out.println("FAIL emulated MIPS not computed"); ok = false; }
+
+        boot.metrics().uiFramePublished();
+        boot.metrics().logLinesDropped(3);
+
+        ObjectName name = boot.metrics().registerMBean("test6");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ok &= check("JMX Instructions", 7, (Long) server.getAttribute(name, "Instructions"));
+        ok &= check("JMX UiFramesPublished", 1, (Long) server.getAttribute(name, "UiFramesPublished"));
+        ok &= check("JMX LogLinesDropped", 3, (Long) server.getAttribute(name, "LogLinesDropped"));
+        boot.metrics().unregisterMBean();
+
+        System.out.println(boot.metrics().snapshot().format());
+        System.out.println(ok ? " TEST6 PASS" : " TEST6 FAIL");
+    }
+
+    private static boolean check(String what, long expected, long actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected %d, got %d%n", what, expected, actual);
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Execution.CPU.InterruptType;
+import com.simulator.moto6809.Execution.CPU.RunStopReason;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Profiling.SimulatorEvents;
+import com.simulator.moto6809.Registers.Register;
+
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JFR events: none are recorded by a default recording, all simulator phases show up once enabled.
+ * (MemoryViewRefresh needs the JavaFX memory grid and is not exercised here.)
+ */
+public class Test7_JfrEventsMain {
+
+    private static final List<String> PROGRAM = List.of(
+            "        ORG $E000",
+            "START   LDS #$0100",
+            "        ANDCC #$EF",   // enable IRQ
+            "        SWI",
+            "DONE    BRA DONE",
+            "SWIH    ANDCC #$EF",   // SWI masked IRQ
+            "        BRA DONE",
+            "IRQH    RTI",
+            "        ORG $FFF8",
+            "        FDB IRQH",     // IRQ
+            "        FDB SWIH",     // SWI
+            "        FDB IRQH",     // NMI
+            "        FDB START",    // RESET
+            "        END");
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean ok = true;
+
+        // 1) default settings: the simulator events stay off
+        Map<String, Integer> off = record(false);
+        ok &= check("events in a default recording", 0, off.values().stream().mapToInt(Integer::intValue).sum());
+
+        // 2) enabled: one event per phase
+        Map<String, Integer> on = record(true);
+        System.out.println(on);
+        ok &= check("RunSlice", 3, on.getOrDefault("RunSlice", 0));
+        ok &= check("InterruptEntry", 2, on.getOrDefault("InterruptEntry", 0));
+        ok &= check("BreakpointHit", 1, on.getOrDefault("BreakpointHit", 0));
+        ok &= check("AssemblyPass", 2, on.getOrDefault("AssemblyPass", 0));
+        ok &= check("InstructionSetLoad", 1, on.getOrDefault("InstructionSetLoad", 0));
+        ok &= check("IRQ latency measured", 1, on.getOrDefault("IrqLatency", 0));
+
+        // 3) no recording: requests are not time-stamped
+        Bootstrap idle = new Bootstrap(new QuietLogger());
+        idle.cpu().interrupts().requestIRQ();
+        ok &= check("latency without a recording", 0, (int) idle.cpu().interrupts().latencyNanos(InterruptType.IRQ));
+
+        System.out.println(ok ? " TEST7 PASS" : " TEST7 FAIL");
+    }
+
+    /** Runs the scenario inside a recording and counts the simulator events by short name. */
+    private static Map<String, Integer> record(boolean enable) throws Exception {
+        Path file = Files.createTempFile("moto6809-", ".jfr");
+        try (Recording recording = new Recording()) {
+            if (enable) {
+                for (Class<? extends Event> type : SimulatorEvents.ALL) recording.enable(type).withoutThreshold();
+            }
+            recording.start();
+            scenario();
+            recording.stop();
+            recording.dump(file);
+
+            Map<String, Integer> counts = new TreeMap<>();
+            for (RecordedEvent e : RecordingFile.readAllEvents(file)) {
+                String name = e.getEventType().getName();
+                if (name.startsWith(SimulatorEvents.PREFIX)) {
+                    counts.merge(name.substring(SimulatorEvents.PREFIX.length()), 1, Integer::sum);
+                }
+                if (name.endsWith("InterruptEntry") && "IRQ".equals(e.getString("interruptType")) && e.getLong("latency") > 0) {
+                    counts.merge("IrqLatency", 1, Integer::sum);
+                }
+            }
+            return counts;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void scenario() {
+        Bootstrap boot = new Bootstrap(new QuietLogger());    // InstructionSet built from the shared tables
+        boot.loadAsmToRom(PROGRAM, null, false);              // PASS 1 + PASS 2
+        boot.resetCpu();
+        boot.run(5);                                          // SWI entry
+        boot.cpu().interrupts().requestIRQ();
+        boot.run(3);                                          // IRQ entry, RTI, BRA
+        boot.addBreakpoint(boot.registers().getRegister(Register.PC));
+        RunStopReason reason = boot.run(10, 0);
+        if (reason != RunStopReason.BREAKPOINT) System.out.println("FAIL expected BREAKPOINT, got " + reason);
+    }
+
+    private static boolean check(String what, int expected, int actual) {
+        if (expected == actual) return true;
+        System.out.printf("FAIL %s: expected %d, got %d%n", what, expected, actual);
+        return false;
+    }
+}
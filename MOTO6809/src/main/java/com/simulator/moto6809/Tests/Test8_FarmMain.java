@@ -0,0 +1,106 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Execution.CPU.RunStopReason;
+import com.simulator.moto6809.Farm.FarmReport;
+import com.simulator.moto6809.Farm.SimulationFarm;
+import com.simulator.moto6809.Farm.SimulationJob;
+import com.simulator.moto6809.Farm.SimulationResult;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Simulation farm: isolated machines per job, budgets, cycle-only jobs that stop in SYNC/CWAI and
+ * programs that end (branch to itself, erased ROM) stopping with HALTED.
+ */
+public class Test8_FarmMain {
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean ok = true;
+
+        List<SimulationJob> jobs = new ArrayList<>();
+        // 1) cycle budget only, then SYNC with nothing pending: must not hang
+        jobs.add(SimulationJob.of("sync", List.of(
+                "        ORG $E000",
+                "START   LDA #1",
+                "        SYNC",
+                "        END"), 5000));
+        // 2) same with CWAI
+        jobs.add(SimulationJob.of("cwai", List.of(
+                "        ORG $E000",
+                "START   CWAI #$FF",
+                "        END"), 5000));
+        // 3) each job writes its own value to the same address: machines are isolated
+        for (int i = 0; i < 8; i++) {
+            jobs.add(new SimulationJob("iso" + i, List.of(
+                    "        ORG $E000",
+                    "START   LDA #" + (i + 1),
+                    "        STA $0100",
+                    "LOOP    BRA LOOP",
+                    "        END"), null, 50, 0, List.of()));
+        }
+        // 4) no final loop: runs into erased ROM
+        jobs.add(new SimulationJob("erased", List.of(
+                "        ORG $E000",
+                "START   LDA #$42",
+                "        END"), null, 1000, 0, List.of()));
+
+        FarmReport report;
+        try (SimulationFarm farm = new SimulationFarm(4, new QuietLogger())) {
+            CompletableFuture<FarmReport> f = CompletableFuture.supplyAsync(() -> farm.runAll(jobs,
+                    (job, machine, result) -> {
+                        if (!job.name().startsWith("iso")) return List.of();
+                        int expected = Integer.parseInt(job.name().substring(3)) + 1;
+                        int actual = machine.bus().read(0x0100);
+                        return actual == expected ? List.of()
+                                : List.of("[$0100]=" + actual + ", expected " + expected);
+                    }));
+            try {
+                report = f.get(30, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                System.out.println("FAIL farm did not finish (job stuck in a wait state?)");
+                System.out.println(" TEST8 FAIL");
+                System.exit(1);
+                return;
+            }
+        }
+
+        SimulationResult sync = report.results().get(0);
+        ok &= check("sync stop", RunStopReason.WAITING, sync.stopReason());
+        ok &= check("sync instructions", 2L, sync.instructions());
+        ok &= check("cwai stop", RunStopReason.WAITING, report.results().get(1).stopReason());
+
+        for (SimulationResult r : report.results().subList(2, report.results().size())) {
+            ok &= check(r.name() + " stop", RunStopReason.HALTED, r.stopReason());
+            if (!r.ok()) { System.out.println("FAIL " + r.name() + ": " + r.error() + " " + r.failures()); ok = false; }
+        }
+        ok &= check("iso0 instructions (LDA, STA, BRA *)", 3L, report.results().get(2).instructions());
+        SimulationResult erased = report.results().get(report.results().size() - 1);
+        ok &= check("erased instructions", 1L, erased.instructions());
+        ok &= check("erased A", 0x42, erased.finalState().A & 0xFF);
+        ok &= check("failed jobs", 0L, report.failed());
+
+        System.out.println(ok ? " TEST8 PASS" : " TEST8 FAIL");
+    }
+
+    private static boolean check(String what, Object expected, Object actual) {
+        if (expected.equals(actual)) return true;
+        System.out.printf("FAIL %s: expected %s, got %s%n", what, expected, actual);
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package com.simulator.moto6809.Tests;
+
+import com.simulator.moto6809.Errors.Response;
+import com.simulator.moto6809.Farm.BatchRunner;
+import com.simulator.moto6809.Farm.BatchRunner.ParsedProgram;
+import com.simulator.moto6809.Farm.Expectation;
+import com.simulator.moto6809.Farm.FarmReport;
+import com.simulator.moto6809.Farm.SimulationFarm;
+import com.simulator.moto6809.Farm.SimulationJob;
+import com.simulator.moto6809.Farm.SimulationResult;
+import com.simulator.moto6809.Logger.ILogger;
+import com.simulator.moto6809.Logger.LogLevel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Batch mode: RUN / EXPECT directive parsing, expectation checks (STOP=HALTED included) and the JSON report.
+ */
+public class Test9_BatchRunnerMain {
+
+    private static final class QuietLogger implements ILogger {
+        @Override public void log(String message, LogLevel level) {
+            if (level == LogLevel.ERROR) System.out.println("[" + level + "] " + message);
+        }
+        @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
+        @Override public void clear() {}
+        @Override public void setLogFilePath(java.nio.file.Path logFilePath) {}
+    }
+
+    private static final List<String> PASSING = List.of(
+            "; RUN MAXINSTRUCTIONS=500 MAXCYCLES=$1000 BP=$E030 ORG=$E000",
+            "; EXPECT A=$42",
+            "; EXPECT [$0100]=66",
+            "; EXPECT [$0100].W=$4200",
+            "; EXPECT INSTRUCTIONS=3",
+            "; EXPECT CYCLES<=20",
+            "; expect stop=halted",
+            "START   LDA #$42",
+            "        STA $0100",
+            "DONE    BRA DONE",
+            "        END");
+
+    private static final List<String> FAILING = List.of(
+            "; EXPECT B=$01",
+            "; EXPECT STOP!=HALTED",
+            "        ORG $E000",
+            "START   LDB #2",
+            "        END");
+
+    public static void main(String[] args) throws Exception {
+        boolean ok = true;
+
+        // 1) RUN directives override the defaults, EXPECT lines are collected in order
+        ParsedProgram p = ParsedProgram.parse("pass.asm", PASSING, 100_000, 0);
+        SimulationJob job = p.job();
+        ok &= check("MAXINSTRUCTIONS", 500, job.maxInstructions());
+        ok &= check("MAXCYCLES", 0x1000L, job.maxCycles());
+        ok &= check("BP", List.of(0xE030), job.breakpoints());
+        ok &= check("ORG", 0xE000, job.origin());
+        ok &= check("EXPECT count", 6, p.expectations().size());
+        Expectation e = p.expectations().get(4);
+        ok &= check("CYCLES target", "CYCLES", e.target());
+        ok &= check("CYCLES op", "<=", e.op());
+        ok &= check("CYCLES value", 20L, e.expected());
+        ok &= check("STOP value", "HALTED", p.expectations().get(5).expectedText());
+
+        ParsedProgram defaults = ParsedProgram.parse("fail.asm", FAILING, 1234, 99);
+        ok &= check("default MAXINSTRUCTIONS", 1234, defaults.job().maxInstructions());
+        ok &= check("default MAXCYCLES", 99L, defaults.job().maxCycles());
+        ok &= check("default ORG", null, defaults.job().origin());
+
+        // 2) malformed directives are rejected
+        ok &= rejects("RUN without '='", List.of("; RUN FAST"));
+        ok &= rejects("unknown RUN option", List.of("; RUN SPEED=2"));
+        ok &= rejects("bad number", List.of("; RUN MAXCYCLES=$XYZ"));
+        ok &= rejects("EXPECT without operator", List.of("; EXPECT A"));
+        ok &= rejects("STOP with <", List.of("; EXPECT STOP<HALTED"));
+
+        // 3) run both through the farm with the batch checker
+        Map<String, List<Expectation>> expectations = new HashMap<>();
+        expectations.put("pass.asm", p.expectations());
+        expectations.put("fail.asm", defaults.expectations());
+        FarmReport report;
+        try (SimulationFarm farm = new SimulationFarm(2, new QuietLogger())) {
+            report = farm.runAll(List.of(job, defaults.job()), BatchRunner.checker(expectations));
+        }
+        ok &= check("pass.asm failures", List.of(), report.results().get(0).failures());
+        ok &= check("fail.asm failures", List.of("B=$01 but was $2", "STOP!=HALTED but was HALTED"),
+                report.results().get(1).failures());
+
+        // 4) JSON report
+        String json = BatchRunner.toJson(report);
+        ok &= contains(json, "\"programs\": 2");
+        ok &= contains(json, "\"passed\": 1");
+        ok &= contains(json, "\"failed\": 1");
+        ok &= contains(json, "{\"name\": \"pass.asm\", \"ok\": true, \"stop\": \"HALTED\", \"instructions\": 3");
+        ok &= contains(json, "\"registers\": {\"A\": 66, \"B\": 0");
+        ok &= contains(json, "\"failures\": [\"B=$01 but was $2\", \"STOP!=HALTED but was HALTED\"]");
+
+        String escaped = BatchRunner.toJson(new FarmReport(List.of(new SimulationResult(
+                "a\"b\\c\n", null, null, 0, 0, 0, 0, "bad\tline", List.of(), List.of())), 0, 1));
+        ok &= contains(escaped, "\"name\": \"a\\\"b\\\\c\\n\"");
+        ok &= contains(escaped, "\"stop\": null");
+        ok &= contains(escaped, "\"error\": \"bad\\tline\"");
+
+        System.out.println(ok ? " TEST9 PASS" : " TEST9 FAIL");
+    }
+
+    private static boolean rejects(String what, List<String> lines) {
+        try {
+            ParsedProgram.parse("bad.asm", lines, 100, 0);
+        } catch (IllegalArgumentException expected) {
+            return true;
+        }
+        System.out.println("FAIL " + what + " was accepted");
+        return false;
+    }
+
+    private static boolean contains(String json, String part) {
+        if (json.contains(part)) return true;
+        System.out.println("FAIL JSON lacks " + part + "\n" + json);
+        return false;
+    }
+
+    private static boolean check(String what, Object expected, Object actual) {
+        if (Objects.equals(expected, actual)) return true;
+        System.out.printf("FAIL %s: expected %s, got %s%n", what, expected, actual);
+        return false;
+    }
+}
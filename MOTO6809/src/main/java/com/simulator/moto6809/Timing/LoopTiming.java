@@ -0,0 +1,27 @@
+package com.simulator.moto6809.Timing;
+
+/**
+ * One loop of the control-flow graph: a header and the branches that jump back to it.
+ *
+ * @param header           first address of the body (target of the backward branch)
+ * @param tail             highest address among the branches back to the header
+ * @param label            label at the header, or null
+ * @param bound            maximum number of iterations (supplied by the user), or null when unknown
+ * @param iterationCycles  worst-case cost of one pass through the body
+ * @param worstCaseCycles  bound x iteration + the final pass from the header to the exit,
+ *                         or {@link TimingAnalyzer#UNBOUNDED} without a bound
+ */
+public record LoopTiming(int header, int tail, String label, Integer bound,
+                         long iterationCycles, long worstCaseCycles) {
+
+    public boolean isBounded() {
+        return worstCaseCycles != TimingAnalyzer.UNBOUNDED;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("$%04X-$%04X %-16s bound %-6s iteration %-8s total %s",
+                header, tail, label == null ? "" : label, bound == null ? "?" : bound.toString(),
+                TimingAnalyzer.format(iterationCycles), TimingAnalyzer.format(worstCaseCycles));
+    }
+}
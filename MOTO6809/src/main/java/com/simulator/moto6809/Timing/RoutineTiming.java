@@ -0,0 +1,21 @@
+package com.simulator.moto6809.Timing;
+
+/**
+ * Worst-case cost of one routine: from its entry until it returns (RTS / RTI / PULS PC),
+ * callees and bounded loops included.
+ *
+ * @param entry            entry address (reset vector, interrupt vector or JSR/BSR target)
+ * @param name             label at the entry, or the vector name
+ * @param worstCaseCycles  upper bound in cycles, or {@link TimingAnalyzer#UNBOUNDED}
+ */
+public record RoutineTiming(int entry, String name, long worstCaseCycles) {
+
+    public boolean isBounded() {
+        return worstCaseCycles != TimingAnalyzer.UNBOUNDED;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("$%04X %-16s %s", entry, name, TimingAnalyzer.format(worstCaseCycles));
+    }
+}
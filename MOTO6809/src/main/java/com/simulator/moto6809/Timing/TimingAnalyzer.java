@@ -0,0 +1,637 @@
+package com.simulator.moto6809.Timing;
+
+import com.simulator.moto6809.Assembler.AssemblerProgram;
+import com.simulator.moto6809.Assembler.AssemblyResult;
+import com.simulator.moto6809.Decoder.AddressingMode;
+import com.simulator.moto6809.Decoder.IndexedPostbyte;
+import com.simulator.moto6809.Decoder.InstructionSet;
+import com.simulator.moto6809.Execution.CPU.CycleMode;
+import com.simulator.moto6809.Execution.CPU.ExactCycles;
+import com.simulator.moto6809.Resource.InstructionTables;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Static timing analysis of an assembled program (nothing is executed).
+ *
+ *  - every listing row gets its cycle cost: data-sheet worst case (ExactCycles), or with CycleMode.TABLE
+ *    table cycles + indexed postbyte penalty as the CPU counts them in that mode;
+ *  - a control-flow graph is built from the emitted bytes: fall-through, Bxx/LBxx, JMP, JSR/BSR/LBSR,
+ *    RTS/RTI/PULS PC, SWI through its vector;
+ *  - a branch back to a node still on the depth-first path closes a loop: its body is the header plus
+ *    every node that reaches the branch without passing through the header (loops must nest);
+ *  - worst case = longest path, where a loop costs bound x (worst iteration) + the final pass from its
+ *    header to the exit (a loop tested at the top runs its header bound + 1 times) + its worst exit,
+ *    and a call costs the callee's worst case.
+ *
+ * Loop bounds (maximum passes through the whole body) come from the caller (header address -> iterations)
+ * or from a comment on the branch that repeats the loop or on the header line:  {@code BNE LOOP ; LOOP 16}.
+ * A loop without a bound, an indirect jump/call or a recursion makes the enclosing routine
+ * {@link #UNBOUNDED}; each case is listed in {@link TimingReport#warnings()}.
+ * A branch to itself ({@code HALT BRA HALT}) is treated as a halt, not as an endless loop.
+ */
+public final class TimingAnalyzer {
+
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+    private static final long NO_EXIT = Long.MIN_VALUE;
+
+    private static final Pattern LOOP_BOUND = Pattern.compile(";.*\\bLOOP\\b\\s*[=:]?\\s*(\\d{1,9})", Pattern.CASE_INSENSITIVE);
+
+    private static final String[] VECTOR_NAMES = { "SWI3", "SWI2", "FIRQ", "IRQ", "SWI", "NMI", "RESET" };
+    private static final int FIRST_VECTOR = 0xFFF2;
+
+    private final InstructionTables tables;
+    private final CycleMode cycleMode;
+
+    public TimingAnalyzer(InstructionSet instructionSet) {
+        this(instructionSet.tables(), CycleMode.EXACT);
+    }
+
+    public TimingAnalyzer(InstructionSet instructionSet, CycleMode cycleMode) {
+        this(instructionSet.tables(), cycleMode);
+    }
+
+    /**
+     * @param cycleMode EXACT (default): data-sheet worst case per instruction ({@link ExactCycles#worstCase}:
+     *                  taken LBcc, PSHS/PULS per byte, RTI pulling the entire state);
+     *                  TABLE: the CPU's TABLE counting, to compare with a run in that mode
+     */
+    public TimingAnalyzer(InstructionTables tables, CycleMode cycleMode) {
+        if (tables == null) throw new IllegalArgumentException("tables is null");
+        if (cycleMode == null) throw new IllegalArgumentException("cycleMode is null");
+        this.tables = tables;
+        this.cycleMode = cycleMode;
+    }
+
+    public CycleMode cycleMode() { return cycleMode; }
+
+    public TimingReport analyze(AssemblyResult program) {
+        return analyze(program, List.of(), Map.of());
+    }
+
+    /**
+     * @param sourceLines source the program was assembled from (for {@code ; LOOP n} comments), may be empty
+     * @param loopBounds  header address -> maximum iterations; wins over source comments
+     */
+    public TimingReport analyze(AssemblyResult program, List<String> sourceLines, Map<Integer, Integer> loopBounds) {
+        if (program == null) throw new IllegalArgumentException("program is null");
+        return new Analysis(program,
+                sourceLines == null ? List.of() : sourceLines,
+                loopBounds == null ? Map.of() : loopBounds).run();
+    }
+
+    /** Cycle count for reports: "unbounded" for {@link #UNBOUNDED}. */
+    public static String format(long cycles) {
+        return cycles == UNBOUNDED ? "unbounded" : Long.toString(cycles);
+    }
+
+    static long add(long a, long b) {
+        return (a == UNBOUNDED || b == UNBOUNDED) ? UNBOUNDED : a + b;
+    }
+
+    static long times(long n, long cycles) {
+        if (cycles == UNBOUNDED) return UNBOUNDED;
+        return Math.multiplyHigh(n, cycles) != 0 ? UNBOUNDED : n * cycles;
+    }
+
+
+    // Control-flow graph
+
+
+    private enum Flow {
+        NEXT,           // falls through
+        BRANCH,         // conditional: target or fall-through
+        GOTO,           // BRA / LBRA / JMP: target only
+        HALT,           // BRA to itself: the program stops here
+        CALL,           // JSR / BSR / LBSR: callee, then fall-through
+        SWI,            // handler from the vector, then fall-through
+        WAIT,           // CWAI / SYNC: waits for an interrupt, then falls through
+        RETURN,         // RTS / RTI / PULS PC / PULU PC
+        INDIRECT_GOTO,  // JMP ,X / TFR X,PC ...: successors unknown
+        INDIRECT_CALL   // JSR ,X ...: callee unknown
+    }
+
+    private static final class Node {
+        final int row;
+        final int address;
+        final int next;
+        final int cycles;
+        final String mnemonic;
+        final Flow flow;
+        final int target;    // -1 when unknown / none
+
+        Node(int row, int address, int next, int cycles, String mnemonic, Flow flow, int target) {
+            this.row = row;
+            this.address = address;
+            this.next = next;
+            this.cycles = cycles;
+            this.mnemonic = mnemonic;
+            this.flow = flow;
+            this.target = target;
+        }
+
+        int[] successors() {
+            return switch (flow) {
+                case BRANCH -> new int[]{ target, next };
+                case GOTO -> new int[]{ target };
+                case HALT, RETURN, INDIRECT_GOTO -> new int[0];
+                default -> new int[]{ next };
+            };
+        }
+    }
+
+    /** Natural loop of a back edge (header + every node that reaches the branch without the header); TOP = everything. */
+    private static final class Loop {
+        final int id;
+        final int header;
+        int tail;                       // highest address among the branches back to the header
+        Integer bound;
+        final BitSet body;              // null for TOP
+
+        Loop(int id, int header, BitSet body) {
+            this.id = id;
+            this.header = header;
+            this.tail = -1;
+            this.body = body;
+        }
+
+        boolean contains(int address) {
+            return body == null || body.get(address);
+        }
+
+        boolean encloses(Loop other) {
+            if (other == this) return false;
+            if (body == null) return true;
+            if (other.body == null) return false;
+            BitSet outside = (BitSet) other.body.clone();
+            outside.andNot(body);
+            return outside.isEmpty();
+        }
+
+        boolean intersects(Loop other) {
+            return body == null || other.body == null || body.intersects(other.body);
+        }
+
+        int size() {
+            return body == null ? Integer.MAX_VALUE : body.cardinality();
+        }
+    }
+
+
+    // One analysis run (memo tables are per program)
+
+
+    private final class Analysis {
+        private final AssemblyResult program;
+        private final List<AssemblerProgram.ListingRow> listing;
+        private final List<String> source;
+        private final Map<Integer, Integer> suppliedBounds;
+
+        private final NavigableMap<Integer, Node> nodes = new TreeMap<>();
+        private final Map<Integer, Loop> loopsByHeader = new TreeMap<>();
+        private final Loop top = new Loop(0, 0, null);
+        private final Map<Integer, String> names = new HashMap<>();
+
+        private final Map<Long, Long> memo = new HashMap<>();
+        private final Set<Long> inProgress = new HashSet<>();
+        private final Map<Long, Long> exitMemo = new HashMap<>();
+        private final Set<Long> exitInProgress = new HashSet<>();
+        private final Set<String> warnings = new LinkedHashSet<>();
+
+        Analysis(AssemblyResult program, List<String> source, Map<Integer, Integer> suppliedBounds) {
+            this.program = program;
+            this.listing = program.listing();
+            this.source = source;
+            this.suppliedBounds = suppliedBounds;
+        }
+
+        TimingReport run() {
+            int[] rowCycles = new int[listing.size()];
+            for (int i = 0; i < listing.size(); i++) {
+                Node n = decode(i, listing.get(i));
+                rowCycles[i] = (n == null) ? -1 : n.cycles;
+                if (n != null) nodes.put(n.address, n);
+            }
+
+            for (Map.Entry<String, Integer> e : program.symbols().entrySet()) {
+                names.merge(e.getValue() & 0xFFFF, e.getKey(), (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+
+            Map<Integer, String> entries = routineEntries();
+            findLoops(entries.keySet());
+
+            // Innermost loops first, then the whole program, each in descending address order:
+            // successors are mostly known when a node is evaluated, which keeps the recursion shallow.
+            List<Loop> regions = new ArrayList<>(loopsByHeader.values());
+            regions.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            regions.add(top);
+            for (Loop region : regions) {
+                for (Node n : nodes.descendingMap().values()) {
+                    if (region.contains(n.address) && directlyIn(n.address, region)) worst(n.address, region);
+                }
+            }
+
+            List<LoopTiming> loops = new ArrayList<>();
+            for (Loop l : loopsByHeader.values()) {
+                long iteration = worst(l.header, l);
+                long total = loopCycles(l);
+                loops.add(new LoopTiming(l.header, l.tail, names.get(l.header), l.bound, iteration, total));
+            }
+
+            List<RoutineTiming> routines = new ArrayList<>();
+            for (Map.Entry<Integer, String> e : entries.entrySet()) {
+                int entry = e.getKey();
+                long cycles = nodes.containsKey(entry) ? worst(entry, top) : UNBOUNDED;
+                routines.add(new RoutineTiming(entry, e.getValue(), cycles));
+            }
+
+            return new TimingReport(listing, rowCycles, routines, loops, new ArrayList<>(warnings));
+        }
+
+        private Node decode(int row, AssemblerProgram.ListingRow r) {
+            if (!"INSTRUCTION".equals(r.kind) || r.byteCount() == 0) return null;
+            byte[] b = r.bytes();
+
+            int opBytes = ((b[0] & 0xFF) == 0x10 || (b[0] & 0xFF) == 0x11) && b.length >= 2 ? 2 : 1;
+            int opcode = (opBytes == 2) ? ((b[0] & 0xFF) << 8) | (b[1] & 0xFF) : b[0] & 0xFF;
+            int id = tables.idForOpcode(opcode);
+            if (id == InstructionTables.NONE) return null;
+
+            AddressingMode mode = tables.modeForOpcode(opcode);
+            int cycles = tables.cycles(id, mode.ordinal());
+            IndexedPostbyte post = null;
+            if (mode == AddressingMode.INDEXED && b.length > opBytes) {
+                post = IndexedPostbyte.of(b[opBytes]);
+                if (cycleMode == CycleMode.TABLE) cycles += post.cyclePenalty();
+            }
+            if (cycleMode == CycleMode.EXACT) {
+                cycles = ExactCycles.worstCase(opcode, mode, cycles, b.length > opBytes ? b[opBytes] & 0xFF : 0);
+            }
+
+            int address = r.pcBefore;
+            int next = (address + b.length) & 0xFFFF;
+            int target = -1;
+            Flow flow = Flow.NEXT;
+
+            switch (opcode) {
+                case 0x20, 0x16 -> flow = Flow.GOTO;                          // BRA, LBRA
+                case 0x21, 0x1021 -> flow = Flow.NEXT;                        // BRN, LBRN
+                case 0x8D, 0x17, 0x9D, 0xAD, 0xBD -> flow = Flow.CALL;        // BSR, LBSR, JSR
+                case 0x0E, 0x6E, 0x7E -> flow = Flow.GOTO;                    // JMP
+                case 0x39, 0x3B -> flow = Flow.RETURN;                        // RTS, RTI
+                case 0x35, 0x37 -> flow = (b[opBytes] & 0x80) != 0 ? Flow.RETURN : Flow.NEXT; // PULS/PULU with PC
+                case 0x1E, 0x1F -> flow = ((b[opBytes] & 0x0F) == 5 || (opcode == 0x1E && (b[opBytes] & 0xF0) == 0x50))
+                        ? Flow.INDIRECT_GOTO : Flow.NEXT;                     // EXG/TFR into PC
+                case 0x3F, 0x103F, 0x113F -> flow = Flow.SWI;
+                case 0x3C, 0x13 -> flow = Flow.WAIT;                          // CWAI, SYNC
+                default -> {
+                    if (mode == AddressingMode.RELATIVE) flow = Flow.BRANCH;  // Bcc / LBcc
+                }
+            }
+
+            if (flow == Flow.GOTO || flow == Flow.CALL || flow == Flow.BRANCH) {
+                target = staticTarget(b, opBytes, mode, post, next);
+                if (target < 0) flow = (flow == Flow.CALL) ? Flow.INDIRECT_CALL : Flow.INDIRECT_GOTO;
+                else if (flow == Flow.GOTO && target == address) flow = Flow.HALT;
+            } else if (flow == Flow.SWI) {
+                target = vector(opcode == 0x3F ? 0xFFFA : opcode == 0x103F ? 0xFFF4 : 0xFFF2);
+            }
+
+            return new Node(row, address, next, cycles, tables.mnemonic(id), flow, target);
+        }
+
+        // Target known from the bytes alone, -1 otherwise (DIRECT depends on DP, indexed on a register)
+        private int staticTarget(byte[] b, int opBytes, AddressingMode mode, IndexedPostbyte post, int next) {
+            int operand = opBytes;
+            return switch (mode) {
+                case RELATIVE -> (b.length - operand == 1)
+                        ? (next + b[operand]) & 0xFFFF
+                        : (next + (short) (((b[operand] & 0xFF) << 8) | (b[operand + 1] & 0xFF))) & 0xFFFF;
+                case EXTENDED -> ((b[operand] & 0xFF) << 8) | (b[operand + 1] & 0xFF);
+                case INDEXED -> indexedTarget(b, operand + 1, post, next);
+                default -> -1;
+            };
+        }
+
+        private int indexedTarget(byte[] b, int at, IndexedPostbyte post, int next) {
+            if (post == null) return -1;
+            return switch (post.kind()) {
+                case PC_OFFSET8, PC_OFFSET16 -> {
+                    if (post.indirect()) yield -1;
+                    int off = (post.extraBytes() == 1) ? b[at] : (short) (((b[at] & 0xFF) << 8) | (b[at + 1] & 0xFF));
+                    yield (next + off) & 0xFFFF;
+                }
+                case EXTENDED_INDIRECT -> word(((b[at] & 0xFF) << 8) | (b[at + 1] & 0xFF)); // [nn] read from the image
+                default -> -1;
+            };
+        }
+
+        private int vector(int address) {
+            return word(address);
+        }
+
+        // 16-bit word from the assembled image, -1 if not emitted
+        private int word(int address) {
+            int hi = program.byteAt(address);
+            int lo = program.byteAt(address + 1);
+            return (hi < 0 || lo < 0) ? -1 : (hi << 8) | lo;
+        }
+
+        // Back edges = edges to a node still on the depth-first stack, walked from the routine entries first
+        private void findLoops(Set<Integer> entries) {
+            Map<Integer, List<Integer>> predecessors = new HashMap<>();
+            for (Node n : nodes.values()) {
+                for (int s : n.successors()) {
+                    if (nodes.containsKey(s)) predecessors.computeIfAbsent(s, k -> new ArrayList<>()).add(n.address);
+                }
+            }
+
+            Map<Integer, Integer> state = new HashMap<>();     // absent = unvisited, 1 = on stack, 2 = done
+            List<Integer> roots = new ArrayList<>(entries);
+            roots.addAll(nodes.keySet());
+            for (int root : roots) {
+                if (!nodes.containsKey(root) || state.containsKey(root)) continue;
+                ArrayDeque<int[]> stack = new ArrayDeque<>();  // {address, next successor index}
+                stack.push(new int[]{ root, 0 });
+                state.put(root, 1);
+                while (!stack.isEmpty()) {
+                    int[] top = stack.peek();
+                    int[] succ = nodes.get(top[0]).successors();
+                    if (top[1] == succ.length) {
+                        state.put(top[0], 2);
+                        stack.pop();
+                        continue;
+                    }
+                    int s = succ[top[1]++];
+                    if (!nodes.containsKey(s)) continue;
+                    Integer st = state.get(s);
+                    if (st == null) {
+                        state.put(s, 1);
+                        stack.push(new int[]{ s, 0 });
+                    } else if (st == 1) {
+                        addBackEdge(nodes.get(top[0]), s, predecessors);
+                    }
+                }
+            }
+
+            // '; LOOP n' on a header line, or on a branch: innermost loop holding the branch and its target
+            for (Node n : nodes.values()) {
+                Integer b = boundOnLine(n.row);
+                if (b == null) continue;
+                Loop l = loopsByHeader.get(n.address);
+                if (l == null && n.target >= 0) l = innermostLoop(n.address, n.target);
+                if (l == null) warnings.add("'; LOOP " + b + "' at $" + hex(n.address) + " does not close a loop");
+                else l.bound = (l.bound == null) ? b : Math.max(l.bound, b);
+            }
+            for (Loop l : loopsByHeader.values()) {
+                Integer supplied = suppliedBounds.get(l.header);
+                if (supplied != null) l.bound = supplied;
+                if (l.bound != null && l.bound < 0) throw new IllegalArgumentException("Negative loop bound at $" + hex(l.header));
+            }
+
+            List<Loop> all = new ArrayList<>(loopsByHeader.values());
+            for (int i = 0; i < all.size(); i++) {
+                for (int j = i + 1; j < all.size(); j++) {
+                    Loop a = all.get(i), b = all.get(j);
+                    if (a.intersects(b) && !a.encloses(b) && !b.encloses(a)) {
+                        warnings.add("Loops at $" + hex(a.header) + " and $" + hex(b.header) + " overlap without nesting");
+                    }
+                }
+            }
+        }
+
+        private void addBackEdge(Node branch, int header, Map<Integer, List<Integer>> predecessors) {
+            Loop l = loopsByHeader.computeIfAbsent(header, h -> {
+                BitSet body = new BitSet(0x10000);
+                body.set(h);
+                return new Loop(loopsByHeader.size() + 1, h, body);
+            });
+            l.tail = Math.max(l.tail, branch.address);
+
+            ArrayDeque<Integer> work = new ArrayDeque<>();
+            work.push(branch.address);
+            while (!work.isEmpty()) {
+                int a = work.pop();
+                if (l.body.get(a)) continue;
+                l.body.set(a);
+                for (int p : predecessors.getOrDefault(a, List.of())) work.push(p);
+            }
+        }
+
+        private Loop innermostLoop(int a, int b) {
+            Loop best = null;
+            for (Loop l : loopsByHeader.values()) {
+                if (l.contains(a) && l.contains(b) && (best == null || l.size() < best.size())) best = l;
+            }
+            return best;
+        }
+
+        private Integer boundOnLine(int row) {
+            int line = listing.get(row).lineIndex;
+            if (line < 0 || line >= source.size()) return null;
+            Matcher m = LOOP_BOUND.matcher(source.get(line));
+            return m.find() ? Integer.valueOf(m.group(1)) : null;
+        }
+
+        private Map<Integer, String> routineEntries() {
+            Map<Integer, String> entries = new TreeMap<>();
+            for (int v = FIRST_VECTOR; v < 0x10000; v += 2) {
+                int target = vector(v);
+                if (target >= 0) entries.putIfAbsent(target, nameOr(target, VECTOR_NAMES[(v - FIRST_VECTOR) / 2]));
+            }
+            if (!program.definesResetVector() && !program.isEmpty()) {
+                int entry = program.entryPoint();
+                entries.putIfAbsent(entry, nameOr(entry, "ENTRY"));
+            }
+            for (Node n : nodes.values()) {
+                if (n.flow == Flow.CALL) entries.putIfAbsent(n.target, nameOr(n.target, "$" + hex(n.target)));
+            }
+            return entries;
+        }
+
+        private String nameOr(int address, String fallback) {
+            return names.getOrDefault(address, fallback);
+        }
+
+
+        // Worst case
+
+
+        // True if the address belongs to region itself, not to the inside of a nested loop (its header does)
+        private boolean directlyIn(int address, Loop region) {
+            for (Loop l : loopsByHeader.values()) {
+                if (l == region || !l.contains(address) || l.encloses(region)) continue;
+                if (!(l.header == address && region.encloses(l))) return false;
+            }
+            return true;
+        }
+
+        /** Worst cycles from {@code address} until a return, the end of the program or leaving {@code region}. */
+        private long worst(int address, Loop region) {
+            if (!region.contains(address)) return 0;    // loop exit: the continuation is added by loopTotal
+
+            Node n = nodes.get(address);
+            if (n == null) {
+                warnings.add("Flow reaches $" + hex(address) + ", which is not an instruction");
+                return 0;
+            }
+
+            Loop inner = loopsByHeader.get(address);
+            if (inner != null && inner != region && region.encloses(inner)) return loopTotal(inner, region);
+
+            if (!directlyIn(address, region)) {
+                warnings.add("Jump into the middle of a loop at $" + hex(address));
+                return UNBOUNDED;
+            }
+
+            long key = ((long) region.id << 16) | address;
+            Long known = memo.get(key);
+            if (known != null) return known;
+            if (!inProgress.add(key)) {
+                warnings.add("Recursion through $" + hex(address));
+                return UNBOUNDED;
+            }
+
+            long cost = ownCost(n);
+            long tail = 0;
+            for (int s : n.successors()) tail = Math.max(tail, follow(s, region));
+            cost = add(cost, tail);
+
+            inProgress.remove(key);
+            memo.put(key, cost);
+            return cost;
+        }
+
+        // The instruction itself plus what it calls (callee / SWI handler)
+        private long ownCost(Node n) {
+            int address = n.address;
+            long cost = n.cycles;
+            switch (n.flow) {
+                case CALL -> cost = add(cost, callee(n.target, n));
+                case SWI -> cost = add(cost, (n.target < 0) ? 0 : callee(n.target, n));
+                case INDIRECT_CALL -> {
+                    warnings.add("Indirect call at $" + hex(address) + " (" + n.mnemonic + "): callee unknown");
+                    cost = UNBOUNDED;
+                }
+                case INDIRECT_GOTO -> {
+                    warnings.add("Indirect jump at $" + hex(address) + " (" + n.mnemonic + "): successors unknown");
+                    cost = UNBOUNDED;
+                }
+                case WAIT -> warnings.add(n.mnemonic + " at $" + hex(address) + ": time spent waiting for an interrupt is not counted");
+                default -> {}
+            }
+            if (n.flow == Flow.SWI && n.target < 0) {
+                warnings.add(n.mnemonic + " at $" + hex(address) + ": vector not in the program, handler not counted");
+            }
+            return cost;
+        }
+
+        // A branch back to the region's own header ends the iteration
+        private long follow(int address, Loop region) {
+            if (region != top && address == region.header) return 0;
+            return worst(address, region);
+        }
+
+        private long callee(int entry, Node caller) {
+            if (!nodes.containsKey(entry)) {
+                warnings.add(caller.mnemonic + " at $" + hex(caller.address) + " calls $" + hex(entry) + ", which is not an instruction");
+                return UNBOUNDED;
+            }
+            return worst(entry, top);
+        }
+
+        private long loopTotal(Loop loop, Loop region) {
+            long cycles = loopCycles(loop);
+
+            long exit = 0;
+            for (int a = loop.body.nextSetBit(0); a >= 0; a = loop.body.nextSetBit(a + 1)) {
+                for (int s : nodes.get(a).successors()) {
+                    if (!loop.contains(s)) exit = Math.max(exit, follow(s, region));
+                }
+            }
+
+            if (loop.bound == null) {
+                warnings.add("Loop at $" + hex(loop.header)
+                        + (names.containsKey(loop.header) ? " (" + names.get(loop.header) + ")" : "")
+                        + " has no bound: add '; LOOP n' to its branch");
+                return UNBOUNDED;
+            }
+            return add(cycles, exit);
+        }
+
+        /**
+         * Cycles spent inside the loop: bound x (worst iteration) + the final pass from the header to the exit.
+         * A pass leaving through a branch back to the header (DECB / BNE LOOP) is one of the bound iterations;
+         * a loop tested at the top (TSTB / BEQ OUT / ... / BRA LOOP) runs its header once more on the way out.
+         */
+        private long loopCycles(Loop loop) {
+            if (loop.bound == null) return UNBOUNDED;
+            long iteration = worst(loop.header, loop);
+            if (iteration == UNBOUNDED) return UNBOUNDED;
+            long finalPass = toExit(loop.header, loop);
+            return add(times(loop.bound, iteration), finalPass == NO_EXIT ? 0 : finalPass);
+        }
+
+        /**
+         * Worst in-loop cycles from {@code address} to leaving {@code loop} without going back to its header
+         * (continuation after the exit not included). Leaving through a branch back to the header credits one
+         * iteration, already counted in the bound. NO_EXIT when every path returns to the header.
+         */
+        private long toExit(int address, Loop loop) {
+            Node n = nodes.get(address);
+            if (n == null) return 0;                        // reported by worst()
+
+            Loop inner = loopsByHeader.get(address);
+            if (inner != null && inner != loop && loop.encloses(inner)) {
+                long best = NO_EXIT;
+                for (int a = inner.body.nextSetBit(0); a >= 0; a = inner.body.nextSetBit(a + 1)) {
+                    for (int s : nodes.get(a).successors()) {
+                        if (inner.contains(s)) continue;
+                        long v = !loop.contains(s) ? 0 : (s == loop.header) ? NO_EXIT : toExit(s, loop);
+                        best = Math.max(best, v);
+                    }
+                }
+                return best == NO_EXIT ? NO_EXIT : add(loopCycles(inner), best);
+            }
+
+            long key = ((long) loop.id << 16) | address;
+            Long known = exitMemo.get(key);
+            if (known != null) return known;
+            if (!exitInProgress.add(key)) return UNBOUNDED;  // cycle not through the header: reported by worst()
+
+            int[] successors = n.successors();
+            boolean backBranch = false;
+            for (int s : successors) backBranch |= (s == loop.header);
+
+            long best = (successors.length == 0) ? 0 : NO_EXIT;   // RTS/RTI/halt ends the final pass
+            for (int s : successors) {
+                if (s == loop.header) continue;
+                long v;
+                if (!loop.contains(s)) v = backBranch && loop.bound > 0 ? -worst(loop.header, loop) : 0;
+                else v = toExit(s, loop);
+                best = Math.max(best, v);
+            }
+            long cost = (best == NO_EXIT) ? NO_EXIT : add(ownCost(n), best);
+
+            exitInProgress.remove(key);
+            exitMemo.put(key, cost);
+            return cost;
+        }
+    }
+
+    private static String hex(int address) {
+        return String.format("%04X", address & 0xFFFF);
+    }
+}
@@ -0,0 +1,86 @@
+package com.simulator.moto6809.Timing;
+
+import com.simulator.moto6809.Assembler.AssemblerProgram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Result of {@link TimingAnalyzer#analyze}: cycles per listing row, worst case per routine and per loop,
+ * and the places where the analysis had to give up (indirect jumps, loops without a bound, recursion...).
+ */
+public final class TimingReport {
+
+    private final List<AssemblerProgram.ListingRow> listing;
+    private final int[] rowCycles;
+    private final List<RoutineTiming> routines;
+    private final List<LoopTiming> loops;
+    private final List<String> warnings;
+
+    TimingReport(List<AssemblerProgram.ListingRow> listing, int[] rowCycles,
+                 List<RoutineTiming> routines, List<LoopTiming> loops, List<String> warnings) {
+        this.listing = listing;
+        this.rowCycles = rowCycles;
+        this.routines = List.copyOf(routines);
+        this.loops = List.copyOf(loops);
+        this.warnings = List.copyOf(warnings);
+    }
+
+    /** Cycles of listing row {@code row} (one execution, callees excluded), or -1 if the row is not an instruction. */
+    public int rowCycles(int row) {
+        return rowCycles[row];
+    }
+
+    /** Routines in ascending entry order. */
+    public List<RoutineTiming> routines() { return routines; }
+
+    /** Loops in ascending header order. */
+    public List<LoopTiming> loops() { return loops; }
+
+    public List<String> warnings() { return warnings; }
+
+    /** Routine entered at {@code address}, or null. */
+    public RoutineTiming routineAt(int address) {
+        for (RoutineTiming r : routines) {
+            if (r.entry() == (address & 0xFFFF)) return r;
+        }
+        return null;
+    }
+
+    /** Plain-text report: routines, loops, warnings, then the listing annotated with cycles. */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Routines (worst case, cycles)\n");
+        for (RoutineTiming r : routines) sb.append("  ").append(r).append('\n');
+
+        sb.append("\nLoops\n");
+        if (loops.isEmpty()) sb.append("  (none)\n");
+        for (LoopTiming l : loops) sb.append("  ").append(l).append('\n');
+
+        if (!warnings.isEmpty()) {
+            sb.append("\nWarnings\n");
+            for (String w : warnings) sb.append("  ").append(w).append('\n');
+        }
+
+        sb.append("\nListing\n");
+        sb.append(String.format("  %5s  %-5s  %6s  %s%n", "Line", "PC", "Cycles", "Source"));
+        for (int i = 0; i < listing.size(); i++) {
+            AssemblerProgram.ListingRow row = listing.get(i);
+            String cycles = rowCycles[i] < 0 ? "" : Integer.toString(rowCycles[i]);
+            sb.append(String.format("  %5d  $%04X  %6s  %s%n", row.lineIndex, row.pcBefore, cycles, row.source));
+        }
+        return sb.toString();
+    }
+
+    public void write(Path file) throws IOException {
+        Files.writeString(file, format(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
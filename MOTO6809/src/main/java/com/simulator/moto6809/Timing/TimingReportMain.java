@@ -0,0 +1,116 @@
+package com.simulator.moto6809.Timing;
+
+import com.simulator.moto6809.Assembler.AssemblyResult;
+import com.simulator.moto6809.Assembler.OptimizeOptions;
+import com.simulator.moto6809.Bootstrap.Bootstrap;
+import com.simulator.moto6809.Execution.CPU.CycleMode;
+import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Logger.StderrLogger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Headless static timing report: assembles one .asm file and writes the worst-case cycle report
+ * (see {@link TimingAnalyzer}) without running it.
+ *
+ * Usage:
+ *   java ... TimingReportMain [--org $E000] [--loop LABEL=n]... [--optimize] [--table-cycles] [--out report.txt] file.asm
+ *
+ *   --loop LABEL=n   bound for the loop whose header is LABEL (or $addr); wins over '; LOOP n' comments
+ *   --table-cycles   count as the CPU's TABLE cycle mode instead of the data-sheet worst case
+ *
+ * Exit code: 0 when every routine is bounded, 1 otherwise, 2 on usage or assembly errors.
+ */
+public final class TimingReportMain {
+
+    private TimingReportMain() {}
+
+    public static void main(String[] args) throws IOException {
+        Integer origin = null;
+        Path out = null;
+        Path input = null;
+        boolean optimize = false;
+        CycleMode cycleMode = CycleMode.EXACT;
+        Map<String, Integer> loops = new HashMap<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                switch (a) {
+                    case "--org" -> origin = parseAddress(next(args, ++i, a));
+                    case "--out" -> out = Path.of(next(args, ++i, a));
+                    case "--optimize" -> optimize = true;
+                    case "--table-cycles" -> cycleMode = CycleMode.TABLE;
+                    case "--loop" -> {
+                        String kv = next(args, ++i, a);
+                        int eq = kv.indexOf('=');
+                        if (eq <= 0) throw new IllegalArgumentException("Expected LABEL=n: " + kv);
+                        loops.put(kv.substring(0, eq).trim().toUpperCase(), Integer.parseInt(kv.substring(eq + 1).trim()));
+                    }
+                    default -> {
+                        if (a.startsWith("--")) throw new IllegalArgumentException("Unknown option: " + a);
+                        if (input != null) throw new IllegalArgumentException("Only one input file is supported.");
+                        input = Path.of(a);
+                    }
+                }
+            }
+            if (input == null) throw new IllegalArgumentException("No input given.");
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            System.err.println("Usage: java ... TimingReportMain [--org $E000] [--loop LABEL=n]... "
+                    + "[--optimize] [--table-cycles] [--out report.txt] file.asm");
+            System.exit(2);
+            return;
+        }
+
+        List<String> lines = Files.readAllLines(input, StandardCharsets.UTF_8);
+        Bootstrap boot = new Bootstrap(new StderrLogger(LogLevel.WARNING));
+        boot.setOptimizeOptions(optimize ? OptimizeOptions.ALL : null);
+
+        AssemblyResult program;
+        Map<Integer, Integer> bounds = new HashMap<>();
+        try {
+            program = boot.assemble(lines, origin);
+            for (Map.Entry<String, Integer> e : loops.entrySet()) {
+                Integer header = program.symbols().get(e.getKey());
+                bounds.put(header != null ? header & 0xFFFF : parseAddress(e.getKey()), e.getValue());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("ERROR: " + input + ": " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        TimingReport report = new TimingAnalyzer(boot.instructionSet(), cycleMode).analyze(program, lines, bounds);
+        if (out != null) {
+            report.write(out);
+        } else {
+            System.out.print(report.format());
+        }
+
+        boolean bounded = report.routines().stream().allMatch(RoutineTiming::isBounded);
+        System.exit(bounded ? 0 : 1);
+    }
+
+    private static String next(String[] args, int i, String opt) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + opt);
+        return args[i];
+    }
+
+    private static int parseAddress(String s) {
+        String t = s.trim();
+        try {
+            if (t.startsWith("$")) return Integer.parseInt(t.substring(1), 16) & 0xFFFF;
+            if (t.startsWith("0x") || t.startsWith("0X")) return Integer.parseInt(t.substring(2), 16) & 0xFFFF;
+            return Integer.parseInt(t) & 0xFFFF;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown label or bad address: " + s);
+        }
+    }
+}
@@ -1,30 +1,50 @@
 package com.simulator.moto6809.UI;
 
 import com.simulator.moto6809.Assembler.AssemblerProgram;
+import com.simulator.moto6809.Assembler.AssemblyResult;
 import com.simulator.moto6809.Bootstrap.Bootstrap;
 import com.simulator.moto6809.Execution.CPU.CpuStateSnapshot;
+import com.simulator.moto6809.Execution.CPU.MachineView;
 import com.simulator.moto6809.Logger.ILogger;
 import com.simulator.moto6809.Logger.LogLevel;
+import com.simulator.moto6809.Logger.MpscRingBuffer;
 import com.simulator.moto6809.Errors.Response;
 import com.simulator.moto6809.Registers.Register;
+import com.simulator.moto6809.Timing.RoutineTiming;
+import com.simulator.moto6809.Timing.TimingAnalyzer;
+import com.simulator.moto6809.Timing.TimingReport;
 import javafx.application.Platform;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableSet;
 
+import javax.management.JMException;
+
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 public final class CentralController {
 
     // Console
+    // Producers (CPU thread, FX thread) only push into a lock-free ring; pumpUi() drains it once per frame.
+    public static final int MAX_CONSOLE_LINES = 5000;
+    private static final int CONSOLE_QUEUE_CAPACITY = 16384;
+
     private final ObservableList<String> console = FXCollections.observableArrayList();
     public ObservableList<String> consoleLines() { return console; }
 
+    private final MpscRingBuffer<String> consoleQueue = new MpscRingBuffer<>(CONSOLE_QUEUE_CAPACITY);
+    private final AtomicLong consoleDropped = new AtomicLong();
+    private final ArrayList<String> consoleBatch = new ArrayList<>(CONSOLE_QUEUE_CAPACITY); // FX thread only
+    // clear() travels through the ring too, so lines queued before it can't reappear; compared by identity
+    private static final String CLEAR_CONSOLE = new String("<clear>");
+    private final AtomicBoolean consoleClearLost = new AtomicBoolean(); // ring was full when clear() ran
+
     // Bootstrap
     private final Bootstrap boot;
 
@@ -40,6 +60,10 @@ public final class CentralController {
 
     public javafx.collections.ObservableList<ProgramRow> programRows() { return programRows; }
 
+    // Worst-case cycles per routine, shown under the program table
+    private final StringProperty timingSummary = new SimpleStringProperty("");
+    public ReadOnlyStringProperty timingSummaryProperty() { return timingSummary; }
+
 
     private final AtomicReference<CpuStateSnapshot> pendingSnapshot = new AtomicReference<>(null);
 
@@ -101,6 +125,11 @@ public final class CentralController {
     public CentralController() {
         this.boot = new Bootstrap(new UiLogger());
         hookCpuListener();
+        try {
+            boot.metrics().registerMBean("ui");
+        } catch (JMException | SecurityException ex) {
+            logFx("[WARN] Metrics MBean not registered: " + ex.getMessage());
+        }
         // start stopped
         boot.debug().stop();
         pendingSnapshot.set(boot.cpu().snapshot());
@@ -109,11 +138,11 @@ public final class CentralController {
     // -------------------------
     private final class UiLogger implements ILogger {
         @Override public void log(String message, LogLevel level) {
-            String line = "[" + level + "] " + message;
-            Platform.runLater(() -> console.add(line));
+            if (!isEnabled(level)) return;
+            appendConsole("[" + level + "] " + message);
         }
         @Override public void log(Response response, LogLevel level) { log(String.valueOf(response), level); }
-        @Override public void clear() { Platform.runLater(console::clear); }
+        @Override public void clear() { if (!consoleQueue.offer(CLEAR_CONSOLE)) consoleClearLost.set(true); }
         @Override public void setLogFilePath(Path logFilePath) {}
     }
 
@@ -124,7 +153,53 @@ public final class CentralController {
     /** Call from AnimationTimer */
     public void pumpUi() {
         CpuStateSnapshot snap = pendingSnapshot.getAndSet(null);
-        if (snap != null) refreshFromSnapshot(snap);
+        if (snap != null) {
+            refreshFromSnapshot(snap);
+            boot.metrics().uiFramePublished();
+        }
+        drainConsole();
+    }
+
+    // Console pipeline
+
+    private void appendConsole(String line) {
+        if (!consoleQueue.offer(line)) consoleDropped.incrementAndGet();
+    }
+
+    /** FX thread: one bulk addAll per frame, then trim to MAX_CONSOLE_LINES. */
+    private void drainConsole() {
+        consoleQueue.drainTo(consoleBatch, CONSOLE_QUEUE_CAPACITY);
+
+        long dropped = consoleDropped.getAndSet(0);
+        boot.metrics().logLinesDropped(dropped);
+
+        // Everything up to the last clear is stale; a clear that didn't fit in the ring wipes the whole batch
+        boolean cleared = consoleClearLost.getAndSet(false);
+        int keepFrom = cleared ? consoleBatch.size() : 0;
+        for (int i = consoleBatch.size() - 1; !cleared && i >= 0; i--) {
+            if (consoleBatch.get(i) == CLEAR_CONSOLE) { cleared = true; keepFrom = i + 1; }
+        }
+        if (cleared) {
+            console.clear();
+            consoleBatch.subList(0, keepFrom).clear();
+        }
+        if (dropped > 0) consoleBatch.add("[WARN] " + dropped + " console line(s) dropped (output too fast)");
+        if (consoleBatch.isEmpty()) return;
+
+        // Only the newest lines can survive the cap anyway
+        List<String> toAdd = consoleBatch;
+        if (toAdd.size() > MAX_CONSOLE_LINES) {
+            toAdd = toAdd.subList(toAdd.size() - MAX_CONSOLE_LINES, toAdd.size());
+        }
+
+        int overflow = console.size() + toAdd.size() - MAX_CONSOLE_LINES;
+        if (overflow >= console.size()) {
+            console.setAll(toAdd);
+        } else {
+            if (overflow > 0) console.remove(0, overflow);
+            console.addAll(toAdd);
+        }
+        consoleBatch.clear();
     }
 
     private void refreshFromSnapshot(CpuStateSnapshot s) {
@@ -155,7 +230,7 @@ public final class CentralController {
     }
 
     private void logFx(String msg) {
-        Platform.runLater(() -> console.add(msg));
+        appendConsole(msg);
     }
 
     private void submitCpuTask(Runnable r) {
@@ -196,34 +271,51 @@ public final class CentralController {
                 sourceLineCount = lines.size();
                 int origin = (defaultOrigin != null) ? (defaultOrigin & 0xFFFF) : (boot.memory().getROMstart() & 0xFFFF);
 
-                int entry = boot.loadAsmToRom(lines, origin, true);
+                // Assemble once (reusing the previous load for unchanged lines): load, mappings and program table all come from the same result
+                AssemblyResult program = boot.assembleIncremental(lines, origin);
+                int entry = boot.loadProgram(program, true);
 
                 // Build mappings + loaded ROM mask (for safe stop-at-end)
-                List<AssemblerProgram.ListingRow> listing = boot.assembleListing(lines, origin);
-                buildMappingsFromListing(listing);
+                List<AssemblerProgram.ListingRow> listing = program.listing();
+                pcToLine = program.pcToLine();
+                lineToPc = program.lineToPc();
                 buildLoadedRomMaskFromListing(listing);
+                // Static timing (cycles per row, worst case per routine); null if the analysis failed
+                TimingReport timing = analyzeTiming(program, lines);
                 //program table
                 Platform.runLater(() ->
                 {
                     programRows.clear();
-                    for (AssemblerProgram.ListingRow row : listing) {
+                    for (int i = 0; i < listing.size(); i++) {
+                        AssemblerProgram.ListingRow row = listing.get(i);
                         String bytesHex = "";
-                        if (row.bytes != null && !row.bytes.isEmpty()) {
+                        if (row.byteCount() > 0) {
                             StringBuilder sb = new StringBuilder();
-                            for (int b : row.bytes) {
+                            for (int b = 0; b < row.byteCount(); b++) {
                                 if (sb.length() > 0) sb.append(' ');
-                                sb.append(String.format("%02X", b & 0xFF));
+                                sb.append(String.format("%02X", row.byteAt(b)));
                             }
                             bytesHex = sb.toString();
                         }
+                        int cycles = (timing != null) ? timing.rowCycles(i) : -1;
                         programRows.add(new ProgramRow(
                                 row.lineIndex,
                                 row.pcBefore,
                                 bytesHex,
+                                cycles < 0 ? "" : Integer.toString(cycles),
                                 row.source
                         ));
                     }
                 });
+                StringBuilder summary = new StringBuilder();
+                if (timing != null) {
+                    summary.append("Worst case (cycles):");
+                    for (RoutineTiming r : timing.routines()) {
+                        summary.append("  ").append(r.name()).append(' ').append(TimingAnalyzer.format(r.worstCaseCycles()));
+                    }
+                    for (String w : timing.warnings()) logFx("[WARN] Timing: " + w);
+                }
+                Platform.runLater(() -> timingSummary.set(summary.toString()));
 
 
                 // Re-apply editor breakpoints (now mapping exists)
@@ -246,6 +338,16 @@ public final class CentralController {
         });
     }
 
+    // The program is already in ROM: a timing failure must not abort the load (no cycles, empty summary instead)
+    private TimingReport analyzeTiming(AssemblyResult program, List<String> lines) {
+        try {
+            return new TimingAnalyzer(boot.instructionSet(), boot.cpu().cycleMode()).analyze(program, lines, Map.of());
+        } catch (RuntimeException ex) {
+            logFx("[WARN] Timing: " + ex.getMessage());
+            return null;
+        }
+    }
+
     public void resetCpu() {
         submitCpuTask(() -> {
             boot.debug().stop();
@@ -341,9 +443,26 @@ public final class CentralController {
         logFx(String.format("[INFO] RAM[$%04X] = $%02X", a, v));
     }
 
-    // Memory peek (for tables) - synchronous
+    // Memory peek (for tables) - synchronous, same instruction-boundary view as readBlock
     public int peekByte(int address) {
-        return boot.bus().read(address & 0xFFFF) & 0xFF;
+        byte[] one = new byte[1];
+        boot.cpu().readMemoryConsistent(address & 0xFFFF, one, 0, 1);
+        return one[0] & 0xFF;
+    }
+
+    // Memory block read (for tables) - synchronous, consistent with one instruction boundary
+    public void readBlock(int address, byte[] dst, int offset, int length) {
+        boot.cpu().readMemoryConsistent(address, dst, offset, length);
+    }
+
+    /** Registers + memory range from the same instruction boundary (any thread, never blocks the CPU). */
+    public MachineView view(int address, int length) {
+        return boot.cpu().view(address, length);
+    }
+
+    /** FX thread: reports (and clears) the 16-byte rows written since the last call, within [from, to]. */
+    public void drainDirtyRows(int from, int to, java.util.function.IntConsumer rowBase) {
+        boot.bus().drainDirtyRows(from, to, rowBase);
     }
 
     public int romStart() { return boot.memory().getROMstart() & 0xFFFF; }
@@ -425,22 +544,6 @@ public final class CentralController {
         return pcToLine.get(pc & 0xFFFF);
     }
 
-    private void buildMappingsFromListing(List<AssemblerProgram.ListingRow> listing) {
-        Map<Integer, Integer> p2l = new HashMap<>();
-        Map<Integer, Integer> l2p = new HashMap<>();
-
-        for (AssemblerProgram.ListingRow row : listing) {
-            if (row.bytes != null && !row.bytes.isEmpty()) {
-                int pcBefore = row.pcBefore & 0xFFFF;
-                int li = row.lineIndex;
-                p2l.putIfAbsent(pcBefore, li);
-                l2p.put(li, pcBefore);
-            }
-        }
-        pcToLine = Map.copyOf(p2l);
-        lineToPc = Map.copyOf(l2p);
-    }
-
     private void buildLoadedRomMaskFromListing(List<AssemblerProgram.ListingRow> listing) {
         boolean[] mask = new boolean[0x10000];
 
@@ -448,9 +551,9 @@ public final class CentralController {
         loadedRomEnd = romEnd();
 
         for (AssemblerProgram.ListingRow row : listing) {
-            if (row.bytes == null || row.bytes.isEmpty()) continue;
+            if (row.byteCount() == 0) continue;
             int a = row.pcBefore & 0xFFFF;
-            for (int i = 0; i < row.bytes.size(); i++) {
+            for (int i = 0; i < row.byteCount(); i++) {
                 int addr = (a + i) & 0xFFFF;
                 mask[addr] = true;
             }
@@ -199,7 +199,12 @@ public final class MainView {
                 addr -> controller.isRomProgramByte(addr)
         );
 
-        ProgramPane progPane = new ProgramPane(controller.programRows());
+        ramPane.setBlockReader(controller::readBlock);
+        romPane.setBlockReader(controller::readBlock);
+        ramPane.setDirtyRows(controller::drainDirtyRows);
+        romPane.setDirtyRows(controller::drainDirtyRows);
+
+        ProgramPane progPane = new ProgramPane(controller.programRows(), controller.timingSummaryProperty());
         Tab program = new Tab("Program", progPane);
         Tab ram = new Tab("RAM", ramPane);
         Tab rom = new Tab("ROM", romPane);
@@ -395,7 +400,6 @@ public final class MainView {
     public void startUiPump() {
         timer = new AnimationTimer() {
             private long lastUi = 0;
-            private long lastMem = 0;
 
             @Override public void handle(long now) {
                 // UI pump ~60fps
@@ -404,19 +408,15 @@ public final class MainView {
 
                 controller.pumpUi();
 
-                // refresh memory فقط كل 250ms (not 60fps)
-                if (lastMem == 0 || (now - lastMem) > 250_000_000) {
-                    lastMem = now;
-
-                    Object rp = root.getProperties().get("ramPane");
-                    if (rp instanceof MemoryGridPane mg) {
-                        if (!mg.isEditing()) mg.refresh();
-                    }
+                // memory: only rows written since last frame (dirty bitmap in MemoryBus)
+                Object rp = root.getProperties().get("ramPane");
+                if (rp instanceof MemoryGridPane mg) {
+                    if (!mg.isEditing()) mg.refreshDirty();
+                }
 
-                    Object op = root.getProperties().get("romPane");
-                    if (op instanceof MemoryGridPane mg) {
-                        if (!mg.isEditing()) mg.refresh();
-                    }
+                Object op = root.getProperties().get("romPane");
+                if (op instanceof MemoryGridPane mg) {
+                    if (!mg.isEditing()) mg.refreshDirty();
                 }
 
                 Integer line = controller.lineForPc(controller.pcProperty().get());
@@ -1,5 +1,6 @@
 package com.simulator.moto6809.UI;
 
+import com.simulator.moto6809.Profiling.MemoryViewRefreshEvent;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -11,11 +12,30 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.geometry.Pos;
 import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
 import java.util.function.IntPredicate;
 import java.util.function.IntUnaryOperator;
 
 public final class MemoryGridPane extends BorderPane {
 
+    // "00".."FF" computed once (no String.format per byte)
+    private static final String[] HEX = new String[256];
+    static {
+        for (int i = 0; i < 256; i++) HEX[i] = String.format("%02X", i);
+    }
+
+    /** Bulk reader (e.g. MemoryBus.readBlock); when set, a row is fetched with one call instead of 16 peeks. */
+    @FunctionalInterface
+    public interface BlockReader {
+        void read(int address, byte[] dst, int offset, int length);
+    }
+
+    /** Source of changed 16-byte rows (e.g. MemoryBus.drainDirtyRows). */
+    @FunctionalInterface
+    public interface DirtyRows {
+        void drain(int fromAddr, int toAddr, IntConsumer rowBase);
+    }
+
     private final IntUnaryOperator peek;
     private final BiConsumer<Integer, Integer> poke; // null => read-only
     private final boolean editable;
@@ -24,6 +44,7 @@ public final class MemoryGridPane extends BorderPane {
     private final int rangeEnd;
 
     private int base;
+    private int rowsFilled;                 // rows re-read so far (MemoryViewRefresh JFR event)
     private int rowsCount = 16; // 16 rows => 256 bytes per page
 
     private final ObservableList<MemRow> rows = FXCollections.observableArrayList();
@@ -36,6 +57,10 @@ public final class MemoryGridPane extends BorderPane {
     private final TextField rowsField = new TextField();
     private IntPredicate highlightAddr=null;
     private boolean responsiveInstalled = false;
+    private DirtyRows dirtyRows = null;
+    private BlockReader blockReader = null;
+    private final byte[] rowBuffer = new byte[16];
+    private final IntConsumer updateRowAt = this::updateRowAt;
     public MemoryGridPane(String title,
                           IntUnaryOperator peek,
                           BiConsumer<Integer, Integer> pokeOrNull,
@@ -174,7 +199,7 @@ public final class MemoryGridPane extends BorderPane {
                     poke.accept(addr, value);
 
                     //  update model immediately (no waiting for refresh)
-                    row.setCell(colIndex, String.format("%02X", value));
+                    row.setCell(colIndex, HEX[value]);
                     table.refresh();
                 });
             } else {
@@ -224,26 +249,34 @@ public final class MemoryGridPane extends BorderPane {
         table.setMaxHeight(h);
     }
 
-    public void refresh()
-    {
-        rows.clear();
+    public void setBlockReader(BlockReader blockReader) {
+        this.blockReader = blockReader;
+    }
 
-        int addr = base;
-        for (int r = 0; r < rowsCount; r++) {
-            if (addr > rangeEnd) break;
+    public void setDirtyRows(DirtyRows dirtyRows) {
+        this.dirtyRows = dirtyRows;
+    }
 
-            MemRow row = new MemRow(addr & 0xFFFF);
-            for (int i = 0; i < 16; i++) {
-                int a = (addr + i) & 0xFFFF;
-                if (a > rangeEnd) {
-                    row.setCell(i, "");
-                } else {
-                    int b = peek.applyAsInt(a) & 0xFF;
-                    row.setCell(i, String.format("%02X", b));
-                }
-            }
-            rows.add(row);
-            addr = (addr + 16) & 0xFFFF;
+    /** Full refresh: keeps the existing rows when base/count are unchanged, rebuilds them otherwise. */
+    public void refresh()
+    {
+        MemoryViewRefreshEvent event = new MemoryViewRefreshEvent();
+        event.begin();
+        int count = 0;
+        for (int addr = base; count < rowsCount && addr <= rangeEnd; addr += 16) count++;
+
+        boolean sameLayout = rows.size() == count && (count == 0 || rows.get(0).base == base);
+        if (!sameLayout) {
+            MemRow[] fresh = new MemRow[count];
+            for (int r = 0; r < count; r++) fresh[r] = new MemRow((base + r * 16) & 0xFFFF);
+            rows.setAll(fresh);
+        }
+        for (MemRow row : rows) fillRow(row);
+        if (event.shouldCommit()) {
+            event.baseAddress = base;
+            event.rows = rows.size();
+            event.full = true;
+            event.commit();
         }
         // adjust height to exactly visible rows
         //table.setPrefHeight((rows.size() + 1) * table.getFixedCellSize() + 40);
@@ -251,6 +284,49 @@ public final class MemoryGridPane extends BorderPane {
         //installResponsiveSizing();
     }
 
+    /** Per-frame update: only rows written since the last call are re-read (needs setDirtyRows). */
+    public void refreshDirty()
+    {
+        if (dirtyRows == null || rows.isEmpty()) return;
+        MemoryViewRefreshEvent event = new MemoryViewRefreshEvent();
+        event.begin();
+        int filledBefore = rowsFilled;
+        int first = rows.get(0).base;
+        int last = rows.get(rows.size() - 1).base + 15;
+        dirtyRows.drain(first, Math.min(last, rangeEnd), updateRowAt);
+        // frames with nothing dirty are not recorded
+        if (rowsFilled != filledBefore && event.shouldCommit()) {
+            event.baseAddress = base;
+            event.rows = rowsFilled - filledBefore;
+            event.full = false;
+            event.commit();
+        }
+    }
+
+    private void updateRowAt(int rowBase)
+    {
+        // a 16-byte dirty row overlaps two grid rows when base is not 16-aligned
+        int index = Math.floorDiv(rowBase - base, 16);
+        int lastIndex = ((base & 0xF) == 0) ? index : index + 1;
+        for (int i = Math.max(0, index); i <= lastIndex && i < rows.size(); i++) fillRow(rows.get(i));
+    }
+
+    private void fillRow(MemRow row)
+    {
+        rowsFilled++;
+        if (blockReader != null) {
+            int n = Math.min(16, rangeEnd - row.base + 1);
+            blockReader.read(row.base, rowBuffer, 0, n);
+            for (int i = 0; i < 16; i++) row.setCell(i, (i < n) ? HEX[rowBuffer[i] & 0xFF] : "");
+            return;
+        }
+        for (int i = 0; i < 16; i++) {
+            int a = row.base + i;
+            if (a > rangeEnd) row.setCell(i, "");
+            else row.setCell(i, HEX[peek.applyAsInt(a) & 0xFF]); // same String => no change event
+        }
+    }
+
     private static Integer parseHexOrNull(String s) {
         if (s == null) return null;
         String t = s.trim();
@@ -270,7 +346,7 @@ public final class MemoryGridPane extends BorderPane {
 
         MemRow(int base) {
             this.base = base & 0xFFFF;
-            baseText.set(String.format("%04X", this.base));
+            baseText.set(HEX[this.base >> 8] + HEX[this.base & 0xFF]);
             for (int i = 0; i < 16; i++) cells[i] = new SimpleStringProperty("00");
         }
 
@@ -392,7 +468,7 @@ public final class MemoryGridPane extends BorderPane {
 
             // normalize to 2 digits
             int v = Integer.parseInt(t, 16) & 0xFF;
-            String normalized = String.format("%02X", v);
+            String normalized = HEX[v];
 
             commitEdit(normalized); // fires onEditCommit handler
         }
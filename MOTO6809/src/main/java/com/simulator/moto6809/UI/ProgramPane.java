@@ -1,4 +1,5 @@
 package com.simulator.moto6809.UI;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -9,6 +10,11 @@ public final class ProgramPane extends BorderPane {
     private final TableView<ProgramRow> table = new TableView<>();
 
     public ProgramPane(ObservableList<ProgramRow> rows) {
+        this(rows, null);
+    }
+
+    /** @param timingSummary text shown under the table (worst-case cycles per routine), may be null */
+    public ProgramPane(ObservableList<ProgramRow> rows, ObservableValue<String> timingSummary) {
         setPadding(new Insets(8));
         table.setItems(rows);
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
@@ -31,12 +37,22 @@ public final class ProgramPane extends BorderPane {
         cBytes.setMaxWidth(220);
         cBytes.setCellValueFactory(v -> v.getValue().bytesProperty());
 
+        TableColumn<ProgramRow, String> cCycles = new TableColumn<>("Cycles");
+        cCycles.setMaxWidth(70);
+        cCycles.setCellValueFactory(v -> v.getValue().cyclesProperty());
+
         TableColumn<ProgramRow, String> cSrc = new TableColumn<>("Source");
         cSrc.setCellValueFactory(v -> v.getValue().sourceProperty());
 
-        table.getColumns().setAll(cLine, cPc, cBytes, cSrc);
+        table.getColumns().setAll(cLine, cPc, cBytes, cCycles, cSrc);
         setCenter(table);
 
         setTop(new Label("Program listing (line → PC address)"));
+
+        if (timingSummary != null) {
+            Label summary = new Label();
+            summary.textProperty().bind(timingSummary);
+            setBottom(summary);
+        }
     }
 }
@@ -10,11 +10,17 @@ public final class ProgramRow {
     private final IntegerProperty pc = new SimpleIntegerProperty();
     private final StringProperty bytes = new SimpleStringProperty();
     private final StringProperty source = new SimpleStringProperty();
+    private final StringProperty cycles = new SimpleStringProperty();
 
     public ProgramRow(int line, int pc, String bytes, String source) {
+        this(line, pc, bytes, "", source);
+    }
+
+    public ProgramRow(int line, int pc, String bytes, String cycles, String source) {
         this.line.set(line);
         this.pc.set(pc & 0xFFFF);
         this.bytes.set(bytes);
+        this.cycles.set(cycles);
         this.source.set(source);
     }
 
@@ -22,4 +28,5 @@ public final class ProgramRow {
     public IntegerProperty pcProperty() { return pc; }
     public StringProperty bytesProperty() { return bytes; }
     public StringProperty sourceProperty() { return source; }
+    public StringProperty cyclesProperty() { return cycles; }
 }
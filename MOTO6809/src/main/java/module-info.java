@@ -11,6 +11,8 @@ module com.simulator.moto6809 {
     requires eu.hansolo.tilesfx;
     requires com.almasb.fxgl.all;
     requires java.logging;
+    requires java.management;
+    requires jdk.jfr;
     requires org.fxmisc.richtext;
     requires org.fxmisc.flowless;
     requires javafx.graphics;